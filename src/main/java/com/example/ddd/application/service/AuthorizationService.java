@@ -2,6 +2,7 @@ package com.example.ddd.application.service;
 
 import com.example.ddd.application.ApplicationService;
 import com.example.ddd.domain.model.entity.*;
+import com.example.ddd.domain.model.valueobject.OrderView;
 import com.example.ddd.domain.repository.*;
 import com.example.ddd.infrastructure.security.SecurityUtil;
 import com.example.ddd.interfaces.rest.exception.ForbiddenException;
@@ -28,6 +29,7 @@ public class AuthorizationService extends ApplicationService {
     private final ShopRepository shopRepository;
     private final ProductRepository productRepository;
     private final PaymentRepository paymentRepository;
+    private final OrderViewRepository orderViewRepository;
 
     // ==================== 地址权限校验 ====================
 
@@ -72,7 +74,7 @@ public class AuthorizationService extends ApplicationService {
      */
     public void checkOrderOwnership(Long orderId) {
         Long currentUserId = SecurityUtil.getCurrentUserId();
-        Order order = orderRepository.findById(orderId);
+        Order order = findOrderView(orderId);
         if (order == null) {
             throw new NotFoundException("订单不存在");
         }
@@ -119,7 +121,7 @@ public class AuthorizationService extends ApplicationService {
      */
     public void checkOrderMerchantAccess(Long orderId) {
         Long currentUserId = SecurityUtil.getCurrentUserId();
-        Order order = orderRepository.findById(orderId);
+        Order order = findOrderView(orderId);
         if (order == null) {
             throw new NotFoundException("订单不存在");
         }
@@ -130,6 +132,17 @@ public class AuthorizationService extends ApplicationService {
         }
     }
 
+    /**
+     * 从订单读模型获取订单，用户和店铺归属不会变化，读模型的延迟不影响校验结果
+     *
+     * @param orderId 订单ID
+     * @return 订单，不存在时返回 null
+     */
+    private Order findOrderView(Long orderId) {
+        OrderView view = orderViewRepository.findById(orderId);
+        return view != null ? view.getOrder() : null;
+    }
+
     // ==================== 购物车权限校验 ====================
 
     /**
@@ -259,7 +272,7 @@ public class AuthorizationService extends ApplicationService {
         if (payment == null) {
             throw new NotFoundException("支付记录不存在");
         }
-        Order order = orderRepository.findById(payment.getOrderId());
+        Order order = findOrderView(payment.getOrderId());
         if (order == null || !order.getUserId().equals(currentUserId)) {
             log.warn("用户 {} 尝试访问不属于自己的支付记录 {}", currentUserId, paymentId);
             throw new ForbiddenException("无权访问该支付记录");
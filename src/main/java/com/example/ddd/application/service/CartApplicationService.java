@@ -16,6 +16,10 @@ import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * 购物车应用服务
@@ -94,36 +98,42 @@ public class CartApplicationService extends ApplicationService {
 
     /**
      * 获取购物车列表（包含商品信息）
+     * SKU、商品、主图各一次批量查询后在内存中组装，查询次数与购物车商品数无关
      */
     public List<CartItemVO> getCartItemsWithProductInfo(Long userId) {
         beforeExecute();
         try {
             List<CartItem> cartItems = cartDomainService.getCartItems(userId);
-            List<CartItemVO> result = new ArrayList<>();
+            if (cartItems.isEmpty()) {
+                return List.of();
+            }
+
+            // 批量获取SKU信息
+            Map<Long, ProductSku> skuMap = productSkuRepository.findByIds(
+                    cartItems.stream().map(CartItem::getSkuId).collect(Collectors.toSet())
+            ).stream().collect(Collectors.toMap(ProductSku::getId, Function.identity()));
+
+            // 批量获取商品信息
+            Set<Long> productIds = skuMap.values().stream()
+                    .map(ProductSku::getProductId)
+                    .collect(Collectors.toSet());
+            Map<Long, Product> productMap = productIds.isEmpty() ? Map.of()
+                    : productRepository.findByIds(productIds).stream()
+                    .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+            // 批量获取商品主图（从文件服务获取）
+            Map<Long, FileUploadResponse> mainImages = productMap.isEmpty() ? Map.of()
+                    : fileApplicationService.getMainImages(BizType.PRODUCT_IMAGE, productMap.keySet());
 
+            List<CartItemVO> result = new ArrayList<>(cartItems.size());
             for (CartItem item : cartItems) {
-                // 获取SKU信息
-                ProductSku sku = productSkuRepository.findById(item.getSkuId());
-
-                // 获取商品信息
-                Product product = null;
-                if (sku != null) {
-                    product = productRepository.findById(sku.getProductId());
-                }
-
-                // 获取商品主图（从文件服务获取）
-                String mainImage = null;
-                if (product != null) {
-                    FileUploadResponse mainImageFile = fileApplicationService.getMainImage(
-                            BizType.PRODUCT_IMAGE, product.getId());
-                    if (mainImageFile != null) {
-                        mainImage = mainImageFile.getUrl();
-                    }
-                }
+                ProductSku sku = skuMap.get(item.getSkuId());
+                Product product = sku != null ? productMap.get(sku.getProductId()) : null;
+                FileUploadResponse mainImageFile = product != null ? mainImages.get(product.getId()) : null;
+                String mainImage = mainImageFile != null ? mainImageFile.getUrl() : null;
 
                 // 构建VO
-                CartItemVO vo = CartItemVO.from(item, sku, product, mainImage);
-                result.add(vo);
+                result.add(CartItemVO.from(item, sku, product, mainImage));
             }
 
             return result;
@@ -2,6 +2,7 @@ package com.example.ddd.application.service;
 
 import com.example.ddd.application.ApplicationService;
 import com.example.ddd.domain.model.entity.Category;
+import com.example.ddd.domain.model.valueobject.CategoryTree;
 import com.example.ddd.domain.repository.CategoryRepository;
 import com.example.ddd.domain.service.CategoryDomainService;
 import lombok.RequiredArgsConstructor;
@@ -85,8 +86,9 @@ public class CategoryApplicationService extends ApplicationService {
 
     /**
      * 获取分类树
+     * 分类数据未变化时返回同一个只读快照
      */
-    public List<Category> getCategoryTree() {
+    public CategoryTree getCategoryTree() {
         beforeExecute();
         try {
             return categoryDomainService.getCategoryTree();
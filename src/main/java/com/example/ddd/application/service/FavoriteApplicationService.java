@@ -3,17 +3,17 @@ package com.example.ddd.application.service;
 import com.example.ddd.application.ApplicationService;
 import com.example.ddd.domain.model.entity.Favorite;
 import com.example.ddd.domain.model.entity.Product;
-import com.example.ddd.domain.model.entity.ProductSku;
 import com.example.ddd.domain.service.FavoriteDomainService;
 import com.example.ddd.domain.repository.ProductRepository;
-import com.example.ddd.domain.repository.ProductSkuRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * 收藏应用服务
@@ -27,7 +27,7 @@ public class FavoriteApplicationService extends ApplicationService {
 
     private final FavoriteDomainService favoriteDomainService;
     private final ProductRepository productRepository;
-    private final ProductSkuRepository productSkuRepository;
+    private final ProductApplicationService productApplicationService;
 
     /**
      * 切换收藏状态
@@ -59,51 +59,36 @@ public class FavoriteApplicationService extends ApplicationService {
 
     /**
      * 获取用户收藏的商品列表
+     * 商品批量查询，价格、库存和主图复用商品列表的批量填充逻辑
      */
     public List<Product> getUserFavoriteProducts(Long userId) {
         beforeExecute();
         try {
             List<Favorite> favorites = favoriteDomainService.getUserFavorites(userId);
+            if (favorites.isEmpty()) {
+                return new ArrayList<>();
+            }
+            List<Long> productIds = favorites.stream()
+                    .map(Favorite::getProductId)
+                    .collect(Collectors.toList());
+            Map<Long, Product> productMap = productRepository.findByIds(productIds).stream()
+                    .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+            // 保持收藏顺序
             List<Product> products = new ArrayList<>();
-            for (Favorite favorite : favorites) {
-                Product product = productRepository.findById(favorite.getProductId());
+            for (Long productId : productIds) {
+                Product product = productMap.get(productId);
                 if (product != null) {
-                    fillProductPriceAndStock(product);
                     products.add(product);
                 }
             }
+            productApplicationService.fillProductPriceAndStock(products);
             return products;
         } finally {
             afterExecute();
         }
     }
 
-    /**
-     * 填充商品价格和库存信息
-     */
-    private void fillProductPriceAndStock(Product product) {
-        List<ProductSku> skus = productSkuRepository.findByProductId(product.getId());
-        if (skus != null && !skus.isEmpty()) {
-            // 计算最低价格
-            BigDecimal minPrice = skus.stream()
-                    .filter(sku -> sku.getPrice() != null)
-                    .map(sku -> sku.getPrice().getValue())
-                    .min(BigDecimal::compareTo)
-                    .orElse(BigDecimal.ZERO);
-            product.setMinPrice(minPrice);
-
-            // 计算总库存
-            int totalStock = skus.stream()
-                    .filter(sku -> sku.getStock() != null)
-                    .mapToInt(sku -> sku.getStock().getValue())
-                    .sum();
-            product.setTotalStock(totalStock);
-        } else {
-            product.setMinPrice(BigDecimal.ZERO);
-            product.setTotalStock(0);
-        }
-    }
-
     /**
      * 获取用户收藏数量
      */
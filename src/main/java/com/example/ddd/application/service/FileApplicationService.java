@@ -6,6 +6,7 @@ import com.example.ddd.domain.model.valueobject.BizType;
 import com.example.ddd.domain.model.valueobject.FileStatus;
 import com.example.ddd.domain.model.valueobject.StorageType;
 import com.example.ddd.domain.repository.FileRepository;
+import com.example.ddd.infrastructure.cache.LocalCache;
 import com.example.ddd.infrastructure.storage.StorageProperties;
 import com.example.ddd.infrastructure.storage.StorageService;
 import com.example.ddd.interfaces.rest.dto.FileUploadResponse;
@@ -19,8 +20,14 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -40,6 +47,22 @@ public class FileApplicationService extends ApplicationService {
 
     private static final DateTimeFormatter DATE_PATH_FORMATTER = DateTimeFormatter.ofPattern("yyyy/MM/dd");
 
+    /**
+     * fileKey -> 访问URL 缓存的最大条目数
+     */
+    private static final int URL_CACHE_MAX_SIZE = 10000;
+
+    /**
+     * fileKey -> 访问URL 缓存的过期时间（分钟）
+     */
+    private static final long URL_CACHE_TTL_MINUTES = 10;
+
+    /**
+     * fileKey -> 访问URL 缓存，文件删除时移除
+     */
+    private final LocalCache<String, String> urlCache =
+            new LocalCache<>(URL_CACHE_MAX_SIZE, TimeUnit.MINUTES.toMillis(URL_CACHE_TTL_MINUTES));
+
     /**
      * 上传文件（待绑定状态）
      *
@@ -190,6 +213,20 @@ public class FileApplicationService extends ApplicationService {
                 .orElse(null);
     }
 
+    /**
+     * 批量获取多个业务对象的主图（第一个文件）
+     *
+     * @param bizType 业务类型
+     * @param bizIds  业务ID集合
+     * @return 业务ID -> 主图信息（没有主图的业务ID不包含在内）
+     */
+    public Map<Long, FileUploadResponse> getMainImages(BizType bizType, Collection<Long> bizIds) {
+        Map<Long, FileInfo> files = fileRepository.findFirstByBizTypeAndBizIds(bizType, bizIds);
+        Map<Long, FileUploadResponse> result = new HashMap<>(files.size() * 2);
+        files.forEach((bizId, fileInfo) -> result.put(bizId, toResponse(fileInfo)));
+        return result;
+    }
+
     /**
      * 根据fileKey获取文件信息
      *
@@ -202,6 +239,38 @@ public class FileApplicationService extends ApplicationService {
                 .orElse(null);
     }
 
+    /**
+     * 批量获取文件访问URL
+     * 先查本地缓存，未命中的 fileKey 合并为一次查询
+     *
+     * @param fileKeys 文件唯一标识集合
+     * @return fileKey -> 访问URL（不存在的文件不包含在内）
+     */
+    public Map<String, String> getUrlsByFileKeys(Collection<String> fileKeys) {
+        if (fileKeys == null || fileKeys.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, String> result = new HashMap<>(fileKeys.size() * 2);
+        Set<String> missing = new LinkedHashSet<>();
+        for (String fileKey : fileKeys) {
+            String url = urlCache.get(fileKey);
+            if (url != null) {
+                result.put(fileKey, url);
+            } else {
+                missing.add(fileKey);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (FileInfo fileInfo : fileRepository.findByFileKeys(missing)) {
+                if (fileInfo.getAccessUrl() != null) {
+                    urlCache.put(fileInfo.getFileKey(), fileInfo.getAccessUrl());
+                    result.put(fileInfo.getFileKey(), fileInfo.getAccessUrl());
+                }
+            }
+        }
+        return result;
+    }
+
     /**
      * 删除文件
      *
@@ -215,6 +284,7 @@ public class FileApplicationService extends ApplicationService {
         // 标记删除（不立即删除物理文件，由定时任务清理）
         fileInfo.markDeleted(storageProperties.getPendingExpireDays());
         fileRepository.save(fileInfo);
+        urlCache.invalidate(fileKey);
 
         log.info("文件标记删除成功: fileKey={}, expireTime={}", fileKey, fileInfo.getExpireTime());
     }
@@ -231,6 +301,7 @@ public class FileApplicationService extends ApplicationService {
         for (FileInfo file : files) {
             file.markDeleted(storageProperties.getPendingExpireDays());
             fileRepository.save(file);
+            urlCache.invalidate(file.getFileKey());
         }
         log.info("业务关联文件标记删除完成: bizType={}, bizId={}, count={}", bizType, bizId, files.size());
     }
@@ -256,6 +327,7 @@ public class FileApplicationService extends ApplicationService {
 
             // 逻辑删除数据库记录
             fileRepository.delete(file.getId());
+            urlCache.invalidate(file.getFileKey());
             count++;
         }
         log.info("清理过期文件完成: {}个", count);
@@ -0,0 +1,97 @@
+package com.example.ddd.application.service;
+
+import com.example.ddd.application.ApplicationService;
+import com.example.ddd.domain.model.entity.ProductSku;
+import com.example.ddd.domain.repository.ProductSkuRepository;
+import com.example.ddd.domain.service.StockReservationDomainService;
+import com.example.ddd.infrastructure.stock.FlashSaleProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+
+/**
+ * 秒杀库存应用服务
+ *
+ * @author DDD Demo
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FlashSaleApplicationService extends ApplicationService {
+
+    private final StockReservationDomainService stockReservationDomainService;
+    private final ProductSkuRepository productSkuRepository;
+    private final FlashSaleProperties flashSaleProperties;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 开启SKU秒杀
+     */
+    public boolean enableFlashSale(Long productId, Long skuId) {
+        beforeExecute();
+        try {
+            checkSkuOfProduct(productId, skuId);
+            return stockReservationDomainService.enableFlashSale(skuId);
+        } finally {
+            afterExecute();
+        }
+    }
+
+    /**
+     * 关闭SKU秒杀
+     */
+    public void disableFlashSale(Long productId, Long skuId) {
+        beforeExecute();
+        try {
+            checkSkuOfProduct(productId, skuId);
+            stockReservationDomainService.disableFlashSale(skuId);
+        } finally {
+            afterExecute();
+        }
+    }
+
+    /**
+     * 回写秒杀预扣库存
+     *
+     * @return 有回写的SKU数量
+     */
+    public int flushPendingStock() {
+        beforeExecute();
+        try {
+            return stockReservationDomainService.flushPending();
+        } finally {
+            afterExecute();
+        }
+    }
+
+    /**
+     * 秒杀库存对账
+     * 先回写预扣量再对账，差异按SKU计入 flash.sale.reconcile.mismatches 指标
+     *
+     * @return SKU ID -> 差异
+     */
+    public Map<Long, Integer> reconcileStock() {
+        beforeExecute();
+        try {
+            stockReservationDomainService.flushPending();
+            Map<Long, Integer> mismatches = stockReservationDomainService.reconcile(flashSaleProperties.isAutoCorrect());
+            mismatches.forEach((skuId, diff) -> {
+                log.warn("秒杀库存不一致: skuId={}, diff={}, corrected={}", skuId, diff, flashSaleProperties.isAutoCorrect());
+                meterRegistry.counter("flash.sale.reconcile.mismatches", "skuId", skuId.toString()).increment();
+            });
+            return mismatches;
+        } finally {
+            afterExecute();
+        }
+    }
+
+    private void checkSkuOfProduct(Long productId, Long skuId) {
+        ProductSku sku = productSkuRepository.findById(skuId);
+        if (sku == null || !sku.getProductId().equals(productId)) {
+            throw new IllegalArgumentException("商品SKU不存在");
+        }
+    }
+}
@@ -8,21 +8,39 @@ import com.example.ddd.domain.model.entity.CartItem;
 import com.example.ddd.domain.model.entity.Order;
 import com.example.ddd.domain.model.entity.OrderItem;
 import com.example.ddd.domain.model.entity.ProductSku;
+import com.example.ddd.domain.model.valueobject.KeysetCursor;
 import com.example.ddd.domain.model.valueobject.Money;
+import com.example.ddd.domain.model.valueobject.OrderStatus;
+import com.example.ddd.domain.model.valueobject.OrderView;
 import com.example.ddd.domain.repository.AddressRepository;
 import com.example.ddd.domain.repository.CartItemRepository;
+import com.example.ddd.domain.repository.IdempotencyStore;
 import com.example.ddd.domain.repository.OrderItemRepository;
 import com.example.ddd.domain.repository.OrderRepository;
+import com.example.ddd.domain.repository.OrderViewRepository;
 import com.example.ddd.domain.repository.ProductSkuRepository;
 import com.example.ddd.domain.service.OrderDomainService;
+import com.example.ddd.infrastructure.idempotency.OrderIdempotencyProperties;
 import com.example.ddd.interfaces.rest.dto.OrderCreateRequest;
+import com.example.ddd.interfaces.rest.exception.BusinessException;
+import com.example.ddd.interfaces.rest.exception.NotFoundException;
+import com.example.ddd.interfaces.rest.vo.CursorPage;
 import com.example.ddd.interfaces.rest.vo.OrderDetailVO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * 订单应用服务
@@ -34,12 +52,114 @@ import java.util.List;
 @RequiredArgsConstructor
 public class OrderApplicationService extends ApplicationService {
 
+    /**
+     * 导出时每批读取的订单数
+     */
+    private static final int EXPORT_CHUNK_SIZE = 500;
+
+    /**
+     * 幂等结果中订单ID与请求指纹的分隔符
+     */
+    private static final char RESULT_SEPARATOR = '|';
+
     private final OrderDomainService orderDomainService;
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final CartItemRepository cartItemRepository;
     private final AddressRepository addressRepository;
     private final ProductSkuRepository productSkuRepository;
+    private final OrderViewRepository orderViewRepository;
+    private final IdempotencyStore idempotencyStore;
+    private final OrderIdempotencyProperties idempotencyProperties;
+
+    /**
+     * 从请求创建订单（幂等）
+     * 同一用户同一幂等键只会真正下单一次：首个请求占用幂等键并在成功后记录订单ID，
+     * 并发或后续的重复请求等待并返回同一订单（从订单读模型读取，不访问数据库）；
+     * 幂等键与请求指纹绑定，同一个键用于内容不同的请求时拒绝；
+     * 只有下单本身失败时才释放幂等键，客户端可以用同一个键重试。
+     * 订单已提交后记录结果失败不释放幂等键，否则客户端重试会重复下单
+     *
+     * @param userId         用户ID
+     * @param request        下单请求
+     * @param idempotencyKey 幂等键，为空时不做幂等处理
+     * @return 订单
+     */
+    public Order createOrderFromRequest(Long userId, OrderCreateRequest request, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return createOrderFromRequest(userId, request);
+        }
+        if (idempotencyKey.length() > idempotencyProperties.getMaxKeyLength()) {
+            throw new IllegalArgumentException("幂等键长度不能超过" + idempotencyProperties.getMaxKeyLength());
+        }
+
+        String key = "order:" + userId + ":" + idempotencyKey;
+        String fingerprint = fingerprint(request);
+        long deadline = System.currentTimeMillis() + idempotencyProperties.getWaitTimeoutMs();
+        while (!idempotencyStore.tryBegin(key, Duration.ofSeconds(idempotencyProperties.getProcessingTtlSeconds()))) {
+            String result = idempotencyStore.getResult(key);
+            if (result != null) {
+                int separator = result.indexOf(RESULT_SEPARATOR);
+                if (separator < 0 || !fingerprint.equals(result.substring(separator + 1))) {
+                    throw new BusinessException(422, "幂等键已用于内容不同的下单请求");
+                }
+                Long orderId = Long.valueOf(result.substring(0, separator));
+                log.info("重复提交订单，返回已创建的订单: userId={}, orderId={}", userId, orderId);
+                OrderView view = orderViewRepository.findById(orderId);
+                if (view == null) {
+                    throw new NotFoundException("订单", orderId);
+                }
+                return view.getOrder();
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                throw new BusinessException(409, "订单正在提交中，请勿重复提交");
+            }
+            try {
+                Thread.sleep(idempotencyProperties.getPollIntervalMs());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BusinessException(409, "订单正在提交中，请勿重复提交");
+            }
+        }
+
+        Order order;
+        try {
+            order = createOrderFromRequest(userId, request);
+        } catch (RuntimeException e) {
+            idempotencyStore.release(key);
+            throw e;
+        }
+        completeIdempotencyKey(key, order.getId() + String.valueOf(RESULT_SEPARATOR) + fingerprint);
+        return order;
+    }
+
+    /**
+     * 记录下单结果，失败时重试；仍失败只记录日志，幂等键保持处理中直到过期，期间的重复请求不会重复下单
+     */
+    private void completeIdempotencyKey(String key, String result) {
+        Duration ttl = Duration.ofSeconds(idempotencyProperties.getTtlSeconds());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                idempotencyStore.complete(key, result, ttl);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= idempotencyProperties.getCompleteMaxAttempts()) {
+                    log.error("记录下单幂等结果失败，订单已创建: key={}, result={}", key, result, e);
+                    return;
+                }
+                log.warn("记录下单幂等结果失败，重试第 {} 次: key={}, error={}", attempt, key, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 下单请求指纹：收货地址、购物车项（按请求顺序）和备注
+     */
+    static String fingerprint(OrderCreateRequest request) {
+        String content = request.getAddressId() + "|" + request.getCartItemIds() + "|"
+                + Objects.toString(request.getRemark(), "");
+        return DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8));
+    }
 
     /**
      * 从请求创建订单
@@ -53,10 +173,12 @@ public class OrderApplicationService extends ApplicationService {
                 throw new RuntimeException("收货地址不存在");
             }
 
-            // 获取购物车项
+            // 获取购物车项（一次批量查询，保持请求中的顺序）
+            Map<Long, CartItem> cartItemMap = cartItemRepository.findByIds(request.getCartItemIds()).stream()
+                    .collect(Collectors.toMap(CartItem::getId, Function.identity()));
             List<CartItem> cartItems = new ArrayList<>();
             for (Long cartItemId : request.getCartItemIds()) {
-                CartItem item = cartItemRepository.findById(cartItemId);
+                CartItem item = cartItemMap.get(cartItemId);
                 if (item != null) {
                     cartItems.add(item);
                 }
@@ -76,10 +198,13 @@ public class OrderApplicationService extends ApplicationService {
             order.setRemark(request.getRemark());
 
             // 创建订单项
+            Map<Long, ProductSku> skuMap = productSkuRepository.findByIds(
+                    cartItems.stream().map(CartItem::getSkuId).collect(Collectors.toSet())
+            ).stream().collect(Collectors.toMap(ProductSku::getId, Function.identity()));
             List<OrderItem> orderItems = new ArrayList<>();
             for (CartItem cartItem : cartItems) {
                 // 从SKU获取商品信息
-                ProductSku sku = productSkuRepository.findById(cartItem.getSkuId());
+                ProductSku sku = skuMap.get(cartItem.getSkuId());
                 if (sku == null) {
                     throw new RuntimeException("SKU不存在: " + cartItem.getSkuId());
                 }
@@ -134,6 +259,20 @@ public class OrderApplicationService extends ApplicationService {
         }
     }
 
+    /**
+     * 超时自动取消订单
+     *
+     * @return 是否取消成功，订单已支付或已取消时返回 false
+     */
+    public boolean cancelTimeoutOrder(Long orderId) {
+        beforeExecute();
+        try {
+            return orderDomainService.cancelTimeoutOrder(orderId);
+        } finally {
+            afterExecute();
+        }
+    }
+
     /**
      * 支付订单
      */
@@ -184,16 +323,16 @@ public class OrderApplicationService extends ApplicationService {
 
     /**
      * 获取订单详情（包含订单项）
+     * 从订单读模型读取，一次查询得到订单和明细
      */
     public OrderDetailVO getOrderDetailById(Long orderId) {
         beforeExecute();
         try {
-            Order order = orderRepository.findById(orderId);
-            if (order == null) {
+            OrderView view = orderViewRepository.findById(orderId);
+            if (view == null) {
                 return null;
             }
-            List<OrderItem> items = orderItemRepository.findByOrderId(orderId);
-            return OrderDetailVO.from(order, items);
+            return OrderDetailVO.from(view.getOrder(), view.getItems());
         } finally {
             afterExecute();
         }
@@ -237,11 +376,13 @@ public class OrderApplicationService extends ApplicationService {
 
     /**
      * 分页查询用户订单
+     *
+     * @param status 订单状态值，为空时查询全部状态
      */
     public IPage<Order> pageOrdersByUserId(Long current, Long size, Long userId, Integer status) {
         beforeExecute();
         try {
-            return orderRepository.pageByUserId(new Page<>(current, size), userId);
+            return orderRepository.pageByUserId(new Page<>(current, size), userId, toOrderStatus(status));
         } finally {
             afterExecute();
         }
@@ -249,13 +390,109 @@ public class OrderApplicationService extends ApplicationService {
 
     /**
      * 分页查询店铺订单
+     *
+     * @param status 订单状态值，为空时查询全部状态
      */
     public IPage<Order> pageOrdersByShopId(Long current, Long size, Long shopId, Integer status) {
         beforeExecute();
         try {
-            return orderRepository.pageByShopId(new Page<>(current, size), shopId);
+            return orderRepository.pageByShopId(new Page<>(current, size), shopId, toOrderStatus(status));
+        } finally {
+            afterExecute();
+        }
+    }
+
+    /**
+     * 游标分页查询用户订单（不执行 COUNT 查询）
+     *
+     * @param cursor 上一页返回的游标，第一页为空
+     * @param size   每页条数
+     * @param userId 用户ID
+     * @return 游标分页结果
+     */
+    public CursorPage<Order> scrollOrdersByUserId(String cursor, Integer size, Long userId) {
+        beforeExecute();
+        try {
+            int limit = CursorPage.normalizeSize(size);
+            List<Order> rows = orderRepository.listByUserIdAfter(userId, KeysetCursor.decode(cursor), limit + 1);
+            return CursorPage.of(rows, limit, o -> KeysetCursor.of(o.getCreateTime(), o.getId()));
+        } finally {
+            afterExecute();
+        }
+    }
+
+    /**
+     * 游标分页查询店铺订单（不执行 COUNT 查询）
+     *
+     * @param cursor 上一页返回的游标，第一页为空
+     * @param size   每页条数
+     * @param shopId 店铺ID
+     * @return 游标分页结果
+     */
+    public CursorPage<Order> scrollOrdersByShopId(String cursor, Integer size, Long shopId) {
+        beforeExecute();
+        try {
+            int limit = CursorPage.normalizeSize(size);
+            List<Order> rows = orderRepository.listByShopIdAfter(shopId, KeysetCursor.decode(cursor), limit + 1);
+            return CursorPage.of(rows, limit, o -> KeysetCursor.of(o.getCreateTime(), o.getId()));
         } finally {
             afterExecute();
         }
     }
+
+    /**
+     * 分批导出店铺订单
+     * 按 (创建时间, ID) 倒序游标逐批读取订单（最新的订单在前），每批一次查询带出明细后交给调用方写出，
+     * 同一时刻只持有一批数据，内存占用与导出总量无关
+     *
+     * @param shopId    店铺ID
+     * @param status    订单状态值，为空时导出全部状态
+     * @param startTime 创建时间下限（含），为空时不限
+     * @param endTime   创建时间上限（不含），为空时不限
+     * @param consumer  每批订单视图的处理（写出）
+     * @return 导出的订单数
+     */
+    public long exportOrdersByShopId(Long shopId, Integer status, LocalDateTime startTime,
+                                     LocalDateTime endTime, Consumer<List<OrderView>> consumer) {
+        beforeExecute();
+        try {
+            OrderStatus orderStatus = toOrderStatus(status);
+            KeysetCursor cursor = null;
+            long total = 0;
+            while (true) {
+                List<Order> orders = orderRepository.listByShopIdAfter(
+                        shopId, orderStatus, startTime, endTime, cursor, EXPORT_CHUNK_SIZE);
+                if (orders.isEmpty()) {
+                    break;
+                }
+                Map<Long, List<OrderItem>> itemsByOrderId = orderItemRepository.findByOrderIds(
+                        orders.stream().map(Order::getId).toList()
+                ).stream().collect(Collectors.groupingBy(OrderItem::getOrderId));
+
+                List<OrderView> views = new ArrayList<>(orders.size());
+                for (Order order : orders) {
+                    views.add(new OrderView(order, itemsByOrderId.getOrDefault(order.getId(), List.of())));
+                }
+                consumer.accept(views);
+                total += orders.size();
+
+                if (orders.size() < EXPORT_CHUNK_SIZE) {
+                    break;
+                }
+                Order last = orders.get(orders.size() - 1);
+                cursor = KeysetCursor.of(last.getCreateTime(), last.getId());
+            }
+            log.info("店铺订单导出完成: shopId={}, total={}", shopId, total);
+            return total;
+        } finally {
+            afterExecute();
+        }
+    }
+
+    /**
+     * 状态筛选参数转换（OrderStatus.fromValue 对空值返回待支付，这里空值表示不筛选）
+     */
+    private OrderStatus toOrderStatus(Integer status) {
+        return status != null ? OrderStatus.fromValue(status) : null;
+    }
 }
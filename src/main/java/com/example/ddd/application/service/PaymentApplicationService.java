@@ -2,12 +2,26 @@ package com.example.ddd.application.service;
 
 import com.example.ddd.application.ApplicationService;
 import com.example.ddd.domain.model.entity.Payment;
+import com.example.ddd.domain.model.entity.PaymentCallback;
+import com.example.ddd.domain.model.valueobject.PaymentCallbackStatus;
+import com.example.ddd.domain.model.valueobject.PaymentEvent;
 import com.example.ddd.domain.model.valueobject.PaymentMethod;
+import com.example.ddd.domain.repository.IdempotencyStore;
+import com.example.ddd.domain.repository.PaymentCallbackQueue;
+import com.example.ddd.domain.repository.PaymentCallbackRepository;
 import com.example.ddd.domain.repository.PaymentRepository;
+import com.example.ddd.domain.service.PaymentCallbackDomainService;
 import com.example.ddd.domain.service.PaymentDomainService;
+import com.example.ddd.infrastructure.queue.PaymentCallbackProperties;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
 
 /**
  * 支付应用服务
@@ -21,6 +35,10 @@ public class PaymentApplicationService extends ApplicationService {
 
     private final PaymentDomainService paymentDomainService;
     private final PaymentRepository paymentRepository;
+    private final PaymentCallbackRepository paymentCallbackRepository;
+    private final PaymentCallbackQueue paymentCallbackQueue;
+    private final IdempotencyStore idempotencyStore;
+    private final PaymentCallbackProperties paymentCallbackProperties;
 
     /**
      * 创建支付
@@ -82,6 +100,94 @@ public class PaymentApplicationService extends ApplicationService {
         }
     }
 
+    /**
+     * 接收支付网关回调（支付成功、支付失败、退款成功、退款失败）
+     * 按 (支付单号, 事件, 交易流水号) 去重：先用 Redis 标记挡住重试风暴，再落库（唯一键兜底）后入队异步处理，
+     * 调用方随即应答网关。落库失败时释放去重标记并抛出异常，由网关重试
+     *
+     * @param paymentNo     支付单号
+     * @param event         回调事件
+     * @param transactionId 第三方交易流水号
+     * @return true 如果是首次收到，false 表示重复回调
+     */
+    public boolean receiveCallback(String paymentNo, PaymentEvent event, String transactionId) {
+        beforeExecute();
+        try {
+            if (!StringUtils.hasText(paymentNo)) {
+                throw new IllegalArgumentException("支付单号不能为空");
+            }
+            if (event == null || !PaymentCallbackDomainService.CALLBACK_EVENTS.contains(event)) {
+                throw new IllegalArgumentException("不支持的回调事件: " + event);
+            }
+            if (!StringUtils.hasText(transactionId)) {
+                throw new IllegalArgumentException("交易流水号不能为空");
+            }
+
+            String dedupKey = "payment:callback:" + paymentNo + ":" + event.name() + ":" + transactionId;
+            if (!idempotencyStore.tryBegin(dedupKey, Duration.ofSeconds(paymentCallbackProperties.getDedupTtlSeconds()))) {
+                log.debug("重复的支付回调: paymentNo={}, event={}, transactionId={}", paymentNo, event, transactionId);
+                return false;
+            }
+
+            PaymentCallback callback = new PaymentCallback();
+            callback.setPaymentNo(paymentNo);
+            callback.setEvent(event);
+            callback.setTransactionId(transactionId);
+            callback.setStatus(PaymentCallbackStatus.PENDING);
+            callback.setRetryCount(0);
+            // 入队后在处理期限内未记录结果时，由重试任务重新入队
+            callback.setNextRetryTime(LocalDateTime.now().plusSeconds(paymentCallbackProperties.getProcessingTimeoutSeconds()));
+            try {
+                if (!paymentCallbackRepository.saveIfAbsent(callback)) {
+                    return false;
+                }
+            } catch (RuntimeException e) {
+                idempotencyStore.release(dedupKey);
+                throw e;
+            }
+
+            if (!paymentCallbackQueue.offer(callback)) {
+                log.warn("支付回调队列已满，等待重试任务处理: paymentNo={}, event={}", paymentNo, event);
+            }
+            return true;
+        } finally {
+            afterExecute();
+        }
+    }
+
+    /**
+     * 把已到处理时间的待处理回调重新入队（处理失败待重试、队列满未入队、进程退出时未处理完）
+     * 入队前先推迟下次处理时间，避免下一轮扫描重复入队；同一回调被重复处理时由条件更新保证只生效一次
+     *
+     * @return 入队数量
+     */
+    public int requeueDueCallbacks() {
+        beforeExecute();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<PaymentCallback> due = paymentCallbackRepository.findDue(now, paymentCallbackProperties.getRetryBatchSize());
+            if (due.isEmpty()) {
+                return 0;
+            }
+            paymentCallbackRepository.postpone(due.stream().map(PaymentCallback::getId).toList(),
+                    now.plusSeconds(paymentCallbackProperties.getProcessingTimeoutSeconds()));
+
+            // 按接收顺序入队，同一支付单的回调在同一工作队列中按ID顺序处理
+            List<PaymentCallback> ordered = due.stream().sorted(Comparator.comparing(PaymentCallback::getId)).toList();
+            int queued = 0;
+            for (PaymentCallback callback : ordered) {
+                if (!paymentCallbackQueue.offer(callback)) {
+                    log.warn("支付回调队列已满，{} 条回调等待下次重试", due.size() - queued);
+                    break;
+                }
+                queued++;
+            }
+            return queued;
+        } finally {
+            afterExecute();
+        }
+    }
+
     /**
      * 获取支付记录
      */
@@ -0,0 +1,71 @@
+package com.example.ddd.application.service;
+
+import com.example.ddd.application.ApplicationService;
+import com.example.ddd.domain.model.valueobject.ReconcileResult;
+import com.example.ddd.domain.repository.SettlementFileRepository;
+import com.example.ddd.domain.repository.SettlementRecordReader;
+import com.example.ddd.domain.service.PaymentReconcileDomainService;
+import com.example.ddd.infrastructure.reconcile.ReconcileProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+
+/**
+ * 支付对账应用服务
+ *
+ * @author DDD Demo
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PaymentReconcileApplicationService extends ApplicationService {
+
+    private final PaymentReconcileDomainService paymentReconcileDomainService;
+    private final SettlementFileRepository settlementFileRepository;
+    private final ReconcileProperties reconcileProperties;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 判断指定日期的对账文件是否已下载
+     */
+    public boolean isSettlementFileReady(LocalDate settleDate) {
+        beforeExecute();
+        try {
+            return settlementFileRepository.exists(settleDate);
+        } finally {
+            afterExecute();
+        }
+    }
+
+    /**
+     * 对账：比对指定日期的渠道对账文件与本地支付记录，差异写入差异表
+     *
+     * @param settleDate 对账日期
+     * @return 对账结果
+     */
+    public ReconcileResult reconcile(LocalDate settleDate) {
+        beforeExecute();
+        try (SettlementRecordReader reader = settlementFileRepository.open(settleDate)) {
+            ReconcileResult result = paymentReconcileDomainService.reconcile(settleDate, reader,
+                    reconcileProperties.getChunkSize(), reconcileProperties.getReportBatchSize());
+            meterRegistry.counter("payment.reconcile.lines").increment(result.getLines());
+            meterRegistry.counter("payment.reconcile.mismatches").increment(result.getMismatches());
+            meterRegistry.timer("payment.reconcile.duration").record(result.getElapsed());
+            DistributionSummary.builder("payment.reconcile.throughput")
+                    .baseUnit("lines/s")
+                    .register(meterRegistry)
+                    .record(result.getLinesPerSecond());
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException("对账文件读取失败: " + settleDate, e);
+        } finally {
+            afterExecute();
+        }
+    }
+}
@@ -3,31 +3,35 @@ package com.example.ddd.application.service;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.example.ddd.application.ApplicationService;
-import com.example.ddd.domain.model.entity.Category;
 import com.example.ddd.domain.model.entity.Product;
 import com.example.ddd.domain.model.entity.ProductImage;
 import com.example.ddd.domain.model.entity.ProductSku;
 import com.example.ddd.domain.model.valueobject.BizType;
+import com.example.ddd.domain.model.valueobject.KeysetCursor;
 import com.example.ddd.domain.model.valueobject.Money;
+import com.example.ddd.domain.model.valueobject.ProductSkuSummary;
 import com.example.ddd.domain.model.valueobject.ProductStatus;
 import com.example.ddd.domain.model.valueobject.Quantity;
 import com.example.ddd.domain.repository.CategoryRepository;
 import com.example.ddd.domain.repository.ProductImageRepository;
 import com.example.ddd.domain.repository.ProductRepository;
+import com.example.ddd.domain.repository.ProductSearchRepository;
 import com.example.ddd.domain.repository.ProductSkuRepository;
 import com.example.ddd.domain.service.ProductDomainService;
 import com.example.ddd.interfaces.rest.dto.FileUploadResponse;
 import com.example.ddd.interfaces.rest.dto.ProductCreateRequest;
 import com.example.ddd.interfaces.rest.dto.ProductUpdateRequest;
+import com.example.ddd.interfaces.rest.vo.CursorPage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * 商品应用服务
@@ -45,6 +49,7 @@ public class ProductApplicationService extends ApplicationService {
     private final ProductSkuRepository productSkuRepository;
     private final ProductImageRepository productImageRepository;
     private final FileApplicationService fileApplicationService;
+    private final ProductSearchRepository productSearchRepository;
 
     /**
      * 创建商品
@@ -150,42 +155,33 @@ public class ProductApplicationService extends ApplicationService {
         beforeExecute();
         try {
             List<ProductImage> images = productImageRepository.findByProductId(productId);
-            if (images == null || images.isEmpty()) {
-                // 从文件服务获取图片
-                List<FileUploadResponse> files = fileApplicationService.getFilesByBusiness(
-                        BizType.PRODUCT_IMAGE, productId);
-                if (files != null && !files.isEmpty()) {
-                    return files.stream()
-                            .map(FileUploadResponse::getUrl)
-                            .collect(java.util.stream.Collectors.toList());
+            List<String> imageUrls = images == null ? List.of() : images.stream()
+                    .map(ProductImage::getImageUrl)
+                    .filter(url -> url != null && !url.isEmpty())
+                    .collect(Collectors.toList());
+
+            // 将 imageUrl (fileKey) 批量转换为完整 URL，已经是完整URL的直接使用
+            List<String> fileKeys = imageUrls.stream()
+                    .filter(url -> !isAbsoluteUrl(url))
+                    .collect(Collectors.toList());
+            Map<String, String> fileUrls = fileApplicationService.getUrlsByFileKeys(fileKeys);
+
+            List<String> urls = new ArrayList<>(imageUrls.size());
+            for (String imageUrl : imageUrls) {
+                String url = isAbsoluteUrl(imageUrl) ? imageUrl : fileUrls.get(imageUrl);
+                if (url != null) {
+                    urls.add(url);
                 }
-                return new ArrayList<>();
             }
-            // 将 imageUrl (fileKey) 转换为完整 URL
-            List<String> urls = new ArrayList<>();
-            for (ProductImage image : images) {
-                String imageUrl = image.getImageUrl();
-                if (imageUrl != null && !imageUrl.isEmpty()) {
-                    // 检查是否已经是完整URL
-                    if (imageUrl.startsWith("http://") || imageUrl.startsWith("https://")) {
-                        urls.add(imageUrl);
-                    } else {
-                        // 从文件服务获取URL
-                        FileUploadResponse file = fileApplicationService.getByFileKey(imageUrl);
-                        if (file != null && file.getUrl() != null) {
-                            urls.add(file.getUrl());
-                        }
-                    }
-                }
-            }
-            // 如果图片表为空，尝试从文件服务获取
+
+            // 图片表为空或无法解析时，从文件服务获取
             if (urls.isEmpty()) {
                 List<FileUploadResponse> files = fileApplicationService.getFilesByBusiness(
                         BizType.PRODUCT_IMAGE, productId);
                 if (files != null && !files.isEmpty()) {
                     urls = files.stream()
                             .map(FileUploadResponse::getUrl)
-                            .collect(java.util.stream.Collectors.toList());
+                            .collect(Collectors.toList());
                 }
             }
             return urls;
@@ -194,6 +190,13 @@ public class ProductApplicationService extends ApplicationService {
         }
     }
 
+    /**
+     * 判断是否为完整URL
+     */
+    private boolean isAbsoluteUrl(String url) {
+        return url.startsWith("http://") || url.startsWith("https://");
+    }
+
     /**
      * 根据店铺获取商品列表
      */
@@ -210,47 +213,49 @@ public class ProductApplicationService extends ApplicationService {
     }
 
     /**
-     * 填充商品的价格和库存信息（从SKU聚合）
-     * 同时填充商品主图（从文件服务获取）
+     * 填充商品的价格和库存信息
+     * 最低价格和总库存已持久化在商品表中，这里只补齐默认值，不再查询SKU
+     * 同时填充商品主图（从文件服务获取），整页商品只发起一次主图查询
+     *
+     * @param products 商品列表
      */
-    private void fillProductPriceAndStock(List<Product> products) {
+    public void fillProductPriceAndStock(List<Product> products) {
         if (products == null || products.isEmpty()) {
-            log.info("fillProductPriceAndStock: products is null or empty");
             return;
         }
+        List<Long> productIds = products.stream()
+                .map(Product::getId)
+                .distinct()
+                .collect(Collectors.toList());
+
+        Map<Long, FileUploadResponse> mainImages = fileApplicationService.getMainImages(BizType.PRODUCT_IMAGE, productIds);
+
         for (Product product : products) {
-            List<ProductSku> skus = productSkuRepository.findByProductId(product.getId());
-            log.info("fillProductPriceAndStock: productId={}, skuCount={}", product.getId(), skus != null ? skus.size() : 0);
-            if (skus != null && !skus.isEmpty()) {
-                // 计算最低价格
-                BigDecimal minPrice = skus.stream()
-                        .filter(sku -> sku.getPrice() != null)
-                        .map(sku -> sku.getPrice().getValue())
-                        .min(BigDecimal::compareTo)
-                        .orElse(BigDecimal.ZERO);
-                product.setMinPrice(minPrice);
-                log.info("fillProductPriceAndStock: set minPrice={} for productId={}", minPrice, product.getId());
-
-                // 计算总库存
-                int totalStock = skus.stream()
-                        .filter(sku -> sku.getStock() != null)
-                        .mapToInt(sku -> sku.getStock().getValue())
-                        .sum();
-                product.setTotalStock(totalStock);
-                log.info("fillProductPriceAndStock: set totalStock={} for productId={}", totalStock, product.getId());
-            } else {
-                product.setMinPrice(BigDecimal.ZERO);
-                product.setTotalStock(0);
-                log.info("fillProductPriceAndStock: no SKUs found for productId={}, setting defaults", product.getId());
-            }
+            ProductSkuSummary summary = ProductSkuSummary.of(product.getId(), product.getMinPrice(), product.getTotalStock());
+            product.setMinPrice(summary.getMinPrice());
+            product.setTotalStock(summary.getTotalStock());
 
-            // 填充商品主图（从文件服务获取）
-            FileUploadResponse mainImage = fileApplicationService.getMainImage(BizType.PRODUCT_IMAGE, product.getId());
+            FileUploadResponse mainImage = mainImages.get(product.getId());
             if (mainImage != null && mainImage.getUrl() != null) {
                 product.setMainImage(mainImage.getUrl());
-                log.info("fillProductPriceAndStock: set mainImage for productId={}", product.getId());
             }
         }
+        log.debug("fillProductPriceAndStock: productCount={}, mainImageCount={}",
+                products.size(), mainImages.size());
+    }
+
+    /**
+     * 修复商品SKU汇总偏差
+     *
+     * @return 修复的商品数量
+     */
+    public int rebuildSkuSummaries() {
+        beforeExecute();
+        try {
+            return productDomainService.rebuildSkuSummaries();
+        } finally {
+            afterExecute();
+        }
     }
 
     /**
@@ -260,7 +265,7 @@ public class ProductApplicationService extends ApplicationService {
         beforeExecute();
         try {
             // 收集当前分类及所有子分类ID
-            List<Long> categoryIds = collectCategoryIds(categoryId);
+            List<Long> categoryIds = categoryRepository.findSubtreeIds(categoryId);
 
             List<Product> products = productRepository.findByCategoryIds(categoryIds);
             // 填充每个商品的价格和库存信息
@@ -271,32 +276,6 @@ public class ProductApplicationService extends ApplicationService {
         }
     }
 
-    /**
-     * 递归收集分类及其所有子分类的ID
-     */
-    private List<Long> collectCategoryIds(Long categoryId) {
-        List<Long> ids = new java.util.ArrayList<>();
-        ids.add(categoryId);
-
-        // 递归获取所有子分类
-        collectChildCategoryIds(categoryId, ids);
-
-        return ids;
-    }
-
-    /**
-     * 递归收集子分类ID
-     */
-    private void collectChildCategoryIds(Long parentId, List<Long> ids) {
-        List<Category> children = categoryRepository.findByParentId(parentId);
-        if (children != null && !children.isEmpty()) {
-            for (Category child : children) {
-                ids.add(child.getId());
-                collectChildCategoryIds(child.getId(), ids);
-            }
-        }
-    }
-
     /**
      * 分页查询商品
      */
@@ -317,13 +296,44 @@ public class ProductApplicationService extends ApplicationService {
         }
     }
 
+    /**
+     * 游标分页查询商品
+     * 按 (创建时间, ID) 倒序，不执行 COUNT 查询，深翻页耗时不随页码增长
+     *
+     * @param cursor 上一页返回的游标，第一页为空
+     * @param size   每页条数
+     * @param shopId 店铺ID，为空时查询在售商品
+     * @return 游标分页结果
+     */
+    public CursorPage<Product> scrollProducts(String cursor, Integer size, Long shopId) {
+        beforeExecute();
+        try {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            int limit = CursorPage.normalizeSize(size);
+            List<Product> rows = shopId != null
+                    ? productRepository.listByShopIdAfter(shopId, after, limit + 1)
+                    : productRepository.listOnSaleAfter(after, limit + 1);
+            CursorPage<Product> page = CursorPage.of(rows, limit, p -> KeysetCursor.of(p.getCreateTime(), p.getId()));
+            fillProductPriceAndStock(page.getRecords());
+            return page;
+        } finally {
+            afterExecute();
+        }
+    }
+
     /**
      * 搜索商品
+     * 通过搜索索引得到按相关度排序的商品ID，再批量加载商品
      */
     public List<Product> searchProducts(String keyword) {
         beforeExecute();
         try {
-            List<Product> products = productRepository.searchByKeyword(keyword);
+            if (keyword == null || keyword.isBlank()) {
+                List<Product> products = productRepository.findByStatus(ProductStatus.ON_SALE);
+                fillProductPriceAndStock(products);
+                return products;
+            }
+            List<Product> products = loadSearchHits(productSearchRepository.search(keyword));
             fillProductPriceAndStock(products);
             return products;
         } finally {
@@ -333,18 +343,50 @@ public class ProductApplicationService extends ApplicationService {
 
     /**
      * 分页搜索商品
+     * 总数和分页都取自索引，在排序后的商品ID上分页，只加载当前页的商品；
+     * 索引在商品变更提交后刷新，刷新前的过期命中只在当前页内过滤，该页可能短于分页大小
      */
     public IPage<Product> pageSearchProducts(Long current, Long size, String keyword) {
         beforeExecute();
         try {
-            IPage<Product> page = productRepository.pageSearchByKeyword(new Page<>(current, size), keyword);
-            fillProductPriceAndStock(page.getRecords());
+            if (keyword == null || keyword.isBlank()) {
+                IPage<Product> page = productRepository.pageOnSale(new Page<>(current, size));
+                fillProductPriceAndStock(page.getRecords());
+                return page;
+            }
+            List<Long> productIds = productSearchRepository.search(keyword);
+            Page<Product> page = new Page<>(current, size, productIds.size());
+            long from = Math.min((Math.max(current, 1) - 1) * size, productIds.size());
+            long to = Math.min(from + size, productIds.size());
+            List<Product> products = loadSearchHits(productIds.subList((int) from, (int) to));
+            fillProductPriceAndStock(products);
+            page.setRecords(products);
             return page;
         } finally {
             afterExecute();
         }
     }
 
+    /**
+     * 按搜索结果顺序批量加载商品
+     * 索引刷新存在延迟，这里再过滤掉已删除或已不在售的商品
+     */
+    private List<Product> loadSearchHits(List<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Product> productMap = productRepository.findByIds(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, p -> p));
+        List<Product> products = new ArrayList<>(productIds.size());
+        for (Long productId : productIds) {
+            Product product = productMap.get(productId);
+            if (product != null && product.getStatus() == ProductStatus.ON_SALE) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
     /**
      * 从请求DTO创建商品（同时创建默认SKU）
      */
@@ -0,0 +1,163 @@
+package com.example.ddd.application.service;
+
+import com.example.ddd.application.ApplicationService;
+import com.example.ddd.domain.model.entity.Product;
+import com.example.ddd.domain.model.entity.ProductSku;
+import com.example.ddd.infrastructure.config.ProductDetailExecutorConfig;
+import com.example.ddd.infrastructure.config.ProductDetailProperties;
+import com.example.ddd.interfaces.rest.exception.NotFoundException;
+import com.example.ddd.interfaces.rest.vo.ProductDetailVO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 商品聚合详情应用服务
+ * SKU、图片、评价统计在有界线程池上并行加载，每个部分独立超时，任一部分超时或失败时降级为空，
+ * 返回部分响应而不阻塞整个页面；商品本身不可降级，提交其余部分后在请求线程上同步加载，
+ * 不受部分超时限制，加载异常原样抛出
+ *
+ * @author DDD Demo
+ */
+@Slf4j
+@Service
+public class ProductDetailApplicationService extends ApplicationService {
+
+    static final String PART_PRODUCT = "product";
+    static final String PART_SKUS = "skus";
+    static final String PART_IMAGES = "images";
+    static final String PART_REVIEW_STATS = "reviewStats";
+
+    private static final String METRIC_PART_LATENCY = "product.detail.part";
+    private static final String METRIC_DEGRADED = "product.detail.degraded";
+
+    private final ProductApplicationService productApplicationService;
+    private final ReviewApplicationService reviewApplicationService;
+    private final Executor executor;
+    private final ProductDetailProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public ProductDetailApplicationService(ProductApplicationService productApplicationService,
+                                           ReviewApplicationService reviewApplicationService,
+                                           @Qualifier(ProductDetailExecutorConfig.PRODUCT_DETAIL_EXECUTOR) Executor executor,
+                                           ProductDetailProperties properties,
+                                           MeterRegistry meterRegistry) {
+        this.productApplicationService = productApplicationService;
+        this.reviewApplicationService = reviewApplicationService;
+        this.executor = executor;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 获取商品聚合详情
+     *
+     * @param productId 商品ID
+     * @return 聚合详情，降级的部分记录在 degradedParts 中
+     */
+    public ProductDetailVO getProductDetail(Long productId) {
+        beforeExecute();
+        try {
+            long startNanos = System.nanoTime();
+
+            CompletableFuture<List<ProductSku>> skusFuture = submit(PART_SKUS,
+                    () -> productApplicationService.getProductSkus(productId));
+            CompletableFuture<List<String>> imagesFuture = submit(PART_IMAGES,
+                    () -> productApplicationService.getProductImageUrls(productId));
+            CompletableFuture<Map<String, Object>> reviewStatsFuture = submit(PART_REVIEW_STATS,
+                    () -> reviewApplicationService.getReviewStats(productId));
+
+            // 商品本身不可降级：其余部分已在线程池上开始加载，这里同步加载商品
+            Product product = timed(PART_PRODUCT, () -> productApplicationService.getProductById(productId)).get();
+            if (product == null) {
+                throw new NotFoundException("商品", productId);
+            }
+
+            ProductDetailVO detail = new ProductDetailVO();
+            detail.setProduct(product);
+            detail.setSkus(await(PART_SKUS, skusFuture, startNanos, detail));
+            detail.setImageUrls(await(PART_IMAGES, imagesFuture, startNanos, detail));
+            detail.setReviewStats(await(PART_REVIEW_STATS, reviewStatsFuture, startNanos, detail));
+
+            if (detail.isPartial()) {
+                log.warn("商品详情部分降级: productId={}, parts={}", productId, detail.getDegradedParts());
+            }
+            return detail;
+        } finally {
+            afterExecute();
+        }
+    }
+
+    /**
+     * 提交一个部分到线程池，任务内记录该部分的真实耗时
+     */
+    private <T> CompletableFuture<T> submit(String part, Supplier<T> loader) {
+        try {
+            return CompletableFuture.supplyAsync(timed(part, loader), executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 包装加载逻辑，按部分和结果记录耗时
+     */
+    private <T> Supplier<T> timed(String part, Supplier<T> loader) {
+        return () -> {
+            long start = System.nanoTime();
+            String outcome = "success";
+            try {
+                return loader.get();
+            } catch (RuntimeException e) {
+                outcome = "error";
+                throw e;
+            } finally {
+                Timer.builder(METRIC_PART_LATENCY)
+                        .tag("part", part)
+                        .tag("outcome", outcome)
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+
+    /**
+     * 在该部分的截止时间内等待结果，超时或失败时记录降级并返回 null
+     * 所有部分同时开始，截止时间从请求开始计算，因此总耗时不超过最大的单部分超时
+     */
+    private <T> T await(String part, CompletableFuture<T> future, long startNanos, ProductDetailVO detail) {
+        long deadline = startNanos + TimeUnit.MILLISECONDS.toNanos(properties.getTimeoutMs(part));
+        long remaining = Math.max(0L, deadline - System.nanoTime());
+        try {
+            return future.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            return degrade(part, "timeout", detail, e);
+        } catch (ExecutionException e) {
+            String reason = e.getCause() instanceof RejectedExecutionException ? "rejected" : "error";
+            return degrade(part, reason, detail, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return degrade(part, "interrupted", detail, e);
+        }
+    }
+
+    private <T> T degrade(String part, String reason, ProductDetailVO detail, Throwable cause) {
+        meterRegistry.counter(METRIC_DEGRADED, "part", part, "reason", reason).increment();
+        log.debug("商品详情部分降级: part={}, reason={}, cause={}", part, reason, String.valueOf(cause));
+        detail.getDegradedParts().add(part);
+        return null;
+    }
+}
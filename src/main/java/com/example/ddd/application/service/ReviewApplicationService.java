@@ -3,9 +3,12 @@ package com.example.ddd.application.service;
 import com.example.ddd.application.ApplicationService;
 import com.example.ddd.domain.model.entity.Review;
 import com.example.ddd.domain.model.entity.ReviewReply;
+import com.example.ddd.domain.model.entity.ReviewStats;
 import com.example.ddd.domain.repository.ReviewReplyRepository;
 import com.example.ddd.domain.repository.ReviewRepository;
+import com.example.ddd.domain.repository.ReviewStatsRepository;
 import com.example.ddd.domain.service.ReviewDomainService;
+import com.example.ddd.infrastructure.config.ReviewStatsProperties;
 import com.example.ddd.infrastructure.security.SecurityUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -28,6 +31,8 @@ public class ReviewApplicationService extends ApplicationService {
     private final ReviewDomainService reviewDomainService;
     private final ReviewRepository reviewRepository;
     private final ReviewReplyRepository reviewReplyRepository;
+    private final ReviewStatsRepository reviewStatsRepository;
+    private final ReviewStatsProperties reviewStatsProperties;
 
     /**
      * 创建评价
@@ -61,21 +66,66 @@ public class ReviewApplicationService extends ApplicationService {
 
     /**
      * 获取商品评价统计
+     * 读取预计算的统计行（走二级缓存），不再对评价表执行 COUNT
      */
     public Map<String, Object> getReviewStats(Long productId) {
         beforeExecute();
         try {
+            ReviewStats reviewStats = reviewStatsRepository.findByProductId(productId);
+
             Map<String, Object> stats = new HashMap<>();
+            stats.put("total", reviewStats.getReviewCount());
+            stats.put("positive", reviewStats.getPositiveCount());
+            stats.put("positiveRate", reviewStats.calculatePositiveRate());
+            stats.put("averageRating", reviewStats.calculateAverageRating());
+            stats.put("ratingDistribution", reviewStats.ratingDistribution());
 
-            long total = reviewRepository.countByProductId(productId);
-            long positive = reviewRepository.countPositiveByProductId(productId);
-            double positiveRate = reviewDomainService.calculatePositiveRate(productId);
+            return stats;
+        } finally {
+            afterExecute();
+        }
+    }
 
-            stats.put("total", total);
-            stats.put("positive", positive);
-            stats.put("positiveRate", positiveRate);
+    /**
+     * 按评价明细重建商品评价统计
+     * 按商品ID分批汇总，每批一条 INSERT ... SELECT 语句；
+     * 汇总只覆盖仍有评价的商品，评价已全部删除的商品再按统计表分批清零
+     *
+     * @return 重建和清零的商品数
+     */
+    public int rebuildReviewStats() {
+        beforeExecute();
+        try {
+            int batchSize = reviewStatsProperties.getRebuildBatchSize();
+            int total = 0;
+            Long afterProductId = null;
+            while (true) {
+                List<Long> productIds = reviewRepository.findProductIdsAfter(afterProductId, batchSize);
+                if (productIds.isEmpty()) {
+                    break;
+                }
+                reviewStatsRepository.rebuild(productIds);
+                total += productIds.size();
+                if (productIds.size() < batchSize) {
+                    break;
+                }
+                afterProductId = productIds.get(productIds.size() - 1);
+            }
 
-            return stats;
+            Long afterStaleId = null;
+            while (true) {
+                List<Long> staleIds = reviewStatsRepository.findStaleProductIdsAfter(afterStaleId, batchSize);
+                if (staleIds.isEmpty()) {
+                    break;
+                }
+                reviewStatsRepository.reset(staleIds);
+                total += staleIds.size();
+                if (staleIds.size() < batchSize) {
+                    break;
+                }
+                afterStaleId = staleIds.get(staleIds.size() - 1);
+            }
+            return total;
         } finally {
             afterExecute();
         }
@@ -1,5 +1,6 @@
 package com.example.ddd.domain.model.entity;
 
+import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableName;
 import lombok.Getter;
 import lombok.Setter;
@@ -49,6 +50,13 @@ public class Category extends BaseEntity {
      */
     private Integer sort;
 
+    /**
+     * 子分类（仅分类树中填充，非持久化）
+     */
+    @TableField(exist = false)
+    @EqualsAndHashCode.Exclude
+    private List<Category> children;
+
     /**
      * 判断是否为顶级分类
      *
@@ -1,5 +1,6 @@
 package com.example.ddd.domain.model.entity;
 
+import com.baomidou.mybatisplus.annotation.FieldStrategy;
 import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableName;
 import com.example.ddd.domain.model.valueobject.Money;
@@ -24,6 +25,11 @@ import java.time.LocalDateTime;
 @TableName("t_order")
 public class Order extends BaseEntity {
 
+    /**
+     * 待支付订单的支付超时时间（分钟），超时后自动取消
+     */
+    public static final int PAY_TIMEOUT_MINUTES = 30;
+
     /**
      * 订单号
      */
@@ -97,6 +103,12 @@ public class Order extends BaseEntity {
      */
     private LocalDateTime cancelTime;
 
+    /**
+     * 修订号，订单每次更新时在 SQL 中加 1，作为订单读模型的版本；实体写入时忽略该字段
+     */
+    @TableField(insertStrategy = FieldStrategy.NEVER, updateStrategy = FieldStrategy.NEVER)
+    private Long revision;
+
     /**
      * 获取状态值
      *
@@ -0,0 +1,61 @@
+package com.example.ddd.domain.model.entity;
+
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.example.ddd.domain.model.valueobject.PaymentCallbackStatus;
+import com.example.ddd.domain.model.valueobject.PaymentEvent;
+import com.example.ddd.infrastructure.persistence.handler.PaymentCallbackStatusTypeHandler;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 支付回调实体
+ * 支付网关的支付、退款结果通知，接收后先落库再异步处理，处理失败按重试时间重新处理
+ *
+ * @author DDD Demo
+ */
+@Getter
+@Setter
+@EqualsAndHashCode(callSuper = true)
+@TableName("t_payment_callback")
+public class PaymentCallback extends BaseEntity {
+
+    /**
+     * 支付单号
+     */
+    private String paymentNo;
+
+    /**
+     * 回调事件（支付成功、支付失败、退款成功、退款失败），按名称存储
+     */
+    private PaymentEvent event;
+
+    /**
+     * 第三方交易流水号（同一支付单同一事件的重复通知流水号相同）
+     */
+    private String transactionId;
+
+    /**
+     * 处理状态
+     */
+    @TableField(typeHandler = PaymentCallbackStatusTypeHandler.class)
+    private PaymentCallbackStatus status;
+
+    /**
+     * 已重试次数
+     */
+    private Integer retryCount;
+
+    /**
+     * 下次处理时间，待处理的回调到期后由重试任务重新入队
+     */
+    private LocalDateTime nextRetryTime;
+
+    /**
+     * 最近一次处理失败原因
+     */
+    private String lastError;
+}
@@ -0,0 +1,71 @@
+package com.example.ddd.domain.model.entity;
+
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.example.ddd.domain.model.valueobject.Money;
+import com.example.ddd.domain.model.valueobject.PaymentStatus;
+import com.example.ddd.domain.model.valueobject.ReconcileMismatchType;
+import com.example.ddd.infrastructure.persistence.handler.MoneyTypeHandler;
+import com.example.ddd.infrastructure.persistence.handler.PaymentStatusTypeHandler;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * 支付对账差异实体
+ * 本地支付记录与渠道对账文件逐笔核对后的差异明细
+ *
+ * @author DDD Demo
+ */
+@Getter
+@Setter
+@EqualsAndHashCode(callSuper = true)
+@TableName("t_payment_reconcile_mismatch")
+public class PaymentReconcileMismatch extends BaseEntity {
+
+    /**
+     * 对账批次ID
+     */
+    private Long runId;
+
+    /**
+     * 对账日期
+     */
+    private LocalDate settleDate;
+
+    /**
+     * 支付单号
+     */
+    private String paymentNo;
+
+    /**
+     * 差异类型，按名称存储
+     */
+    private ReconcileMismatchType type;
+
+    /**
+     * 本地金额（本地无记录时为空）
+     */
+    @TableField(typeHandler = MoneyTypeHandler.class)
+    private Money localAmount;
+
+    /**
+     * 渠道金额（渠道无记录时为空）
+     */
+    @TableField(typeHandler = MoneyTypeHandler.class)
+    private Money providerAmount;
+
+    /**
+     * 本地支付状态（本地无记录时为空）
+     */
+    @TableField(typeHandler = PaymentStatusTypeHandler.class)
+    private PaymentStatus localStatus;
+
+    /**
+     * 渠道支付状态（渠道无记录时为空）
+     */
+    @TableField(typeHandler = PaymentStatusTypeHandler.class)
+    private PaymentStatus providerStatus;
+}
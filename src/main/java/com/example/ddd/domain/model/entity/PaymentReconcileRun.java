@@ -0,0 +1,58 @@
+package com.example.ddd.domain.model.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.example.ddd.domain.model.valueobject.ReconcileRunStatus;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 支付对账批次实体
+ * 一次对账执行的状态；某日期的有效对账结果为该日期 ID 最大的成功批次写入的差异明细
+ *
+ * @author DDD Demo
+ */
+@Getter
+@Setter
+@EqualsAndHashCode(callSuper = true)
+@TableName("t_payment_reconcile_run")
+public class PaymentReconcileRun extends BaseEntity {
+
+    /**
+     * 对账日期
+     */
+    private LocalDate settleDate;
+
+    /**
+     * 批次状态，按名称存储
+     */
+    private ReconcileRunStatus status;
+
+    /**
+     * 对账文件行数
+     */
+    private Long lineCount;
+
+    /**
+     * 本地支付笔数
+     */
+    private Long paymentCount;
+
+    /**
+     * 差异笔数
+     */
+    private Long mismatchCount;
+
+    /**
+     * 结束时间
+     */
+    private LocalDateTime finishTime;
+
+    /**
+     * 失败原因
+     */
+    private String lastError;
+}
@@ -1,5 +1,6 @@
 package com.example.ddd.domain.model.entity;
 
+import com.baomidou.mybatisplus.annotation.FieldStrategy;
 import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableName;
 import com.example.ddd.domain.model.valueobject.ProductStatus;
@@ -49,20 +50,22 @@ public class Product extends BaseEntity {
     @TableField(typeHandler = ProductStatusTypeHandler.class)
     private ProductStatus status;
 
-    // ==================== 非持久化字段（用于前端显示）====================
+    // ==================== SKU汇总字段（由SKU变更维护，实体更新时不写入）====================
 
     /**
-     * 最低价格（从SKU聚合，非持久化）
+     * 最低价格（SKU汇总）
      */
-    @TableField(exist = false)
+    @TableField(insertStrategy = FieldStrategy.NEVER, updateStrategy = FieldStrategy.NEVER)
     private BigDecimal minPrice;
 
     /**
-     * 总库存（从SKU聚合，非持久化）
+     * 总库存（SKU汇总）
      */
-    @TableField(exist = false)
+    @TableField(insertStrategy = FieldStrategy.NEVER, updateStrategy = FieldStrategy.NEVER)
     private Integer totalStock;
 
+    // ==================== 非持久化字段（用于前端显示）====================
+
     /**
      * 分类名称（非持久化，用于显示）
      */
@@ -0,0 +1,137 @@
+package com.example.ddd.domain.model.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 商品评价统计实体
+ * 每个商品一行，新增评价时在同一事务内原子累加，查询评价统计不再实时 COUNT 评价表
+ *
+ * @author DDD Demo
+ */
+@Getter
+@Setter
+@EqualsAndHashCode(callSuper = true)
+@TableName("t_review_stats")
+public class ReviewStats extends BaseEntity {
+
+    /**
+     * 好评的最低评分（4 星及以上为好评）
+     */
+    public static final int POSITIVE_RATING = 4;
+
+    /**
+     * 商品ID
+     */
+    private Long productId;
+
+    /**
+     * 评价数
+     */
+    private Long reviewCount;
+
+    /**
+     * 好评数
+     */
+    private Long positiveCount;
+
+    /**
+     * 1 星评价数
+     */
+    private Long rating1Count;
+
+    /**
+     * 2 星评价数
+     */
+    private Long rating2Count;
+
+    /**
+     * 3 星评价数
+     */
+    private Long rating3Count;
+
+    /**
+     * 4 星评价数
+     */
+    private Long rating4Count;
+
+    /**
+     * 5 星评价数
+     */
+    private Long rating5Count;
+
+    /**
+     * 评分总和（用于计算平均分）
+     */
+    private Long ratingSum;
+
+    /**
+     * 创建没有任何评价的统计
+     *
+     * @param productId 商品ID
+     * @return 各项为 0 的统计
+     */
+    public static ReviewStats empty(Long productId) {
+        ReviewStats stats = new ReviewStats();
+        stats.setProductId(productId);
+        stats.setReviewCount(0L);
+        stats.setPositiveCount(0L);
+        stats.setRating1Count(0L);
+        stats.setRating2Count(0L);
+        stats.setRating3Count(0L);
+        stats.setRating4Count(0L);
+        stats.setRating5Count(0L);
+        stats.setRatingSum(0L);
+        return stats;
+    }
+
+    /**
+     * 计算好评率（百分比），没有评价时为 100
+     *
+     * @return 好评率
+     */
+    public double calculatePositiveRate() {
+        long total = valueOf(reviewCount);
+        if (total == 0) {
+            return 100.0;
+        }
+        return (valueOf(positiveCount) * 100.0) / total;
+    }
+
+    /**
+     * 计算平均评分（保留一位小数），没有评价时为 0
+     *
+     * @return 平均评分
+     */
+    public double calculateAverageRating() {
+        long total = valueOf(reviewCount);
+        if (total == 0) {
+            return 0.0;
+        }
+        return Math.round(valueOf(ratingSum) * 10.0 / total) / 10.0;
+    }
+
+    /**
+     * 评分分布
+     *
+     * @return 评分（1-5）到评价数的映射，按评分升序
+     */
+    public Map<Integer, Long> ratingDistribution() {
+        Map<Integer, Long> distribution = new LinkedHashMap<>();
+        distribution.put(1, valueOf(rating1Count));
+        distribution.put(2, valueOf(rating2Count));
+        distribution.put(3, valueOf(rating3Count));
+        distribution.put(4, valueOf(rating4Count));
+        distribution.put(5, valueOf(rating5Count));
+        return distribution;
+    }
+
+    private static long valueOf(Long count) {
+        return count != null ? count : 0L;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.ddd.domain.model.valueobject;
+
+import com.example.ddd.domain.model.entity.Category;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 分类树值对象
+ * 顶级分类列表（子分类已挂载）及其内容版本，版本在分类数据不变时保持不变
+ *
+ * @author DDD Demo
+ */
+@Getter
+public class CategoryTree extends BaseValueObject {
+
+    /**
+     * 顶级分类（只读）
+     */
+    private final List<Category> roots;
+
+    /**
+     * 内容版本（分类树内容的摘要）
+     */
+    private final String version;
+
+    private CategoryTree(List<Category> roots, String version) {
+        if (roots == null || version == null) {
+            throw new IllegalArgumentException("分类树和版本不能为空");
+        }
+        this.roots = roots;
+        this.version = version;
+    }
+
+    /**
+     * 创建分类树
+     *
+     * @param roots   顶级分类
+     * @param version 内容版本
+     * @return 分类树
+     */
+    public static CategoryTree of(List<Category> roots, String version) {
+        return new CategoryTree(roots, version);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return Objects.equals(version, ((CategoryTree) o).version);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(version);
+    }
+
+    @Override
+    public String toString() {
+        return "CategoryTree{rootCount=" + roots.size() + ", version=" + version + "}";
+    }
+}
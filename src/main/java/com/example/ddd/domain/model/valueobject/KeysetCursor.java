@@ -0,0 +1,105 @@
+package com.example.ddd.domain.model.valueobject;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * 游标分页位置值对象
+ * 记录上一页最后一条记录的 (create_time, id)，下一页从该位置之后继续读取
+ * 对外以不透明字符串传递
+ *
+ * @author DDD Demo
+ */
+@Getter
+public class KeysetCursor extends BaseValueObject {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * 创建时间
+     */
+    private final LocalDateTime createTime;
+
+    /**
+     * 记录ID
+     */
+    private final Long id;
+
+    private KeysetCursor(LocalDateTime createTime, Long id) {
+        if (createTime == null || id == null) {
+            throw new IllegalArgumentException("游标的创建时间和ID不能为空");
+        }
+        this.createTime = createTime;
+        this.id = id;
+    }
+
+    /**
+     * 创建游标
+     *
+     * @param createTime 创建时间
+     * @param id         记录ID
+     * @return 游标
+     */
+    public static KeysetCursor of(LocalDateTime createTime, Long id) {
+        return new KeysetCursor(createTime, id);
+    }
+
+    /**
+     * 解析游标字符串
+     *
+     * @param cursor 游标字符串，为空表示第一页
+     * @return 游标，第一页返回 null
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int index = raw.indexOf(SEPARATOR);
+            if (index <= 0) {
+                throw new IllegalArgumentException("无效的分页游标");
+            }
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(0, index)), Long.valueOf(raw.substring(index + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("无效的分页游标");
+        }
+    }
+
+    /**
+     * 编码为游标字符串
+     *
+     * @return 游标字符串
+     */
+    public String encode() {
+        String raw = createTime + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        KeysetCursor that = (KeysetCursor) o;
+        return Objects.equals(createTime, that.createTime) && Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(createTime, id);
+    }
+
+    @Override
+    public String toString() {
+        return "KeysetCursor{createTime=" + createTime + ", id=" + id + "}";
+    }
+}
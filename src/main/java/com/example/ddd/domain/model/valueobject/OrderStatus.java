@@ -55,6 +55,16 @@ public enum OrderStatus implements StatusType {
      */
     private static final Map<OrderStatus, Map<OrderEvent, OrderStatus>> EVENT_TRANSITIONS;
 
+    /**
+     * 事件到合法源状态的映射（由 EVENT_TRANSITIONS 反推），用于数据库条件更新
+     */
+    private static final Map<OrderEvent, Set<OrderStatus>> EVENT_SOURCES;
+
+    /**
+     * 事件到目标状态的映射（每个事件的目标状态唯一）
+     */
+    private static final Map<OrderEvent, OrderStatus> EVENT_TARGETS;
+
     /**
      * 终态集合
      */
@@ -95,6 +105,16 @@ public enum OrderStatus implements StatusType {
         // 终态：无事件可触发
         EVENT_TRANSITIONS.put(CANCELLED, Map.of());
         EVENT_TRANSITIONS.put(REFUNDED, Map.of());
+
+        EVENT_SOURCES = new EnumMap<>(OrderEvent.class);
+        EVENT_TARGETS = new EnumMap<>(OrderEvent.class);
+        EVENT_TRANSITIONS.forEach((source, transitions) -> transitions.forEach((event, target) -> {
+            OrderStatus existing = EVENT_TARGETS.putIfAbsent(event, target);
+            if (existing != null && existing != target) {
+                throw new IllegalStateException("事件【" + event.getDescription() + "】存在多个目标状态");
+            }
+            EVENT_SOURCES.computeIfAbsent(event, e -> EnumSet.noneOf(OrderStatus.class)).add(source);
+        }));
     }
 
     OrderStatus(Integer value, String description) {
@@ -130,6 +150,32 @@ public enum OrderStatus implements StatusType {
         throw new IllegalArgumentException("无效的订单状态值: " + value);
     }
 
+    /**
+     * 获取可以触发指定事件的全部源状态
+     *
+     * @param event 事件
+     * @return 源状态集合，没有任何状态可触发时为空
+     */
+    public static Set<OrderStatus> sourceStatesOf(OrderEvent event) {
+        Set<OrderStatus> sources = EVENT_SOURCES.get(event);
+        return sources == null ? Collections.emptySet() : Collections.unmodifiableSet(sources);
+    }
+
+    /**
+     * 获取指定事件的目标状态
+     *
+     * @param event 事件
+     * @return 目标状态
+     * @throws IllegalArgumentException 如果没有任何状态可触发该事件
+     */
+    public static OrderStatus targetOf(OrderEvent event) {
+        OrderStatus target = EVENT_TARGETS.get(event);
+        if (target == null) {
+            throw new IllegalArgumentException("订单状态机未定义事件【" + event.getDescription() + "】");
+        }
+        return target;
+    }
+
     /**
      * 根据事件获取目标状态
      *
@@ -0,0 +1,31 @@
+package com.example.ddd.domain.model.valueobject;
+
+import com.example.ddd.domain.model.entity.Order;
+import com.example.ddd.domain.model.entity.OrderItem;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 订单读模型
+ * 订单与其明细的反规范化快照，用于订单详情查询和权限校验，一次读取即可得到完整视图
+ *
+ * @author DDD Demo
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderView {
+
+    /**
+     * 订单
+     */
+    private Order order;
+
+    /**
+     * 订单明细
+     */
+    private List<OrderItem> items;
+}
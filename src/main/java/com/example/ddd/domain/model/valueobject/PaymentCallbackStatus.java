@@ -0,0 +1,65 @@
+package com.example.ddd.domain.model.valueobject;
+
+/**
+ * 支付回调处理状态枚举
+ *
+ * @author DDD Demo
+ */
+public enum PaymentCallbackStatus implements StatusType {
+
+    /**
+     * 待处理（已接收，等待或正在重试）
+     */
+    PENDING(0, "待处理"),
+
+    /**
+     * 已处理
+     */
+    SUCCEEDED(1, "已处理"),
+
+    /**
+     * 处理失败（重试次数用尽）
+     */
+    FAILED(2, "处理失败"),
+
+    /**
+     * 已拒绝（支付状态不允许该回调，不再重试）
+     */
+    REJECTED(3, "已拒绝");
+
+    private final Integer value;
+    private final String description;
+
+    PaymentCallbackStatus(Integer value, String description) {
+        this.value = value;
+        this.description = description;
+    }
+
+    @Override
+    public Integer getValue() {
+        return value;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * 根据值获取枚举
+     *
+     * @param value 状态值
+     * @return 回调处理状态枚举
+     */
+    public static PaymentCallbackStatus fromValue(Integer value) {
+        if (value == null) {
+            return PENDING;
+        }
+        for (PaymentCallbackStatus status : PaymentCallbackStatus.values()) {
+            if (status.getValue().equals(value)) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("无效的回调处理状态值: " + value);
+    }
+}
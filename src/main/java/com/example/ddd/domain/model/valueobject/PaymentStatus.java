@@ -44,6 +44,16 @@ public enum PaymentStatus implements StatusType {
      */
     private static final Map<PaymentStatus, Map<PaymentEvent, PaymentStatus>> EVENT_TRANSITIONS;
 
+    /**
+     * 事件到合法源状态的映射（由 EVENT_TRANSITIONS 反推），用于数据库条件更新
+     */
+    private static final Map<PaymentEvent, Set<PaymentStatus>> EVENT_SOURCES;
+
+    /**
+     * 事件到目标状态的映射（每个事件的目标状态唯一）
+     */
+    private static final Map<PaymentEvent, PaymentStatus> EVENT_TARGETS;
+
     /**
      * 终态集合
      */
@@ -72,6 +82,16 @@ public enum PaymentStatus implements StatusType {
         // 终态：无事件可触发
         EVENT_TRANSITIONS.put(FAILED, Map.of());
         EVENT_TRANSITIONS.put(REFUNDED, Map.of());
+
+        EVENT_SOURCES = new EnumMap<>(PaymentEvent.class);
+        EVENT_TARGETS = new EnumMap<>(PaymentEvent.class);
+        EVENT_TRANSITIONS.forEach((source, transitions) -> transitions.forEach((event, target) -> {
+            PaymentStatus existing = EVENT_TARGETS.putIfAbsent(event, target);
+            if (existing != null && existing != target) {
+                throw new IllegalStateException("事件【" + event.getDescription() + "】存在多个目标状态");
+            }
+            EVENT_SOURCES.computeIfAbsent(event, e -> EnumSet.noneOf(PaymentStatus.class)).add(source);
+        }));
     }
 
     PaymentStatus(Integer value, String description) {
@@ -107,6 +127,32 @@ public enum PaymentStatus implements StatusType {
         throw new IllegalArgumentException("无效的支付状态值: " + value);
     }
 
+    /**
+     * 获取可以触发指定事件的全部源状态
+     *
+     * @param event 事件
+     * @return 源状态集合，没有任何状态可触发时为空
+     */
+    public static Set<PaymentStatus> sourceStatesOf(PaymentEvent event) {
+        Set<PaymentStatus> sources = EVENT_SOURCES.get(event);
+        return sources == null ? Collections.emptySet() : Collections.unmodifiableSet(sources);
+    }
+
+    /**
+     * 获取指定事件的目标状态
+     *
+     * @param event 事件
+     * @return 目标状态
+     * @throws IllegalArgumentException 如果没有任何状态可触发该事件
+     */
+    public static PaymentStatus targetOf(PaymentEvent event) {
+        PaymentStatus target = EVENT_TARGETS.get(event);
+        if (target == null) {
+            throw new IllegalArgumentException("支付状态机未定义事件【" + event.getDescription() + "】");
+        }
+        return target;
+    }
+
     /**
      * 根据事件获取目标状态
      *
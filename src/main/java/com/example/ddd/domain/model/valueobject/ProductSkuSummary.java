@@ -0,0 +1,86 @@
+package com.example.ddd.domain.model.valueobject;
+
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * 商品SKU汇总值对象
+ * 按商品聚合的最低价格和总库存
+ *
+ * @author DDD Demo
+ */
+@Getter
+public class ProductSkuSummary extends BaseValueObject {
+
+    /**
+     * 商品ID
+     */
+    private final Long productId;
+
+    /**
+     * 最低价格
+     */
+    private final BigDecimal minPrice;
+
+    /**
+     * 总库存
+     */
+    private final Integer totalStock;
+
+    private ProductSkuSummary(Long productId, BigDecimal minPrice, Integer totalStock) {
+        if (productId == null) {
+            throw new IllegalArgumentException("商品ID不能为空");
+        }
+        this.productId = productId;
+        this.minPrice = minPrice != null ? minPrice : BigDecimal.ZERO;
+        this.totalStock = totalStock != null ? totalStock : 0;
+    }
+
+    /**
+     * 创建SKU汇总
+     *
+     * @param productId  商品ID
+     * @param minPrice   最低价格
+     * @param totalStock 总库存
+     * @return SKU汇总
+     */
+    public static ProductSkuSummary of(Long productId, BigDecimal minPrice, Integer totalStock) {
+        return new ProductSkuSummary(productId, minPrice, totalStock);
+    }
+
+    /**
+     * 创建空汇总（商品没有SKU）
+     *
+     * @param productId 商品ID
+     * @return SKU汇总
+     */
+    public static ProductSkuSummary empty(Long productId) {
+        return new ProductSkuSummary(productId, BigDecimal.ZERO, 0);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ProductSkuSummary that = (ProductSkuSummary) o;
+        return Objects.equals(productId, that.productId)
+                && minPrice.compareTo(that.minPrice) == 0
+                && Objects.equals(totalStock, that.totalStock);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(productId, minPrice.stripTrailingZeros(), totalStock);
+    }
+
+    @Override
+    public String toString() {
+        return "ProductSkuSummary{productId=" + productId + ", minPrice=" + minPrice + ", totalStock=" + totalStock + "}";
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.ddd.domain.model.valueobject;
+
+/**
+ * 对账差异类型枚举
+ *
+ * @author DDD Demo
+ */
+public enum ReconcileMismatchType {
+
+    /**
+     * 渠道对账文件有记录，本地当日无支付记录
+     */
+    LOCAL_MISSING("本地无记录"),
+
+    /**
+     * 本地当日有支付记录，渠道对账文件无记录
+     */
+    PROVIDER_MISSING("渠道无记录"),
+
+    /**
+     * 双方都有记录，金额不一致
+     */
+    AMOUNT_MISMATCH("金额不一致"),
+
+    /**
+     * 双方都有记录，支付状态不一致
+     */
+    STATUS_MISMATCH("状态不一致");
+
+    private final String description;
+
+    ReconcileMismatchType(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.ddd.domain.model.valueobject;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * 对账结果
+ *
+ * @author DDD Demo
+ */
+@Getter
+@RequiredArgsConstructor
+public class ReconcileResult {
+
+    /**
+     * 对账日期
+     */
+    private final LocalDate settleDate;
+
+    /**
+     * 对账文件记录数
+     */
+    private final long lines;
+
+    /**
+     * 本地支付记录数
+     */
+    private final long payments;
+
+    /**
+     * 差异数
+     */
+    private final long mismatches;
+
+    /**
+     * 耗时
+     */
+    private final Duration elapsed;
+
+    /**
+     * 对账吞吐量（对账文件行/秒）
+     *
+     * @return 每秒处理行数
+     */
+    public long getLinesPerSecond() {
+        long nanos = Math.max(1, elapsed.toNanos());
+        return lines * 1_000_000_000L / nanos;
+    }
+}
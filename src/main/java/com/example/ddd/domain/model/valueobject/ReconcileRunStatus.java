@@ -0,0 +1,34 @@
+package com.example.ddd.domain.model.valueobject;
+
+/**
+ * 对账批次状态枚举
+ *
+ * @author DDD Demo
+ */
+public enum ReconcileRunStatus {
+
+    /**
+     * 执行中，差异明细尚未写完
+     */
+    RUNNING("执行中"),
+
+    /**
+     * 已成功，差异明细完整
+     */
+    SUCCEEDED("已成功"),
+
+    /**
+     * 已失败，本批次写入的差异明细已清除
+     */
+    FAILED("已失败");
+
+    private final String description;
+
+    ReconcileRunStatus(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
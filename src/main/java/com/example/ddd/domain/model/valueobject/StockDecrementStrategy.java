@@ -0,0 +1,19 @@
+package com.example.ddd.domain.model.valueobject;
+
+/**
+ * 库存扣减策略
+ *
+ * @author DDD Demo
+ */
+public enum StockDecrementStrategy {
+
+    /**
+     * 比较并交换：按读到的库存版本更新，冲突时重新读取并有限次重试，重试耗尽后退化为 GUARDED
+     */
+    CAS,
+
+    /**
+     * 条件原子扣减：stock = stock - n WHERE stock >= n，只在库存确实不足时失败
+     */
+    GUARDED
+}
@@ -0,0 +1,24 @@
+package com.example.ddd.domain.model.valueobject;
+
+/**
+ * 秒杀库存预扣结果
+ *
+ * @author DDD Demo
+ */
+public enum StockReservation {
+
+    /**
+     * 预扣成功
+     */
+    RESERVED,
+
+    /**
+     * 库存不足
+     */
+    INSUFFICIENT,
+
+    /**
+     * 该SKU未开启秒杀，走数据库扣减
+     */
+    NOT_FLASH_SALE
+}
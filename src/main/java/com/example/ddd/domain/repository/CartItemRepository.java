@@ -2,6 +2,7 @@ package com.example.ddd.domain.repository;
 
 import com.example.ddd.domain.model.entity.CartItem;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -20,6 +21,14 @@ public interface CartItemRepository extends BaseRepository<CartItem> {
      */
     List<CartItem> findByCartId(Long cartId);
 
+    /**
+     * 根据ID批量查询明细
+     *
+     * @param ids 明细ID集合
+     * @return 明细列表，不存在的ID不返回
+     */
+    List<CartItem> findByIds(Collection<Long> ids);
+
     /**
      * 根据购物车ID和SKU ID查询明细
      *
@@ -63,4 +72,12 @@ public interface CartItemRepository extends BaseRepository<CartItem> {
      * @return 影响行数
      */
     int physicalDeleteByCartId(Long cartId);
+
+    /**
+     * 批量物理删除购物车明细（单条 DELETE ... IN）
+     *
+     * @param ids 购物车明细ID集合
+     * @return 影响行数
+     */
+    int physicalDeleteByIds(Collection<Long> ids);
 }
@@ -3,6 +3,7 @@ package com.example.ddd.domain.repository;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.example.ddd.domain.model.entity.Category;
+import com.example.ddd.domain.model.valueobject.CategoryTree;
 
 import java.util.List;
 
@@ -29,6 +30,21 @@ public interface CategoryRepository extends BaseRepository<Category> {
      */
     List<Category> findByParentId(Long parentId);
 
+    /**
+     * 查询所有分类
+     *
+     * @return 分类列表
+     */
+    List<Category> findAll();
+
+    /**
+     * 查询分类及其所有子孙分类的ID
+     *
+     * @param categoryId 分类ID
+     * @return 分类ID列表（包含自身），分类不存在时返回空列表
+     */
+    List<Long> findSubtreeIds(Long categoryId);
+
     /**
      * 根据层级查询分类
      *
@@ -40,7 +56,7 @@ public interface CategoryRepository extends BaseRepository<Category> {
     /**
      * 构建分类树
      *
-     * @return 分类树列表
+     * @return 分类树（含内容版本）
      */
-    List<Category> buildCategoryTree();
+    CategoryTree buildCategoryTree();
 }
@@ -3,7 +3,9 @@ package com.example.ddd.domain.repository;
 import com.example.ddd.domain.model.entity.FileInfo;
 import com.example.ddd.domain.model.valueobject.BizType;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -22,6 +24,14 @@ public interface FileRepository extends BaseRepository<FileInfo> {
      */
     Optional<FileInfo> findByFileKey(String fileKey);
 
+    /**
+     * 根据多个fileKey批量查询文件
+     *
+     * @param fileKeys 文件唯一标识集合
+     * @return 文件列表（不存在的标识不包含在内）
+     */
+    List<FileInfo> findByFileKeys(Collection<String> fileKeys);
+
     /**
      * 查询业务关联的所有文件
      *
@@ -40,6 +50,16 @@ public interface FileRepository extends BaseRepository<FileInfo> {
      */
     Optional<FileInfo> findFirstByBizTypeAndBizId(BizType bizType, Long bizId);
 
+    /**
+     * 批量查询多个业务对象的第一个文件（主图）
+     * 单次查询，没有文件的业务ID不会出现在结果中
+     *
+     * @param bizType 业务类型
+     * @param bizIds  业务ID集合
+     * @return 业务ID -> 第一个文件
+     */
+    Map<Long, FileInfo> findFirstByBizTypeAndBizIds(BizType bizType, Collection<Long> bizIds);
+
     /**
      * 查询过期的待绑定文件
      *
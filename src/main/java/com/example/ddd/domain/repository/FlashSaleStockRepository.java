@@ -0,0 +1,100 @@
+package com.example.ddd.domain.repository;
+
+import com.example.ddd.domain.model.valueobject.StockReservation;
+
+import java.util.Set;
+
+/**
+ * 秒杀库存仓储接口
+ * 开启秒杀的SKU由该仓储持有可售库存，下单时原子预扣，
+ * 预扣量先累计为待回写量，再由定时任务批量回写数据库
+ * 六边形架构的端口（Port）
+ *
+ * @author DDD Demo
+ */
+public interface FlashSaleStockRepository {
+
+    /**
+     * 原子预扣库存，并累加待回写量
+     *
+     * @param skuId    SKU ID
+     * @param quantity 数量
+     * @return 预扣结果
+     */
+    StockReservation reserve(Long skuId, int quantity);
+
+    /**
+     * 归还库存，并扣减待回写量（可能为负，回写时表示增加数据库库存）
+     *
+     * @param skuId    SKU ID
+     * @param quantity 数量
+     * @return 是否为秒杀SKU，false 时调用方应直接恢复数据库库存
+     */
+    boolean release(Long skuId, int quantity);
+
+    /**
+     * 是否为秒杀SKU
+     *
+     * @param skuId SKU ID
+     * @return 是否开启秒杀
+     */
+    boolean isFlashSale(Long skuId);
+
+    /**
+     * 开启秒杀，加载可售库存（已开启时不覆盖）
+     *
+     * @param skuId SKU ID
+     * @param stock 数据库当前库存
+     * @return 是否新开启
+     */
+    boolean load(Long skuId, int stock);
+
+    /**
+     * 关闭秒杀，仅在没有待回写量时删除
+     *
+     * @param skuId SKU ID
+     * @return 是否已关闭
+     */
+    boolean unload(Long skuId);
+
+    /**
+     * 查询所有秒杀SKU
+     *
+     * @return SKU ID集合
+     */
+    Set<Long> findSkuIds();
+
+    /**
+     * 原子取出并清零待回写量
+     *
+     * @param skuId SKU ID
+     * @return 待回写量，正数表示需要扣减数据库库存
+     */
+    int takePending(Long skuId);
+
+    /**
+     * 回写失败时把待回写量加回去
+     *
+     * @param skuId SKU ID
+     * @param delta 待回写量
+     */
+    void restorePending(Long skuId, int delta);
+
+    /**
+     * 查询可售库存
+     *
+     * @param skuId SKU ID
+     * @return 可售库存，未开启秒杀时返回 null
+     */
+    Integer getStock(Long skuId);
+
+    /**
+     * 按数据库库存对账：期望可售库存 = 数据库库存 - 待回写量，比较与计算在同一原子操作内完成
+     *
+     * @param skuId   SKU ID
+     * @param dbStock 数据库库存
+     * @param correct 有差异时是否把可售库存校正为期望值
+     * @return 差异（可售库存 - 期望值），0 表示一致，未开启秒杀时返回 null
+     */
+    Integer reconcile(Long skuId, int dbStock, boolean correct);
+}
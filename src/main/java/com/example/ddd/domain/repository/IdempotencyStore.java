@@ -0,0 +1,45 @@
+package com.example.ddd.domain.repository;
+
+import java.time.Duration;
+
+/**
+ * 幂等键存储接口
+ * 六边形架构的端口（Port），记录同一幂等键下首个请求的处理结果
+ *
+ * @author DDD Demo
+ */
+public interface IdempotencyStore {
+
+    /**
+     * 占用幂等键，只有首个请求能占用成功
+     *
+     * @param key 幂等键
+     * @param ttl 处理中状态的有效期，进程宕机时到期自动释放
+     * @return true 如果占用成功，由调用方执行业务并记录结果
+     */
+    boolean tryBegin(String key, Duration ttl);
+
+    /**
+     * 查询处理结果
+     *
+     * @param key 幂等键
+     * @return 处理结果，处理中或键不存在时返回 null
+     */
+    String getResult(String key);
+
+    /**
+     * 记录处理结果
+     *
+     * @param key    幂等键
+     * @param result 处理结果
+     * @param ttl    结果保留时间
+     */
+    void complete(String key, String result, Duration ttl);
+
+    /**
+     * 处理失败时释放幂等键，允许客户端重试
+     *
+     * @param key 幂等键
+     */
+    void release(String key);
+}
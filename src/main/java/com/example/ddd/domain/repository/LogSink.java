@@ -0,0 +1,19 @@
+package com.example.ddd.domain.repository;
+
+/**
+ * 追加型日志写入端口
+ * 只追加、不回读，调用方不关心写入何时落库
+ *
+ * @param <T> 日志实体类型
+ * @author DDD Demo
+ */
+public interface LogSink<T> {
+
+    /**
+     * 追加一条日志
+     * 存在事务时在事务提交后才会进入缓冲区（同步模式下随事务一起写入）
+     *
+     * @param record 日志
+     */
+    void append(T record);
+}
@@ -2,10 +2,19 @@ package com.example.ddd.domain.repository;
 
 import com.example.ddd.domain.model.entity.LoginLog;
 
+import java.util.List;
+
 /**
  * 登录日志仓储接口
  *
  * @author DDD Demo
  */
 public interface LoginLogRepository extends BaseRepository<LoginLog> {
+
+    /**
+     * 批量保存登录日志（多行插入）
+     *
+     * @param logs 日志列表
+     */
+    void saveBatch(List<LoginLog> logs);
 }
@@ -2,6 +2,7 @@ package com.example.ddd.domain.repository;
 
 import com.example.ddd.domain.model.entity.OrderItem;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -20,6 +21,14 @@ public interface OrderItemRepository extends BaseRepository<OrderItem> {
      */
     List<OrderItem> findByOrderId(Long orderId);
 
+    /**
+     * 根据订单ID批量查询明细列表
+     *
+     * @param orderIds 订单ID集合
+     * @return 明细列表
+     */
+    List<OrderItem> findByOrderIds(Collection<Long> orderIds);
+
     /**
      * 根据订单ID删除所有明细
      *
@@ -27,4 +36,12 @@ public interface OrderItemRepository extends BaseRepository<OrderItem> {
      * @return 影响行数
      */
     int deleteByOrderId(Long orderId);
+
+    /**
+     * 批量保存订单明细
+     * 走 JDBC 批处理，配合 rewriteBatchedStatements 合并为多行 INSERT
+     *
+     * @param items 订单明细列表
+     */
+    void saveBatch(List<OrderItem> items);
 }
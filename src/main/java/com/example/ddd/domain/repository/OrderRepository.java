@@ -3,6 +3,9 @@ package com.example.ddd.domain.repository;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.example.ddd.domain.model.entity.Order;
+import com.example.ddd.domain.model.valueobject.KeysetCursor;
+import com.example.ddd.domain.model.valueobject.OrderEvent;
+import com.example.ddd.domain.model.valueobject.OrderStatus;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -45,31 +48,80 @@ public interface OrderRepository extends BaseRepository<Order> {
      * @param status 状态
      * @return 订单列表
      */
-    List<Order> findByStatus(com.example.ddd.domain.model.valueobject.OrderStatus status);
+    List<Order> findByStatus(OrderStatus status);
 
     /**
      * 分页查询用户订单
      *
      * @param page   分页对象
      * @param userId 用户ID
+     * @param status 订单状态，为空时查询全部状态
      * @return 分页结果
      */
-    IPage<Order> pageByUserId(Page<Order> page, Long userId);
+    IPage<Order> pageByUserId(Page<Order> page, Long userId, OrderStatus status);
 
     /**
      * 分页查询店铺订单
      *
      * @param page   分页对象
      * @param shopId 店铺ID
+     * @param status 订单状态，为空时查询全部状态
      * @return 分页结果
      */
-    IPage<Order> pageByShopId(Page<Order> page, Long shopId);
+    IPage<Order> pageByShopId(Page<Order> page, Long shopId, OrderStatus status);
 
     /**
      * 查询超时未支付的订单
      *
      * @param timeoutThreshold 超时时间阈值（创建时间早于此时间的待支付订单）
-     * @return 超时订单列表
+     * @param limit            最多返回数量
+     * @return 超时订单列表，按创建时间升序
      */
-    List<Order> findTimeoutPendingOrders(LocalDateTime timeoutThreshold);
+    List<Order> findTimeoutPendingOrders(LocalDateTime timeoutThreshold, int limit);
+
+    /**
+     * 游标分页查询用户的订单（按创建时间、ID倒序，不查询总数）
+     *
+     * @param userId 用户ID
+     * @param cursor 上一页最后一条记录的位置，第一页传 null
+     * @param limit  读取条数
+     * @return 订单列表
+     */
+    List<Order> listByUserIdAfter(Long userId, KeysetCursor cursor, int limit);
+
+    /**
+     * 游标分页查询店铺的订单（按创建时间、ID倒序，不查询总数）
+     *
+     * @param shopId 店铺ID
+     * @param cursor 上一页最后一条记录的位置，第一页传 null
+     * @param limit  读取条数
+     * @return 订单列表
+     */
+    List<Order> listByShopIdAfter(Long shopId, KeysetCursor cursor, int limit);
+
+    /**
+     * 按条件游标分页查询店铺的订单（按创建时间、ID倒序，不查询总数），用于导出
+     *
+     * @param shopId    店铺ID
+     * @param status    订单状态，为空时查询全部状态
+     * @param startTime 创建时间下限（含），为空时不限
+     * @param endTime   创建时间上限（不含），为空时不限
+     * @param cursor    上一页最后一条记录的位置，第一页传 null
+     * @param limit     读取条数
+     * @return 订单列表
+     */
+    List<Order> listByShopIdAfter(Long shopId, OrderStatus status, LocalDateTime startTime,
+                                  LocalDateTime endTime, KeysetCursor cursor, int limit);
+
+    /**
+     * 按事件比较并更新订单状态
+     * 单条 UPDATE ... SET status = 目标状态, 事件时间 = ? WHERE id = ? AND status IN (该事件的合法源状态)，
+     * 同一订单上的并发转换只有一个能成功
+     *
+     * @param orderId 订单ID
+     * @param event   触发的事件
+     * @param time    事件时间，写入支付、发货、完成或取消时间，其余事件忽略
+     * @return 受影响行数，0 表示订单不存在或当前状态不允许该事件
+     */
+    int transitionStatus(Long orderId, OrderEvent event, LocalDateTime time);
 }
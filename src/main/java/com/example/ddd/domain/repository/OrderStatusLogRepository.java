@@ -19,4 +19,11 @@ public interface OrderStatusLogRepository extends BaseRepository<OrderStatusLog>
      * @return 日志列表
      */
     List<OrderStatusLog> findByOrderId(Long orderId);
+
+    /**
+     * 批量保存状态日志（多行插入）
+     *
+     * @param logs 日志列表
+     */
+    void saveBatch(List<OrderStatusLog> logs);
 }
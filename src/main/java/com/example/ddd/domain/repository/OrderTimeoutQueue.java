@@ -0,0 +1,38 @@
+package com.example.ddd.domain.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 订单支付超时延时队列
+ * 下单时按支付截止时间入队，到期后由消费者取出并取消订单
+ * 六边形架构的端口（Port）
+ *
+ * @author DDD Demo
+ */
+public interface OrderTimeoutQueue {
+
+    /**
+     * 入队（已存在时更新截止时间）
+     *
+     * @param orderId  订单ID
+     * @param deadline 支付截止时间
+     */
+    void add(Long orderId, LocalDateTime deadline);
+
+    /**
+     * 出队（订单已支付或已取消）
+     *
+     * @param orderId 订单ID
+     */
+    void remove(Long orderId);
+
+    /**
+     * 原子取出已到期的订单，取出即从队列删除，多个消费者不会拿到同一订单
+     *
+     * @param now   当前时间
+     * @param limit 最多取出数量
+     * @return 到期订单ID，按截止时间升序
+     */
+    List<Long> pollDue(LocalDateTime now, int limit);
+}
@@ -0,0 +1,30 @@
+package com.example.ddd.domain.repository;
+
+import com.example.ddd.domain.model.valueobject.OrderView;
+
+import java.time.LocalDateTime;
+
+/**
+ * 订单读模型仓储接口
+ * 六边形架构的端口（Port），CQRS 的查询侧，由订单写入后的投影维护
+ *
+ * @author DDD Demo
+ */
+public interface OrderViewRepository {
+
+    /**
+     * 查询订单读模型，未命中时从数据库构建并写入
+     *
+     * @param orderId 订单ID
+     * @return 订单读模型，订单不存在时返回 null
+     */
+    OrderView findById(Long orderId);
+
+    /**
+     * 按数据库中的最新数据重建单个订单的读模型
+     *
+     * @param orderId   订单ID
+     * @param changedAt 订单写入时间，用于统计读模型的一致性延迟
+     */
+    void refresh(Long orderId, LocalDateTime changedAt);
+}
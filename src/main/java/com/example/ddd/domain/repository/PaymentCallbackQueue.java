@@ -0,0 +1,21 @@
+package com.example.ddd.domain.repository;
+
+import com.example.ddd.domain.model.entity.PaymentCallback;
+
+/**
+ * 支付回调处理队列
+ * 已落库的回调入队后异步处理，同一支付单的回调按入队顺序处理
+ * 六边形架构的端口（Port）
+ *
+ * @author DDD Demo
+ */
+public interface PaymentCallbackQueue {
+
+    /**
+     * 入队，不阻塞调用方
+     *
+     * @param callback 已保存的回调
+     * @return false 如果队列已满，回调留在库中由重试任务处理
+     */
+    boolean offer(PaymentCallback callback);
+}
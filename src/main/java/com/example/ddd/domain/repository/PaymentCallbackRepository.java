@@ -0,0 +1,72 @@
+package com.example.ddd.domain.repository;
+
+import com.example.ddd.domain.model.entity.PaymentCallback;
+import com.example.ddd.domain.model.valueobject.PaymentCallbackStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 支付回调仓储接口
+ *
+ * @author DDD Demo
+ */
+public interface PaymentCallbackRepository extends BaseRepository<PaymentCallback> {
+
+    /**
+     * 保存回调，支付单号、事件、交易流水号相同的回调已存在时不保存
+     *
+     * @param callback 回调（保存成功后回填ID）
+     * @return true 如果保存成功，false 表示重复回调
+     */
+    boolean saveIfAbsent(PaymentCallback callback);
+
+    /**
+     * 查询已到处理时间的待处理回调
+     *
+     * @param now   当前时间
+     * @param limit 最多返回数量
+     * @return 待处理回调，按下次处理时间升序
+     */
+    List<PaymentCallback> findDue(LocalDateTime now, int limit);
+
+    /**
+     * 同一支付单是否有更早接收（ID 更小）且仍待处理的回调
+     *
+     * @param paymentNo 支付单号
+     * @param id        当前回调ID
+     * @return true 如果存在
+     */
+    boolean existsEarlierPending(String paymentNo, Long id);
+
+    /**
+     * 推迟待处理回调的下次处理时间（重新入队后避免被重复扫描）
+     *
+     * @param ids           回调ID集合
+     * @param nextRetryTime 下次处理时间
+     * @return 影响行数
+     */
+    int postpone(Collection<Long> ids, LocalDateTime nextRetryTime);
+
+    /**
+     * 记录处理结果（待处理的回调才会更新）
+     *
+     * @param id     回调ID
+     * @param status 处理状态
+     * @param error  失败原因，处理成功时为 null
+     * @return 影响行数
+     */
+    int markFinished(Long id, PaymentCallbackStatus status, String error);
+
+    /**
+     * 记录处理失败，等待下次重试
+     *
+     * @param id            回调ID
+     * @param retryCount    已重试次数
+     * @param nextRetryTime 下次处理时间
+     * @param error         失败原因
+     * @return 影响行数
+     */
+    int scheduleRetry(Long id, int retryCount, LocalDateTime nextRetryTime, String error);
+}
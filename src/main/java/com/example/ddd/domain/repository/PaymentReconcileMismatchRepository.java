@@ -0,0 +1,39 @@
+package com.example.ddd.domain.repository;
+
+import com.example.ddd.domain.model.entity.PaymentReconcileMismatch;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 支付对账差异仓储接口
+ *
+ * @author DDD Demo
+ */
+public interface PaymentReconcileMismatchRepository extends BaseRepository<PaymentReconcileMismatch> {
+
+    /**
+     * 批量保存差异明细
+     *
+     * @param mismatches 差异明细
+     */
+    void saveBatch(List<PaymentReconcileMismatch> mismatches);
+
+    /**
+     * 删除指定日期早于指定批次的差异明细（新批次成功后清除旧结果）
+     *
+     * @param settleDate 对账日期
+     * @param runId      对账批次ID
+     * @return 删除行数
+     */
+    int deleteBySettleDateBeforeRun(LocalDate settleDate, Long runId);
+
+    /**
+     * 删除指定批次的差异明细（批次失败后清除已写入的部分结果）
+     *
+     * @param settleDate 对账日期
+     * @param runId      对账批次ID
+     * @return 删除行数
+     */
+    int deleteByRun(LocalDate settleDate, Long runId);
+}
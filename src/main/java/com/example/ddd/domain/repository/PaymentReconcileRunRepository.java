@@ -0,0 +1,11 @@
+package com.example.ddd.domain.repository;
+
+import com.example.ddd.domain.model.entity.PaymentReconcileRun;
+
+/**
+ * 支付对账批次仓储接口
+ *
+ * @author DDD Demo
+ */
+public interface PaymentReconcileRunRepository extends BaseRepository<PaymentReconcileRun> {
+}
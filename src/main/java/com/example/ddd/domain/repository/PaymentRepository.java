@@ -1,6 +1,10 @@
 package com.example.ddd.domain.repository;
 
 import com.example.ddd.domain.model.entity.Payment;
+import com.example.ddd.domain.model.valueobject.PaymentEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 支付记录仓储接口
@@ -32,4 +36,44 @@ public interface PaymentRepository extends BaseRepository<Payment> {
      * @return 支付记录
      */
     Payment findByOrderNo(String orderNo);
+
+    /**
+     * 按事件比较并更新支付状态
+     * 单条 UPDATE ... SET status = 目标状态 WHERE payment_no = ? AND status IN (该事件的合法源状态)
+     *
+     * @param paymentNo 支付单号
+     * @param event     触发的事件
+     * @return 受影响行数，0 表示支付记录不存在或当前状态不允许该事件
+     */
+    int transitionStatus(String paymentNo, PaymentEvent event);
+
+    /**
+     * 按订单ID比较并更新支付状态
+     *
+     * @param orderId 订单ID
+     * @param event   触发的事件
+     * @return 受影响行数，0 表示支付记录不存在或当前状态不允许该事件
+     */
+    int transitionStatusByOrderId(Long orderId, PaymentEvent event);
+
+    /**
+     * 比较并更新为支付成功，同时写入交易流水号和支付时间
+     *
+     * @param paymentNo     支付单号
+     * @param transactionId 第三方交易流水号
+     * @param payTime       支付时间
+     * @return 受影响行数，0 表示支付记录不存在或当前状态不允许支付成功
+     */
+    int markPaySuccess(String paymentNo, String transactionId, LocalDateTime payTime);
+
+    /**
+     * 按支付单号升序分批查询支付时间在指定区间内的支付记录（对账用）
+     *
+     * @param startTime      支付时间下限（包含）
+     * @param endTime        支付时间上限（不包含）
+     * @param afterPaymentNo 上一批最后一条的支付单号，第一批为 null
+     * @param limit          每批数量
+     * @return 支付记录，按支付单号升序
+     */
+    List<Payment> listPaidBetween(LocalDateTime startTime, LocalDateTime endTime, String afterPaymentNo, int limit);
 }
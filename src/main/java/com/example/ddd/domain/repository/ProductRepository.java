@@ -3,8 +3,10 @@ package com.example.ddd.domain.repository;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.example.ddd.domain.model.entity.Product;
+import com.example.ddd.domain.model.valueobject.KeysetCursor;
 import com.example.ddd.domain.model.valueobject.ProductStatus;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -15,6 +17,14 @@ import java.util.List;
  */
 public interface ProductRepository extends BaseRepository<Product> {
 
+    /**
+     * 根据多个ID批量查询商品
+     *
+     * @param ids 商品ID集合
+     * @return 商品列表（顺序不保证与入参一致）
+     */
+    List<Product> findByIds(Collection<Long> ids);
+
     /**
      * 根据店铺ID查询商品
      *
@@ -65,19 +75,38 @@ public interface ProductRepository extends BaseRepository<Product> {
     IPage<Product> pageOnSale(Page<Product> page);
 
     /**
-     * 搜索商品（按名称模糊查询）
+     * 按SKU重新计算并持久化商品的最低价格和总库存
+     *
+     * @param productId 商品ID
+     * @return 影响行数
+     */
+    int refreshSkuSummary(Long productId);
+
+    /**
+     * 按ID游标分批读取商品的SKU汇总字段
      *
-     * @param keyword 搜索关键词
+     * @param lastId 上一批最后一个商品ID（首批传 0）
+     * @param limit  每批数量
+     * @return 商品列表（仅包含 id、minPrice、totalStock，按ID升序）
+     */
+    List<Product> findSkuSummaryAfterId(Long lastId, int limit);
+
+    /**
+     * 游标分页查询在售商品（按创建时间、ID倒序，不查询总数）
+     *
+     * @param cursor 上一页最后一条记录的位置，第一页传 null
+     * @param limit  读取条数
      * @return 商品列表
      */
-    List<Product> searchByKeyword(String keyword);
+    List<Product> listOnSaleAfter(KeysetCursor cursor, int limit);
 
     /**
-     * 分页搜索商品（按名称模糊查询）
+     * 游标分页查询店铺的商品（按创建时间、ID倒序，不查询总数）
      *
-     * @param page    分页对象
-     * @param keyword 搜索关键词
-     * @return 分页结果
+     * @param shopId 店铺ID
+     * @param cursor 上一页最后一条记录的位置，第一页传 null
+     * @param limit  读取条数
+     * @return 商品列表
      */
-    IPage<Product> pageSearchByKeyword(Page<Product> page, String keyword);
+    List<Product> listByShopIdAfter(Long shopId, KeysetCursor cursor, int limit);
 }
@@ -0,0 +1,36 @@
+package com.example.ddd.domain.repository;
+
+import java.util.List;
+
+/**
+ * 商品搜索仓储接口
+ * 六边形架构的端口（Port），按关键词检索在售商品
+ *
+ * @author DDD Demo
+ */
+public interface ProductSearchRepository {
+
+    /**
+     * 按关键词搜索在售商品
+     * 匹配商品名称和描述，结果按相关度降序、相关度相同时按ID降序
+     *
+     * @param keyword 搜索关键词
+     * @return 排序后的商品ID列表
+     */
+    List<Long> search(String keyword);
+
+    /**
+     * 按数据库中的最新数据刷新单个商品的索引
+     * 在售商品加入索引，其他状态或已删除的商品移出索引
+     *
+     * @param productId 商品ID
+     */
+    void refresh(Long productId);
+
+    /**
+     * 从数据库全量重建索引
+     *
+     * @return 索引的商品数量
+     */
+    int rebuild();
+}
@@ -3,8 +3,11 @@ package com.example.ddd.domain.repository;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.example.ddd.domain.model.entity.ProductSku;
+import com.example.ddd.domain.model.valueobject.ProductSkuSummary;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 商品SKU仓储接口
@@ -23,7 +26,47 @@ public interface ProductSkuRepository extends BaseRepository<ProductSku> {
     List<ProductSku> findByProductId(Long productId);
 
     /**
-     * 扣减库存（乐观锁）
+     * 根据ID批量查询SKU
+     * 直接查询数据库，不经过按ID查询的缓存，需要最新库存时使用
+     *
+     * @param ids SKU ID集合
+     * @return SKU列表，不存在的ID不返回
+     */
+    List<ProductSku> findByIds(Collection<Long> ids);
+
+    /**
+     * 按商品批量汇总SKU（最低价格、总库存）
+     * 单条 GROUP BY 查询，没有SKU的商品不会出现在结果中
+     *
+     * @param productIds 商品ID集合
+     * @return 商品ID -> SKU汇总
+     */
+    Map<Long, ProductSkuSummary> summarizeByProductIds(Collection<Long> productIds);
+
+    /**
+     * 按配置的策略扣减库存（CAS 有限重试或条件原子扣减）
+     * 只在库存确实不足时返回 false，并发冲突不会导致失败
+     *
+     * @param skuId    SKU ID
+     * @param quantity 扣减数量
+     * @return 是否扣减成功
+     */
+    boolean deductStock(Long skuId, int quantity);
+
+    /**
+     * 批量扣减库存，全部成功或返回 false
+     * GUARDED 策略下为一条批量条件扣减语句加一条商品总库存更新，与SKU数量无关；
+     * CAS 策略下逐个调用 {@link #deductStock(Long, int)}。
+     * 返回 false 时可能已有部分SKU扣减成功，调用方须在事务内使用并回滚
+     *
+     * @param quantities SKU ID -> 扣减数量
+     * @return 是否全部扣减成功
+     */
+    boolean deductStockBatch(Map<Long, Integer> quantities);
+
+    /**
+     * 扣减库存（乐观锁，单次 CAS）
+     * 扣减成功时同步调整商品汇总的总库存
      *
      * @param skuId        SKU ID
      * @param quantity      扣减数量
@@ -34,10 +77,21 @@ public interface ProductSkuRepository extends BaseRepository<ProductSku> {
 
     /**
      * 增加库存
+     * 成功时同步调整商品汇总的总库存
      *
      * @param skuId   SKU ID
      * @param quantity 增加数量
      * @return 影响行数
      */
     int increaseStock(Long skuId, Integer quantity);
+
+    /**
+     * 按增量调整库存（条件原子扣减、秒杀预扣量回写）
+     * 增量为负时带 stock >= -delta 条件，不依赖当前库存版本；成功时同步调整商品汇总的总库存
+     *
+     * @param skuId SKU ID
+     * @param delta 库存增量，负数表示扣减
+     * @return 影响行数，0表示库存不足或SKU不存在
+     */
+    int adjustStock(Long skuId, int delta);
 }
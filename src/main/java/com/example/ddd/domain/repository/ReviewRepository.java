@@ -40,4 +40,13 @@ public interface ReviewRepository extends BaseRepository<Review> {
      * 统计商品好评数
      */
     long countPositiveByProductId(Long productId);
+
+    /**
+     * 按商品ID升序分批查询有评价的商品ID（重建评价统计用）
+     *
+     * @param afterProductId 上一批最后一个商品ID，第一批为 null
+     * @param limit          每批数量
+     * @return 商品ID，升序
+     */
+    List<Long> findProductIdsAfter(Long afterProductId, int limit);
 }
@@ -0,0 +1,53 @@
+package com.example.ddd.domain.repository;
+
+import com.example.ddd.domain.model.entity.ReviewStats;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 商品评价统计仓储接口
+ *
+ * @author DDD Demo
+ */
+public interface ReviewStatsRepository extends BaseRepository<ReviewStats> {
+
+    /**
+     * 根据商品ID查询评价统计
+     *
+     * @param productId 商品ID
+     * @return 评价统计，商品没有评价时返回各项为 0 的统计
+     */
+    ReviewStats findByProductId(Long productId);
+
+    /**
+     * 新增一条评价后原子累加统计（统计不存在时创建），应与保存评价在同一事务中调用
+     *
+     * @param productId 商品ID
+     * @param rating    评分（1-5）
+     */
+    void increment(Long productId, int rating);
+
+    /**
+     * 按评价表重新计算指定商品的统计（补数、修正偏差）
+     *
+     * @param productIds 商品ID集合
+     */
+    void rebuild(Collection<Long> productIds);
+
+    /**
+     * 按商品ID升序分批查询统计不为 0、但已没有有效评价的商品ID（评价全部删除后统计残留，重建时清零）
+     *
+     * @param afterProductId 上一批最后一个商品ID，第一批为 null
+     * @param limit          每批数量
+     * @return 商品ID，升序
+     */
+    List<Long> findStaleProductIdsAfter(Long afterProductId, int limit);
+
+    /**
+     * 将指定商品中已没有有效评价的统计清零
+     *
+     * @param productIds 商品ID集合
+     */
+    void reset(Collection<Long> productIds);
+}
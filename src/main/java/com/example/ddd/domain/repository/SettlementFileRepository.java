@@ -0,0 +1,30 @@
+package com.example.ddd.domain.repository;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * 渠道对账文件仓储接口
+ * 六边形架构的端口（Port）
+ *
+ * @author DDD Demo
+ */
+public interface SettlementFileRepository {
+
+    /**
+     * 判断指定日期的对账文件是否已下载
+     *
+     * @param settleDate 对账日期
+     * @return true 如果文件存在
+     */
+    boolean exists(LocalDate settleDate);
+
+    /**
+     * 打开指定日期的对账文件
+     *
+     * @param settleDate 对账日期
+     * @return 读取器，使用后需要关闭
+     * @throws IOException 文件不存在或无法读取
+     */
+    SettlementRecordReader open(LocalDate settleDate) throws IOException;
+}
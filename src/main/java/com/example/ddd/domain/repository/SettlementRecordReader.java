@@ -0,0 +1,60 @@
+package com.example.ddd.domain.repository;
+
+import com.example.ddd.domain.model.valueobject.PaymentStatus;
+
+import java.io.Closeable;
+
+/**
+ * 渠道对账文件读取器
+ * 按支付单号升序逐条读取对账记录；读取器复用同一个当前记录，读取过程不为每行创建对象，
+ * 只有需要保存差异时才通过 {@link #paymentNo()} 生成字符串
+ * 六边形架构的端口（Port）
+ *
+ * @author DDD Demo
+ */
+public interface SettlementRecordReader extends Closeable {
+
+    /**
+     * 读取下一条记录
+     *
+     * @return false 如果已读完
+     * @throws IllegalStateException 如果记录格式错误或未按支付单号升序排列
+     */
+    boolean next();
+
+    /**
+     * 当前记录的支付单号与指定支付单号比较（按字符逐位比较）
+     *
+     * @param paymentNo 支付单号
+     * @return 负数、零、正数分别表示当前记录小于、等于、大于指定支付单号
+     */
+    int comparePaymentNo(String paymentNo);
+
+    /**
+     * 当前记录的支付单号
+     *
+     * @return 支付单号
+     */
+    String paymentNo();
+
+    /**
+     * 当前记录的金额
+     *
+     * @return 金额（分）
+     */
+    long amountCent();
+
+    /**
+     * 当前记录的支付状态
+     *
+     * @return 支付状态
+     */
+    PaymentStatus status();
+
+    /**
+     * 当前记录所在行号（从 1 开始，含表头）
+     *
+     * @return 行号
+     */
+    long lineNumber();
+}
@@ -1,6 +1,7 @@
 package com.example.ddd.domain.service;
 
 import com.example.ddd.domain.model.entity.Category;
+import com.example.ddd.domain.model.valueobject.CategoryTree;
 import com.example.ddd.domain.repository.CategoryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -115,9 +116,9 @@ public class CategoryDomainService extends DomainService {
     /**
      * 获取分类树
      *
-     * @return 分类树列表
+     * @return 分类树（含内容版本）
      */
-    public List<Category> getCategoryTree() {
+    public CategoryTree getCategoryTree() {
         validate();
         return categoryRepository.buildCategoryTree();
     }
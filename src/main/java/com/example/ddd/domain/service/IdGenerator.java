@@ -0,0 +1,28 @@
+package com.example.ddd.domain.service;
+
+/**
+ * 全局唯一ID生成器
+ * 用于订单号、支付单号等业务编号，多节点部署下全局唯一且单节点内单调递增
+ * 六边形架构的端口（Port）
+ *
+ * @author DDD Demo
+ */
+public interface IdGenerator {
+
+    /**
+     * 生成下一个ID
+     *
+     * @return 全局唯一ID
+     */
+    long nextId();
+
+    /**
+     * 生成带前缀的业务编号
+     *
+     * @param prefix 前缀，如 ORD、PAY
+     * @return 业务编号
+     */
+    default String nextNo(String prefix) {
+        return prefix + nextId();
+    }
+}
@@ -3,7 +3,7 @@ package com.example.ddd.domain.service;
 import com.example.ddd.domain.model.entity.LoginLog;
 import com.example.ddd.domain.model.valueobject.LoginStatus;
 import com.example.ddd.domain.model.valueobject.Status;
-import com.example.ddd.domain.repository.LoginLogRepository;
+import com.example.ddd.domain.repository.LogSink;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -18,16 +18,17 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class LoginLogDomainService extends DomainService {
 
-    private final LoginLogRepository loginLogRepository;
+    private final LogSink<LoginLog> loginLogSink;
 
     /**
      * 记录登录日志
+     * 只放入缓冲区，由后台线程批量写入，不增加登录耗时
      *
      * @param loginLog 登录日志
      */
     public void recordLoginLog(LoginLog loginLog) {
         log.debug("记录登录日志: {}", loginLog.getUsername());
-        loginLogRepository.save(loginLog);
+        loginLogSink.append(loginLog);
     }
 
     /**
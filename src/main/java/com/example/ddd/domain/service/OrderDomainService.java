@@ -9,10 +9,17 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * 订单领域服务
@@ -27,14 +34,18 @@ public class OrderDomainService extends DomainService {
 
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
-    private final OrderStatusLogRepository orderStatusLogRepository;
+    private final LogSink<OrderStatusLog> orderStatusLogSink;
     private final CartItemRepository cartItemRepository;
     private final ProductSkuRepository productSkuRepository;
     private final ProductRepository productRepository;
+    private final StockReservationDomainService stockReservationDomainService;
+    private final IdGenerator idGenerator;
+    private final OrderTimeoutQueue orderTimeoutQueue;
 
     /**
      * 创建订单
      * 核心逻辑：生成订单号、计算金额、扣减库存、保存订单、清理购物车
+     * 商品和SKU批量查询、库存批量扣减、明细批量插入、购物车单条删除，语句数与明细数量无关
      *
      * @param order        订单实体
      * @param items        订单明细列表
@@ -46,7 +57,7 @@ public class OrderDomainService extends DomainService {
         validate();
 
         // 1. 生成订单号
-        order.setOrderNo("ORD" + System.currentTimeMillis());
+        order.setOrderNo(idGenerator.nextNo("ORD"));
 
         // 2. 设置初始状态
         order.setStatus(OrderStatus.PENDING);
@@ -59,9 +70,12 @@ public class OrderDomainService extends DomainService {
         order.setTotalAmount(totalAmount);
         order.setPayAmount(totalAmount); // 暂时没有优惠，实付金额等于总金额
 
-        // 4. 验证商品状态
+        // 4. 验证商品状态（一次批量查询）
+        Map<Long, Product> productMap = productRepository.findByIds(
+                items.stream().map(OrderItem::getProductId).collect(Collectors.toSet())
+        ).stream().collect(Collectors.toMap(Product::getId, Function.identity()));
         for (OrderItem item : items) {
-            Product product = productRepository.findById(item.getProductId());
+            Product product = productMap.get(item.getProductId());
             if (product == null) {
                 throw new IllegalArgumentException("商品不存在");
             }
@@ -70,50 +84,52 @@ public class OrderDomainService extends DomainService {
             }
         }
 
-        // 5. 扣减库存（乐观锁）
+        // 5. 扣减库存：秒杀SKU在 Redis 中预扣，其余SKU合并数量后批量扣减数据库库存
+        Set<Long> skuIds = productSkuRepository.findByIds(
+                items.stream().map(OrderItem::getSkuId).collect(Collectors.toSet())
+        ).stream().map(ProductSku::getId).collect(Collectors.toSet());
+        Map<Long, Integer> dbQuantities = new LinkedHashMap<>();
         for (OrderItem item : items) {
-            ProductSku sku = productSkuRepository.findById(item.getSkuId());
-            if (sku == null) {
+            if (!skuIds.contains(item.getSkuId())) {
                 throw new IllegalArgumentException("商品SKU不存在");
             }
-
-            int updated = productSkuRepository.decreaseStock(
-                    item.getSkuId(),
-                    item.getQuantity(),
-                    sku.getStock().getValue()  // 乐观锁版本
-            );
-
-            if (updated == 0) {
-                throw new IllegalArgumentException("商品库存不足");
+            if (stockReservationDomainService.tryReserve(item.getSkuId(), item.getQuantity())) {
+                continue;
             }
+            dbQuantities.merge(item.getSkuId(), item.getQuantity(), Integer::sum);
+        }
+        if (!productSkuRepository.deductStockBatch(dbQuantities)) {
+            throw new IllegalArgumentException("商品库存不足");
         }
 
         // 6. 保存订单
         Order savedOrder = orderRepository.save(order);
 
-        // 7. 保存订单明细
+        // 7. 批量保存订单明细
         for (OrderItem item : items) {
             item.setOrderId(savedOrder.getId());
             item.calculateTotalAmount();
-            orderItemRepository.save(item);
         }
+        orderItemRepository.saveBatch(items);
 
         // 8. 记录状态日志
         recordStatusLog(savedOrder.getId(), null, OrderStatus.PENDING.getValue(), "创建订单");
 
-        // 9. 清理购物车（使用物理删除，避免逻辑删除导致的唯一约束冲突）
+        // 9. 清理购物车（单条 DELETE ... IN 物理删除，避免逻辑删除导致的唯一约束冲突）
         if (cartItemIds != null && !cartItemIds.isEmpty()) {
-            for (Long cartItemId : cartItemIds) {
-                cartItemRepository.physicalDeleteById(cartItemId);
-            }
+            cartItemRepository.physicalDeleteByIds(cartItemIds);
         }
 
+        // 10. 提交后加入支付超时延时队列
+        LocalDateTime deadline = LocalDateTime.now().plusMinutes(Order.PAY_TIMEOUT_MINUTES);
+        afterCommit(() -> orderTimeoutQueue.add(savedOrder.getId(), deadline));
+
         return savedOrder;
     }
 
     /**
      * 取消订单
-     * 恢复库存
+     * 状态按条件更新（仅待支付可取消），与并发的支付、超时取消互斥，成功后恢复库存
      *
      * @param orderId 订单ID
      * @param userId  用户ID（用于验证权限）
@@ -133,59 +149,56 @@ public class OrderDomainService extends DomainService {
             throw new IllegalArgumentException("无权操作此订单");
         }
 
-        // 使用事件驱动的状态转换
-        OrderStatus oldStatus = order.getStatus();
-        try {
-            order.transitionStatus(OrderEvent.CANCEL);
-        } catch (IllegalStateException e) {
-            throw new IllegalArgumentException(e.getMessage());
+        // 条件更新状态和取消时间
+        LocalDateTime now = LocalDateTime.now();
+        if (orderRepository.transitionStatus(orderId, OrderEvent.CANCEL, now) == 0) {
+            throw rejectTransition(orderId, OrderEvent.CANCEL);
         }
+        order.setStatus(OrderStatus.targetOf(OrderEvent.CANCEL));
+        order.setCancelTime(now);
 
         // 恢复库存
-        List<OrderItem> items = orderItemRepository.findByOrderId(orderId);
-        for (OrderItem item : items) {
-            productSkuRepository.increaseStock(item.getSkuId(), item.getQuantity());
-        }
-
-        // 设置取消时间
-        order.setCancelTime(LocalDateTime.now());
-        orderRepository.update(order);
+        restoreStock(orderId);
 
         // 记录状态日志
-        recordStatusLog(orderId, oldStatus.getValue(), order.getStatus().getValue(), "取消订单");
+        recordStatusLog(orderId, OrderStatus.PENDING.getValue(), order.getStatus().getValue(), "取消订单");
+        afterCommit(() -> orderTimeoutQueue.remove(orderId));
 
         return order;
     }
 
     /**
-     * 支付订单
+     * 超时自动取消订单（系统操作，无需验证用户权限）
+     * 每个订单独立事务，直接按条件更新状态，订单已支付、已取消或不存在时影响行数为0，直接跳过
      *
      * @param orderId 订单ID
-     * @return 更新后的订单
+     * @return 是否取消成功
      */
     @Transactional(rollbackFor = Exception.class)
-    public Order payOrder(Long orderId) {
+    public boolean cancelTimeoutOrder(Long orderId) {
         validate();
 
-        Order order = orderRepository.findById(orderId);
-        if (order == null) {
-            throw new IllegalArgumentException("订单不存在");
+        if (orderRepository.transitionStatus(orderId, OrderEvent.CANCEL, LocalDateTime.now()) == 0) {
+            return false;
         }
 
-        // 使用事件驱动的状态转换
-        OrderStatus oldStatus = order.getStatus();
-        try {
-            order.transitionStatus(OrderEvent.PAY);
-        } catch (IllegalStateException e) {
-            throw new IllegalArgumentException(e.getMessage());
-        }
+        restoreStock(orderId);
+        recordStatusLog(orderId, OrderStatus.PENDING.getValue(), OrderStatus.CANCELLED.getValue(), "超时自动取消");
+        return true;
+    }
 
-        // 设置支付时间
-        order.setPayTime(LocalDateTime.now());
-        orderRepository.update(order);
+    /**
+     * 支付订单
+     *
+     * @param orderId 订单ID
+     * @return 更新后的订单
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public Order payOrder(Long orderId) {
+        validate();
 
-        // 记录状态日志
-        recordStatusLog(orderId, oldStatus.getValue(), order.getStatus().getValue(), "支付成功");
+        Order order = transition(orderId, OrderEvent.PAY, "支付成功");
+        afterCommit(() -> orderTimeoutQueue.remove(orderId));
 
         return order;
     }
@@ -200,27 +213,7 @@ public class OrderDomainService extends DomainService {
     public Order shipOrder(Long orderId) {
         validate();
 
-        Order order = orderRepository.findById(orderId);
-        if (order == null) {
-            throw new IllegalArgumentException("订单不存在");
-        }
-
-        // 使用事件驱动的状态转换
-        OrderStatus oldStatus = order.getStatus();
-        try {
-            order.transitionStatus(OrderEvent.SHIP);
-        } catch (IllegalStateException e) {
-            throw new IllegalArgumentException(e.getMessage());
-        }
-
-        // 设置发货时间
-        order.setShipTime(LocalDateTime.now());
-        orderRepository.update(order);
-
-        // 记录状态日志
-        recordStatusLog(orderId, oldStatus.getValue(), order.getStatus().getValue(), "发货");
-
-        return order;
+        return transition(orderId, OrderEvent.SHIP, "发货");
     }
 
     /**
@@ -233,31 +226,93 @@ public class OrderDomainService extends DomainService {
     public Order completeOrder(Long orderId) {
         validate();
 
+        return transition(orderId, OrderEvent.CONFIRM, "确认收货");
+    }
+
+    /**
+     * 按事件条件更新订单状态并记录状态日志
+     * 不先查询再判断，状态校验由 UPDATE 的 WHERE 条件完成，并发转换不会互相覆盖
+     *
+     * @param orderId 订单ID
+     * @param event   触发的事件（源状态唯一）
+     * @param remark  日志备注
+     * @return 更新后的订单
+     */
+    private Order transition(Long orderId, OrderEvent event, String remark) {
+        if (orderRepository.transitionStatus(orderId, event, LocalDateTime.now()) == 0) {
+            throw rejectTransition(orderId, event);
+        }
+
+        Set<OrderStatus> sources = OrderStatus.sourceStatesOf(event);
+        Integer oldStatus = sources.size() == 1 ? sources.iterator().next().getValue() : null;
+        recordStatusLog(orderId, oldStatus, OrderStatus.targetOf(event).getValue(), remark);
+
+        return orderRepository.findById(orderId);
+    }
+
+    /**
+     * 条件更新未命中时，查询订单当前状态生成错误信息
+     *
+     * @param orderId 订单ID
+     * @param event   触发的事件
+     * @return 异常
+     */
+    private IllegalArgumentException rejectTransition(Long orderId, OrderEvent event) {
         Order order = orderRepository.findById(orderId);
         if (order == null) {
-            throw new IllegalArgumentException("订单不存在");
+            return new IllegalArgumentException("订单不存在");
         }
-
-        // 使用事件驱动的状态转换
-        OrderStatus oldStatus = order.getStatus();
         try {
-            order.transitionStatus(OrderEvent.CONFIRM);
+            order.getStatus().transition(event);
         } catch (IllegalStateException e) {
-            throw new IllegalArgumentException(e.getMessage());
+            return new IllegalArgumentException(e.getMessage());
         }
+        return new IllegalArgumentException("订单状态已变更，请重试");
+    }
 
-        // 设置完成时间
-        order.setCompleteTime(LocalDateTime.now());
-        orderRepository.update(order);
-
-        // 记录状态日志
-        recordStatusLog(orderId, oldStatus.getValue(), order.getStatus().getValue(), "确认收货");
+    /**
+     * 恢复订单明细占用的库存
+     *
+     * @param orderId 订单ID
+     */
+    private void restoreStock(Long orderId) {
+        List<OrderItem> items = orderItemRepository.findByOrderId(orderId);
+        for (OrderItem item : items) {
+            if (!stockReservationDomainService.tryRestore(item.getSkuId(), item.getQuantity())) {
+                productSkuRepository.increaseStock(item.getSkuId(), item.getQuantity());
+            }
+        }
+    }
 
-        return order;
+    /**
+     * 在当前事务提交后执行，没有事务时立即执行
+     * 延时队列是辅助索引，失败只记录日志，由超时补偿扫描兜底
+     *
+     * @param action 动作
+     */
+    private void afterCommit(Runnable action) {
+        Runnable safeAction = () -> {
+            try {
+                action.run();
+            } catch (Exception e) {
+                log.error("更新订单超时队列失败", e);
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            safeAction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                safeAction.run();
+            }
+        });
     }
 
     /**
      * 记录状态日志
+     * 默认事务提交后异步批量写入，配置为同步时随当前事务写入
      *
      * @param orderId   订单ID
      * @param oldStatus  原状态
@@ -271,6 +326,6 @@ public class OrderDomainService extends DomainService {
         log.setNewStatus(newStatus);
         log.setRemark(remark);
         log.setOperator("SYSTEM");
-        orderStatusLogRepository.save(log);
+        orderStatusLogSink.append(log);
     }
 }
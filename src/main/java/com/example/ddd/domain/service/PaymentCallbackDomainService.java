@@ -0,0 +1,103 @@
+package com.example.ddd.domain.service;
+
+import com.example.ddd.domain.model.entity.Payment;
+import com.example.ddd.domain.model.entity.PaymentCallback;
+import com.example.ddd.domain.model.valueobject.PaymentCallbackStatus;
+import com.example.ddd.domain.model.valueobject.PaymentEvent;
+import com.example.ddd.domain.model.valueobject.PaymentStatus;
+import com.example.ddd.domain.repository.PaymentCallbackRepository;
+import com.example.ddd.domain.repository.PaymentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 支付回调领域服务
+ * 把已落库的支付、退款回调应用到支付记录上，并记录处理结果
+ *
+ * @author DDD Demo
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PaymentCallbackDomainService extends DomainService {
+
+    /**
+     * 支付网关会通知的事件
+     */
+    public static final Set<PaymentEvent> CALLBACK_EVENTS = Set.of(
+            PaymentEvent.PAY_SUCCESS, PaymentEvent.PAY_FAILED,
+            PaymentEvent.REFUND_SUCCESS, PaymentEvent.REFUND_FAILED);
+
+    private final PaymentDomainService paymentDomainService;
+    private final PaymentRepository paymentRepository;
+    private final PaymentCallbackRepository paymentCallbackRepository;
+
+    /**
+     * 处理一条回调
+     * 同一支付单的回调按接收顺序（回调ID）处理：有更早的回调仍待处理时（可能在其他节点的队列中或等待重试）
+     * 不处理，由调用方推迟，避免退款回调先于重试中的支付成功回调执行而被永久拒绝。
+     * 支付状态不允许该回调时记录为已拒绝；回调此前已生效（如记录结果前进程退出后重试）时记录为已处理。
+     * 数据库异常等其他错误原样抛出，由调用方安排重试
+     *
+     * @param callback 已保存的回调
+     * @return false 如果有更早的回调待处理，本回调未处理
+     */
+    public boolean process(PaymentCallback callback) {
+        validate();
+
+        if (paymentCallbackRepository.existsEarlierPending(callback.getPaymentNo(), callback.getId())) {
+            log.info("支付回调等待更早的回调处理完成: id={}, paymentNo={}, event={}",
+                    callback.getId(), callback.getPaymentNo(), callback.getEvent());
+            return false;
+        }
+        try {
+            apply(callback);
+        } catch (IllegalArgumentException e) {
+            Payment payment = paymentRepository.findByPaymentNo(callback.getPaymentNo());
+            if (payment != null && payment.getStatus().canTrigger(callback.getEvent())) {
+                // 支付状态在两次查询之间被并发修改，仍可处理，交给重试
+                throw e;
+            }
+            if (!isApplied(payment, callback)) {
+                log.warn("支付回调被拒绝: paymentNo={}, event={}, transactionId={}, reason={}",
+                        callback.getPaymentNo(), callback.getEvent(), callback.getTransactionId(), e.getMessage());
+                paymentCallbackRepository.markFinished(callback.getId(), PaymentCallbackStatus.REJECTED, e.getMessage());
+                return true;
+            }
+        }
+        paymentCallbackRepository.markFinished(callback.getId(), PaymentCallbackStatus.SUCCEEDED, null);
+        return true;
+    }
+
+    /**
+     * 按回调事件更新支付记录（各方法自带事务和条件更新）
+     */
+    private void apply(PaymentCallback callback) {
+        String paymentNo = callback.getPaymentNo();
+        switch (callback.getEvent()) {
+            case PAY_SUCCESS -> paymentDomainService.handlePaymentSuccess(paymentNo, callback.getTransactionId());
+            case PAY_FAILED -> paymentDomainService.handlePaymentFailed(paymentNo);
+            case REFUND_SUCCESS -> paymentDomainService.handleRefundSuccess(paymentNo);
+            case REFUND_FAILED -> paymentDomainService.handleRefundFailed(paymentNo);
+            default -> throw new IllegalArgumentException("不支持的回调事件: " + callback.getEvent());
+        }
+    }
+
+    /**
+     * 判断回调是否已经生效：支付记录处于该事件的目标状态，支付成功回调还要求交易流水号一致
+     */
+    private boolean isApplied(Payment payment, PaymentCallback callback) {
+        if (payment == null || !CALLBACK_EVENTS.contains(callback.getEvent())) {
+            return false;
+        }
+        if (payment.getStatus() != PaymentStatus.targetOf(callback.getEvent())) {
+            return false;
+        }
+        return callback.getEvent() != PaymentEvent.PAY_SUCCESS
+                || Objects.equals(payment.getTransactionId(), callback.getTransactionId());
+    }
+}
@@ -25,6 +25,7 @@ public class PaymentDomainService extends DomainService {
 
     private final PaymentRepository paymentRepository;
     private final OrderRepository orderRepository;
+    private final IdGenerator idGenerator;
 
     /**
      * 创建支付记录
@@ -54,7 +55,7 @@ public class PaymentDomainService extends DomainService {
 
         // 创建支付记录
         Payment payment = new Payment();
-        payment.setPaymentNo("PAY" + System.currentTimeMillis());
+        payment.setPaymentNo(idGenerator.nextNo("PAY"));
         payment.setOrderId(orderId);
         payment.setOrderNo(order.getOrderNo());
         payment.setPaymentMethod(paymentMethod);
@@ -66,6 +67,7 @@ public class PaymentDomainService extends DomainService {
 
     /**
      * 处理支付成功回调（模拟）
+     * 支付状态按条件更新，重复或并发回调只有一次生效
      *
      * @param paymentNo     支付单号
      * @param transactionId 第三方交易流水号
@@ -74,34 +76,14 @@ public class PaymentDomainService extends DomainService {
     public void handlePaymentSuccess(String paymentNo, String transactionId) {
         validate();
 
-        Payment payment = paymentRepository.findByPaymentNo(paymentNo);
-        if (payment == null) {
-            throw new IllegalArgumentException("支付记录不存在");
+        LocalDateTime now = LocalDateTime.now();
+        if (paymentRepository.markPaySuccess(paymentNo, transactionId, now) == 0) {
+            throw rejectTransition(paymentRepository.findByPaymentNo(paymentNo), PaymentEvent.PAY_SUCCESS);
         }
 
-        // 使用事件驱动的状态转换
-        PaymentStatus oldStatus = payment.getStatus();
-        try {
-            payment.setStatus(payment.getStatus().transition(PaymentEvent.PAY_SUCCESS));
-        } catch (IllegalStateException e) {
-            throw new IllegalArgumentException(e.getMessage());
-        }
-
-        payment.setTransactionId(transactionId);
-        payment.setPayTime(LocalDateTime.now());
-        paymentRepository.update(payment);
-
         // 更新订单状态为已支付
-        Order order = orderRepository.findById(payment.getOrderId());
-        if (order != null) {
-            try {
-                order.transitionStatus(OrderEvent.PAY);
-                order.setPayTime(LocalDateTime.now());
-                orderRepository.update(order);
-            } catch (IllegalStateException e) {
-                log.warn("订单状态更新失败: {}", e.getMessage());
-            }
-        }
+        Payment payment = paymentRepository.findByPaymentNo(paymentNo);
+        transitionOrder(payment.getOrderId(), OrderEvent.PAY, now);
     }
 
     /**
@@ -113,19 +95,9 @@ public class PaymentDomainService extends DomainService {
     public void handlePaymentFailed(String paymentNo) {
         validate();
 
-        Payment payment = paymentRepository.findByPaymentNo(paymentNo);
-        if (payment == null) {
-            throw new IllegalArgumentException("支付记录不存在");
-        }
-
-        // 使用事件驱动的状态转换
-        try {
-            payment.setStatus(payment.getStatus().transition(PaymentEvent.PAY_FAILED));
-        } catch (IllegalStateException e) {
-            throw new IllegalArgumentException(e.getMessage());
+        if (paymentRepository.transitionStatus(paymentNo, PaymentEvent.PAY_FAILED) == 0) {
+            throw rejectTransition(paymentRepository.findByPaymentNo(paymentNo), PaymentEvent.PAY_FAILED);
         }
-
-        paymentRepository.update(payment);
     }
 
     /**
@@ -137,19 +109,9 @@ public class PaymentDomainService extends DomainService {
     public void applyRefund(Long orderId) {
         validate();
 
-        Payment payment = paymentRepository.findByOrderId(orderId);
-        if (payment == null) {
-            throw new IllegalArgumentException("支付记录不存在");
+        if (paymentRepository.transitionStatusByOrderId(orderId, PaymentEvent.APPLY_REFUND) == 0) {
+            throw rejectTransition(paymentRepository.findByOrderId(orderId), PaymentEvent.APPLY_REFUND);
         }
-
-        // 使用事件驱动的状态转换
-        try {
-            payment.setStatus(payment.getStatus().transition(PaymentEvent.APPLY_REFUND));
-        } catch (IllegalStateException e) {
-            throw new IllegalArgumentException(e.getMessage());
-        }
-
-        paymentRepository.update(payment);
     }
 
     /**
@@ -161,30 +123,13 @@ public class PaymentDomainService extends DomainService {
     public void handleRefundSuccess(String paymentNo) {
         validate();
 
-        Payment payment = paymentRepository.findByPaymentNo(paymentNo);
-        if (payment == null) {
-            throw new IllegalArgumentException("支付记录不存在");
+        if (paymentRepository.transitionStatus(paymentNo, PaymentEvent.REFUND_SUCCESS) == 0) {
+            throw rejectTransition(paymentRepository.findByPaymentNo(paymentNo), PaymentEvent.REFUND_SUCCESS);
         }
 
-        // 使用事件驱动的状态转换
-        try {
-            payment.setStatus(payment.getStatus().transition(PaymentEvent.REFUND_SUCCESS));
-        } catch (IllegalStateException e) {
-            throw new IllegalArgumentException(e.getMessage());
-        }
-
-        paymentRepository.update(payment);
-
         // 更新订单状态为已退款
-        Order order = orderRepository.findById(payment.getOrderId());
-        if (order != null) {
-            try {
-                order.transitionStatus(OrderEvent.REFUND_SUCCESS);
-                orderRepository.update(order);
-            } catch (IllegalStateException e) {
-                log.warn("订单状态更新失败: {}", e.getMessage());
-            }
-        }
+        Payment payment = paymentRepository.findByPaymentNo(paymentNo);
+        transitionOrder(payment.getOrderId(), OrderEvent.REFUND_SUCCESS, LocalDateTime.now());
     }
 
     /**
@@ -196,29 +141,44 @@ public class PaymentDomainService extends DomainService {
     public void handleRefundFailed(String paymentNo) {
         validate();
 
+        if (paymentRepository.transitionStatus(paymentNo, PaymentEvent.REFUND_FAILED) == 0) {
+            throw rejectTransition(paymentRepository.findByPaymentNo(paymentNo), PaymentEvent.REFUND_FAILED);
+        }
+
+        // 更新订单状态（退款失败回退到已完成）
         Payment payment = paymentRepository.findByPaymentNo(paymentNo);
-        if (payment == null) {
-            throw new IllegalArgumentException("支付记录不存在");
+        transitionOrder(payment.getOrderId(), OrderEvent.REFUND_FAILED, LocalDateTime.now());
+    }
+
+    /**
+     * 按条件更新关联订单的状态，订单状态不匹配时只记录警告，不影响支付结果
+     *
+     * @param orderId 订单ID
+     * @param event   订单事件
+     * @param time    事件时间
+     */
+    private void transitionOrder(Long orderId, OrderEvent event, LocalDateTime time) {
+        if (orderRepository.transitionStatus(orderId, event, time) == 0) {
+            log.warn("订单状态更新失败: 订单 {} 当前状态不允许【{}】操作", orderId, event.getDescription());
         }
+    }
 
-        // 使用事件驱动的状态转换
+    /**
+     * 条件更新未命中时，根据支付记录当前状态生成错误信息
+     *
+     * @param payment 重新查询的支付记录
+     * @param event   触发的事件
+     * @return 异常
+     */
+    private IllegalArgumentException rejectTransition(Payment payment, PaymentEvent event) {
+        if (payment == null) {
+            return new IllegalArgumentException("支付记录不存在");
+        }
         try {
-            payment.setStatus(payment.getStatus().transition(PaymentEvent.REFUND_FAILED));
+            payment.getStatus().transition(event);
         } catch (IllegalStateException e) {
-            throw new IllegalArgumentException(e.getMessage());
-        }
-
-        paymentRepository.update(payment);
-
-        // 更新订单状态（退款失败回退到已完成）
-        Order order = orderRepository.findById(payment.getOrderId());
-        if (order != null) {
-            try {
-                order.transitionStatus(OrderEvent.REFUND_FAILED);
-                orderRepository.update(order);
-            } catch (IllegalStateException e) {
-                log.warn("订单状态更新失败: {}", e.getMessage());
-            }
+            return new IllegalArgumentException(e.getMessage());
         }
+        return new IllegalArgumentException("支付状态已变更，请重试");
     }
 }
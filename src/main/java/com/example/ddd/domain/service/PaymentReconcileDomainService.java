@@ -0,0 +1,243 @@
+package com.example.ddd.domain.service;
+
+import com.example.ddd.domain.model.entity.Payment;
+import com.example.ddd.domain.model.entity.PaymentReconcileMismatch;
+import com.example.ddd.domain.model.entity.PaymentReconcileRun;
+import com.example.ddd.domain.model.valueobject.Money;
+import com.example.ddd.domain.model.valueobject.PaymentStatus;
+import com.example.ddd.domain.model.valueobject.ReconcileMismatchType;
+import com.example.ddd.domain.model.valueobject.ReconcileResult;
+import com.example.ddd.domain.model.valueobject.ReconcileRunStatus;
+import com.example.ddd.domain.repository.PaymentReconcileMismatchRepository;
+import com.example.ddd.domain.repository.PaymentReconcileRunRepository;
+import com.example.ddd.domain.repository.PaymentRepository;
+import com.example.ddd.domain.repository.SettlementRecordReader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 支付对账领域服务
+ * 渠道对账文件和本地支付记录都按支付单号升序，两路归并逐笔比对：
+ * 本地记录按支付单号游标分批读取，内存中只保留一批支付记录和一批待写入的差异。
+ * 每次对账登记一个批次，差异明细带批次ID写入，批次成功后才清除该日期的旧结果，
+ * 中途失败时旧结果保持不变
+ *
+ * @author DDD Demo
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PaymentReconcileDomainService extends DomainService {
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentReconcileMismatchRepository mismatchRepository;
+    private final PaymentReconcileRunRepository runRepository;
+
+    /**
+     * 对账：比对指定日期支付成功的本地支付记录与渠道对账文件，差异写入差异表；
+     * 全部写完后替换该日期之前的结果，失败时清除本次已写入的差异并保留之前的结果
+     *
+     * @param settleDate      对账日期，本地取支付时间在当日的支付记录
+     * @param reader          对账文件读取器
+     * @param chunkSize       每批读取的本地支付记录数
+     * @param reportBatchSize 差异明细批量写入条数
+     * @return 对账结果
+     */
+    public ReconcileResult reconcile(LocalDate settleDate, SettlementRecordReader reader,
+                                     int chunkSize, int reportBatchSize) {
+        validate();
+
+        long startNanos = System.nanoTime();
+        PaymentReconcileRun run = new PaymentReconcileRun();
+        run.setSettleDate(settleDate);
+        run.setStatus(ReconcileRunStatus.RUNNING);
+        runRepository.save(run);
+
+        ReconcileResult result;
+        try {
+            result = merge(settleDate, run.getId(), reader, chunkSize, reportBatchSize, startNanos);
+        } catch (RuntimeException e) {
+            failRun(run, e);
+            throw e;
+        }
+        completeRun(run, result);
+
+        log.info("支付对账完成: 日期={}, 批次={}, 对账文件 {} 行, 本地支付 {} 笔, 差异 {} 笔, 耗时 {} ms, {} 行/秒",
+                settleDate, run.getId(), result.getLines(), result.getPayments(), result.getMismatches(),
+                result.getElapsed().toMillis(), result.getLinesPerSecond());
+        return result;
+    }
+
+    /**
+     * 两路归并：对账文件与本地支付记录都按支付单号升序，差异写入指定批次
+     */
+    private ReconcileResult merge(LocalDate settleDate, Long runId, SettlementRecordReader reader,
+                                  int chunkSize, int reportBatchSize, long startNanos) {
+        PaymentCursor payments = new PaymentCursor(settleDate.atStartOfDay(),
+                settleDate.plusDays(1).atStartOfDay(), chunkSize);
+        MismatchReport report = new MismatchReport(settleDate, runId, reportBatchSize);
+        long lines = 0;
+
+        boolean hasLine = reader.next();
+        Payment payment = payments.next();
+        while (hasLine || payment != null) {
+            int cmp = !hasLine ? 1 : payment == null ? -1 : reader.comparePaymentNo(payment.getPaymentNo());
+            if (cmp < 0) {
+                report.add(reader.paymentNo(), ReconcileMismatchType.LOCAL_MISSING,
+                        null, Money.ofCent(reader.amountCent()), null, reader.status());
+            } else if (cmp > 0) {
+                report.add(payment.getPaymentNo(), ReconcileMismatchType.PROVIDER_MISSING,
+                        payment.getAmount(), null, payment.getStatus(), null);
+            } else {
+                compare(payment, reader, report);
+            }
+            if (cmp <= 0) {
+                lines++;
+                hasLine = reader.next();
+            }
+            if (cmp >= 0) {
+                payment = payments.next();
+            }
+        }
+        report.flush();
+
+        return new ReconcileResult(settleDate, lines, payments.count, report.count,
+                Duration.ofNanos(System.nanoTime() - startNanos));
+    }
+
+    /**
+     * 批次成功：先标记成功使本批次成为该日期的有效结果，再清除更早批次的差异明细
+     */
+    private void completeRun(PaymentReconcileRun run, ReconcileResult result) {
+        run.setStatus(ReconcileRunStatus.SUCCEEDED);
+        run.setLineCount(result.getLines());
+        run.setPaymentCount(result.getPayments());
+        run.setMismatchCount(result.getMismatches());
+        run.setFinishTime(LocalDateTime.now());
+        runRepository.update(run);
+        try {
+            mismatchRepository.deleteBySettleDateBeforeRun(run.getSettleDate(), run.getId());
+        } catch (Exception e) {
+            // 旧明细不属于最新的成功批次，残留不影响结果，下次对账时一并清除
+            log.warn("清除旧对账差异失败: 日期={}, 批次={}, error={}", run.getSettleDate(), run.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * 批次失败：清除本批次已写入的差异明细，之前的成功批次保持有效
+     */
+    private void failRun(PaymentReconcileRun run, RuntimeException cause) {
+        try {
+            mismatchRepository.deleteByRun(run.getSettleDate(), run.getId());
+            run.setStatus(ReconcileRunStatus.FAILED);
+            run.setFinishTime(LocalDateTime.now());
+            run.setLastError(cause.getMessage());
+            runRepository.update(run);
+        } catch (Exception e) {
+            log.error("对账批次 {} 标记失败时出错", run.getId(), e);
+        }
+    }
+
+    /**
+     * 比对双方都有的一笔支付：金额和状态分别记录差异
+     */
+    private void compare(Payment payment, SettlementRecordReader reader, MismatchReport report) {
+        Money localAmount = payment.getAmount();
+        if (localAmount == null || localAmount.toCent() != reader.amountCent()) {
+            report.add(payment.getPaymentNo(), ReconcileMismatchType.AMOUNT_MISMATCH,
+                    localAmount, Money.ofCent(reader.amountCent()), payment.getStatus(), reader.status());
+        }
+        if (payment.getStatus() != reader.status()) {
+            report.add(payment.getPaymentNo(), ReconcileMismatchType.STATUS_MISMATCH,
+                    localAmount, Money.ofCent(reader.amountCent()), payment.getStatus(), reader.status());
+        }
+    }
+
+    /**
+     * 本地支付记录游标：按支付单号升序分批读取
+     */
+    private class PaymentCursor {
+
+        private final LocalDateTime startTime;
+        private final LocalDateTime endTime;
+        private final int chunkSize;
+        private List<Payment> chunk = List.of();
+        private int index;
+        private boolean exhausted;
+        private long count;
+
+        PaymentCursor(LocalDateTime startTime, LocalDateTime endTime, int chunkSize) {
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.chunkSize = chunkSize;
+        }
+
+        Payment next() {
+            if (index == chunk.size()) {
+                if (exhausted) {
+                    return null;
+                }
+                String after = chunk.isEmpty() ? null : chunk.get(chunk.size() - 1).getPaymentNo();
+                chunk = paymentRepository.listPaidBetween(startTime, endTime, after, chunkSize);
+                index = 0;
+                exhausted = chunk.size() < chunkSize;
+                if (chunk.isEmpty()) {
+                    return null;
+                }
+            }
+            count++;
+            return chunk.get(index++);
+        }
+    }
+
+    /**
+     * 差异明细缓冲：攒满一批写入
+     */
+    private class MismatchReport {
+
+        private final LocalDate settleDate;
+        private final Long runId;
+        private final int batchSize;
+        private final List<PaymentReconcileMismatch> buffer;
+        private long count;
+
+        MismatchReport(LocalDate settleDate, Long runId, int batchSize) {
+            this.settleDate = settleDate;
+            this.runId = runId;
+            this.batchSize = batchSize;
+            this.buffer = new ArrayList<>(batchSize);
+        }
+
+        void add(String paymentNo, ReconcileMismatchType type, Money localAmount, Money providerAmount,
+                 PaymentStatus localStatus, PaymentStatus providerStatus) {
+            PaymentReconcileMismatch mismatch = new PaymentReconcileMismatch();
+            mismatch.setRunId(runId);
+            mismatch.setSettleDate(settleDate);
+            mismatch.setPaymentNo(paymentNo);
+            mismatch.setType(type);
+            mismatch.setLocalAmount(localAmount);
+            mismatch.setProviderAmount(providerAmount);
+            mismatch.setLocalStatus(localStatus);
+            mismatch.setProviderStatus(providerStatus);
+            buffer.add(mismatch);
+            count++;
+            if (buffer.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (!buffer.isEmpty()) {
+                mismatchRepository.saveBatch(new ArrayList<>(buffer));
+                buffer.clear();
+            }
+        }
+    }
+}
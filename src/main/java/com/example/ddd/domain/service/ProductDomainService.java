@@ -3,16 +3,22 @@ package com.example.ddd.domain.service;
 import com.example.ddd.domain.model.entity.Product;
 import com.example.ddd.domain.model.entity.ProductImage;
 import com.example.ddd.domain.model.entity.ProductSku;
+import com.example.ddd.domain.model.valueobject.ProductSkuSummary;
 import com.example.ddd.domain.model.valueobject.ProductStatus;
 import com.example.ddd.domain.repository.ProductImageRepository;
 import com.example.ddd.domain.repository.ProductRepository;
+import com.example.ddd.domain.repository.ProductSearchRepository;
 import com.example.ddd.domain.repository.ProductSkuRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * 商品领域服务
@@ -25,9 +31,15 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ProductDomainService extends DomainService {
 
+    /**
+     * 汇总修复每批处理的商品数量
+     */
+    private static final int SUMMARY_REBUILD_BATCH_SIZE = 500;
+
     private final ProductRepository productRepository;
     private final ProductSkuRepository productSkuRepository;
     private final ProductImageRepository productImageRepository;
+    private final ProductSearchRepository productSearchRepository;
 
     /**
      * 创建商品
@@ -55,6 +67,7 @@ public class ProductDomainService extends DomainService {
                 sku.setProductId(saved.getId());
                 productSkuRepository.save(sku);
             }
+            productRepository.refreshSkuSummary(saved.getId());
         }
 
         // 保存图片
@@ -65,6 +78,7 @@ public class ProductDomainService extends DomainService {
             }
         }
 
+        refreshSearchIndexAfterCommit(saved.getId());
         return saved;
     }
 
@@ -95,6 +109,7 @@ public class ProductDomainService extends DomainService {
                 sku.setProductId(product.getId());
                 productSkuRepository.save(sku);
             }
+            productRepository.refreshSkuSummary(product.getId());
         }
 
         // 更新图片
@@ -108,6 +123,7 @@ public class ProductDomainService extends DomainService {
             }
         }
 
+        refreshSearchIndexAfterCommit(product.getId());
         return product;
     }
 
@@ -131,7 +147,9 @@ public class ProductDomainService extends DomainService {
         }
 
         product.setStatus(ProductStatus.ON_SALE);
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        refreshSearchIndexAfterCommit(productId);
+        return saved;
     }
 
     /**
@@ -154,7 +172,9 @@ public class ProductDomainService extends DomainService {
         }
 
         product.setStatus(ProductStatus.OFFLINE);
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        refreshSearchIndexAfterCommit(productId);
+        return saved;
     }
 
     /**
@@ -182,9 +202,47 @@ public class ProductDomainService extends DomainService {
         // 删除图片
         productImageRepository.deleteByProductId(productId);
 
+        refreshSearchIndexAfterCommit(productId);
         return true;
     }
 
+    /**
+     * 修复商品SKU汇总偏差
+     * 按商品ID分批比对持久化的汇总与SKU实时聚合结果，对不一致的商品用单条 UPDATE 原子地重新计算；
+     * 不回写读到的聚合值，避免覆盖比对期间并发下单提交的库存增量
+     *
+     * @return 修复的商品数量
+     */
+    public int rebuildSkuSummaries() {
+        validate();
+
+        int repaired = 0;
+        long lastId = 0L;
+        while (true) {
+            List<Product> batch = productRepository.findSkuSummaryAfterId(lastId, SUMMARY_REBUILD_BATCH_SIZE);
+            if (batch.isEmpty()) {
+                break;
+            }
+            List<Long> productIds = batch.stream().map(Product::getId).collect(Collectors.toList());
+            Map<Long, ProductSkuSummary> actual = productSkuRepository.summarizeByProductIds(productIds);
+
+            for (Product product : batch) {
+                ProductSkuSummary expected = actual.getOrDefault(product.getId(), ProductSkuSummary.empty(product.getId()));
+                ProductSkuSummary stored = ProductSkuSummary.of(product.getId(), product.getMinPrice(), product.getTotalStock());
+                if (!expected.equals(stored)) {
+                    log.warn("商品SKU汇总偏差: productId={}, stored={}, actual={}", product.getId(), stored, expected);
+                    productRepository.refreshSkuSummary(product.getId());
+                    repaired++;
+                }
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+            if (batch.size() < SUMMARY_REBUILD_BATCH_SIZE) {
+                break;
+            }
+        }
+        return repaired;
+    }
+
     /**
      * 验证库存是否充足
      *
@@ -202,4 +260,26 @@ public class ProductDomainService extends DomainService {
 
         return sku.hasEnoughStock(requiredQuantity);
     }
+
+    /**
+     * 事务提交后刷新商品搜索索引，避免回滚的修改进入索引
+     *
+     * @param productId 商品ID
+     */
+    private void refreshSearchIndexAfterCommit(Long productId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            productSearchRepository.refresh(productId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    productSearchRepository.refresh(productId);
+                } catch (Exception e) {
+                    log.error("刷新商品搜索索引失败: productId={}", productId, e);
+                }
+            }
+        });
+    }
 }
@@ -9,6 +9,7 @@ import com.example.ddd.domain.repository.OrderItemRepository;
 import com.example.ddd.domain.repository.OrderRepository;
 import com.example.ddd.domain.repository.ReviewReplyRepository;
 import com.example.ddd.domain.repository.ReviewRepository;
+import com.example.ddd.domain.repository.ReviewStatsRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -30,6 +31,7 @@ public class ReviewDomainService extends DomainService {
     private final ReviewReplyRepository reviewReplyRepository;
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
+    private final ReviewStatsRepository reviewStatsRepository;
 
     /**
      * 创建评价
@@ -78,7 +80,10 @@ public class ReviewDomainService extends DomainService {
         review.setUserId(order.getUserId());
         review.setShopId(order.getShopId());
 
-        return reviewRepository.save(review);
+        Review saved = reviewRepository.save(review);
+        // 与评价在同一事务内累加商品评价统计
+        reviewStatsRepository.increment(saved.getProductId(), saved.getRating());
+        return saved;
     }
 
     /**
@@ -155,11 +160,6 @@ public class ReviewDomainService extends DomainService {
      */
     public double calculatePositiveRate(Long productId) {
         validate();
-        long total = reviewRepository.countByProductId(productId);
-        if (total == 0) {
-            return 100.0;
-        }
-        long positive = reviewRepository.countPositiveByProductId(productId);
-        return (positive * 100.0) / total;
+        return reviewStatsRepository.findByProductId(productId).calculatePositiveRate();
     }
 }
@@ -0,0 +1,225 @@
+package com.example.ddd.domain.service;
+
+import com.example.ddd.domain.model.entity.ProductSku;
+import com.example.ddd.domain.model.valueobject.StockReservation;
+import com.example.ddd.domain.repository.FlashSaleStockRepository;
+import com.example.ddd.domain.repository.ProductSkuRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 秒杀库存预扣领域服务
+ * 秒杀SKU的库存在 {@link FlashSaleStockRepository} 中原子预扣，不直接修改数据库；
+ * 预扣与当前事务绑定：事务回滚时归还，取消订单时在事务提交后归还；
+ * 预扣量由 {@link #flushPending()} 批量回写数据库，{@link #reconcile(boolean)} 负责两边对账；
+ * 回写会先取走待回写量再修改数据库，对账若落在两步之间会把已取走的量算成差异，
+ * 因此本节点内回写与对账互斥，多节点间由调度任务的主节点选举保证只有一个节点执行
+ *
+ * @author DDD Demo
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockReservationDomainService extends DomainService {
+
+    private final FlashSaleStockRepository flashSaleStockRepository;
+    private final ProductSkuRepository productSkuRepository;
+
+    /**
+     * 回写与对账互斥锁
+     */
+    private final ReentrantLock stockSyncLock = new ReentrantLock();
+
+    /**
+     * 尝试预扣秒杀库存
+     *
+     * @param skuId    SKU ID
+     * @param quantity 数量
+     * @return 是否已预扣，false 表示该SKU未开启秒杀，调用方应走数据库扣减
+     * @throws IllegalArgumentException 库存不足
+     */
+    public boolean tryReserve(Long skuId, int quantity) {
+        validate();
+
+        StockReservation reservation = flashSaleStockRepository.reserve(skuId, quantity);
+        if (reservation == StockReservation.NOT_FLASH_SALE) {
+            return false;
+        }
+        if (reservation == StockReservation.INSUFFICIENT) {
+            throw new IllegalArgumentException("商品库存不足");
+        }
+        releaseOnRollback(skuId, quantity);
+        return true;
+    }
+
+    /**
+     * 尝试归还秒杀库存（取消订单）
+     *
+     * @param skuId    SKU ID
+     * @param quantity 数量
+     * @return 是否为秒杀SKU，false 表示调用方应直接恢复数据库库存
+     */
+    public boolean tryRestore(Long skuId, int quantity) {
+        validate();
+
+        if (!flashSaleStockRepository.isFlashSale(skuId)) {
+            return false;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            release(skuId, quantity);
+            return true;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                release(skuId, quantity);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * 开启SKU秒杀，以数据库当前库存作为可售库存
+     *
+     * @param skuId SKU ID
+     * @return 是否新开启，已开启时返回 false
+     */
+    public boolean enableFlashSale(Long skuId) {
+        validate();
+
+        ProductSku sku = productSkuRepository.findByIds(Set.of(skuId)).stream().findFirst().orElse(null);
+        if (sku == null) {
+            throw new IllegalArgumentException("商品SKU不存在");
+        }
+        return flashSaleStockRepository.load(skuId, sku.getStock().getValue());
+    }
+
+    /**
+     * 关闭SKU秒杀，先回写该SKU的预扣量
+     *
+     * @param skuId SKU ID
+     */
+    public void disableFlashSale(Long skuId) {
+        validate();
+
+        flushPending(skuId);
+        if (!flashSaleStockRepository.unload(skuId)) {
+            throw new IllegalArgumentException("存在未回写的秒杀库存，请稍后重试");
+        }
+    }
+
+    /**
+     * 把所有秒杀SKU的预扣量回写数据库
+     * 每个SKU一条按增量更新的 SQL，不依赖当前库存版本
+     *
+     * @return 有回写的SKU数量
+     */
+    public int flushPending() {
+        validate();
+
+        int flushed = 0;
+        for (Long skuId : flashSaleStockRepository.findSkuIds()) {
+            try {
+                if (flushPending(skuId) != 0) {
+                    flushed++;
+                }
+            } catch (Exception e) {
+                log.error("秒杀库存回写异常: skuId={}", skuId, e);
+            }
+        }
+        return flushed;
+    }
+
+    /**
+     * 对账：期望 Redis 可售库存 = 数据库库存 - 待回写量
+     * 数据库库存直接查库，不使用可能过期的SKU缓存
+     *
+     * @param correct 有差异时是否以数据库为准校正
+     * @return SKU ID -> 差异（可售库存 - 期望值），只包含有差异的SKU
+     */
+    public Map<Long, Integer> reconcile(boolean correct) {
+        validate();
+
+        Map<Long, Integer> mismatches = new LinkedHashMap<>();
+        stockSyncLock.lock();
+        try {
+            Set<Long> skuIds = flashSaleStockRepository.findSkuIds();
+            if (skuIds.isEmpty()) {
+                return mismatches;
+            }
+            Map<Long, ProductSku> skuMap = productSkuRepository.findByIds(skuIds).stream()
+                    .collect(Collectors.toMap(ProductSku::getId, Function.identity()));
+            for (Long skuId : skuIds) {
+                ProductSku sku = skuMap.get(skuId);
+                if (sku == null) {
+                    log.warn("秒杀SKU已不存在: skuId={}", skuId);
+                    continue;
+                }
+                Integer diff = flashSaleStockRepository.reconcile(skuId, sku.getStock().getValue(), correct);
+                if (diff != null && diff != 0) {
+                    mismatches.put(skuId, diff);
+                }
+            }
+        } finally {
+            stockSyncLock.unlock();
+        }
+        return mismatches;
+    }
+
+    private int flushPending(Long skuId) {
+        stockSyncLock.lock();
+        try {
+            int pending = flashSaleStockRepository.takePending(skuId);
+            if (pending == 0) {
+                return 0;
+            }
+            try {
+                if (productSkuRepository.adjustStock(skuId, -pending) == 0) {
+                    flashSaleStockRepository.restorePending(skuId, pending);
+                    log.warn("秒杀库存回写失败，数据库库存不足: skuId={}, pending={}", skuId, pending);
+                    return 0;
+                }
+            } catch (RuntimeException e) {
+                flashSaleStockRepository.restorePending(skuId, pending);
+                throw e;
+            }
+            return pending;
+        } finally {
+            stockSyncLock.unlock();
+        }
+    }
+
+    private void releaseOnRollback(Long skuId, int quantity) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    release(skuId, quantity);
+                }
+            }
+        });
+    }
+
+    private void release(Long skuId, int quantity) {
+        try {
+            if (!flashSaleStockRepository.release(skuId, quantity)) {
+                log.warn("秒杀已关闭，归还的库存未生效: skuId={}, quantity={}", skuId, quantity);
+            }
+        } catch (Exception e) {
+            log.error("归还秒杀库存失败，等待对账: skuId={}, quantity={}", skuId, quantity, e);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.ddd.infrastructure.cache;
+
+import com.example.ddd.domain.model.entity.Category;
+import com.example.ddd.domain.model.valueobject.CategoryTree;
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 分类树内存快照
+ * 一次性由全部分类构建，构建后不可变；每个分类的子树ID列表预先计算，查询为常数时间；
+ * 同时持有挂载好子分类的分类树及其内容版本，分类树中的节点为快照私有的副本，只读使用
+ *
+ * @author DDD Demo
+ */
+public final class CategorySnapshot {
+
+    /**
+     * 分类ID -> 分类及其所有子孙分类的ID（包含自身）
+     */
+    private final Map<Long, List<Long>> subtreeIds;
+
+    /**
+     * 分类树
+     */
+    private final CategoryTree tree;
+
+    private CategorySnapshot(Map<Long, List<Long>> subtreeIds, CategoryTree tree) {
+        this.subtreeIds = subtreeIds;
+        this.tree = tree;
+    }
+
+    /**
+     * 由全部分类构建快照
+     *
+     * @param categories 全部分类
+     * @return 分类快照
+     */
+    public static CategorySnapshot build(List<Category> categories) {
+        Map<Long, List<Long>> childrenIds = new HashMap<>(categories.size() * 2);
+        for (Category category : categories) {
+            childrenIds.computeIfAbsent(category.getId(), k -> new ArrayList<>());
+            if (category.getParentId() != null && !category.isTopLevel()) {
+                childrenIds.computeIfAbsent(category.getParentId(), k -> new ArrayList<>()).add(category.getId());
+            }
+        }
+
+        Map<Long, List<Long>> subtreeIds = new HashMap<>(categories.size() * 2);
+        Set<Long> visiting = new HashSet<>();
+        for (Category category : categories) {
+            collectSubtree(category.getId(), childrenIds, subtreeIds, visiting);
+        }
+        return new CategorySnapshot(subtreeIds, buildTree(categories));
+    }
+
+    /**
+     * 单次遍历构建分类树
+     * 先为每个分类创建副本并按ID建立索引，再把每个副本挂到父分类下；
+     * 同级分类保持输入顺序，父分类不存在的非顶级分类不出现在树中
+     *
+     * @param categories 全部分类（按排序序号有序）
+     * @return 分类树
+     */
+    public static CategoryTree buildTree(List<Category> categories) {
+        Map<Long, Category> nodes = new LinkedHashMap<>(categories.size() * 2);
+        for (Category category : categories) {
+            Category node = new Category();
+            BeanUtils.copyProperties(category, node, "children");
+            node.setChildren(new ArrayList<>());
+            nodes.put(node.getId(), node);
+        }
+
+        List<Category> roots = new ArrayList<>();
+        StringBuilder content = new StringBuilder();
+        for (Category node : nodes.values()) {
+            if (node.isTopLevel()) {
+                roots.add(node);
+            } else if (node.getParentId() != null && nodes.containsKey(node.getParentId())) {
+                nodes.get(node.getParentId()).getChildren().add(node);
+            }
+            content.append(node.getId()).append('|')
+                    .append(node.getParentId()).append('|')
+                    .append(node.getCategoryName()).append('|')
+                    .append(node.getCategoryIcon()).append('|')
+                    .append(node.getLevel()).append('|')
+                    .append(node.getPath()).append('|')
+                    .append(node.getSort()).append('|')
+                    .append(node.getUpdateTime()).append('\n');
+        }
+        for (Category node : nodes.values()) {
+            node.setChildren(Collections.unmodifiableList(node.getChildren()));
+        }
+
+        String version = DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8));
+        return CategoryTree.of(Collections.unmodifiableList(roots), version);
+    }
+
+    /**
+     * 获取分类树
+     *
+     * @return 分类树
+     */
+    public CategoryTree getTree() {
+        return tree;
+    }
+
+    /**
+     * 获取分类及其所有子孙分类的ID
+     *
+     * @param categoryId 分类ID
+     * @return 分类ID列表（包含自身，不可修改），分类不存在时返回空列表
+     */
+    public List<Long> getSubtreeIds(Long categoryId) {
+        return subtreeIds.getOrDefault(categoryId, List.of());
+    }
+
+    private static List<Long> collectSubtree(Long id,
+                                             Map<Long, List<Long>> childrenIds,
+                                             Map<Long, List<Long>> subtreeIds,
+                                             Set<Long> visiting) {
+        List<Long> cached = subtreeIds.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        // 数据异常形成环时截断，避免无限递归
+        if (!visiting.add(id)) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>();
+        ids.add(id);
+        for (Long childId : childrenIds.getOrDefault(id, List.of())) {
+            ids.addAll(collectSubtree(childId, childrenIds, subtreeIds, visiting));
+        }
+        visiting.remove(id);
+        List<Long> result = Collections.unmodifiableList(ids);
+        subtreeIds.put(id, result);
+        return result;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.ddd.infrastructure.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 订单读模型配置属性
+ *
+ * @author DDD Demo
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "order.view")
+public class OrderViewProperties {
+
+    /**
+     * 读模型在 Redis 中的过期时间（秒），过期后下次查询时从数据库重建
+     */
+    private long ttlSeconds = 86400;
+}
@@ -0,0 +1,136 @@
+package com.example.ddd.infrastructure.cache;
+
+import com.example.ddd.domain.model.entity.Order;
+import com.example.ddd.domain.model.entity.OrderItem;
+import com.example.ddd.domain.model.valueobject.OrderView;
+import com.example.ddd.domain.repository.OrderItemRepository;
+import com.example.ddd.domain.repository.OrderViewRepository;
+import com.example.ddd.infrastructure.persistence.repository.OrderRepositoryImpl;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 基于 Redis 的订单读模型
+ * 每个订单一个 Hash：doc 为订单加明细的 JSON 文档，rev 为订单的 revision（每次更新在 SQL 中加 1）。
+ * 只有版本大于已有版本时才写入，并发投影或回源中较旧的快照不会覆盖较新的快照；
+ * 不用 update_time 作版本，它只精确到秒，同一秒内的两次更新无法区分。查询只读 doc 一个字段。
+ * 六边形架构的适配器（Adapter）
+ * <p>
+ * 指标：order.view.gets（result=hit/miss）、order.view.lag 订单写入到读模型更新的延迟、
+ * order.view.refresh.failures 投影失败次数
+ *
+ * @author DDD Demo
+ */
+@Slf4j
+@Repository
+public class RedisOrderViewRepository implements OrderViewRepository {
+
+    private static final String KEY_PREFIX = "order:view:";
+    private static final String FIELD_DOC = "doc";
+
+    /**
+     * 版本大于已有版本时写入并续期，版本相同说明内容相同，不再覆盖
+     */
+    private static final RedisScript<Long> PUT_SCRIPT = new DefaultRedisScript<>("""
+            local current = redis.call('HGET', KEYS[1], 'rev')
+            if current and tonumber(current) >= tonumber(ARGV[1]) then
+                return 0
+            end
+            redis.call('HSET', KEYS[1], 'rev', ARGV[1], 'doc', ARGV[2])
+            redis.call('EXPIRE', KEYS[1], ARGV[3])
+            return 1
+            """, Long.class);
+
+    private final OrderRepositoryImpl orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final OrderViewProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper = TwoLevelCacheManager.buildObjectMapper();
+    private final Timer lagTimer;
+
+    public RedisOrderViewRepository(OrderRepositoryImpl orderRepository, OrderItemRepository orderItemRepository,
+                                    StringRedisTemplate redisTemplate, OrderViewProperties properties,
+                                    MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.lagTimer = meterRegistry.timer("order.view.lag");
+    }
+
+    @Override
+    public OrderView findById(Long orderId) {
+        try {
+            Object json = redisTemplate.opsForHash().get(KEY_PREFIX + orderId, FIELD_DOC);
+            if (json != null) {
+                meterRegistry.counter("order.view.gets", "result", "hit").increment();
+                return objectMapper.readValue(json.toString(), OrderView.class);
+            }
+        } catch (Exception e) {
+            log.error("读取订单读模型失败: orderId={}, error={}", orderId, e.getMessage());
+        }
+        meterRegistry.counter("order.view.gets", "result", "miss").increment();
+        OrderView view = load(orderId);
+        if (view != null) {
+            try {
+                put(view);
+            } catch (Exception e) {
+                log.error("写入订单读模型失败: orderId={}, error={}", orderId, e.getMessage());
+            }
+        }
+        return view;
+    }
+
+    @Override
+    public void refresh(Long orderId, LocalDateTime changedAt) {
+        try {
+            OrderView view = load(orderId);
+            if (view == null) {
+                redisTemplate.delete(KEY_PREFIX + orderId);
+                return;
+            }
+            put(view);
+            lagTimer.record(Duration.between(changedAt, LocalDateTime.now()));
+        } catch (Exception e) {
+            meterRegistry.counter("order.view.refresh.failures").increment();
+            log.error("更新订单读模型失败: orderId={}", orderId, e);
+            // 删除可能已过期的文档，下次查询时从数据库重建
+            try {
+                redisTemplate.delete(KEY_PREFIX + orderId);
+            } catch (Exception ignored) {
+                // Redis 不可用时查询同样回退到数据库
+            }
+        }
+    }
+
+    private OrderView load(Long orderId) {
+        Order order = orderRepository.findById(orderId);
+        if (order == null) {
+            return null;
+        }
+        List<OrderItem> items = orderItemRepository.findByOrderId(orderId);
+        return new OrderView(order, items);
+    }
+
+    private void put(OrderView view) throws JsonProcessingException {
+        Order order = view.getOrder();
+        long version = order.getRevision() != null ? order.getRevision() : 0;
+        redisTemplate.execute(PUT_SCRIPT, List.of(KEY_PREFIX + order.getId()),
+                String.valueOf(version),
+                objectMapper.writeValueAsString(view),
+                String.valueOf(properties.getTtlSeconds()));
+    }
+}
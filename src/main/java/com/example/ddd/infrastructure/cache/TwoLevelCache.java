@@ -0,0 +1,121 @@
+package com.example.ddd.infrastructure.cache;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Function;
+
+/**
+ * 二级缓存
+ * L1 为进程内 {@link LocalCache}，L2 为 Redis；读取依次查询 L1、L2、数据库，
+ * 失效时同时删除两级缓存并通知其他节点删除各自的 L1
+ * <p>
+ * 缓存中的实体是共享对象，读取时返回副本，调用方可以放心修改
+ *
+ * @param <V> 实体类型
+ * @author DDD Demo
+ */
+public class TwoLevelCache<V> {
+
+    private final String name;
+    private final Class<V> type;
+    private final LocalCache<Long, V> localCache;
+    private final TwoLevelCacheManager manager;
+
+    TwoLevelCache(String name, Class<V> type, LocalCache<Long, V> localCache, TwoLevelCacheManager manager) {
+        this.name = name;
+        this.type = type;
+        this.localCache = localCache;
+        this.manager = manager;
+    }
+
+    /**
+     * 读取缓存，未命中时通过 loader 加载并回填两级缓存
+     *
+     * @param id     实体ID
+     * @param loader 数据库加载函数
+     * @return 实体副本，不存在返回 null
+     */
+    public V get(Long id, Function<Long, V> loader) {
+        if (id == null) {
+            return null;
+        }
+        if (!manager.isEnabled()) {
+            return loader.apply(id);
+        }
+        V value = localCache.get(id);
+        if (value == null) {
+            value = manager.readRemote(name, id, type);
+            if (value == null) {
+                value = loader.apply(id);
+                if (value == null) {
+                    return null;
+                }
+                manager.writeRemote(name, id, value);
+            }
+            localCache.put(id, value);
+        }
+        return copy(value);
+    }
+
+    /**
+     * 删除两级缓存，并通知其他节点删除 L1
+     *
+     * @param id 实体ID
+     */
+    public void evict(Long id) {
+        if (id == null) {
+            return;
+        }
+        localCache.invalidate(id);
+        manager.evictRemote(name, id);
+    }
+
+    /**
+     * 在当前事务提交后删除两级缓存，没有事务时立即删除
+     * <p>
+     * 事务内直接删除时，并发读取可能在提交前把旧值重新写回 L2 并保留到过期；
+     * 提交后删除保证之后回源读到的是已提交的新值
+     *
+     * @param id 实体ID
+     */
+    public void evictAfterCommit(Long id) {
+        if (id == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(id);
+                }
+            });
+        } else {
+            evict(id);
+        }
+    }
+
+    /**
+     * 仅删除本节点的 L1（收到其他节点的失效通知时调用）
+     *
+     * @param id 实体ID
+     */
+    void evictLocal(Long id) {
+        localCache.invalidate(id);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    LocalCache<Long, V> getLocalCache() {
+        return localCache;
+    }
+
+    private V copy(V source) {
+        V target = BeanUtils.instantiateClass(type);
+        BeanUtils.copyProperties(source, target);
+        return target;
+    }
+}
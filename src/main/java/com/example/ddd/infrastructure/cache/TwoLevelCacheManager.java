@@ -0,0 +1,209 @@
+package com.example.ddd.infrastructure.cache;
+
+import com.example.ddd.domain.model.valueobject.Money;
+import com.example.ddd.domain.model.valueobject.Quantity;
+import com.example.ddd.infrastructure.config.MoneyDeserializer;
+import com.example.ddd.infrastructure.config.MoneySerializer;
+import com.example.ddd.infrastructure.config.QuantityDeserializer;
+import com.example.ddd.infrastructure.config.QuantitySerializer;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 二级缓存管理器
+ * 负责创建命名缓存、读写 Redis L2、发布和订阅跨节点失效通知，并注册 L1 指标；
+ * 其他进程内缓存（如分类快照）也可以通过失效监听复用跨节点通知
+ * <p>
+ * 指标：cache.l1.gets（tag: result=hit/miss）、cache.l1.evictions、cache.l1.size、cache.l1.hit.ratio
+ *
+ * @author DDD Demo
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TwoLevelCacheManager {
+
+    /**
+     * Redis key 前缀
+     */
+    private static final String KEY_PREFIX = "cache:";
+
+    /**
+     * 失效消息分隔符，消息格式：节点ID|缓存名|实体ID
+     */
+    private static final String MESSAGE_SEPARATOR = "|";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+    private final MeterRegistry meterRegistry;
+    private final TwoLevelCacheProperties properties;
+
+    private final ObjectMapper cacheObjectMapper = buildObjectMapper();
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, TwoLevelCache<?>> caches = new ConcurrentHashMap<>();
+    private final Map<String, List<Consumer<Long>>> invalidationListeners = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void subscribe() {
+        redisMessageListenerContainer.addMessageListener(
+                (message, pattern) -> onInvalidateMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(properties.getChannel())
+        );
+    }
+
+    /**
+     * 获取命名缓存，不存在则创建并注册指标
+     *
+     * @param name 缓存名
+     * @param type 实体类型
+     * @return 二级缓存
+     */
+    @SuppressWarnings("unchecked")
+    public <V> TwoLevelCache<V> getCache(String name, Class<V> type) {
+        return (TwoLevelCache<V>) caches.computeIfAbsent(name, n -> createCache(n, type));
+    }
+
+    /**
+     * 注册失效监听，收到其他节点发布的同名失效通知时回调
+     *
+     * @param name     缓存名
+     * @param listener 回调，参数为失效的实体ID
+     */
+    public void addInvalidationListener(String name, Consumer<Long> listener) {
+        invalidationListeners.computeIfAbsent(name, n -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * 通知其他节点删除指定缓存
+     *
+     * @param name 缓存名
+     * @param id   实体ID
+     */
+    public void publishInvalidation(String name, Long id) {
+        try {
+            stringRedisTemplate.convertAndSend(properties.getChannel(),
+                    nodeId + MESSAGE_SEPARATOR + name + MESSAGE_SEPARATOR + id);
+        } catch (Exception e) {
+            log.error("发布缓存失效通知失败: cache={}, id={}, error={}", name, id, e.getMessage());
+        }
+    }
+
+    boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    <V> V readRemote(String name, Long id, Class<V> type) {
+        try {
+            String json = stringRedisTemplate.opsForValue().get(buildKey(name, id));
+            return json != null ? cacheObjectMapper.readValue(json, type) : null;
+        } catch (Exception e) {
+            log.error("读取 Redis 缓存失败: cache={}, id={}, error={}", name, id, e.getMessage());
+            return null;
+        }
+    }
+
+    void writeRemote(String name, Long id, Object value) {
+        try {
+            stringRedisTemplate.opsForValue().set(buildKey(name, id),
+                    cacheObjectMapper.writeValueAsString(value),
+                    properties.getRemoteTtlSeconds(), TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.error("写入 Redis 缓存失败: cache={}, id={}, error={}", name, id, e.getMessage());
+        }
+    }
+
+    void evictRemote(String name, Long id) {
+        try {
+            stringRedisTemplate.delete(buildKey(name, id));
+        } catch (Exception e) {
+            log.error("删除 Redis 缓存失败: cache={}, id={}, error={}", name, id, e.getMessage());
+        }
+        // Redis 不可用时其他节点的 L1 依赖 TTL 过期
+        publishInvalidation(name, id);
+    }
+
+    private void onInvalidateMessage(String body) {
+        String[] parts = body.split("\\" + MESSAGE_SEPARATOR);
+        if (parts.length != 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        Long id;
+        try {
+            id = Long.valueOf(parts[2]);
+        } catch (NumberFormatException e) {
+            log.warn("无效的缓存失效消息: {}", body);
+            return;
+        }
+        TwoLevelCache<?> cache = caches.get(parts[1]);
+        if (cache != null) {
+            cache.evictLocal(id);
+        }
+        for (Consumer<Long> listener : invalidationListeners.getOrDefault(parts[1], List.of())) {
+            listener.accept(id);
+        }
+    }
+
+    private <V> TwoLevelCache<V> createCache(String name, Class<V> type) {
+        LocalCache<Long, V> localCache = new LocalCache<>(properties.getLocalMaxSize(),
+                TimeUnit.SECONDS.toMillis(properties.getLocalTtlSeconds()));
+
+        FunctionCounter.builder("cache.l1.gets", localCache, LocalCache::getHitCount)
+                .tag("cache", name).tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.l1.gets", localCache, LocalCache::getMissCount)
+                .tag("cache", name).tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.l1.evictions", localCache, LocalCache::getEvictionCount)
+                .tag("cache", name)
+                .register(meterRegistry);
+        Gauge.builder("cache.l1.size", localCache, LocalCache::size)
+                .tag("cache", name)
+                .register(meterRegistry);
+        Gauge.builder("cache.l1.hit.ratio", localCache, LocalCache::getHitRatio)
+                .tag("cache", name)
+                .register(meterRegistry);
+
+        return new TwoLevelCache<>(name, type, localCache, this);
+    }
+
+    private String buildKey(String name, Long id) {
+        return KEY_PREFIX + name + ":" + id;
+    }
+
+    static ObjectMapper buildObjectMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+        SimpleModule module = new SimpleModule();
+        module.addSerializer(Money.class, new MoneySerializer());
+        module.addDeserializer(Money.class, new MoneyDeserializer());
+        module.addSerializer(Quantity.class, new QuantitySerializer());
+        module.addDeserializer(Quantity.class, new QuantityDeserializer());
+        mapper.registerModule(module);
+        return mapper;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.ddd.infrastructure.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 二级缓存配置属性
+ *
+ * @author DDD Demo
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "cache.two-level")
+public class TwoLevelCacheProperties {
+
+    /**
+     * 是否启用二级缓存，关闭后直接读数据库
+     */
+    private boolean enabled = true;
+
+    /**
+     * L1 本地缓存每个缓存的最大条目数
+     */
+    private int localMaxSize = 10000;
+
+    /**
+     * L1 本地缓存过期时间（秒）
+     */
+    private long localTtlSeconds = 60;
+
+    /**
+     * L2 Redis 缓存过期时间（秒）
+     */
+    private long remoteTtlSeconds = 1800;
+
+    /**
+     * 跨节点失效通知的 Redis 频道
+     */
+    private String channel = "cache:invalidate";
+}
@@ -0,0 +1,36 @@
+package com.example.ddd.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 购物车存储配置属性
+ *
+ * @author DDD Demo
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "cart.store")
+public class CartStoreProperties {
+
+    /**
+     * 存储模式：db 直接读写数据库；redis 购物车存放在 Redis Hash 中，异步回写数据库
+     */
+    private String mode = "db";
+
+    /**
+     * Redis 中购物车的过期时间（秒），每次读写都会续期
+     */
+    private long ttlSeconds = 604800;
+
+    /**
+     * 回写数据库的间隔（毫秒），间隔内同一购物车的多次修改合并为一次回写
+     */
+    private long flushIntervalMs = 1000;
+
+    /**
+     * 每次回写最多处理的购物车数
+     */
+    private int flushBatchSize = 200;
+}
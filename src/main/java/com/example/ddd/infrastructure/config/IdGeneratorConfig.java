@@ -0,0 +1,21 @@
+package com.example.ddd.infrastructure.config;
+
+import com.example.ddd.domain.service.IdGenerator;
+import com.example.ddd.infrastructure.id.LeasedIdGenerator;
+import com.example.ddd.infrastructure.id.WorkerIdAssigner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * ID生成器配置
+ *
+ * @author DDD Demo
+ */
+@Configuration
+public class IdGeneratorConfig {
+
+    @Bean
+    public IdGenerator idGenerator(WorkerIdAssigner workerIdAssigner) {
+        return new LeasedIdGenerator(workerIdAssigner);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.ddd.infrastructure.config;
+
+import com.example.ddd.domain.model.entity.LoginLog;
+import com.example.ddd.domain.model.entity.OrderStatusLog;
+import com.example.ddd.domain.repository.LoginLogRepository;
+import com.example.ddd.domain.repository.OrderStatusLogRepository;
+import com.example.ddd.infrastructure.log.BatchingLogSink;
+import com.example.ddd.infrastructure.log.LogSinkProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 日志异步批量写入配置
+ * 订单状态日志可配置为同步写入，登录日志始终异步，不占用登录耗时
+ *
+ * @author DDD Demo
+ */
+@Configuration
+public class LogSinkConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "shutdown")
+    public BatchingLogSink<OrderStatusLog> orderStatusLogSink(OrderStatusLogRepository orderStatusLogRepository,
+                                                              LogSinkProperties properties,
+                                                              MeterRegistry meterRegistry) {
+        return new BatchingLogSink<>("order-status", orderStatusLogRepository::saveBatch, properties,
+                properties.isOrderStatusSync(), meterRegistry);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "shutdown")
+    public BatchingLogSink<LoginLog> loginLogSink(LoginLogRepository loginLogRepository,
+                                                  LogSinkProperties properties,
+                                                  MeterRegistry meterRegistry) {
+        return new BatchingLogSink<>("login", loginLogRepository::saveBatch, properties, false, meterRegistry);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.ddd.infrastructure.config;
+
+import com.example.ddd.domain.model.valueobject.Money;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Money 值对象的 JSON 反序列化器
+ * 将金额字符串反序列化为 Money
+ *
+ * @author DDD Demo
+ */
+public class MoneyDeserializer extends JsonDeserializer<Money> {
+
+    @Override
+    public Money deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        String value = p.getValueAsString();
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        return Money.of(value);
+    }
+}
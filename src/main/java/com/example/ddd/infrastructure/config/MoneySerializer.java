@@ -0,0 +1,26 @@
+package com.example.ddd.infrastructure.config;
+
+import com.example.ddd.domain.model.valueobject.Money;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+
+/**
+ * Money 值对象的 JSON 序列化器
+ * 将 Money 序列化为金额字符串
+ *
+ * @author DDD Demo
+ */
+public class MoneySerializer extends JsonSerializer<Money> {
+
+    @Override
+    public void serialize(Money money, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (money == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(money.getValue().toPlainString());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.ddd.infrastructure.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 商品聚合详情线程池配置
+ * 有界线程池 + 有界队列，满载时直接拒绝，由调用方降级而不是阻塞请求线程
+ *
+ * @author DDD Demo
+ */
+@Configuration
+public class ProductDetailExecutorConfig {
+
+    public static final String PRODUCT_DETAIL_EXECUTOR = "productDetailExecutor";
+
+    @Bean(name = PRODUCT_DETAIL_EXECUTOR)
+    public ThreadPoolTaskExecutor productDetailExecutor(ProductDetailProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getCorePoolSize());
+        executor.setMaxPoolSize(properties.getMaxPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("product-detail-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.ddd.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 商品聚合详情配置属性
+ *
+ * @author DDD Demo
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "product.detail")
+public class ProductDetailProperties {
+
+    /**
+     * 并行加载线程池核心线程数
+     */
+    private int corePoolSize = 16;
+
+    /**
+     * 并行加载线程池最大线程数
+     */
+    private int maxPoolSize = 64;
+
+    /**
+     * 并行加载线程池队列容量，队列满时拒绝并降级
+     */
+    private int queueCapacity = 256;
+
+    /**
+     * 每个部分的默认超时时间（毫秒）
+     */
+    private long partTimeoutMs = 300;
+
+    /**
+     * 按部分覆盖超时时间（毫秒），key 为部分名称：skus/images/reviewStats（商品本身同步加载，不设超时）
+     */
+    private Map<String, Long> partTimeouts = new HashMap<>();
+
+    /**
+     * 获取指定部分的超时时间
+     *
+     * @param part 部分名称
+     * @return 超时时间（毫秒）
+     */
+    public long getTimeoutMs(String part) {
+        return partTimeouts.getOrDefault(part, partTimeoutMs);
+    }
+}
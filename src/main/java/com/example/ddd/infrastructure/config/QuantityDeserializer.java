@@ -0,0 +1,26 @@
+package com.example.ddd.infrastructure.config;
+
+import com.example.ddd.domain.model.valueobject.Quantity;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Quantity 值对象的 JSON 反序列化器
+ * 将整数反序列化为 Quantity
+ *
+ * @author DDD Demo
+ */
+public class QuantityDeserializer extends JsonDeserializer<Quantity> {
+
+    @Override
+    public Quantity deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        String value = p.getValueAsString();
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        return Quantity.of(Integer.valueOf(value));
+    }
+}
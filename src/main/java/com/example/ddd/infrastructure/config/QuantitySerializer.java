@@ -0,0 +1,26 @@
+package com.example.ddd.infrastructure.config;
+
+import com.example.ddd.domain.model.valueobject.Quantity;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+
+/**
+ * Quantity 值对象的 JSON 序列化器
+ * 将 Quantity 序列化为整数
+ *
+ * @author DDD Demo
+ */
+public class QuantitySerializer extends JsonSerializer<Quantity> {
+
+    @Override
+    public void serialize(Quantity quantity, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (quantity == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(quantity.getValue());
+        }
+    }
+}
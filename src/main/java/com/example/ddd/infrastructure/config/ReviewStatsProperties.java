@@ -0,0 +1,26 @@
+package com.example.ddd.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 商品评价统计配置属性
+ *
+ * @author DDD Demo
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "review.stats")
+public class ReviewStatsProperties {
+
+    /**
+     * 重建统计的 cron，按评价明细重新汇总，修正累加产生的偏差
+     */
+    private String rebuildCron = "0 0 4 * * SUN";
+
+    /**
+     * 重建时每批处理的商品数
+     */
+    private int rebuildBatchSize = 500;
+}
@@ -0,0 +1,31 @@
+package com.example.ddd.infrastructure.id;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * ID生成器配置属性
+ *
+ * @author DDD Demo
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "id.generator")
+public class IdGeneratorProperties {
+
+    /**
+     * 固定 workerId（0~1023），小于 0 时通过 Redis 租约自动分配
+     */
+    private int workerId = -1;
+
+    /**
+     * workerId 租约有效期（秒）
+     */
+    private long leaseSeconds = 60;
+
+    /**
+     * 租约续期间隔（毫秒），应明显小于租约有效期；续期在独立线程中执行
+     */
+    private long renewIntervalMs = 20000;
+}
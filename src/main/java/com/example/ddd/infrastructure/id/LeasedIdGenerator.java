@@ -0,0 +1,43 @@
+package com.example.ddd.infrastructure.id;
+
+import com.example.ddd.domain.service.IdGenerator;
+
+/**
+ * 按 workerId 租约生成ID
+ * 每次生成前向 {@link WorkerIdAssigner} 确认租约仍然有效，租约失效时抛出异常而不是继续用可能已被
+ * 其他节点接管的编号生成ID；重新分配到新编号后切换到对应的 {@link SnowflakeIdGenerator}
+ *
+ * @author DDD Demo
+ */
+public class LeasedIdGenerator implements IdGenerator {
+
+    private final WorkerIdAssigner workerIdAssigner;
+    private volatile SnowflakeIdGenerator generator;
+
+    public LeasedIdGenerator(WorkerIdAssigner workerIdAssigner) {
+        this.workerIdAssigner = workerIdAssigner;
+        this.generator = new SnowflakeIdGenerator(workerIdAssigner.assign());
+    }
+
+    /**
+     * 生成下一个ID
+     *
+     * @return 全局唯一ID
+     * @throws IllegalStateException workerId 租约已失效
+     */
+    @Override
+    public long nextId() {
+        int workerId = workerIdAssigner.currentWorkerId();
+        SnowflakeIdGenerator current = generator;
+        if (current.getWorkerId() != workerId) {
+            synchronized (this) {
+                current = generator;
+                if (current.getWorkerId() != workerId) {
+                    current = new SnowflakeIdGenerator(workerId);
+                    generator = current;
+                }
+            }
+        }
+        return current.nextId();
+    }
+}
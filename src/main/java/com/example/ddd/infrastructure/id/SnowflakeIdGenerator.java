@@ -0,0 +1,81 @@
+package com.example.ddd.infrastructure.id;
+
+import com.example.ddd.domain.service.IdGenerator;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 雪花算法ID生成器（无锁）
+ * 64 位结构：1 位符号 + 41 位毫秒时间戳 + 10 位 workerId + 12 位序列号，单节点每毫秒 4096 个
+ * <p>
+ * 时间戳和序列号合并存放在一个 AtomicLong 中，通过 CAS 推进，不加锁。
+ * 同一毫秒序列号用尽或时钟回拨时，沿用上一次的时间戳继续递增（借用后续毫秒），
+ * 保证单调递增且不会等待时钟
+ *
+ * @author DDD Demo
+ */
+public class SnowflakeIdGenerator implements IdGenerator {
+
+    /**
+     * 起始时间 2024-01-01 00:00:00 UTC
+     */
+    static final long EPOCH = 1704067200000L;
+
+    static final int WORKER_ID_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_WORKER_ID = (1L << WORKER_ID_BITS) - 1;
+    static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long workerId;
+    private final LongSupplier clock;
+
+    /**
+     * 高位为相对时间戳，低 12 位为序列号
+     */
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeIdGenerator(long workerId) {
+        this(workerId, System::currentTimeMillis);
+    }
+
+    SnowflakeIdGenerator(long workerId, LongSupplier clock) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("workerId 必须在 0~" + MAX_WORKER_ID + " 之间");
+        }
+        this.workerId = workerId;
+        this.clock = clock;
+    }
+
+    @Override
+    public long nextId() {
+        while (true) {
+            long last = state.get();
+            long lastTimestamp = last >>> SEQUENCE_BITS;
+            long now = clock.getAsLong() - EPOCH;
+
+            long next;
+            if (now > lastTimestamp) {
+                next = now << SEQUENCE_BITS;
+            } else if ((last & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                next = last + 1;
+            } else {
+                next = (lastTimestamp + 1) << SEQUENCE_BITS;
+            }
+
+            if (state.compareAndSet(last, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                return (timestamp << (WORKER_ID_BITS + SEQUENCE_BITS))
+                        | (workerId << SEQUENCE_BITS)
+                        | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    /**
+     * 获取 workerId
+     */
+    public long getWorkerId() {
+        return workerId;
+    }
+}
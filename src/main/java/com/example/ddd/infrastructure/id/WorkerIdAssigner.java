@@ -0,0 +1,205 @@
+package com.example.ddd.infrastructure.id;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * workerId 分配器
+ * 未配置固定 workerId 时，在 Redis 中以带过期时间的租约占用一个 0~1023 的编号并定期续期，
+ * 节点下线后租约过期，编号可被其他节点复用
+ * <p>
+ * 租约有效期从发起占用或续期请求时起算，早于 Redis 中的实际过期时间；超过有效期仍未续期成功，
+ * 或发现编号已被其他节点占用时，{@link #currentWorkerId()} 拒绝提供编号，直到重新占用成功，
+ * 避免与接管该编号的节点生成重复的ID。续期使用独立线程，不受其他定时任务耗时影响
+ *
+ * @author DDD Demo
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WorkerIdAssigner {
+
+    private static final String KEY_PREFIX = "id_generator:worker:";
+    private static final String SEQ_KEY = "id_generator:worker_seq";
+
+    /**
+     * 仍由本节点持有时续期，返回 1；否则返回 0
+     */
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('EXPIRE', KEYS[1], ARGV[2])
+            end
+            return 0
+            """, Long.class);
+
+    /**
+     * 仍由本节点持有时删除
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final IdGeneratorProperties properties;
+
+    private final String owner = UUID.randomUUID().toString();
+
+    /**
+     * 当前租约，固定配置 workerId 时为 null
+     */
+    private volatile Lease lease;
+
+    private ScheduledExecutorService renewExecutor;
+
+    /**
+     * 租约
+     *
+     * @param workerId      编号
+     * @param deadlineNanos 有效截止时间（System.nanoTime）
+     */
+    private record Lease(int workerId, long deadlineNanos) {
+
+        boolean isValid() {
+            return System.nanoTime() - deadlineNanos < 0;
+        }
+    }
+
+    /**
+     * 分配 workerId，通过租约分配时启动续期线程
+     *
+     * @return workerId
+     */
+    public synchronized int assign() {
+        if (properties.getWorkerId() >= 0) {
+            if (properties.getWorkerId() > SnowflakeIdGenerator.MAX_WORKER_ID) {
+                throw new IllegalStateException("id.generator.worker-id 超出范围: " + properties.getWorkerId());
+            }
+            log.info("使用配置的 workerId: {}", properties.getWorkerId());
+            return properties.getWorkerId();
+        }
+        if (lease != null) {
+            return lease.workerId();
+        }
+
+        int workerId = acquire(-1);
+        log.info("通过 Redis 租约分配 workerId: {}", workerId);
+        startRenewal();
+        return workerId;
+    }
+
+    /**
+     * 获取当前可用的 workerId
+     *
+     * @return workerId
+     * @throws IllegalStateException 租约已丢失或超过有效期，重新占用成功前不能生成ID
+     */
+    public int currentWorkerId() {
+        if (properties.getWorkerId() >= 0) {
+            return properties.getWorkerId();
+        }
+        Lease current = lease;
+        if (current == null || !current.isValid()) {
+            throw new IllegalStateException("workerId 租约已失效，重新分配前暂停生成ID");
+        }
+        return current.workerId();
+    }
+
+    /**
+     * 续期租约
+     * 租约丢失（例如长时间 GC 或与 Redis 断连超过有效期）时先停止提供编号，再重新占用，优先原编号
+     */
+    void renew() {
+        Lease current = lease;
+        if (current == null) {
+            return;
+        }
+        try {
+            long requestedAt = System.nanoTime();
+            Long renewed = redisTemplate.execute(RENEW_SCRIPT, List.of(KEY_PREFIX + current.workerId()),
+                    owner, String.valueOf(properties.getLeaseSeconds()));
+            if (renewed != null && renewed == 1) {
+                lease = new Lease(current.workerId(), requestedAt + leaseNanos());
+                return;
+            }
+            lease = new Lease(current.workerId(), requestedAt);
+            log.error("workerId 租约已丢失，暂停生成ID并重新分配: {}", current.workerId());
+            int workerId = acquire(current.workerId());
+            log.warn("workerId 重新分配成功: {} -> {}", current.workerId(), workerId);
+        } catch (Exception e) {
+            log.error("workerId 租约续期失败，租约到期后暂停生成ID: {}", current.workerId(), e);
+        }
+    }
+
+    /**
+     * 占用一个空闲编号
+     *
+     * @param preferred 优先尝试的编号，小于 0 时从轮转序号开始
+     * @return 占用到的编号
+     */
+    private int acquire(int preferred) {
+        int size = (int) SnowflakeIdGenerator.MAX_WORKER_ID + 1;
+        int start = preferred;
+        if (start < 0) {
+            Long seq = redisTemplate.opsForValue().increment(SEQ_KEY);
+            start = (int) Math.floorMod(seq != null ? seq : 0L, (long) size);
+        }
+        for (int i = 0; i < size; i++) {
+            int candidate = (start + i) % size;
+            long requestedAt = System.nanoTime();
+            Boolean acquired = redisTemplate.opsForValue().setIfAbsent(
+                    KEY_PREFIX + candidate, owner, properties.getLeaseSeconds(), TimeUnit.SECONDS);
+            if (Boolean.TRUE.equals(acquired)) {
+                lease = new Lease(candidate, requestedAt + leaseNanos());
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("没有可用的 workerId，已有 " + size + " 个节点占用");
+    }
+
+    private long leaseNanos() {
+        return TimeUnit.SECONDS.toNanos(properties.getLeaseSeconds());
+    }
+
+    private void startRenewal() {
+        renewExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "worker-id-renewal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getRenewIntervalMs();
+        renewExecutor.scheduleWithFixedDelay(this::renew, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 下线时停止续期并释放租约
+     */
+    @PreDestroy
+    public void release() {
+        if (renewExecutor != null) {
+            renewExecutor.shutdownNow();
+        }
+        Lease current = lease;
+        if (current == null) {
+            return;
+        }
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(KEY_PREFIX + current.workerId()), owner);
+        } catch (Exception e) {
+            log.warn("释放 workerId 租约失败: {}", current.workerId(), e);
+        }
+    }
+}
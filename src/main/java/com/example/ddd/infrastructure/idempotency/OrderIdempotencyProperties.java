@@ -0,0 +1,47 @@
+package com.example.ddd.infrastructure.idempotency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 下单幂等配置属性
+ *
+ * @author DDD Demo
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "order.idempotency")
+public class OrderIdempotencyProperties {
+
+    /**
+     * 下单结果保留时间（秒），期间同一幂等键的重复提交直接返回原订单
+     */
+    private long ttlSeconds = 86400;
+
+    /**
+     * 处理中状态的有效期（秒），应大于下单的最长耗时（含锁等待、重试和数据库超时）；
+     * 到期前首个请求仍未完成时，重复请求会再次下单
+     */
+    private long processingTtlSeconds = 120;
+
+    /**
+     * 记录下单结果的最大尝试次数
+     */
+    private int completeMaxAttempts = 3;
+
+    /**
+     * 重复请求等待首个请求完成的最长时间（毫秒），超时返回处理中
+     */
+    private long waitTimeoutMs = 5000;
+
+    /**
+     * 等待期间查询结果的间隔（毫秒）
+     */
+    private long pollIntervalMs = 50;
+
+    /**
+     * 幂等键最大长度
+     */
+    private int maxKeyLength = 64;
+}
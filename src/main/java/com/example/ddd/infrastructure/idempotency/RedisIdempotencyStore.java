@@ -0,0 +1,59 @@
+package com.example.ddd.infrastructure.idempotency;
+
+import com.example.ddd.domain.repository.IdempotencyStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 基于 Redis 的幂等键存储
+ * 处理中时值为占位标记，处理完成后替换为结果，两种状态都带过期时间
+ * 六边形架构的适配器（Adapter）
+ *
+ * @author DDD Demo
+ */
+@Repository
+@RequiredArgsConstructor
+public class RedisIdempotencyStore implements IdempotencyStore {
+
+    private static final String KEY_PREFIX = "idempotency:";
+    private static final String PROCESSING = "__processing__";
+
+    /**
+     * 只释放仍处于处理中的键，不删除已记录的结果
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Override
+    public boolean tryBegin(String key, Duration ttl) {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(KEY_PREFIX + key, PROCESSING, ttl));
+    }
+
+    @Override
+    public String getResult(String key) {
+        String value = redisTemplate.opsForValue().get(KEY_PREFIX + key);
+        return PROCESSING.equals(value) ? null : value;
+    }
+
+    @Override
+    public void complete(String key, String result, Duration ttl) {
+        redisTemplate.opsForValue().set(KEY_PREFIX + key, result, ttl);
+    }
+
+    @Override
+    public void release(String key) {
+        redisTemplate.execute(RELEASE_SCRIPT, List.of(KEY_PREFIX + key), PROCESSING);
+    }
+}
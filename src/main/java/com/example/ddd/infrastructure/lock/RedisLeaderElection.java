@@ -0,0 +1,68 @@
+package com.example.ddd.infrastructure.lock;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 基于 Redis 租约的主节点选举
+ * 每个任务一个租约 key，持有者在租约内反复调用 {@link #tryLead} 续期；
+ * 持有者宕机后租约过期，其他节点在下一次调用时接管
+ *
+ * @author DDD Demo
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RedisLeaderElection {
+
+    private static final String KEY_PREFIX = "leader:";
+
+    /**
+     * 已持有则续期，未被占用则占用；成功返回 1
+     */
+    private static final RedisScript<Long> LEAD_SCRIPT = new DefaultRedisScript<>("""
+            local holder = redis.call('GET', KEYS[1])
+            if holder == ARGV[1] then
+                redis.call('PEXPIRE', KEYS[1], ARGV[2])
+                return 1
+            end
+            if not holder then
+                redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+                return 1
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * 本节点标识
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * 尝试成为（或继续作为）指定任务的主节点
+     *
+     * @param name 任务名
+     * @param ttl  租约有效期，应大于调用间隔
+     * @return 本节点是否为主节点，Redis 不可用时返回 false
+     */
+    public boolean tryLead(String name, Duration ttl) {
+        try {
+            Long result = redisTemplate.execute(LEAD_SCRIPT, List.of(KEY_PREFIX + name),
+                    nodeId, String.valueOf(ttl.toMillis()));
+            return result != null && result == 1;
+        } catch (Exception e) {
+            log.warn("主节点选举失败: name={}, error={}", name, e.getMessage());
+            return false;
+        }
+    }
+}
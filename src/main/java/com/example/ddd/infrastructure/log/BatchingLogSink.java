@@ -0,0 +1,249 @@
+package com.example.ddd.infrastructure.log;
+
+import com.example.ddd.domain.model.entity.BaseEntity;
+import com.example.ddd.domain.repository.LogSink;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 异步批量日志写入器
+ * 日志先进入定长环形缓冲区（ArrayBlockingQueue），由单个后台线程按条数或时间攒批，一次多行插入。
+ * 缓冲区满时调用方短暂等待（背压），仍然放不下则由调用方同步写入，日志不丢；
+ * 同步模式下不经过缓冲区，直接在调用方事务内写入。
+ * 批量写入失败时按指数退避有限次重试，仍失败则逐条写入，只丢弃确实写不进去的日志
+ * <p>
+ * 指标（均带 sink 标签）：
+ * log.sink.buffer.size 缓冲区当前条数、log.sink.backpressure 调用方等待次数、
+ * log.sink.overflow 调用方同步写入次数、log.sink.flush 批量写入耗时、log.sink.failed 最终未能写入而丢弃的条数
+ *
+ * @param <T> 日志实体类型
+ * @author DDD Demo
+ */
+@Slf4j
+public class BatchingLogSink<T extends BaseEntity> implements LogSink<T> {
+
+    /**
+     * 单次等待新日志的最长时间（纳秒），决定停止时的响应速度
+     */
+    private static final long IDLE_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final String name;
+    private final Consumer<List<T>> batchWriter;
+    private final BlockingQueue<T> buffer;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long offerTimeoutMs;
+    private final int maxRetries;
+    private final long retryDelayMs;
+    private final boolean sync;
+
+    private final Counter backpressureCounter;
+    private final Counter overflowCounter;
+    private final Counter failedCounter;
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    /**
+     * @param name        名称，用于线程名和指标标签
+     * @param batchWriter 批量写入动作（一次多行插入）
+     * @param properties  配置
+     * @param sync        是否同步写入
+     * @param registry    指标注册表
+     */
+    public BatchingLogSink(String name, Consumer<List<T>> batchWriter, LogSinkProperties properties,
+                           boolean sync, MeterRegistry registry) {
+        this.name = name;
+        this.batchWriter = batchWriter;
+        this.buffer = new ArrayBlockingQueue<>(properties.getCapacity());
+        this.batchSize = properties.getBatchSize();
+        this.flushIntervalMs = properties.getFlushIntervalMs();
+        this.offerTimeoutMs = properties.getOfferTimeoutMs();
+        this.maxRetries = properties.getMaxRetries();
+        this.retryDelayMs = properties.getRetryDelayMs();
+        this.sync = sync;
+
+        Gauge.builder("log.sink.buffer.size", buffer, BlockingQueue::size).tag("sink", name).register(registry);
+        this.backpressureCounter = registry.counter("log.sink.backpressure", "sink", name);
+        this.overflowCounter = registry.counter("log.sink.overflow", "sink", name);
+        this.failedCounter = registry.counter("log.sink.failed", "sink", name);
+        this.flushTimer = registry.timer("log.sink.flush", "sink", name);
+    }
+
+    @Override
+    public void append(T record) {
+        // 创建时间取追加时刻，而不是异步落库时刻（自动填充只填充空值）
+        if (record.getCreateTime() == null) {
+            record.setCreateTime(LocalDateTime.now());
+        }
+        if (sync) {
+            batchWriter.accept(List.of(record));
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(record);
+            return;
+        }
+        // 事务回滚的日志不应落库
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(record);
+            }
+        });
+    }
+
+    /**
+     * 启动后台写入线程
+     */
+    public void start() {
+        if (sync) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::runLoop, "log-sink-" + name);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * 停止后台线程，写完缓冲区中剩余的日志
+     */
+    public void shutdown() {
+        running = false;
+        if (worker == null) {
+            return;
+        }
+        try {
+            worker.join(flushIntervalMs + 5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            log.warn("日志写入器 [{}] 停止超时，缓冲区剩余 {} 条", name, buffer.size());
+        }
+    }
+
+    /**
+     * 放入缓冲区：先非阻塞尝试，满了再限时等待，仍失败则同步写入
+     */
+    private void enqueue(T record) {
+        if (buffer.offer(record)) {
+            return;
+        }
+        backpressureCounter.increment();
+        try {
+            if (buffer.offer(record, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        overflowCounter.increment();
+        write(List.of(record));
+    }
+
+    private void runLoop() {
+        List<T> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                T first = buffer.poll(IDLE_POLL_NANOS, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // 以第一条为起点最多再等一个刷新间隔，攒满即写
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (true) {
+                    buffer.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    T next = buffer.poll(Math.min(remaining, IDLE_POLL_NANOS), TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+                write(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                buffer.drainTo(batch);
+                write(batch);
+                return;
+            }
+        }
+    }
+
+    private void write(List<T> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (writeBatchWithRetry(batch)) {
+            return;
+        }
+        if (batch.size() == 1) {
+            failed(null);
+            return;
+        }
+        // 多行插入反复失败，可能是其中某一条数据有问题，逐条写入只丢弃写不进去的那几条
+        log.warn("日志写入器 [{}] 批量写入 {} 条重试后仍失败，改为逐条写入", name, batch.size());
+        for (T record : batch) {
+            try {
+                batchWriter.accept(List.of(record));
+            } catch (Exception e) {
+                failed(e);
+            }
+        }
+    }
+
+    /**
+     * 批量写入，失败后按指数退避重试
+     *
+     * @return 是否写入成功
+     */
+    private boolean writeBatchWithRetry(List<T> batch) {
+        long delayMs = retryDelayMs;
+        for (int attempt = 0; ; attempt++) {
+            try {
+                flushTimer.record(() -> batchWriter.accept(batch));
+                return true;
+            } catch (Exception e) {
+                if (attempt >= maxRetries || Thread.currentThread().isInterrupted()) {
+                    log.warn("日志写入器 [{}] 批量写入 {} 条失败", name, batch.size(), e);
+                    return false;
+                }
+                log.warn("日志写入器 [{}] 批量写入 {} 条失败，{}ms 后第 {} 次重试: {}",
+                        name, batch.size(), delayMs, attempt + 1, e.getMessage());
+            }
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                // 停止中不再等待，交给逐条写入兜底
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            delayMs *= 2;
+        }
+    }
+
+    private void failed(Exception e) {
+        failedCounter.increment();
+        log.error("日志写入器 [{}] 日志写入失败，丢弃 1 条", name, e);
+    }
+}
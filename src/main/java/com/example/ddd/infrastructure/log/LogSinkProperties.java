@@ -0,0 +1,51 @@
+package com.example.ddd.infrastructure.log;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 日志异步批量写入配置属性
+ *
+ * @author DDD Demo
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "log.sink")
+public class LogSinkProperties {
+
+    /**
+     * 环形缓冲区容量（条）
+     */
+    private int capacity = 8192;
+
+    /**
+     * 单次批量插入的最大条数，攒满立即写入
+     */
+    private int batchSize = 200;
+
+    /**
+     * 最长攒批时间（毫秒），未攒满也会写入
+     */
+    private long flushIntervalMs = 500;
+
+    /**
+     * 缓冲区满时调用方最多等待的时间（毫秒），超时后由调用方同步写入
+     */
+    private long offerTimeoutMs = 10;
+
+    /**
+     * 批量写入失败后的最大重试次数，重试仍失败则逐条写入
+     */
+    private int maxRetries = 2;
+
+    /**
+     * 首次重试前的等待时间（毫秒），之后每次翻倍
+     */
+    private long retryDelayMs = 100;
+
+    /**
+     * 订单状态日志是否同步写入（随业务事务一起提交，不经过缓冲区）
+     */
+    private boolean orderStatusSync = false;
+}
@@ -0,0 +1,51 @@
+package com.example.ddd.infrastructure.persistence.handler;
+
+import com.example.ddd.domain.model.valueobject.PaymentCallbackStatus;
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.MappedTypes;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * PaymentCallbackStatus 枚举的 MyBatis TypeHandler
+ * 负责 PaymentCallbackStatus 与 TINYINT 之间的转换
+ *
+ * @author DDD Demo
+ */
+@MappedTypes(PaymentCallbackStatus.class)
+public class PaymentCallbackStatusTypeHandler extends BaseTypeHandler<PaymentCallbackStatus> {
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, PaymentCallbackStatus parameter, JdbcType jdbcType) throws SQLException {
+        ps.setInt(i, parameter.getValue());
+    }
+
+    @Override
+    public PaymentCallbackStatus getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        Integer value = rs.getInt(columnName);
+        return convertToCallbackStatus(value, rs.wasNull());
+    }
+
+    @Override
+    public PaymentCallbackStatus getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        Integer value = rs.getInt(columnIndex);
+        return convertToCallbackStatus(value, rs.wasNull());
+    }
+
+    @Override
+    public PaymentCallbackStatus getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        Integer value = cs.getInt(columnIndex);
+        return convertToCallbackStatus(value, cs.wasNull());
+    }
+
+    private PaymentCallbackStatus convertToCallbackStatus(Integer value, boolean wasNull) {
+        if (wasNull) {
+            return null;
+        }
+        return PaymentCallbackStatus.fromValue(value);
+    }
+}
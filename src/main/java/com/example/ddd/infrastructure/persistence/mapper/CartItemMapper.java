@@ -3,9 +3,13 @@ package com.example.ddd.infrastructure.persistence.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.example.ddd.domain.model.entity.CartItem;
 import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * 购物车明细 Mapper
  *
@@ -42,4 +46,37 @@ public interface CartItemMapper extends BaseMapper<CartItem> {
      */
     @Delete("DELETE FROM t_cart_item WHERE cart_id = #{cartId}")
     int physicalDeleteByCartId(@Param("cartId") Long cartId);
+
+    /**
+     * 批量物理删除指定ID的购物车明细
+     *
+     * @param ids 购物车明细ID集合
+     * @return 影响行数
+     */
+    @Delete("<script>"
+            + "DELETE FROM t_cart_item WHERE id IN "
+            + "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>"
+            + "</script>")
+    int physicalDeleteByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 按指定ID批量写入购物车明细，已存在时更新数量和价格快照
+     * 只有更新时间不早于库中记录时才覆盖，避免乱序的回写把新数据改回旧值
+     *
+     * @param items 购物车明细列表（ID、创建时间、更新时间已赋值）
+     * @return 影响行数
+     */
+    @Insert("<script>"
+            + "INSERT INTO t_cart_item (id, cart_id, sku_id, quantity, price_snapshot, create_time, update_time, deleted) VALUES "
+            + "<foreach collection='items' item='item' separator=','>"
+            + "(#{item.id}, #{item.cartId}, #{item.skuId}, #{item.quantity}, "
+            + "#{item.priceSnapshot, typeHandler=com.example.ddd.infrastructure.persistence.handler.MoneyTypeHandler}, "
+            + "#{item.createTime}, #{item.updateTime}, 0)"
+            + "</foreach>"
+            + " ON DUPLICATE KEY UPDATE "
+            + "quantity = IF(VALUES(update_time) >= update_time, VALUES(quantity), quantity), "
+            + "price_snapshot = IF(VALUES(update_time) >= update_time, VALUES(price_snapshot), price_snapshot), "
+            + "update_time = GREATEST(update_time, VALUES(update_time))"
+            + "</script>")
+    int upsertBatch(@Param("items") List<CartItem> items);
 }
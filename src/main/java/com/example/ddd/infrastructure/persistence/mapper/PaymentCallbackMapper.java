@@ -0,0 +1,14 @@
+package com.example.ddd.infrastructure.persistence.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.ddd.domain.model.entity.PaymentCallback;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * 支付回调 Mapper
+ *
+ * @author DDD Demo
+ */
+@Mapper
+public interface PaymentCallbackMapper extends BaseMapper<PaymentCallback> {
+}
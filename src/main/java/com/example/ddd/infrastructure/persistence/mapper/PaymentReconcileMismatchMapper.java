@@ -0,0 +1,38 @@
+package com.example.ddd.infrastructure.persistence.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.ddd.domain.model.entity.PaymentReconcileMismatch;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDate;
+
+/**
+ * 支付对账差异 Mapper
+ *
+ * @author DDD Demo
+ */
+@Mapper
+public interface PaymentReconcileMismatchMapper extends BaseMapper<PaymentReconcileMismatch> {
+
+    /**
+     * 物理删除指定日期早于指定批次的差异明细
+     *
+     * @param settleDate 对账日期
+     * @param runId      对账批次ID
+     * @return 影响行数
+     */
+    @Delete("DELETE FROM t_payment_reconcile_mismatch WHERE settle_date = #{settleDate} AND run_id < #{runId}")
+    int physicalDeleteBeforeRun(@Param("settleDate") LocalDate settleDate, @Param("runId") Long runId);
+
+    /**
+     * 物理删除指定批次的差异明细
+     *
+     * @param settleDate 对账日期
+     * @param runId      对账批次ID
+     * @return 影响行数
+     */
+    @Delete("DELETE FROM t_payment_reconcile_mismatch WHERE settle_date = #{settleDate} AND run_id = #{runId}")
+    int physicalDeleteByRun(@Param("settleDate") LocalDate settleDate, @Param("runId") Long runId);
+}
@@ -3,6 +3,10 @@ package com.example.ddd.infrastructure.persistence.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.example.ddd.domain.model.entity.Product;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.Map;
 
 /**
  * 商品 Mapper
@@ -11,4 +15,46 @@ import org.apache.ibatis.annotations.Mapper;
  */
 @Mapper
 public interface ProductMapper extends BaseMapper<Product> {
+
+    /**
+     * 按SKU重新计算商品的最低价格和总库存
+     *
+     * @param productId 商品ID
+     * @return 影响行数
+     */
+    @Update("UPDATE t_product SET "
+            + "min_price = IFNULL((SELECT MIN(s.price) FROM t_product_sku s WHERE s.product_id = #{productId} AND s.deleted = 0), 0), "
+            + "total_stock = IFNULL((SELECT SUM(s.stock) FROM t_product_sku s WHERE s.product_id = #{productId} AND s.deleted = 0), 0) "
+            + "WHERE id = #{productId}")
+    int refreshSkuSummary(@Param("productId") Long productId);
+
+    /**
+     * 按SKU增量调整所属商品的总库存
+     *
+     * @param skuId SKU ID
+     * @param delta 库存变化量（扣减为负数）
+     * @return 影响行数
+     */
+    @Update("UPDATE t_product p JOIN t_product_sku s ON s.product_id = p.id "
+            + "SET p.total_stock = p.total_stock + #{delta} "
+            + "WHERE s.id = #{skuId}")
+    int addTotalStockBySkuId(@Param("skuId") Long skuId, @Param("delta") int delta);
+
+    /**
+     * 按SKU批量增量调整所属商品的总库存，同一商品的多个SKU合并为一次更新
+     *
+     * @param deltas SKU ID -> 库存变化量（扣减为负数）
+     * @return 影响行数
+     */
+    @Update("<script>"
+            + "UPDATE t_product p JOIN ("
+            + "SELECT s.product_id, SUM(d.delta) AS delta FROM t_product_sku s JOIN ("
+            + "<foreach collection='deltas' index='skuId' item='delta' separator=' UNION ALL '>"
+            + "SELECT #{skuId} AS id, #{delta} AS delta"
+            + "</foreach>"
+            + ") d ON s.id = d.id GROUP BY s.product_id"
+            + ") x ON p.id = x.product_id "
+            + "SET p.total_stock = p.total_stock + x.delta"
+            + "</script>")
+    int addTotalStockBySkuIds(@Param("deltas") Map<Long, Integer> deltas);
 }
@@ -3,6 +3,10 @@ package com.example.ddd.infrastructure.persistence.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.example.ddd.domain.model.entity.ProductSku;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.Map;
 
 /**
  * 商品SKU Mapper
@@ -11,4 +15,22 @@ import org.apache.ibatis.annotations.Mapper;
  */
 @Mapper
 public interface ProductSkuMapper extends BaseMapper<ProductSku> {
+
+    /**
+     * 单条语句批量条件扣减库存
+     * 每个SKU带 stock >= 数量 条件，影响行数小于SKU数量说明有SKU库存不足
+     *
+     * @param quantities SKU ID -> 扣减数量
+     * @return 影响行数
+     */
+    @Update("<script>"
+            + "UPDATE t_product_sku s JOIN ("
+            + "<foreach collection='quantities' index='skuId' item='quantity' separator=' UNION ALL '>"
+            + "SELECT #{skuId} AS id, #{quantity} AS quantity"
+            + "</foreach>"
+            + ") d ON s.id = d.id "
+            + "SET s.stock = s.stock - d.quantity "
+            + "WHERE s.stock &gt;= d.quantity AND s.deleted = 0"
+            + "</script>")
+    int decreaseStockBatch(@Param("quantities") Map<Long, Integer> quantities);
 }
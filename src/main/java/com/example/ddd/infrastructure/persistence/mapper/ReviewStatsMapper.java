@@ -0,0 +1,100 @@
+package com.example.ddd.infrastructure.persistence.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.ddd.domain.model.entity.ReviewStats;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 商品评价统计 Mapper
+ *
+ * @author DDD Demo
+ */
+@Mapper
+public interface ReviewStatsMapper extends BaseMapper<ReviewStats> {
+
+    /**
+     * 累加一条评价，统计不存在时插入（4 星及以上计为好评）
+     *
+     * @param productId 商品ID
+     * @param rating    评分
+     * @return 影响行数
+     */
+    @Insert("INSERT INTO t_review_stats (product_id, review_count, positive_count, rating1_count, rating2_count, "
+            + "rating3_count, rating4_count, rating5_count, rating_sum, deleted) VALUES ("
+            + "#{productId}, 1, IF(#{rating} >= 4, 1, 0), IF(#{rating} = 1, 1, 0), IF(#{rating} = 2, 1, 0), "
+            + "IF(#{rating} = 3, 1, 0), IF(#{rating} = 4, 1, 0), IF(#{rating} = 5, 1, 0), #{rating}, 0)"
+            + " ON DUPLICATE KEY UPDATE "
+            + "review_count = review_count + 1, "
+            + "positive_count = positive_count + VALUES(positive_count), "
+            + "rating1_count = rating1_count + VALUES(rating1_count), "
+            + "rating2_count = rating2_count + VALUES(rating2_count), "
+            + "rating3_count = rating3_count + VALUES(rating3_count), "
+            + "rating4_count = rating4_count + VALUES(rating4_count), "
+            + "rating5_count = rating5_count + VALUES(rating5_count), "
+            + "rating_sum = rating_sum + VALUES(rating_sum)")
+    int increment(@Param("productId") Long productId, @Param("rating") int rating);
+
+    /**
+     * 按评价表重新计算指定商品的统计并覆盖
+     *
+     * @param productIds 商品ID集合
+     * @return 影响行数
+     */
+    @Insert("<script>"
+            + "INSERT INTO t_review_stats (product_id, review_count, positive_count, rating1_count, rating2_count, "
+            + "rating3_count, rating4_count, rating5_count, rating_sum, deleted) "
+            + "SELECT product_id, COUNT(*), SUM(rating &gt;= 4), SUM(rating = 1), SUM(rating = 2), "
+            + "SUM(rating = 3), SUM(rating = 4), SUM(rating = 5), SUM(rating), 0 "
+            + "FROM t_review WHERE deleted = 0 AND product_id IN "
+            + "<foreach collection='productIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>"
+            + " GROUP BY product_id"
+            + " ON DUPLICATE KEY UPDATE "
+            + "review_count = VALUES(review_count), "
+            + "positive_count = VALUES(positive_count), "
+            + "rating1_count = VALUES(rating1_count), "
+            + "rating2_count = VALUES(rating2_count), "
+            + "rating3_count = VALUES(rating3_count), "
+            + "rating4_count = VALUES(rating4_count), "
+            + "rating5_count = VALUES(rating5_count), "
+            + "rating_sum = VALUES(rating_sum)"
+            + "</script>")
+    int rebuild(@Param("productIds") Collection<Long> productIds);
+
+    /**
+     * 按商品ID升序查询统计不为 0、但评价表中已没有有效评价的商品ID
+     *
+     * @param afterProductId 上一批最后一个商品ID，第一批为 null
+     * @param limit          每批数量
+     * @return 商品ID
+     */
+    @Select("<script>"
+            + "SELECT s.product_id FROM t_review_stats s WHERE s.deleted = 0"
+            + "<if test='afterProductId != null'> AND s.product_id &gt; #{afterProductId}</if>"
+            + " AND (s.review_count &lt;&gt; 0 OR s.rating_sum &lt;&gt; 0)"
+            + " AND NOT EXISTS (SELECT 1 FROM t_review r WHERE r.product_id = s.product_id AND r.deleted = 0)"
+            + " ORDER BY s.product_id LIMIT #{limit}"
+            + "</script>")
+    List<Long> selectStaleProductIds(@Param("afterProductId") Long afterProductId, @Param("limit") int limit);
+
+    /**
+     * 将指定商品中已没有有效评价的统计清零（再次检查评价表，查询后新增了评价的商品不清零）
+     *
+     * @param productIds 商品ID集合
+     * @return 影响行数
+     */
+    @Update("<script>"
+            + "UPDATE t_review_stats s SET review_count = 0, positive_count = 0, rating1_count = 0, "
+            + "rating2_count = 0, rating3_count = 0, rating4_count = 0, rating5_count = 0, rating_sum = 0 "
+            + "WHERE s.product_id IN "
+            + "<foreach collection='productIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>"
+            + " AND NOT EXISTS (SELECT 1 FROM t_review r WHERE r.product_id = s.product_id AND r.deleted = 0)"
+            + "</script>")
+    int reset(@Param("productIds") Collection<Long> productIds);
+}
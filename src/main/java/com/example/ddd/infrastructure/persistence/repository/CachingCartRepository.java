@@ -0,0 +1,129 @@
+package com.example.ddd.infrastructure.persistence.repository;
+
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.example.ddd.domain.model.entity.Cart;
+import com.example.ddd.domain.repository.CartRepository;
+import com.example.ddd.infrastructure.config.CartStoreProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * 缓存用户与购物车对应关系的购物车仓储
+ * 购物车创建后归属不再变化，Redis 中缓存 用户ID -> 购物车ID 和 购物车ID -> 用户ID，
+ * 购物车操作和归属校验不再每次查询 t_cart；返回的购物车只包含 ID 和用户ID
+ * <p>
+ * 装饰 {@link CartRepositoryImpl}，与 {@link WriteBehindCartItemRepository} 一起在 cart.store.mode=redis 时启用
+ *
+ * @author DDD Demo
+ */
+@Primary
+@Repository
+@ConditionalOnProperty(name = "cart.store.mode", havingValue = "redis")
+public class CachingCartRepository implements CartRepository {
+
+    private static final String USER_KEY_PREFIX = "cart:user:";
+    private static final String OWNER_KEY_PREFIX = "cart:owner:";
+
+    private final CartRepositoryImpl delegate;
+    private final StringRedisTemplate redisTemplate;
+    private final Duration ttl;
+
+    public CachingCartRepository(CartRepositoryImpl delegate, StringRedisTemplate redisTemplate,
+                                 CartStoreProperties properties) {
+        this.delegate = delegate;
+        this.redisTemplate = redisTemplate;
+        this.ttl = Duration.ofSeconds(properties.getTtlSeconds());
+    }
+
+    @Override
+    public Cart findById(Long id) {
+        String userId = redisTemplate.opsForValue().get(OWNER_KEY_PREFIX + id);
+        if (userId != null) {
+            return cartOf(id, Long.valueOf(userId));
+        }
+        Cart cart = delegate.findById(id);
+        if (cart != null) {
+            cache(cart);
+        }
+        return cart;
+    }
+
+    @Override
+    public Cart save(Cart entity) {
+        return delegate.save(entity);
+    }
+
+    @Override
+    public int update(Cart entity) {
+        return delegate.update(entity);
+    }
+
+    @Override
+    public int delete(Long id) {
+        Cart cart = delegate.findById(id);
+        int rows = delegate.delete(id);
+        if (cart != null) {
+            redisTemplate.delete(OWNER_KEY_PREFIX + id);
+            redisTemplate.delete(USER_KEY_PREFIX + cart.getUserId());
+        }
+        return rows;
+    }
+
+    @Override
+    public IPage<Cart> page(Page<Cart> page) {
+        return delegate.page(page);
+    }
+
+    @Override
+    public Cart findByUserId(Long userId) {
+        String cartId = redisTemplate.opsForValue().get(USER_KEY_PREFIX + userId);
+        if (cartId != null) {
+            return cartOf(Long.valueOf(cartId), userId);
+        }
+        Cart cart = delegate.findByUserId(userId);
+        if (cart != null) {
+            cache(cart);
+        }
+        return cart;
+    }
+
+    @Override
+    public Cart getOrCreateCart(Long userId) {
+        Cart cart = findByUserId(userId);
+        if (cart != null) {
+            return cart;
+        }
+        Cart created = delegate.getOrCreateCart(userId);
+        // 新建的购物车在事务提交后才缓存，回滚时不会留下指向不存在购物车的缓存
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache(created);
+                }
+            });
+        } else {
+            cache(created);
+        }
+        return created;
+    }
+
+    private void cache(Cart cart) {
+        redisTemplate.opsForValue().set(USER_KEY_PREFIX + cart.getUserId(), cart.getId().toString(), ttl);
+        redisTemplate.opsForValue().set(OWNER_KEY_PREFIX + cart.getId(), cart.getUserId().toString(), ttl);
+    }
+
+    private static Cart cartOf(Long id, Long userId) {
+        Cart cart = new Cart();
+        cart.setId(id);
+        cart.setUserId(userId);
+        return cart;
+    }
+}
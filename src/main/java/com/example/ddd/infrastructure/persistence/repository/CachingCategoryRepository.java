@@ -0,0 +1,151 @@
+package com.example.ddd.infrastructure.persistence.repository;
+
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.example.ddd.domain.model.entity.Category;
+import com.example.ddd.domain.model.valueobject.CategoryTree;
+import com.example.ddd.domain.repository.CategoryRepository;
+import com.example.ddd.infrastructure.cache.CategorySnapshot;
+import com.example.ddd.infrastructure.cache.TwoLevelCacheManager;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 带内存快照的分类仓储
+ * 装饰 {@link CategoryRepositoryImpl}，子树查询和分类树走分类快照；
+ * 分类写操作后丢弃快照（事务提交后再丢弃一次，避免并发读取把未提交前的数据重新载入），
+ * 并通知其他节点丢弃各自的快照，下次读取时重新构建。
+ * 每次丢弃都递增代数，构建期间代数变化说明读到的可能是失效前的数据，构建结果只返回给本次调用、不发布
+ *
+ * @author DDD Demo
+ */
+@Primary
+@Repository
+public class CachingCategoryRepository implements CategoryRepository {
+
+    /**
+     * 跨节点失效通知使用的缓存名
+     */
+    public static final String CACHE_NAME = "categorySnapshot";
+
+    private final CategoryRepositoryImpl delegate;
+    private final TwoLevelCacheManager cacheManager;
+
+    private volatile CategorySnapshot snapshot;
+
+    /**
+     * 快照代数，每次丢弃快照时递增
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    public CachingCategoryRepository(CategoryRepositoryImpl delegate, TwoLevelCacheManager cacheManager) {
+        this.delegate = delegate;
+        this.cacheManager = cacheManager;
+        cacheManager.addInvalidationListener(CACHE_NAME, id -> discard());
+    }
+
+    @Override
+    public Category findById(Long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public Category save(Category entity) {
+        Category saved = delegate.save(entity);
+        invalidate();
+        return saved;
+    }
+
+    @Override
+    public int update(Category entity) {
+        int rows = delegate.update(entity);
+        invalidate();
+        return rows;
+    }
+
+    @Override
+    public int delete(Long id) {
+        int rows = delegate.delete(id);
+        invalidate();
+        return rows;
+    }
+
+    @Override
+    public IPage<Category> page(Page<Category> page) {
+        return delegate.page(page);
+    }
+
+    @Override
+    public List<Category> findTopLevelCategories() {
+        return delegate.findTopLevelCategories();
+    }
+
+    @Override
+    public List<Category> findByParentId(Long parentId) {
+        return delegate.findByParentId(parentId);
+    }
+
+    @Override
+    public List<Category> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Long> findSubtreeIds(Long categoryId) {
+        return snapshot().getSubtreeIds(categoryId);
+    }
+
+    @Override
+    public List<Category> findByLevel(Integer level) {
+        return delegate.findByLevel(level);
+    }
+
+    @Override
+    public CategoryTree buildCategoryTree() {
+        return snapshot().getTree();
+    }
+
+    private CategorySnapshot snapshot() {
+        CategorySnapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    long buildGeneration = generation.get();
+                    current = CategorySnapshot.build(delegate.findAll());
+                    if (generation.get() == buildGeneration) {
+                        snapshot = current;
+                    }
+                }
+            }
+        }
+        return current;
+    }
+
+    private void invalidate() {
+        discard();
+        cacheManager.publishInvalidation(CACHE_NAME, 0L);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    discard();
+                    cacheManager.publishInvalidation(CACHE_NAME, 0L);
+                }
+            });
+        }
+    }
+
+    /**
+     * 丢弃本节点快照；先递增代数，正在构建的快照不会再被发布
+     */
+    private void discard() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+}
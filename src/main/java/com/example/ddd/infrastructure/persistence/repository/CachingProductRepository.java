@@ -0,0 +1,130 @@
+package com.example.ddd.infrastructure.persistence.repository;
+
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.example.ddd.domain.model.entity.Product;
+import com.example.ddd.domain.model.valueobject.KeysetCursor;
+import com.example.ddd.domain.model.valueobject.ProductStatus;
+import com.example.ddd.domain.repository.ProductRepository;
+import com.example.ddd.infrastructure.cache.TwoLevelCache;
+import com.example.ddd.infrastructure.cache.TwoLevelCacheManager;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 带二级缓存的商品仓储
+ * 装饰 {@link ProductRepositoryImpl}，按ID查询走二级缓存，写操作在事务提交后删除缓存
+ *
+ * @author DDD Demo
+ */
+@Primary
+@Repository
+public class CachingProductRepository implements ProductRepository {
+
+    /**
+     * 缓存名
+     */
+    public static final String CACHE_NAME = "product";
+
+    private final ProductRepositoryImpl delegate;
+    private final TwoLevelCache<Product> cache;
+
+    public CachingProductRepository(ProductRepositoryImpl delegate, TwoLevelCacheManager cacheManager) {
+        this.delegate = delegate;
+        this.cache = cacheManager.getCache(CACHE_NAME, Product.class);
+    }
+
+    @Override
+    public Product findById(Long id) {
+        return cache.get(id, delegate::findById);
+    }
+
+    @Override
+    public Product save(Product entity) {
+        boolean isNew = entity.getId() == null;
+        Product saved = delegate.save(entity);
+        if (!isNew) {
+            cache.evictAfterCommit(saved.getId());
+        }
+        return saved;
+    }
+
+    @Override
+    public int update(Product entity) {
+        int rows = delegate.update(entity);
+        cache.evictAfterCommit(entity.getId());
+        return rows;
+    }
+
+    @Override
+    public int delete(Long id) {
+        int rows = delegate.delete(id);
+        cache.evictAfterCommit(id);
+        return rows;
+    }
+
+    @Override
+    public IPage<Product> page(Page<Product> page) {
+        return delegate.page(page);
+    }
+
+    @Override
+    public List<Product> findByIds(Collection<Long> ids) {
+        return delegate.findByIds(ids);
+    }
+
+    @Override
+    public List<Product> findByShopId(Long shopId) {
+        return delegate.findByShopId(shopId);
+    }
+
+    @Override
+    public List<Product> findByCategoryId(Long categoryId) {
+        return delegate.findByCategoryId(categoryId);
+    }
+
+    @Override
+    public List<Product> findByCategoryIds(List<Long> categoryIds) {
+        return delegate.findByCategoryIds(categoryIds);
+    }
+
+    @Override
+    public List<Product> findByStatus(ProductStatus status) {
+        return delegate.findByStatus(status);
+    }
+
+    @Override
+    public IPage<Product> pageByShopId(Page<Product> page, Long shopId) {
+        return delegate.pageByShopId(page, shopId);
+    }
+
+    @Override
+    public IPage<Product> pageOnSale(Page<Product> page) {
+        return delegate.pageOnSale(page);
+    }
+
+    @Override
+    public int refreshSkuSummary(Long productId) {
+        int rows = delegate.refreshSkuSummary(productId);
+        cache.evictAfterCommit(productId);
+        return rows;
+    }
+
+    @Override
+    public List<Product> findSkuSummaryAfterId(Long lastId, int limit) {
+        return delegate.findSkuSummaryAfterId(lastId, limit);
+    }
+
+    @Override
+    public List<Product> listOnSaleAfter(KeysetCursor cursor, int limit) {
+        return delegate.listOnSaleAfter(cursor, limit);
+    }
+
+    @Override
+    public List<Product> listByShopIdAfter(Long shopId, KeysetCursor cursor, int limit) {
+        return delegate.listByShopIdAfter(shopId, cursor, limit);
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.ddd.infrastructure.persistence.repository;
+
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.example.ddd.domain.model.entity.Product;
+import com.example.ddd.domain.model.entity.ProductSku;
+import com.example.ddd.domain.model.valueobject.ProductSkuSummary;
+import com.example.ddd.domain.repository.ProductSkuRepository;
+import com.example.ddd.infrastructure.cache.LocalCache;
+import com.example.ddd.infrastructure.cache.TwoLevelCache;
+import com.example.ddd.infrastructure.cache.TwoLevelCacheManager;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 带二级缓存的商品SKU仓储
+ * 装饰 {@link ProductSkuRepositoryImpl}，按ID查询走二级缓存；
+ * 库存变更会同时修改商品汇总库存，因此同时删除SKU和所属商品的缓存；写操作都在事务提交后删除缓存。
+ * SKU 所属商品不会变化，读取时顺带记录 SKU→商品 映射，批量扣减时据此删除商品缓存，不必再回源查询
+ *
+ * @author DDD Demo
+ */
+@Primary
+@Repository
+public class CachingProductSkuRepository implements ProductSkuRepository {
+
+    /**
+     * 缓存名
+     */
+    public static final String CACHE_NAME = "productSku";
+
+    /**
+     * SKU→商品 映射的最大条目数
+     */
+    private static final int PRODUCT_ID_CACHE_SIZE = 10_000;
+
+    /**
+     * SKU→商品 映射的有效期（毫秒），映射不会变化，只用于回收长期不访问的条目
+     */
+    private static final long PRODUCT_ID_CACHE_TTL_MILLIS = 60 * 60 * 1000L;
+
+    private final ProductSkuRepositoryImpl delegate;
+    private final TwoLevelCache<ProductSku> cache;
+    private final TwoLevelCache<Product> productCache;
+    private final LocalCache<Long, Long> productIds =
+            new LocalCache<>(PRODUCT_ID_CACHE_SIZE, PRODUCT_ID_CACHE_TTL_MILLIS);
+
+    public CachingProductSkuRepository(ProductSkuRepositoryImpl delegate, TwoLevelCacheManager cacheManager) {
+        this.delegate = delegate;
+        this.cache = cacheManager.getCache(CACHE_NAME, ProductSku.class);
+        this.productCache = cacheManager.getCache(CachingProductRepository.CACHE_NAME, Product.class);
+    }
+
+    @Override
+    public ProductSku findById(Long id) {
+        return remember(cache.get(id, delegate::findById));
+    }
+
+    @Override
+    public ProductSku save(ProductSku entity) {
+        boolean isNew = entity.getId() == null;
+        ProductSku saved = delegate.save(entity);
+        if (!isNew) {
+            cache.evictAfterCommit(saved.getId());
+        }
+        return saved;
+    }
+
+    @Override
+    public int update(ProductSku entity) {
+        int rows = delegate.update(entity);
+        cache.evictAfterCommit(entity.getId());
+        return rows;
+    }
+
+    @Override
+    public int delete(Long id) {
+        int rows = delegate.delete(id);
+        cache.evictAfterCommit(id);
+        return rows;
+    }
+
+    @Override
+    public IPage<ProductSku> page(Page<ProductSku> page) {
+        return delegate.page(page);
+    }
+
+    @Override
+    public List<ProductSku> findByProductId(Long productId) {
+        return rememberAll(delegate.findByProductId(productId));
+    }
+
+    @Override
+    public List<ProductSku> findByIds(Collection<Long> ids) {
+        return rememberAll(delegate.findByIds(ids));
+    }
+
+    @Override
+    public Map<Long, ProductSkuSummary> summarizeByProductIds(Collection<Long> productIds) {
+        return delegate.summarizeByProductIds(productIds);
+    }
+
+    @Override
+    public boolean deductStock(Long skuId, int quantity) {
+        boolean deducted = delegate.deductStock(skuId, quantity);
+        evictStock(skuId);
+        return deducted;
+    }
+
+    @Override
+    public boolean deductStockBatch(Map<Long, Integer> quantities) {
+        boolean deducted = delegate.deductStockBatch(quantities);
+        // 下单前已经通过 findByIds 读取过这些SKU，所属商品直接取映射；只有映射缺失的SKU才回源一次
+        List<Long> unknown = new ArrayList<>();
+        for (Long skuId : quantities.keySet()) {
+            cache.evictAfterCommit(skuId);
+            Long productId = productIds.get(skuId);
+            if (productId != null) {
+                productCache.evictAfterCommit(productId);
+            } else {
+                unknown.add(skuId);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            for (ProductSku sku : rememberAll(delegate.findByIds(unknown))) {
+                productCache.evictAfterCommit(sku.getProductId());
+            }
+        }
+        return deducted;
+    }
+
+    @Override
+    public int decreaseStock(Long skuId, Integer quantity, Integer currentStock) {
+        int updated = delegate.decreaseStock(skuId, quantity, currentStock);
+        // 失败时同样删除缓存：乐观锁版本可能来自过期的缓存，下次读取拿到最新库存
+        evictStock(skuId);
+        return updated;
+    }
+
+    @Override
+    public int increaseStock(Long skuId, Integer quantity) {
+        int updated = delegate.increaseStock(skuId, quantity);
+        evictStock(skuId);
+        return updated;
+    }
+
+    @Override
+    public int adjustStock(Long skuId, int delta) {
+        int updated = delegate.adjustStock(skuId, delta);
+        evictStock(skuId);
+        return updated;
+    }
+
+    private List<ProductSku> rememberAll(List<ProductSku> skus) {
+        skus.forEach(this::remember);
+        return skus;
+    }
+
+    private ProductSku remember(ProductSku sku) {
+        if (sku != null && sku.getId() != null && sku.getProductId() != null) {
+            productIds.put(sku.getId(), sku.getProductId());
+        }
+        return sku;
+    }
+
+    private void evictStock(Long skuId) {
+        // 直接查库获取所属商品，不经过缓存，避免把正要删除的SKU重新写回缓存
+        ProductSku sku = delegate.findById(skuId);
+        cache.evictAfterCommit(skuId);
+        if (sku != null) {
+            productCache.evictAfterCommit(sku.getProductId());
+        }
+    }
+}
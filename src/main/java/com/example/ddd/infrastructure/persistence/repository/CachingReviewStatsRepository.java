@@ -0,0 +1,105 @@
+package com.example.ddd.infrastructure.persistence.repository;
+
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.example.ddd.domain.model.entity.ReviewStats;
+import com.example.ddd.domain.repository.ReviewStatsRepository;
+import com.example.ddd.infrastructure.cache.TwoLevelCache;
+import com.example.ddd.infrastructure.cache.TwoLevelCacheManager;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 带二级缓存的商品评价统计仓储
+ * 装饰 {@link ReviewStatsRepositoryImpl}，按商品ID查询走二级缓存（没有评价的商品也缓存空统计），
+ * 累加、重建和清零后删除缓存；累加在评价事务中执行，缓存在事务提交后删除，避免并发读取把提交前的旧值重新缓存
+ *
+ * @author DDD Demo
+ */
+@Primary
+@Repository
+public class CachingReviewStatsRepository implements ReviewStatsRepository {
+
+    /**
+     * 缓存名
+     */
+    public static final String CACHE_NAME = "reviewStats";
+
+    private final ReviewStatsRepositoryImpl delegate;
+    private final TwoLevelCache<ReviewStats> cache;
+
+    public CachingReviewStatsRepository(ReviewStatsRepositoryImpl delegate, TwoLevelCacheManager cacheManager) {
+        this.delegate = delegate;
+        this.cache = cacheManager.getCache(CACHE_NAME, ReviewStats.class);
+    }
+
+    @Override
+    public ReviewStats findById(Long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public ReviewStats save(ReviewStats entity) {
+        ReviewStats saved = delegate.save(entity);
+        cache.evictAfterCommit(saved.getProductId());
+        return saved;
+    }
+
+    @Override
+    public int update(ReviewStats entity) {
+        int rows = delegate.update(entity);
+        cache.evictAfterCommit(entity.getProductId());
+        return rows;
+    }
+
+    @Override
+    public int delete(Long id) {
+        ReviewStats stats = delegate.findById(id);
+        int rows = delegate.delete(id);
+        if (stats != null) {
+            cache.evictAfterCommit(stats.getProductId());
+        }
+        return rows;
+    }
+
+    @Override
+    public IPage<ReviewStats> page(Page<ReviewStats> page) {
+        return delegate.page(page);
+    }
+
+    @Override
+    public ReviewStats findByProductId(Long productId) {
+        ReviewStats stats = cache.get(productId, delegate::findByProductId);
+        return stats != null ? stats : ReviewStats.empty(productId);
+    }
+
+    @Override
+    public void increment(Long productId, int rating) {
+        delegate.increment(productId, rating);
+        cache.evictAfterCommit(productId);
+    }
+
+    @Override
+    public void rebuild(Collection<Long> productIds) {
+        delegate.rebuild(productIds);
+        if (productIds != null) {
+            productIds.forEach(cache::evictAfterCommit);
+        }
+    }
+
+    @Override
+    public List<Long> findStaleProductIdsAfter(Long afterProductId, int limit) {
+        return delegate.findStaleProductIdsAfter(afterProductId, limit);
+    }
+
+    @Override
+    public void reset(Collection<Long> productIds) {
+        delegate.reset(productIds);
+        if (productIds != null) {
+            productIds.forEach(cache::evictAfterCommit);
+        }
+    }
+}
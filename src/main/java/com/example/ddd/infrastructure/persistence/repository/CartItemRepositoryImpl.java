@@ -9,6 +9,7 @@ import com.example.ddd.infrastructure.persistence.mapper.CartItemMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -61,6 +62,14 @@ public class CartItemRepositoryImpl implements CartItemRepository {
         );
     }
 
+    @Override
+    public List<CartItem> findByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return cartItemMapper.selectBatchIds(ids);
+    }
+
     @Override
     public CartItem findByCartIdAndSkuId(Long cartId, Long skuId) {
         return cartItemMapper.selectOne(
@@ -95,4 +104,27 @@ public class CartItemRepositoryImpl implements CartItemRepository {
         // 使用原生SQL进行物理删除，绕过MyBatis-Plus的逻辑删除
         return cartItemMapper.physicalDeleteByCartId(cartId);
     }
+
+    @Override
+    public int physicalDeleteByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        // 使用原生SQL进行物理删除，绕过MyBatis-Plus的逻辑删除
+        return cartItemMapper.physicalDeleteByIds(ids);
+    }
+
+    /**
+     * 按指定ID批量写入或更新购物车明细（单条多行 INSERT ... ON DUPLICATE KEY UPDATE）
+     * 供购物车 Redis 存储模式回写使用，明细ID由写入方生成
+     *
+     * @param items 购物车明细列表
+     * @return 影响行数
+     */
+    public int upsertBatch(List<CartItem> items) {
+        if (items == null || items.isEmpty()) {
+            return 0;
+        }
+        return cartItemMapper.upsertBatch(items);
+    }
 }
@@ -4,14 +4,15 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.example.ddd.domain.model.entity.Category;
+import com.example.ddd.domain.model.valueobject.CategoryTree;
 import com.example.ddd.domain.repository.CategoryRepository;
+import com.example.ddd.infrastructure.cache.CategorySnapshot;
 import com.example.ddd.infrastructure.persistence.mapper.CategoryMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * 分类仓储实现
@@ -74,48 +75,45 @@ public class CategoryRepositoryImpl implements CategoryRepository {
     }
 
     @Override
-    public List<Category> findByLevel(Integer level) {
+    public List<Category> findAll() {
         return categoryMapper.selectList(
                 new LambdaQueryWrapper<Category>()
-                        .eq(Category::getLevel, level)
                         .orderByAsc(Category::getSort)
         );
     }
 
     @Override
-    public List<Category> buildCategoryTree() {
-        // 查询所有分类
-        List<Category> allCategories = categoryMapper.selectList(null);
-
-        // 构建分类树
-        List<Category> topLevelCategories = new ArrayList<>();
-        for (Category category : allCategories) {
-            if (category.getParentId() != null && category.getParentId().equals(0L)) {
-                topLevelCategories.add(category);
-            }
+    public List<Long> findSubtreeIds(Long categoryId) {
+        Category category = categoryMapper.selectById(categoryId);
+        if (category == null) {
+            return List.of();
         }
-
-        // 递归构建子分类树
-        for (Category topCategory : topLevelCategories) {
-            buildChildren(topCategory, allCategories);
+        if (category.getPath() == null) {
+            return List.of(categoryId);
         }
-
-        return topLevelCategories;
+        // 按路径前缀查询子孙分类
+        List<Category> descendants = categoryMapper.selectList(
+                new LambdaQueryWrapper<Category>()
+                        .select(Category::getId)
+                        .likeRight(Category::getPath, category.getPath() + "/")
+        );
+        List<Long> ids = new ArrayList<>(descendants.size() + 1);
+        ids.add(categoryId);
+        descendants.forEach(c -> ids.add(c.getId()));
+        return ids;
     }
 
-    /**
-     * 递归构建子分类树
-     *
-     * @param parent   父分类
-     * @param allCategories 所有分类列表
-     */
-    private void buildChildren(Category parent, List<Category> allCategories) {
-        List<Category> children = allCategories.stream()
-                .filter(c -> c.getParentId() != null && c.getParentId().equals(parent.getId()))
-                .collect(Collectors.toList());
+    @Override
+    public List<Category> findByLevel(Integer level) {
+        return categoryMapper.selectList(
+                new LambdaQueryWrapper<Category>()
+                        .eq(Category::getLevel, level)
+                        .orderByAsc(Category::getSort)
+        );
+    }
 
-        for (Category child : children) {
-            buildChildren(child, allCategories);
-        }
+    @Override
+    public CategoryTree buildCategoryTree() {
+        return CategorySnapshot.buildTree(findAll());
     }
 }
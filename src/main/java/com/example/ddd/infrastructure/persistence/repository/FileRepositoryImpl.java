@@ -13,7 +13,10 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -67,6 +70,17 @@ public class FileRepositoryImpl implements FileRepository {
         return Optional.ofNullable(fileInfo);
     }
 
+    @Override
+    public List<FileInfo> findByFileKeys(Collection<String> fileKeys) {
+        if (fileKeys == null || fileKeys.isEmpty()) {
+            return List.of();
+        }
+        return fileMapper.selectList(
+                new LambdaQueryWrapper<FileInfo>()
+                        .in(FileInfo::getFileKey, fileKeys)
+        );
+    }
+
     @Override
     public List<FileInfo> findByBizTypeAndBizId(BizType bizType, Long bizId) {
         return fileMapper.selectList(
@@ -89,6 +103,25 @@ public class FileRepositoryImpl implements FileRepository {
         return Optional.ofNullable(fileInfo);
     }
 
+    @Override
+    public Map<Long, FileInfo> findFirstByBizTypeAndBizIds(BizType bizType, Collection<Long> bizIds) {
+        if (bizIds == null || bizIds.isEmpty()) {
+            return Map.of();
+        }
+        List<FileInfo> files = fileMapper.selectList(
+                new LambdaQueryWrapper<FileInfo>()
+                        .eq(FileInfo::getBizType, bizType)
+                        .in(FileInfo::getBizId, bizIds)
+                        .orderByAsc(FileInfo::getCreateTime)
+        );
+        // 按创建时间升序，每个业务ID保留第一条
+        Map<Long, FileInfo> result = new HashMap<>(bizIds.size() * 2);
+        for (FileInfo file : files) {
+            result.putIfAbsent(file.getBizId(), file);
+        }
+        return result;
+    }
+
     @Override
     public List<FileInfo> findExpiredPendingFiles() {
         return fileMapper.selectList(
@@ -2,12 +2,15 @@ package com.example.ddd.infrastructure.persistence.repository;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.baomidou.mybatisplus.extension.toolkit.Db;
 import com.example.ddd.domain.model.entity.LoginLog;
 import com.example.ddd.domain.repository.LoginLogRepository;
 import com.example.ddd.infrastructure.persistence.mapper.LoginLogMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 /**
  * 登录日志仓储实现
  *
@@ -48,4 +51,12 @@ public class LoginLogRepositoryImpl implements LoginLogRepository {
     public IPage<LoginLog> page(Page<LoginLog> page) {
         return loginLogMapper.selectPage(page, null);
     }
+
+    @Override
+    public void saveBatch(List<LoginLog> logs) {
+        if (logs == null || logs.isEmpty()) {
+            return;
+        }
+        Db.saveBatch(logs);
+    }
 }
@@ -3,12 +3,15 @@ package com.example.ddd.infrastructure.persistence.repository;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.baomidou.mybatisplus.extension.toolkit.Db;
 import com.example.ddd.domain.model.entity.OrderItem;
 import com.example.ddd.domain.repository.OrderItemRepository;
 import com.example.ddd.infrastructure.persistence.mapper.OrderItemMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -61,6 +64,17 @@ public class OrderItemRepositoryImpl implements OrderItemRepository {
         );
     }
 
+    @Override
+    public List<OrderItem> findByOrderIds(Collection<Long> orderIds) {
+        if (orderIds == null || orderIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return orderItemMapper.selectList(
+                new LambdaQueryWrapper<OrderItem>()
+                        .in(OrderItem::getOrderId, orderIds)
+        );
+    }
+
     @Override
     public int deleteByOrderId(Long orderId) {
         return orderItemMapper.delete(
@@ -68,4 +82,13 @@ public class OrderItemRepositoryImpl implements OrderItemRepository {
                         .eq(OrderItem::getOrderId, orderId)
         );
     }
+
+    @Override
+    public void saveBatch(List<OrderItem> items) {
+        if (items == null || items.isEmpty()) {
+            return;
+        }
+        // 批处理执行器与当前事务共用连接，自动填充和主键回填照常生效
+        Db.saveBatch(items);
+    }
 }
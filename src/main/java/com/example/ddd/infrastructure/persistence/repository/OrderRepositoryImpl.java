@@ -1,9 +1,12 @@
 package com.example.ddd.infrastructure.persistence.repository;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.example.ddd.domain.model.entity.Order;
+import com.example.ddd.domain.model.valueobject.KeysetCursor;
+import com.example.ddd.domain.model.valueobject.OrderEvent;
 import com.example.ddd.domain.model.valueobject.OrderStatus;
 import com.example.ddd.domain.repository.OrderRepository;
 import com.example.ddd.infrastructure.persistence.mapper.OrderMapper;
@@ -15,6 +18,7 @@ import java.util.List;
 
 /**
  * 订单仓储实现
+ * 所有更新都在 SQL 中递增 revision，订单读模型以它作为严格递增的版本
  * 六边形架构的适配器（Adapter）
  *
  * @author DDD Demo
@@ -23,6 +27,8 @@ import java.util.List;
 @RequiredArgsConstructor
 public class OrderRepositoryImpl implements OrderRepository {
 
+    private static final String INCREMENT_REVISION = "revision = revision + 1";
+
     private final OrderMapper orderMapper;
 
     @Override
@@ -35,14 +41,18 @@ public class OrderRepositoryImpl implements OrderRepository {
         if (entity.getId() == null) {
             orderMapper.insert(entity);
         } else {
-            orderMapper.updateById(entity);
+            update(entity);
         }
         return entity;
     }
 
     @Override
     public int update(Order entity) {
-        return orderMapper.updateById(entity);
+        return orderMapper.update(entity,
+                new LambdaUpdateWrapper<Order>()
+                        .eq(Order::getId, entity.getId())
+                        .setSql(INCREMENT_REVISION)
+        );
     }
 
     @Override
@@ -91,30 +101,95 @@ public class OrderRepositoryImpl implements OrderRepository {
     }
 
     @Override
-    public IPage<Order> pageByUserId(Page<Order> page, Long userId) {
+    public IPage<Order> pageByUserId(Page<Order> page, Long userId, OrderStatus status) {
+        // 命中 idx_user_status_create_time / idx_user_create_time，按索引顺序读取无需排序
         return orderMapper.selectPage(page,
                 new LambdaQueryWrapper<Order>()
                         .eq(Order::getUserId, userId)
+                        .eq(status != null, Order::getStatus, status)
                         .orderByDesc(Order::getCreateTime)
         );
     }
 
     @Override
-    public IPage<Order> pageByShopId(Page<Order> page, Long shopId) {
+    public IPage<Order> pageByShopId(Page<Order> page, Long shopId, OrderStatus status) {
+        // 命中 idx_shop_status_create_time / idx_shop_create_time，按索引顺序读取无需排序
         return orderMapper.selectPage(page,
                 new LambdaQueryWrapper<Order>()
                         .eq(Order::getShopId, shopId)
+                        .eq(status != null, Order::getStatus, status)
                         .orderByDesc(Order::getCreateTime)
         );
     }
 
     @Override
-    public List<Order> findTimeoutPendingOrders(LocalDateTime timeoutThreshold) {
+    public List<Order> findTimeoutPendingOrders(LocalDateTime timeoutThreshold, int limit) {
         return orderMapper.selectList(
                 new LambdaQueryWrapper<Order>()
                         .eq(Order::getStatus, OrderStatus.PENDING)
                         .lt(Order::getCreateTime, timeoutThreshold)
                         .orderByAsc(Order::getCreateTime)
+                        .last("LIMIT " + limit)
+        );
+    }
+
+    @Override
+    public List<Order> listByUserIdAfter(Long userId, KeysetCursor cursor, int limit) {
+        return orderMapper.selectList(
+                afterCursor(new LambdaQueryWrapper<Order>().eq(Order::getUserId, userId), cursor, limit)
+        );
+    }
+
+    @Override
+    public List<Order> listByShopIdAfter(Long shopId, KeysetCursor cursor, int limit) {
+        return orderMapper.selectList(
+                afterCursor(new LambdaQueryWrapper<Order>().eq(Order::getShopId, shopId), cursor, limit)
+        );
+    }
+
+    @Override
+    public List<Order> listByShopIdAfter(Long shopId, OrderStatus status, LocalDateTime startTime,
+                                         LocalDateTime endTime, KeysetCursor cursor, int limit) {
+        return orderMapper.selectList(
+                afterCursor(new LambdaQueryWrapper<Order>()
+                        .eq(Order::getShopId, shopId)
+                        .eq(status != null, Order::getStatus, status)
+                        .ge(startTime != null, Order::getCreateTime, startTime)
+                        .lt(endTime != null, Order::getCreateTime, endTime), cursor, limit)
         );
     }
+
+    @Override
+    public int transitionStatus(Long orderId, OrderEvent event, LocalDateTime time) {
+        // 用实体承载 SET 字段，以便类型处理器和更新时间自动填充生效
+        Order changes = new Order();
+        changes.setStatus(OrderStatus.targetOf(event));
+        switch (event) {
+            case PAY -> changes.setPayTime(time);
+            case SHIP -> changes.setShipTime(time);
+            case CONFIRM -> changes.setCompleteTime(time);
+            case CANCEL -> changes.setCancelTime(time);
+            default -> {
+            }
+        }
+        return orderMapper.update(changes,
+                new LambdaUpdateWrapper<Order>()
+                        .eq(Order::getId, orderId)
+                        .in(Order::getStatus, OrderStatus.sourceStatesOf(event))
+                        .setSql(INCREMENT_REVISION)
+        );
+    }
+
+    /**
+     * 追加游标条件：(create_time, id) 小于游标位置，按 create_time、id 倒序
+     */
+    private LambdaQueryWrapper<Order> afterCursor(LambdaQueryWrapper<Order> wrapper, KeysetCursor cursor, int limit) {
+        if (cursor != null) {
+            wrapper.and(w -> w.lt(Order::getCreateTime, cursor.getCreateTime())
+                    .or(o -> o.eq(Order::getCreateTime, cursor.getCreateTime()).lt(Order::getId, cursor.getId())));
+        }
+        return wrapper.orderByDesc(Order::getCreateTime)
+                .orderByDesc(Order::getId)
+                .last("LIMIT " + limit);
+    }
 }
@@ -3,6 +3,7 @@ package com.example.ddd.infrastructure.persistence.repository;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.baomidou.mybatisplus.extension.toolkit.Db;
 import com.example.ddd.domain.model.entity.OrderStatusLog;
 import com.example.ddd.domain.repository.OrderStatusLogRepository;
 import com.example.ddd.infrastructure.persistence.mapper.OrderStatusLogMapper;
@@ -61,4 +62,12 @@ public class OrderStatusLogRepositoryImpl implements OrderStatusLogRepository {
                         .orderByDesc(OrderStatusLog::getCreateTime)
         );
     }
+
+    @Override
+    public void saveBatch(List<OrderStatusLog> logs) {
+        if (logs == null || logs.isEmpty()) {
+            return;
+        }
+        Db.saveBatch(logs);
+    }
 }
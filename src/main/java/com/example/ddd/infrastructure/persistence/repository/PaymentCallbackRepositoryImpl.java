@@ -0,0 +1,138 @@
+package com.example.ddd.infrastructure.persistence.repository;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.example.ddd.domain.model.entity.PaymentCallback;
+import com.example.ddd.domain.model.valueobject.PaymentCallbackStatus;
+import com.example.ddd.domain.repository.PaymentCallbackRepository;
+import com.example.ddd.infrastructure.persistence.mapper.PaymentCallbackMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 支付回调仓储实现
+ *
+ * @author DDD Demo
+ */
+@Repository
+@RequiredArgsConstructor
+public class PaymentCallbackRepositoryImpl implements PaymentCallbackRepository {
+
+    /**
+     * 失败原因最大长度（与表字段一致）
+     */
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final PaymentCallbackMapper paymentCallbackMapper;
+
+    @Override
+    public PaymentCallback findById(Long id) {
+        return paymentCallbackMapper.selectById(id);
+    }
+
+    @Override
+    public PaymentCallback save(PaymentCallback entity) {
+        if (entity.getId() == null) {
+            paymentCallbackMapper.insert(entity);
+        } else {
+            paymentCallbackMapper.updateById(entity);
+        }
+        return entity;
+    }
+
+    @Override
+    public int update(PaymentCallback entity) {
+        return paymentCallbackMapper.updateById(entity);
+    }
+
+    @Override
+    public int delete(Long id) {
+        return paymentCallbackMapper.deleteById(id);
+    }
+
+    @Override
+    public IPage<PaymentCallback> page(Page<PaymentCallback> page) {
+        return paymentCallbackMapper.selectPage(page, null);
+    }
+
+    @Override
+    public boolean saveIfAbsent(PaymentCallback callback) {
+        try {
+            return paymentCallbackMapper.insert(callback) > 0;
+        } catch (DuplicateKeyException e) {
+            // 唯一键 (payment_no, event, transaction_id) 冲突：重复回调
+            return false;
+        }
+    }
+
+    @Override
+    public List<PaymentCallback> findDue(LocalDateTime now, int limit) {
+        return paymentCallbackMapper.selectList(
+                new LambdaQueryWrapper<PaymentCallback>()
+                        .eq(PaymentCallback::getStatus, PaymentCallbackStatus.PENDING)
+                        .le(PaymentCallback::getNextRetryTime, now)
+                        .orderByAsc(PaymentCallback::getNextRetryTime)
+                        .last("LIMIT " + limit)
+        );
+    }
+
+    @Override
+    public boolean existsEarlierPending(String paymentNo, Long id) {
+        // 走唯一键 uk_payment_event_transaction 的 payment_no 前缀
+        return paymentCallbackMapper.selectCount(
+                new LambdaQueryWrapper<PaymentCallback>()
+                        .eq(PaymentCallback::getPaymentNo, paymentNo)
+                        .eq(PaymentCallback::getStatus, PaymentCallbackStatus.PENDING)
+                        .lt(PaymentCallback::getId, id)
+        ) > 0;
+    }
+
+    @Override
+    public int postpone(Collection<Long> ids, LocalDateTime nextRetryTime) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        PaymentCallback changes = new PaymentCallback();
+        changes.setNextRetryTime(nextRetryTime);
+        return paymentCallbackMapper.update(changes, whenPending().in(PaymentCallback::getId, ids));
+    }
+
+    @Override
+    public int markFinished(Long id, PaymentCallbackStatus status, String error) {
+        PaymentCallback changes = new PaymentCallback();
+        changes.setStatus(status);
+        changes.setLastError(truncate(error));
+        return paymentCallbackMapper.update(changes, whenPending().eq(PaymentCallback::getId, id));
+    }
+
+    @Override
+    public int scheduleRetry(Long id, int retryCount, LocalDateTime nextRetryTime, String error) {
+        PaymentCallback changes = new PaymentCallback();
+        changes.setRetryCount(retryCount);
+        changes.setNextRetryTime(nextRetryTime);
+        changes.setLastError(truncate(error));
+        return paymentCallbackMapper.update(changes, whenPending().eq(PaymentCallback::getId, id));
+    }
+
+    /**
+     * 条件：回调仍待处理，已有结果的回调不会被覆盖
+     */
+    private LambdaUpdateWrapper<PaymentCallback> whenPending() {
+        return new LambdaUpdateWrapper<PaymentCallback>()
+                .eq(PaymentCallback::getStatus, PaymentCallbackStatus.PENDING);
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.ddd.infrastructure.persistence.repository;
+
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.baomidou.mybatisplus.extension.toolkit.Db;
+import com.example.ddd.domain.model.entity.PaymentReconcileMismatch;
+import com.example.ddd.domain.repository.PaymentReconcileMismatchRepository;
+import com.example.ddd.infrastructure.persistence.mapper.PaymentReconcileMismatchMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 支付对账差异仓储实现
+ *
+ * @author DDD Demo
+ */
+@Repository
+@RequiredArgsConstructor
+public class PaymentReconcileMismatchRepositoryImpl implements PaymentReconcileMismatchRepository {
+
+    private final PaymentReconcileMismatchMapper paymentReconcileMismatchMapper;
+
+    @Override
+    public PaymentReconcileMismatch findById(Long id) {
+        return paymentReconcileMismatchMapper.selectById(id);
+    }
+
+    @Override
+    public PaymentReconcileMismatch save(PaymentReconcileMismatch entity) {
+        if (entity.getId() == null) {
+            paymentReconcileMismatchMapper.insert(entity);
+        } else {
+            paymentReconcileMismatchMapper.updateById(entity);
+        }
+        return entity;
+    }
+
+    @Override
+    public int update(PaymentReconcileMismatch entity) {
+        return paymentReconcileMismatchMapper.updateById(entity);
+    }
+
+    @Override
+    public int delete(Long id) {
+        return paymentReconcileMismatchMapper.deleteById(id);
+    }
+
+    @Override
+    public IPage<PaymentReconcileMismatch> page(Page<PaymentReconcileMismatch> page) {
+        return paymentReconcileMismatchMapper.selectPage(page, null);
+    }
+
+    @Override
+    public void saveBatch(List<PaymentReconcileMismatch> mismatches) {
+        if (mismatches == null || mismatches.isEmpty()) {
+            return;
+        }
+        Db.saveBatch(mismatches);
+    }
+
+    @Override
+    public int deleteBySettleDateBeforeRun(LocalDate settleDate, Long runId) {
+        return paymentReconcileMismatchMapper.physicalDeleteBeforeRun(settleDate, runId);
+    }
+
+    @Override
+    public int deleteByRun(LocalDate settleDate, Long runId) {
+        return paymentReconcileMismatchMapper.physicalDeleteByRun(settleDate, runId);
+    }
+}
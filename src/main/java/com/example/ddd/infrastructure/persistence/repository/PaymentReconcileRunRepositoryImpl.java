@@ -0,0 +1,64 @@
+package com.example.ddd.infrastructure.persistence.repository;
+
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.example.ddd.domain.model.entity.PaymentReconcileRun;
+import com.example.ddd.domain.repository.PaymentReconcileRunRepository;
+import com.example.ddd.infrastructure.persistence.mapper.PaymentReconcileRunMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 支付对账批次仓储实现
+ *
+ * @author DDD Demo
+ */
+@Repository
+@RequiredArgsConstructor
+public class PaymentReconcileRunRepositoryImpl implements PaymentReconcileRunRepository {
+
+    /**
+     * 失败原因最大长度（与表字段一致）
+     */
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final PaymentReconcileRunMapper paymentReconcileRunMapper;
+
+    @Override
+    public PaymentReconcileRun findById(Long id) {
+        return paymentReconcileRunMapper.selectById(id);
+    }
+
+    @Override
+    public PaymentReconcileRun save(PaymentReconcileRun entity) {
+        if (entity.getId() == null) {
+            paymentReconcileRunMapper.insert(entity);
+        } else {
+            paymentReconcileRunMapper.updateById(entity);
+        }
+        return entity;
+    }
+
+    @Override
+    public int update(PaymentReconcileRun entity) {
+        entity.setLastError(truncate(entity.getLastError()));
+        return paymentReconcileRunMapper.updateById(entity);
+    }
+
+    @Override
+    public int delete(Long id) {
+        return paymentReconcileRunMapper.deleteById(id);
+    }
+
+    @Override
+    public IPage<PaymentReconcileRun> page(Page<PaymentReconcileRun> page) {
+        return paymentReconcileRunMapper.selectPage(page, null);
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -1,14 +1,21 @@
 package com.example.ddd.infrastructure.persistence.repository;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.example.ddd.domain.model.entity.Payment;
+import com.example.ddd.domain.model.valueobject.PaymentEvent;
+import com.example.ddd.domain.model.valueobject.PaymentStatus;
 import com.example.ddd.domain.repository.PaymentRepository;
 import com.example.ddd.infrastructure.persistence.mapper.PaymentMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 /**
  * 支付记录仓储实现
  *
@@ -73,4 +80,69 @@ public class PaymentRepositoryImpl implements PaymentRepository {
                         .eq(Payment::getOrderNo, orderNo)
         );
     }
+
+    @Override
+    public int transitionStatus(String paymentNo, PaymentEvent event) {
+        return paymentMapper.update(changesOf(event),
+                whenTransitable(event).eq(Payment::getPaymentNo, paymentNo));
+    }
+
+    @Override
+    public int transitionStatusByOrderId(Long orderId, PaymentEvent event) {
+        return paymentMapper.update(changesOf(event),
+                whenTransitable(event).eq(Payment::getOrderId, orderId));
+    }
+
+    @Override
+    public int markPaySuccess(String paymentNo, String transactionId, LocalDateTime payTime) {
+        Payment changes = changesOf(PaymentEvent.PAY_SUCCESS);
+        changes.setTransactionId(transactionId);
+        changes.setPayTime(payTime);
+        return paymentMapper.update(changes,
+                whenTransitable(PaymentEvent.PAY_SUCCESS).eq(Payment::getPaymentNo, paymentNo));
+    }
+
+    /**
+     * 按支付单号走唯一索引顺序读取，过滤支付时间后取满一批即停止。
+     * 第一批先通过 idx_pay_time_payment_no 覆盖索引查出区间内最小的支付单号作为起点，
+     * 避免从头扫描历史支付记录
+     */
+    @Override
+    public List<Payment> listPaidBetween(LocalDateTime startTime, LocalDateTime endTime, String afterPaymentNo, int limit) {
+        LambdaQueryWrapper<Payment> wrapper = new LambdaQueryWrapper<Payment>()
+                .ge(Payment::getPayTime, startTime)
+                .lt(Payment::getPayTime, endTime);
+        if (afterPaymentNo != null) {
+            wrapper.gt(Payment::getPaymentNo, afterPaymentNo);
+        } else {
+            Payment first = paymentMapper.selectOne(
+                    new QueryWrapper<Payment>()
+                            .select("MIN(payment_no) AS payment_no")
+                            .ge("pay_time", startTime)
+                            .lt("pay_time", endTime)
+            );
+            if (first == null || first.getPaymentNo() == null) {
+                return List.of();
+            }
+            wrapper.ge(Payment::getPaymentNo, first.getPaymentNo());
+        }
+        return paymentMapper.selectList(wrapper.orderByAsc(Payment::getPaymentNo).last("LIMIT " + limit));
+    }
+
+    /**
+     * 用实体承载 SET 字段，以便类型处理器和更新时间自动填充生效
+     */
+    private Payment changesOf(PaymentEvent event) {
+        Payment changes = new Payment();
+        changes.setStatus(PaymentStatus.targetOf(event));
+        return changes;
+    }
+
+    /**
+     * 条件：当前状态属于该事件的合法源状态
+     */
+    private LambdaUpdateWrapper<Payment> whenTransitable(PaymentEvent event) {
+        return new LambdaUpdateWrapper<Payment>()
+                .in(Payment::getStatus, PaymentStatus.sourceStatesOf(event));
+    }
 }
@@ -4,12 +4,14 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.example.ddd.domain.model.entity.Product;
+import com.example.ddd.domain.model.valueobject.KeysetCursor;
 import com.example.ddd.domain.model.valueobject.ProductStatus;
 import com.example.ddd.domain.repository.ProductRepository;
 import com.example.ddd.infrastructure.persistence.mapper.ProductMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -54,6 +56,14 @@ public class ProductRepositoryImpl implements ProductRepository {
         return productMapper.selectPage(page, null);
     }
 
+    @Override
+    public List<Product> findByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return productMapper.selectBatchIds(ids);
+    }
+
     @Override
     public List<Product> findByShopId(Long shopId) {
         return productMapper.selectList(
@@ -112,22 +122,45 @@ public class ProductRepositoryImpl implements ProductRepository {
     }
 
     @Override
-    public List<Product> searchByKeyword(String keyword) {
+    public int refreshSkuSummary(Long productId) {
+        return productMapper.refreshSkuSummary(productId);
+    }
+
+    @Override
+    public List<Product> findSkuSummaryAfterId(Long lastId, int limit) {
         return productMapper.selectList(
                 new LambdaQueryWrapper<Product>()
-                        .eq(Product::getStatus, ProductStatus.ON_SALE)
-                        .like(Product::getProductName, keyword)
-                        .orderByDesc(Product::getCreateTime)
+                        .select(Product::getId, Product::getMinPrice, Product::getTotalStock)
+                        .gt(Product::getId, lastId)
+                        .orderByAsc(Product::getId)
+                        .last("LIMIT " + limit)
         );
     }
 
     @Override
-    public IPage<Product> pageSearchByKeyword(Page<Product> page, String keyword) {
-        return productMapper.selectPage(page,
-                new LambdaQueryWrapper<Product>()
-                        .eq(Product::getStatus, ProductStatus.ON_SALE)
-                        .like(Product::getProductName, keyword)
-                        .orderByDesc(Product::getCreateTime)
+    public List<Product> listOnSaleAfter(KeysetCursor cursor, int limit) {
+        return productMapper.selectList(
+                afterCursor(new LambdaQueryWrapper<Product>().eq(Product::getStatus, ProductStatus.ON_SALE), cursor, limit)
         );
     }
+
+    @Override
+    public List<Product> listByShopIdAfter(Long shopId, KeysetCursor cursor, int limit) {
+        return productMapper.selectList(
+                afterCursor(new LambdaQueryWrapper<Product>().eq(Product::getShopId, shopId), cursor, limit)
+        );
+    }
+
+    /**
+     * 追加游标条件：(create_time, id) 小于游标位置，按 create_time、id 倒序
+     */
+    private LambdaQueryWrapper<Product> afterCursor(LambdaQueryWrapper<Product> wrapper, KeysetCursor cursor, int limit) {
+        if (cursor != null) {
+            wrapper.and(w -> w.lt(Product::getCreateTime, cursor.getCreateTime())
+                    .or(o -> o.eq(Product::getCreateTime, cursor.getCreateTime()).lt(Product::getId, cursor.getId())));
+        }
+        return wrapper.orderByDesc(Product::getCreateTime)
+                .orderByDesc(Product::getId)
+                .last("LIMIT " + limit);
+    }
 }
@@ -1,16 +1,27 @@
 package com.example.ddd.infrastructure.persistence.repository;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.example.ddd.domain.model.entity.ProductSku;
+import com.example.ddd.domain.model.valueobject.ProductSkuSummary;
+import com.example.ddd.domain.model.valueobject.StockDecrementStrategy;
 import com.example.ddd.domain.repository.ProductSkuRepository;
+import com.example.ddd.infrastructure.persistence.mapper.ProductMapper;
 import com.example.ddd.infrastructure.persistence.mapper.ProductSkuMapper;
+import com.example.ddd.infrastructure.stock.StockContentionMetrics;
+import com.example.ddd.infrastructure.stock.StockDecrementProperties;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * 商品SKU仓储实现
@@ -23,6 +34,9 @@ import java.util.List;
 public class ProductSkuRepositoryImpl implements ProductSkuRepository {
 
     private final ProductSkuMapper productSkuMapper;
+    private final ProductMapper productMapper;
+    private final StockDecrementProperties stockDecrementProperties;
+    private final StockContentionMetrics stockContentionMetrics;
 
     @Override
     public ProductSku findById(Long id) {
@@ -62,6 +76,104 @@ public class ProductSkuRepositoryImpl implements ProductSkuRepository {
         );
     }
 
+    @Override
+    public List<ProductSku> findByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return productSkuMapper.selectBatchIds(ids);
+    }
+
+    @Override
+    public Map<Long, ProductSkuSummary> summarizeByProductIds(Collection<Long> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            return Map.of();
+        }
+        // selectMaps 返回列名作为 key，不做驼峰转换
+        List<Map<String, Object>> rows = productSkuMapper.selectMaps(
+                new QueryWrapper<ProductSku>()
+                        .select("product_id", "MIN(price) AS min_price", "SUM(stock) AS total_stock")
+                        .in("product_id", productIds)
+                        .groupBy("product_id")
+        );
+        Map<Long, ProductSkuSummary> result = new HashMap<>(rows.size() * 2);
+        for (Map<String, Object> row : rows) {
+            Long productId = ((Number) row.get("product_id")).longValue();
+            Object minPrice = row.get("min_price");
+            Object totalStock = row.get("total_stock");
+            result.put(productId, ProductSkuSummary.of(
+                    productId,
+                    minPrice != null ? new BigDecimal(minPrice.toString()) : null,
+                    totalStock != null ? ((Number) totalStock).intValue() : null
+            ));
+        }
+        return result;
+    }
+
+    @Override
+    public boolean deductStock(Long skuId, int quantity) {
+        if (stockDecrementProperties.getStrategy() == StockDecrementStrategy.CAS) {
+            for (int attempt = 0; attempt <= stockDecrementProperties.getMaxRetries(); attempt++) {
+                // 直接读库，不走缓存。首次为普通读；在可重复读事务内普通读是快照读，冲突后再读仍是同一旧版本，
+                // 因此重试改用加锁读（当前读）取最新已提交的库存，并持有行锁直到事务结束
+                ProductSku sku = attempt == 0 ? productSkuMapper.selectById(skuId) : selectForUpdate(skuId);
+                if (sku == null || sku.getStock() == null || sku.getStock().getValue() < quantity) {
+                    stockContentionMetrics.insufficient(skuId);
+                    return false;
+                }
+                if (decreaseStock(skuId, quantity, sku.getStock().getValue()) > 0) {
+                    return true;
+                }
+                stockContentionMetrics.conflict(skuId);
+            }
+            // 重试耗尽说明是热点SKU，退化为条件原子扣减，避免因争用而失败
+            stockContentionMetrics.fallback(skuId);
+        }
+        if (adjustStock(skuId, -quantity) > 0) {
+            return true;
+        }
+        stockContentionMetrics.insufficient(skuId);
+        return false;
+    }
+
+    /**
+     * 加锁读取SKU（SELECT ... FOR UPDATE），读到最新已提交版本
+     */
+    private ProductSku selectForUpdate(Long skuId) {
+        return productSkuMapper.selectOne(
+                new LambdaQueryWrapper<ProductSku>()
+                        .eq(ProductSku::getId, skuId)
+                        .last("FOR UPDATE")
+        );
+    }
+
+    @Override
+    public boolean deductStockBatch(Map<Long, Integer> quantities) {
+        if (quantities == null || quantities.isEmpty()) {
+            return true;
+        }
+        if (stockDecrementProperties.getStrategy() == StockDecrementStrategy.CAS || quantities.size() == 1) {
+            for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+                if (!deductStock(entry.getKey(), entry.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        // 按SKU ID排序生成派生表，让语句在常见执行计划下按ID顺序更新；
+        // MySQL 并不保证多表 UPDATE 的加锁顺序，并发订单仍可能死锁，由事务回滚后重新下单兜底
+        Map<Long, Integer> sorted = new TreeMap<>(quantities);
+        int updated = productSkuMapper.decreaseStockBatch(sorted);
+        if (updated < sorted.size()) {
+            return false;
+        }
+        Map<Long, Integer> deltas = new TreeMap<>();
+        sorted.forEach((skuId, quantity) -> deltas.put(skuId, -quantity));
+        // 同步维护商品总库存
+        productMapper.addTotalStockBySkuIds(deltas);
+        return true;
+    }
+
     @Override
     public int decreaseStock(Long skuId, Integer quantity, Integer currentStock) {
         LambdaUpdateWrapper<ProductSku> wrapper = new LambdaUpdateWrapper<>();
@@ -69,7 +181,12 @@ public class ProductSkuRepositoryImpl implements ProductSkuRepository {
                 .eq(ProductSku::getStock, currentStock)  // 乐观锁
                 .ge(ProductSku::getStock, quantity)
                 .setSql("stock = stock - " + quantity);
-        return productSkuMapper.update(null, wrapper);
+        int updated = productSkuMapper.update(null, wrapper);
+        if (updated > 0) {
+            // 同步维护商品总库存
+            productMapper.addTotalStockBySkuId(skuId, -quantity);
+        }
+        return updated;
     }
 
     @Override
@@ -77,6 +194,27 @@ public class ProductSkuRepositoryImpl implements ProductSkuRepository {
         LambdaUpdateWrapper<ProductSku> wrapper = new LambdaUpdateWrapper<>();
         wrapper.eq(ProductSku::getId, skuId)
                 .setSql("stock = stock + " + quantity);
-        return productSkuMapper.update(null, wrapper);
+        int updated = productSkuMapper.update(null, wrapper);
+        if (updated > 0) {
+            // 同步维护商品总库存
+            productMapper.addTotalStockBySkuId(skuId, quantity);
+        }
+        return updated;
+    }
+
+    @Override
+    public int adjustStock(Long skuId, int delta) {
+        LambdaUpdateWrapper<ProductSku> wrapper = new LambdaUpdateWrapper<>();
+        wrapper.eq(ProductSku::getId, skuId)
+                .setSql("stock = stock + " + delta);
+        if (delta < 0) {
+            wrapper.ge(ProductSku::getStock, -delta);
+        }
+        int updated = productSkuMapper.update(null, wrapper);
+        if (updated > 0) {
+            // 同步维护商品总库存
+            productMapper.addTotalStockBySkuId(skuId, delta);
+        }
+        return updated;
     }
 }
@@ -0,0 +1,160 @@
+package com.example.ddd.infrastructure.persistence.repository;
+
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.example.ddd.domain.model.entity.Order;
+import com.example.ddd.domain.model.valueobject.KeysetCursor;
+import com.example.ddd.domain.model.valueobject.OrderEvent;
+import com.example.ddd.domain.model.valueobject.OrderStatus;
+import com.example.ddd.domain.repository.OrderRepository;
+import com.example.ddd.domain.repository.OrderViewRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 维护订单读模型的订单仓储
+ * 装饰 {@link OrderRepositoryImpl}，订单写入成功后在事务提交时刷新读模型，
+ * 所有订单写入路径（下单、状态转换、支付回调）都会经过这里
+ *
+ * @author DDD Demo
+ */
+@Slf4j
+@Primary
+@Repository
+@RequiredArgsConstructor
+public class ProjectingOrderRepository implements OrderRepository {
+
+    private final OrderRepositoryImpl delegate;
+    private final OrderViewRepository orderViewRepository;
+
+    @Override
+    public Order findById(Long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public Order save(Order entity) {
+        Order saved = delegate.save(entity);
+        projectAfterCommit(saved.getId());
+        return saved;
+    }
+
+    @Override
+    public int update(Order entity) {
+        int rows = delegate.update(entity);
+        if (rows > 0) {
+            projectAfterCommit(entity.getId());
+        }
+        return rows;
+    }
+
+    @Override
+    public int delete(Long id) {
+        int rows = delegate.delete(id);
+        if (rows > 0) {
+            projectAfterCommit(id);
+        }
+        return rows;
+    }
+
+    @Override
+    public IPage<Order> page(Page<Order> page) {
+        return delegate.page(page);
+    }
+
+    @Override
+    public Order findByOrderNo(String orderNo) {
+        return delegate.findByOrderNo(orderNo);
+    }
+
+    @Override
+    public List<Order> findByUserId(Long userId) {
+        return delegate.findByUserId(userId);
+    }
+
+    @Override
+    public List<Order> findByShopId(Long shopId) {
+        return delegate.findByShopId(shopId);
+    }
+
+    @Override
+    public List<Order> findByStatus(OrderStatus status) {
+        return delegate.findByStatus(status);
+    }
+
+    @Override
+    public IPage<Order> pageByUserId(Page<Order> page, Long userId, OrderStatus status) {
+        return delegate.pageByUserId(page, userId, status);
+    }
+
+    @Override
+    public IPage<Order> pageByShopId(Page<Order> page, Long shopId, OrderStatus status) {
+        return delegate.pageByShopId(page, shopId, status);
+    }
+
+    @Override
+    public List<Order> findTimeoutPendingOrders(LocalDateTime timeoutThreshold, int limit) {
+        return delegate.findTimeoutPendingOrders(timeoutThreshold, limit);
+    }
+
+    @Override
+    public List<Order> listByUserIdAfter(Long userId, KeysetCursor cursor, int limit) {
+        return delegate.listByUserIdAfter(userId, cursor, limit);
+    }
+
+    @Override
+    public List<Order> listByShopIdAfter(Long shopId, KeysetCursor cursor, int limit) {
+        return delegate.listByShopIdAfter(shopId, cursor, limit);
+    }
+
+    @Override
+    public List<Order> listByShopIdAfter(Long shopId, OrderStatus status, LocalDateTime startTime,
+                                         LocalDateTime endTime, KeysetCursor cursor, int limit) {
+        return delegate.listByShopIdAfter(shopId, status, startTime, endTime, cursor, limit);
+    }
+
+    @Override
+    public int transitionStatus(Long orderId, OrderEvent event, LocalDateTime time) {
+        int rows = delegate.transitionStatus(orderId, event, time);
+        if (rows > 0) {
+            projectAfterCommit(orderId);
+        }
+        return rows;
+    }
+
+    /**
+     * 事务提交后刷新读模型，回滚的修改不会进入读模型；同一事务内多次写入只刷新一次
+     *
+     * @param orderId 订单ID
+     */
+    private void projectAfterCommit(Long orderId) {
+        LocalDateTime changedAt = LocalDateTime.now();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            orderViewRepository.refresh(orderId, changedAt);
+            return;
+        }
+        String resourceKey = ProjectingOrderRepository.class.getName() + ":" + orderId;
+        if (TransactionSynchronizationManager.hasResource(resourceKey)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(resourceKey, changedAt);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                orderViewRepository.refresh(orderId, changedAt);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(resourceKey);
+            }
+        });
+    }
+}
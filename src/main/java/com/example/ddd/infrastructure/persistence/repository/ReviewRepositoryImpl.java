@@ -1,6 +1,7 @@
 package com.example.ddd.infrastructure.persistence.repository;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.example.ddd.domain.model.entity.Review;
@@ -103,4 +104,16 @@ public class ReviewRepositoryImpl implements ReviewRepository {
                         .ge(Review::getRating, 4)
         );
     }
+
+    @Override
+    public List<Long> findProductIdsAfter(Long afterProductId, int limit) {
+        List<Object> productIds = reviewMapper.selectObjs(
+                new QueryWrapper<Review>()
+                        .select("DISTINCT product_id")
+                        .gt(afterProductId != null, "product_id", afterProductId)
+                        .orderByAsc("product_id")
+                        .last("LIMIT " + limit)
+        );
+        return productIds.stream().map(id -> ((Number) id).longValue()).toList();
+    }
 }
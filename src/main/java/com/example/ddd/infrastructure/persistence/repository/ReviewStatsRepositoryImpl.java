@@ -0,0 +1,90 @@
+package com.example.ddd.infrastructure.persistence.repository;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.example.ddd.domain.model.entity.ReviewStats;
+import com.example.ddd.domain.repository.ReviewStatsRepository;
+import com.example.ddd.infrastructure.persistence.mapper.ReviewStatsMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 商品评价统计仓储实现
+ *
+ * @author DDD Demo
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReviewStatsRepositoryImpl implements ReviewStatsRepository {
+
+    private final ReviewStatsMapper reviewStatsMapper;
+
+    @Override
+    public ReviewStats findById(Long id) {
+        return reviewStatsMapper.selectById(id);
+    }
+
+    @Override
+    public ReviewStats save(ReviewStats entity) {
+        if (entity.getId() == null) {
+            reviewStatsMapper.insert(entity);
+        } else {
+            reviewStatsMapper.updateById(entity);
+        }
+        return entity;
+    }
+
+    @Override
+    public int update(ReviewStats entity) {
+        return reviewStatsMapper.updateById(entity);
+    }
+
+    @Override
+    public int delete(Long id) {
+        return reviewStatsMapper.deleteById(id);
+    }
+
+    @Override
+    public IPage<ReviewStats> page(Page<ReviewStats> page) {
+        return reviewStatsMapper.selectPage(page, null);
+    }
+
+    @Override
+    public ReviewStats findByProductId(Long productId) {
+        ReviewStats stats = reviewStatsMapper.selectOne(
+                new LambdaQueryWrapper<ReviewStats>()
+                        .eq(ReviewStats::getProductId, productId)
+        );
+        return stats != null ? stats : ReviewStats.empty(productId);
+    }
+
+    @Override
+    public void increment(Long productId, int rating) {
+        reviewStatsMapper.increment(productId, rating);
+    }
+
+    @Override
+    public void rebuild(Collection<Long> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            return;
+        }
+        reviewStatsMapper.rebuild(productIds);
+    }
+
+    @Override
+    public List<Long> findStaleProductIdsAfter(Long afterProductId, int limit) {
+        return reviewStatsMapper.selectStaleProductIds(afterProductId, limit);
+    }
+
+    @Override
+    public void reset(Collection<Long> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            return;
+        }
+        reviewStatsMapper.reset(productIds);
+    }
+}
@@ -0,0 +1,439 @@
+package com.example.ddd.infrastructure.persistence.repository;
+
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.example.ddd.domain.model.entity.CartItem;
+import com.example.ddd.domain.model.valueobject.Money;
+import com.example.ddd.domain.repository.CartItemRepository;
+import com.example.ddd.domain.service.IdGenerator;
+import com.example.ddd.infrastructure.config.CartStoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 基于 Redis Hash 的购物车明细仓储（写回模式）
+ * 每个购物车一个 Hash（field 为 SKU ID，value 为明细ID、数量、价格快照），读写只访问 Redis；
+ * 修改后把购物车ID记入待回写集合，由 {@link #flushDirty()} 定期合并回写数据库。
+ * Redis 中没有的购物车在首次访问时从数据库加载，明细ID由 {@link IdGenerator} 生成，回写前后保持不变，
+ * 结算、权限校验等按明细ID访问的调用方看到的始终是 Redis 中的最新状态
+ * <p>
+ * 装饰 {@link CartItemRepositoryImpl}，仅在 cart.store.mode=redis 时启用
+ *
+ * @author DDD Demo
+ */
+@Slf4j
+@Primary
+@Repository
+@ConditionalOnProperty(name = "cart.store.mode", havingValue = "redis")
+public class WriteBehindCartItemRepository implements CartItemRepository {
+
+    private static final String CART_KEY_PREFIX = "cart:items:";
+    private static final String ITEM_KEY_PREFIX = "cart:item:";
+    private static final String DIRTY_KEY = "cart:dirty";
+
+    /**
+     * 已加载标记，空购物车也保留 Hash，避免每次访问都回源数据库
+     */
+    private static final String LOADED_FIELD = "loaded";
+
+    /**
+     * 加载：Hash 不存在时才写入（并发加载或加载期间的写入不会被覆盖），返回是否写入
+     */
+    private static final RedisScript<Long> LOAD_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+                redis.call('EXPIRE', KEYS[1], ARGV[1])
+                return 0
+            end
+            for i = 2, #ARGV, 2 do
+                redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1])
+            end
+            redis.call('EXPIRE', KEYS[1], ARGV[1])
+            return 1
+            """, Long.class);
+
+    private final CartItemRepositoryImpl delegate;
+    private final StringRedisTemplate redisTemplate;
+    private final IdGenerator idGenerator;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final int flushBatchSize;
+    private final Timer flushTimer;
+    private final Counter flushFailures;
+
+    public WriteBehindCartItemRepository(CartItemRepositoryImpl delegate, StringRedisTemplate redisTemplate,
+                                         IdGenerator idGenerator, ObjectMapper objectMapper,
+                                         CartStoreProperties properties, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.redisTemplate = redisTemplate;
+        this.idGenerator = idGenerator;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofSeconds(properties.getTtlSeconds());
+        this.flushBatchSize = properties.getFlushBatchSize();
+        this.flushTimer = meterRegistry.timer("cart.flush");
+        this.flushFailures = meterRegistry.counter("cart.flush.failures");
+    }
+
+    /**
+     * Hash 中的明细值
+     */
+    record CartEntry(Long id, Integer quantity, BigDecimal price,
+                     LocalDateTime createTime, LocalDateTime updateTime) {
+    }
+
+    @Override
+    public CartItem findById(Long id) {
+        Long cartId = findCartIdOfItem(id);
+        return cartId != null ? findInCart(cartId, id) : null;
+    }
+
+    @Override
+    public List<CartItem> findByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> idList = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<String> cartIds = redisTemplate.opsForValue().multiGet(idList.stream().map(this::itemKey).toList());
+
+        // 明细索引过期时按数据库中的归属定位购物车
+        Set<Long> cartIdSet = new LinkedHashSet<>();
+        List<Long> missing = new ArrayList<>();
+        for (int i = 0; i < idList.size(); i++) {
+            String cartId = cartIds != null ? cartIds.get(i) : null;
+            if (cartId != null) {
+                cartIdSet.add(Long.valueOf(cartId));
+            } else {
+                missing.add(idList.get(i));
+            }
+        }
+        if (!missing.isEmpty()) {
+            delegate.findByIds(missing).forEach(item -> cartIdSet.add(item.getCartId()));
+        }
+
+        Set<Long> wanted = new HashSet<>(idList);
+        List<CartItem> result = new ArrayList<>();
+        for (Long cartId : cartIdSet) {
+            for (CartItem item : findByCartId(cartId)) {
+                if (wanted.contains(item.getId())) {
+                    result.add(item);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<CartItem> findByCartId(Long cartId) {
+        ensureLoaded(cartId);
+        Map<Object, Object> fields = redisTemplate.opsForHash().entries(cartKey(cartId));
+        List<CartItem> items = new ArrayList<>(fields.size());
+        fields.forEach((field, value) -> {
+            if (!LOADED_FIELD.equals(field)) {
+                items.add(decode(cartId, Long.valueOf(field.toString()), value.toString()));
+            }
+        });
+        items.sort(Comparator.comparing(CartItem::getCreateTime, Comparator.nullsLast(Comparator.naturalOrder())));
+        return items;
+    }
+
+    @Override
+    public CartItem findByCartIdAndSkuId(Long cartId, Long skuId) {
+        ensureLoaded(cartId);
+        Object value = redisTemplate.opsForHash().get(cartKey(cartId), skuId.toString());
+        return value != null ? decode(cartId, skuId, value.toString()) : null;
+    }
+
+    @Override
+    public CartItem save(CartItem entity) {
+        ensureLoaded(entity.getCartId());
+        LocalDateTime now = LocalDateTime.now();
+        if (entity.getId() == null) {
+            entity.setId(idGenerator.nextId());
+            entity.setCreateTime(now);
+        }
+        entity.setUpdateTime(now);
+        entity.setDeleted(0);
+
+        redisTemplate.opsForHash().put(cartKey(entity.getCartId()), entity.getSkuId().toString(), encode(entity));
+        redisTemplate.opsForValue().set(itemKey(entity.getId()), entity.getCartId().toString(), ttl);
+        markDirty(entity.getCartId());
+        return entity;
+    }
+
+    @Override
+    public int update(CartItem entity) {
+        if (findById(entity.getId()) == null) {
+            return 0;
+        }
+        save(entity);
+        return 1;
+    }
+
+    @Override
+    public int delete(Long id) {
+        return physicalDeleteById(id);
+    }
+
+    @Override
+    public IPage<CartItem> page(Page<CartItem> page) {
+        return delegate.page(page);
+    }
+
+    @Override
+    public int deleteByCartId(Long cartId) {
+        return physicalDeleteByCartId(cartId);
+    }
+
+    @Override
+    public int physicalDeleteByCartIdAndSkuId(Long cartId, Long skuId) {
+        // 只清理数据库中逻辑删除的残留记录，与 Redis 无关
+        return delegate.physicalDeleteByCartIdAndSkuId(cartId, skuId);
+    }
+
+    @Override
+    public int physicalDeleteById(Long id) {
+        Long cartId = findCartIdOfItem(id);
+        return cartId != null ? removeFromCart(cartId, Set.of(id)) : 0;
+    }
+
+    @Override
+    public int physicalDeleteByCartId(Long cartId) {
+        List<CartItem> items = findByCartId(cartId);
+        if (items.isEmpty()) {
+            return 0;
+        }
+        return removeFromCart(cartId, items.stream().map(CartItem::getId).collect(Collectors.toSet()));
+    }
+
+    @Override
+    public int physicalDeleteByIds(Collection<Long> ids) {
+        List<CartItem> items = findByIds(ids);
+        if (items.isEmpty()) {
+            return 0;
+        }
+        // 结算时在下单事务中调用：事务提交后才从购物车移除，下单失败购物车保持不变
+        runAfterCommit(() -> {
+            Map<Long, Set<Long>> idsByCart = new HashMap<>();
+            for (CartItem item : items) {
+                idsByCart.computeIfAbsent(item.getCartId(), k -> new HashSet<>()).add(item.getId());
+            }
+            idsByCart.forEach(this::removeFromCart);
+        });
+        return items.size();
+    }
+
+    /**
+     * 把待回写的购物车合并回写数据库
+     * 每个购物车以 Redis 中的当前内容为准：数据库多出的明细删除，新增或变化的明细批量写入
+     *
+     * @return 回写的购物车数
+     */
+    public int flushDirty() {
+        List<String> cartIds = redisTemplate.opsForSet().pop(DIRTY_KEY, flushBatchSize);
+        if (cartIds == null || cartIds.isEmpty()) {
+            return 0;
+        }
+        int flushed = 0;
+        for (String cartId : cartIds) {
+            try {
+                flushTimer.record(() -> flushCart(Long.valueOf(cartId)));
+                flushed++;
+            } catch (Exception e) {
+                // 放回待回写集合，下一轮重试
+                redisTemplate.opsForSet().add(DIRTY_KEY, cartId);
+                flushFailures.increment();
+                log.error("购物车回写失败: cartId={}", cartId, e);
+            }
+        }
+        return flushed;
+    }
+
+    /**
+     * 停止前回写全部待回写的购物车
+     */
+    @PreDestroy
+    public void flushAll() {
+        int total = 0;
+        int flushed;
+        do {
+            flushed = flushDirty();
+            total += flushed;
+        } while (flushed > 0);
+        log.info("购物车停止前回写完成，共 {} 个", total);
+    }
+
+    private void flushCart(Long cartId) {
+        // 先读数据库再读 Redis，保证据以删除的 Redis 快照不早于数据库快照
+        Map<Long, CartItem> stored = new HashMap<>();
+        for (CartItem item : delegate.findByCartId(cartId)) {
+            stored.put(item.getId(), item);
+        }
+        Map<Object, Object> fields = redisTemplate.opsForHash().entries(cartKey(cartId));
+        if (fields.isEmpty()) {
+            log.warn("购物车回写时 Redis 数据已过期，跳过: cartId={}", cartId);
+            return;
+        }
+
+        List<CartItem> changed = new ArrayList<>();
+        Set<Long> currentIds = new HashSet<>();
+        fields.forEach((field, value) -> {
+            if (LOADED_FIELD.equals(field)) {
+                return;
+            }
+            CartItem item = decode(cartId, Long.valueOf(field.toString()), value.toString());
+            currentIds.add(item.getId());
+            CartItem old = stored.get(item.getId());
+            if (old == null || !Objects.equals(old.getQuantity(), item.getQuantity())
+                    || !samePrice(old.getPriceSnapshot(), item.getPriceSnapshot())) {
+                changed.add(item);
+            }
+        });
+        List<Long> removed = stored.keySet().stream().filter(id -> !currentIds.contains(id)).toList();
+
+        // 先删后写：同一SKU删除后重新加入会换新ID，避免唯一索引 (cart_id, sku_id, deleted) 冲突
+        if (!removed.isEmpty()) {
+            delegate.physicalDeleteByIds(removed);
+        }
+        delegate.upsertBatch(changed);
+    }
+
+    /**
+     * 确保购物车已加载到 Redis，同时续期
+     */
+    private void ensureLoaded(Long cartId) {
+        String key = cartKey(cartId);
+        if (Boolean.TRUE.equals(redisTemplate.expire(key, ttl))) {
+            return;
+        }
+        List<CartItem> items = delegate.findByCartId(cartId);
+        List<String> args = new ArrayList<>(items.size() * 2 + 3);
+        args.add(String.valueOf(ttl.getSeconds()));
+        args.add(LOADED_FIELD);
+        args.add("1");
+        for (CartItem item : items) {
+            args.add(item.getSkuId().toString());
+            args.add(encode(item));
+        }
+        Long loaded = redisTemplate.execute(LOAD_SCRIPT, List.of(key), args.toArray());
+        if (loaded != null && loaded == 1) {
+            for (CartItem item : items) {
+                redisTemplate.opsForValue().set(itemKey(item.getId()), cartId.toString(), ttl);
+            }
+        }
+    }
+
+    /**
+     * 查找明细所属购物车：先查 Redis 明细索引，过期时查数据库
+     */
+    private Long findCartIdOfItem(Long id) {
+        String cartId = redisTemplate.opsForValue().get(itemKey(id));
+        if (cartId != null) {
+            return Long.valueOf(cartId);
+        }
+        CartItem stored = delegate.findById(id);
+        return stored != null ? stored.getCartId() : null;
+    }
+
+    private CartItem findInCart(Long cartId, Long id) {
+        for (CartItem item : findByCartId(cartId)) {
+            if (item.getId().equals(id)) {
+                return item;
+            }
+        }
+        return null;
+    }
+
+    private int removeFromCart(Long cartId, Set<Long> ids) {
+        int removed = 0;
+        for (CartItem item : findByCartId(cartId)) {
+            if (ids.contains(item.getId())) {
+                removed += redisTemplate.opsForHash().delete(cartKey(cartId), item.getSkuId().toString()).intValue();
+                redisTemplate.delete(itemKey(item.getId()));
+            }
+        }
+        if (removed > 0) {
+            markDirty(cartId);
+        }
+        return removed;
+    }
+
+    private void markDirty(Long cartId) {
+        redisTemplate.opsForSet().add(DIRTY_KEY, cartId.toString());
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private String encode(CartItem item) {
+        CartEntry entry = new CartEntry(item.getId(), item.getQuantity(),
+                item.getPriceSnapshot() != null ? item.getPriceSnapshot().getValue() : null,
+                item.getCreateTime(), item.getUpdateTime());
+        try {
+            return objectMapper.writeValueAsString(entry);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("购物车明细序列化失败", e);
+        }
+    }
+
+    private CartItem decode(Long cartId, Long skuId, String value) {
+        CartEntry entry;
+        try {
+            entry = objectMapper.readValue(value, CartEntry.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("购物车明细反序列化失败", e);
+        }
+        CartItem item = new CartItem();
+        item.setId(entry.id());
+        item.setCartId(cartId);
+        item.setSkuId(skuId);
+        item.setQuantity(entry.quantity());
+        item.setPriceSnapshot(entry.price() != null ? Money.of(entry.price()) : null);
+        item.setCreateTime(entry.createTime());
+        item.setUpdateTime(entry.updateTime());
+        item.setDeleted(0);
+        return item;
+    }
+
+    private static boolean samePrice(Money a, Money b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return a.getValue().compareTo(b.getValue()) == 0;
+    }
+
+    private String cartKey(Long cartId) {
+        return CART_KEY_PREFIX + cartId;
+    }
+
+    private String itemKey(Long itemId) {
+        return ITEM_KEY_PREFIX + itemId;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.ddd.infrastructure.queue;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 订单超时取消配置属性
+ *
+ * @author DDD Demo
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "order.timeout")
+public class OrderTimeoutProperties {
+
+    /**
+     * 延时队列轮询间隔（毫秒），决定超时取消的最大延迟
+     */
+    private long pollIntervalMs = 1000;
+
+    /**
+     * 每批取出的订单数
+     */
+    private int batchSize = 100;
+
+    /**
+     * 每次轮询最多处理的批数，避免积压时长时间占用调度线程
+     */
+    private int maxBatchesPerPoll = 10;
+
+    /**
+     * 消费者主节点租约有效期（毫秒）
+     */
+    private long leaderLeaseMs = 10000;
+
+    /**
+     * 取消失败后重新入队的延迟（秒）
+     */
+    private long retryDelaySeconds = 30;
+
+    /**
+     * 补偿扫描每次最多入队的订单数
+     */
+    private int backfillLimit = 1000;
+}
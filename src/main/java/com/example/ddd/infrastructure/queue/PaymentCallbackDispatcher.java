@@ -0,0 +1,158 @@
+package com.example.ddd.infrastructure.queue;
+
+import com.example.ddd.domain.model.entity.PaymentCallback;
+import com.example.ddd.domain.model.valueobject.PaymentCallbackStatus;
+import com.example.ddd.domain.repository.PaymentCallbackQueue;
+import com.example.ddd.domain.repository.PaymentCallbackRepository;
+import com.example.ddd.domain.service.PaymentCallbackDomainService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 支付回调分发器
+ * 按支付单号哈希分配到固定的单线程工作队列，同一支付单的回调按入队顺序处理，不同支付单并行处理。
+ * 工作队列只在本节点内保证顺序，跨节点或重试入队的回调由领域服务检查更早的待处理回调，
+ * 存在时推迟本回调（不计重试次数）。
+ * 队列有界，满时拒绝入队；处理失败按指数退避记录下次处理时间，由重试任务重新入队
+ * 六边形架构的适配器（Adapter）
+ *
+ * @author DDD Demo
+ */
+@Slf4j
+@Component
+public class PaymentCallbackDispatcher implements PaymentCallbackQueue {
+
+    private final PaymentCallbackDomainService paymentCallbackDomainService;
+    private final PaymentCallbackRepository paymentCallbackRepository;
+    private final PaymentCallbackProperties properties;
+    private final ThreadPoolExecutor[] workers;
+    private final Counter processedCounter;
+    private final Counter failureCounter;
+    private final Counter rejectedCounter;
+    private final Counter deferredCounter;
+
+    public PaymentCallbackDispatcher(PaymentCallbackDomainService paymentCallbackDomainService,
+                                     PaymentCallbackRepository paymentCallbackRepository,
+                                     PaymentCallbackProperties properties,
+                                     MeterRegistry meterRegistry) {
+        this.paymentCallbackDomainService = paymentCallbackDomainService;
+        this.paymentCallbackRepository = paymentCallbackRepository;
+        this.properties = properties;
+        this.workers = new ThreadPoolExecutor[Math.max(1, properties.getWorkers())];
+        for (int i = 0; i < workers.length; i++) {
+            String threadName = "payment-callback-" + i;
+            workers[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                    runnable -> new Thread(runnable, threadName),
+                    new ThreadPoolExecutor.AbortPolicy());
+        }
+        this.processedCounter = meterRegistry.counter("payment.callback.processed");
+        this.failureCounter = meterRegistry.counter("payment.callback.failures");
+        this.rejectedCounter = meterRegistry.counter("payment.callback.queue.rejected");
+        this.deferredCounter = meterRegistry.counter("payment.callback.deferred");
+        Gauge.builder("payment.callback.queue.size", this, PaymentCallbackDispatcher::queueSize)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean offer(PaymentCallback callback) {
+        ThreadPoolExecutor worker = workers[Math.floorMod(callback.getPaymentNo().hashCode(), workers.length)];
+        try {
+            worker.execute(() -> handle(callback));
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            return false;
+        }
+    }
+
+    /**
+     * 处理一条回调，失败时按重试次数记录下次处理时间或最终失败；
+     * 需要等待更早的回调时推迟首次重试延迟，不增加重试次数
+     */
+    void handle(PaymentCallback callback) {
+        try {
+            if (paymentCallbackDomainService.process(callback)) {
+                processedCounter.increment();
+            } else {
+                deferredCounter.increment();
+                paymentCallbackRepository.postpone(List.of(callback.getId()),
+                        LocalDateTime.now().plusSeconds(properties.getRetryDelaySeconds()));
+            }
+        } catch (Exception e) {
+            failureCounter.increment();
+            recordFailure(callback, e);
+        }
+    }
+
+    private void recordFailure(PaymentCallback callback, Exception cause) {
+        int retryCount = (callback.getRetryCount() == null ? 0 : callback.getRetryCount()) + 1;
+        String error = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        try {
+            if (retryCount >= properties.getMaxRetries()) {
+                log.error("支付回调处理失败且重试次数已用尽: id={}, paymentNo={}, event={}",
+                        callback.getId(), callback.getPaymentNo(), callback.getEvent(), cause);
+                paymentCallbackRepository.markFinished(callback.getId(), PaymentCallbackStatus.FAILED, error);
+                return;
+            }
+            LocalDateTime nextRetryTime = LocalDateTime.now().plusSeconds(retryDelaySeconds(retryCount));
+            log.warn("支付回调处理失败，{} 后第 {} 次重试: id={}, paymentNo={}, event={}, error={}",
+                    nextRetryTime, retryCount, callback.getId(), callback.getPaymentNo(), callback.getEvent(), error);
+            paymentCallbackRepository.scheduleRetry(callback.getId(), retryCount, nextRetryTime, error);
+        } catch (Exception e) {
+            // 记录失败时回调仍是待处理状态，处理期限到期后由重试任务重新入队
+            log.error("支付回调失败记录写入失败: id={}", callback.getId(), e);
+        }
+    }
+
+    /**
+     * 第 n 次重试的延迟：首次延迟 * 2^(n-1)，不超过上限
+     */
+    long retryDelaySeconds(int retryCount) {
+        long delay = properties.getRetryDelaySeconds() << Math.min(retryCount - 1, 20);
+        return Math.min(delay, properties.getMaxRetryDelaySeconds());
+    }
+
+    /**
+     * 所有工作队列中等待处理的回调数
+     */
+    public int queueSize() {
+        int size = 0;
+        for (ThreadPoolExecutor worker : workers) {
+            size += worker.getQueue().size();
+        }
+        return size;
+    }
+
+    /**
+     * 停机时处理完已入队的回调，超时未处理的仍在库中，重启后由重试任务处理
+     */
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor worker : workers) {
+            worker.shutdown();
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(properties.getShutdownTimeoutSeconds());
+        for (ThreadPoolExecutor worker : workers) {
+            try {
+                if (!worker.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    worker.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                worker.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
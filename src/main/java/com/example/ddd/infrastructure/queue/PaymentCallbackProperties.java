@@ -0,0 +1,71 @@
+package com.example.ddd.infrastructure.queue;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 支付回调处理配置属性
+ *
+ * @author DDD Demo
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "payment.callback")
+public class PaymentCallbackProperties {
+
+    /**
+     * 工作线程数，同一支付单的回调固定由同一线程处理
+     */
+    private int workers = 4;
+
+    /**
+     * 每个工作线程的队列容量，队列满时回调留在库中由重试任务处理
+     */
+    private int queueCapacity = 1000;
+
+    /**
+     * Redis 去重标记保留时间（秒），之后的重复回调由表唯一键去重
+     */
+    private long dedupTtlSeconds = 86400;
+
+    /**
+     * 最大重试次数，用尽后记录为处理失败
+     */
+    private int maxRetries = 8;
+
+    /**
+     * 首次重试延迟（秒），之后每次翻倍
+     */
+    private long retryDelaySeconds = 5;
+
+    /**
+     * 重试延迟上限（秒）
+     */
+    private long maxRetryDelaySeconds = 600;
+
+    /**
+     * 入队后的处理期限（秒），到期仍未记录结果（进程退出、队列丢失）时由重试任务重新入队
+     */
+    private long processingTimeoutSeconds = 60;
+
+    /**
+     * 重试任务扫描间隔（毫秒）
+     */
+    private long retryIntervalMs = 5000;
+
+    /**
+     * 重试任务每次最多入队数量
+     */
+    private int retryBatchSize = 200;
+
+    /**
+     * 重试任务主节点租约（毫秒），应大于扫描间隔；只有主节点扫描并重新入队
+     */
+    private long retryLeaderLeaseMs = 15000;
+
+    /**
+     * 停机时等待队列处理完成的最长时间（秒）
+     */
+    private long shutdownTimeoutSeconds = 10;
+}
@@ -0,0 +1,69 @@
+package com.example.ddd.infrastructure.queue;
+
+import com.example.ddd.domain.repository.OrderTimeoutQueue;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基于 Redis 有序集合的订单超时延时队列
+ * member 为订单ID，score 为支付截止时间的毫秒时间戳
+ * 六边形架构的适配器（Adapter）
+ *
+ * @author DDD Demo
+ */
+@Repository
+@RequiredArgsConstructor
+public class RedisOrderTimeoutQueue implements OrderTimeoutQueue {
+
+    private static final String KEY = "order:timeout:queue";
+
+    /**
+     * 取出到期的前 N 个并删除
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> POLL_SCRIPT = new DefaultRedisScript<>("""
+            local ids = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2])
+            if #ids > 0 then
+                redis.call('ZREM', KEYS[1], unpack(ids))
+            end
+            return ids
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Override
+    public void add(Long orderId, LocalDateTime deadline) {
+        redisTemplate.opsForZSet().add(KEY, orderId.toString(), toMillis(deadline));
+    }
+
+    @Override
+    public void remove(Long orderId) {
+        redisTemplate.opsForZSet().remove(KEY, orderId.toString());
+    }
+
+    @Override
+    public List<Long> pollDue(LocalDateTime now, int limit) {
+        List<?> ids = redisTemplate.execute(POLL_SCRIPT, List.of(KEY),
+                String.valueOf(toMillis(now)), String.valueOf(limit));
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        List<Long> orderIds = new ArrayList<>(ids.size());
+        for (Object id : ids) {
+            orderIds.add(Long.valueOf(id.toString()));
+        }
+        return orderIds;
+    }
+
+    private long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
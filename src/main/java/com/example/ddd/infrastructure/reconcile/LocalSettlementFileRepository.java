@@ -0,0 +1,49 @@
+package com.example.ddd.infrastructure.reconcile;
+
+import com.example.ddd.domain.repository.SettlementFileRepository;
+import com.example.ddd.domain.repository.SettlementRecordReader;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 本地目录中的渠道对账文件
+ * 对账文件由下载任务放到配置目录，文件名按对账日期命名
+ * 六边形架构的适配器（Adapter）
+ *
+ * @author DDD Demo
+ */
+@Repository
+@RequiredArgsConstructor
+public class LocalSettlementFileRepository implements SettlementFileRepository {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final ReconcileProperties properties;
+
+    @Override
+    public boolean exists(LocalDate settleDate) {
+        return Files.isRegularFile(pathOf(settleDate));
+    }
+
+    @Override
+    public SettlementRecordReader open(LocalDate settleDate) throws IOException {
+        Path file = pathOf(settleDate);
+        if (!Files.isRegularFile(file)) {
+            throw new NoSuchFileException(file.toString());
+        }
+        return new MappedSettlementRecordReader(file, properties.getMapWindowBytes());
+    }
+
+    private Path pathOf(LocalDate settleDate) {
+        return Paths.get(properties.getDirectory(),
+                String.format(properties.getFileNamePattern(), settleDate.format(DATE_FORMAT)));
+    }
+}
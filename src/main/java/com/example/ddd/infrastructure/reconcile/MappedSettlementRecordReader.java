@@ -0,0 +1,272 @@
+package com.example.ddd.infrastructure.reconcile;
+
+import com.example.ddd.domain.model.valueobject.PaymentStatus;
+import com.example.ddd.domain.repository.SettlementRecordReader;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 基于内存映射的对账文件读取器
+ * 文件格式（UTF-8/ASCII，逗号分隔，按支付单号升序，首行可为表头）：
+ * <pre>
+ * payment_no,transaction_id,amount,status
+ * PAY1001,T1001,12.50,SUCCESS
+ * </pre>
+ * 文件按窗口分段映射，逐字节解析到复用的字段缓冲区，金额直接解析为分，状态按字节与状态名比对，
+ * 读取过程不创建 String 或 BigDecimal；跨窗口的行从行首重新映射
+ * 六边形架构的适配器（Adapter）
+ *
+ * @author DDD Demo
+ */
+public class MappedSettlementRecordReader implements SettlementRecordReader {
+
+    /**
+     * 支付单号最大长度，与 t_payment.payment_no 一致，更长的单号不可能匹配本地记录
+     */
+    private static final int MAX_PAYMENT_NO_LENGTH = 50;
+    private static final byte[] HEADER_PREFIX = "payment_no".getBytes(StandardCharsets.US_ASCII);
+    private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+    private static final byte[][] STATUS_NAMES = new byte[STATUSES.length][];
+
+    static {
+        for (int i = 0; i < STATUSES.length; i++) {
+            STATUS_NAMES[i] = STATUSES[i].name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final int windowBytes;
+
+    private MappedByteBuffer buffer;
+    private long windowStart;
+    private int position;
+
+    private byte[] paymentNo = new byte[MAX_PAYMENT_NO_LENGTH];
+    private int paymentNoLength;
+    private byte[] previousPaymentNo = new byte[MAX_PAYMENT_NO_LENGTH];
+    private int previousPaymentNoLength;
+    private long records;
+    private long amountCent;
+    private PaymentStatus status;
+    private long lineNumber;
+
+    public MappedSettlementRecordReader(Path file, int windowBytes) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.windowBytes = windowBytes;
+        map(0);
+    }
+
+    @Override
+    public boolean next() {
+        while (windowStart + position < fileSize) {
+            int lineStart = position;
+            int lineEnd = indexOfNewline(lineStart);
+            if (lineEnd < 0) {
+                if (windowStart + buffer.limit() < fileSize) {
+                    if (lineStart == 0) {
+                        throw new IllegalStateException("对账文件第 " + (lineNumber + 1) + " 行超过映射窗口大小");
+                    }
+                    // 行跨越窗口边界，从行首重新映射
+                    remap(windowStart + lineStart);
+                    continue;
+                }
+                // 文件最后一行没有换行符
+                lineEnd = buffer.limit();
+            }
+            position = lineEnd + 1;
+            lineNumber++;
+
+            int end = lineEnd;
+            if (end > lineStart && buffer.get(end - 1) == '\r') {
+                end--;
+            }
+            if (end == lineStart || (lineNumber == 1 && startsWith(lineStart, end, HEADER_PREFIX))) {
+                continue;
+            }
+            parse(lineStart, end);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public int comparePaymentNo(String other) {
+        int length = Math.min(paymentNoLength, other.length());
+        for (int i = 0; i < length; i++) {
+            int diff = (paymentNo[i] & 0xFF) - other.charAt(i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return paymentNoLength - other.length();
+    }
+
+    @Override
+    public String paymentNo() {
+        return new String(paymentNo, 0, paymentNoLength, StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    public long amountCent() {
+        return amountCent;
+    }
+
+    @Override
+    public PaymentStatus status() {
+        return status;
+    }
+
+    @Override
+    public long lineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        // MappedByteBuffer 由 GC 回收时解除映射
+        buffer = null;
+        channel.close();
+    }
+
+    /**
+     * 解析 [start, end) 范围内的一行：支付单号,交易流水号,金额,状态
+     */
+    private void parse(int start, int end) {
+        // 上一条的支付单号用于校验排序，交换缓冲区避免复制
+        byte[] swap = previousPaymentNo;
+        previousPaymentNo = paymentNo;
+        paymentNo = swap;
+        previousPaymentNoLength = paymentNoLength;
+
+        int fieldEnd = requireComma(start, end);
+        paymentNoLength = fieldEnd - start;
+        if (paymentNoLength == 0 || paymentNoLength > MAX_PAYMENT_NO_LENGTH) {
+            throw formatError("支付单号为空或过长");
+        }
+        for (int i = 0; i < paymentNoLength; i++) {
+            paymentNo[i] = buffer.get(start + i);
+        }
+        if (records > 0 && compareToPrevious() <= 0) {
+            throw new IllegalStateException("对账文件未按支付单号升序排列或存在重复，第 " + lineNumber + " 行");
+        }
+        records++;
+
+        // 交易流水号不参与比对
+        int transactionEnd = requireComma(fieldEnd + 1, end);
+        int amountEnd = requireComma(transactionEnd + 1, end);
+        amountCent = parseAmountCent(transactionEnd + 1, amountEnd);
+        status = parseStatus(amountEnd + 1, end);
+    }
+
+    /**
+     * 解析金额为分，最多两位小数
+     */
+    private long parseAmountCent(int start, int end) {
+        long yuan = 0;
+        int cents = 0;
+        int fractionDigits = -1;
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else if (b >= '0' && b <= '9') {
+                if (fractionDigits < 0) {
+                    yuan = yuan * 10 + (b - '0');
+                } else if (fractionDigits < 2) {
+                    cents = cents * 10 + (b - '0');
+                    fractionDigits++;
+                } else {
+                    throw formatError("金额最多两位小数");
+                }
+            } else {
+                throw formatError("金额格式错误");
+            }
+        }
+        if (start == end) {
+            throw formatError("金额为空");
+        }
+        if (fractionDigits == 1) {
+            cents *= 10;
+        }
+        return yuan * 100 + cents;
+    }
+
+    private PaymentStatus parseStatus(int start, int end) {
+        int length = end - start;
+        for (int i = 0; i < STATUS_NAMES.length; i++) {
+            byte[] name = STATUS_NAMES[i];
+            if (name.length == length && startsWith(start, end, name)) {
+                return STATUSES[i];
+            }
+        }
+        throw formatError("支付状态无效");
+    }
+
+    private int compareToPrevious() {
+        int length = Math.min(paymentNoLength, previousPaymentNoLength);
+        for (int i = 0; i < length; i++) {
+            int diff = (paymentNo[i] & 0xFF) - (previousPaymentNo[i] & 0xFF);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return paymentNoLength - previousPaymentNoLength;
+    }
+
+    private boolean startsWith(int start, int end, byte[] prefix) {
+        if (end - start < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.get(start + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int indexOfNewline(int from) {
+        int limit = buffer.limit();
+        for (int i = from; i < limit; i++) {
+            if (buffer.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int requireComma(int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (buffer.get(i) == ',') {
+                return i;
+            }
+        }
+        throw formatError("字段数量不足");
+    }
+
+    private IllegalStateException formatError(String reason) {
+        return new IllegalStateException("对账文件格式错误，第 " + lineNumber + " 行: " + reason);
+    }
+
+    private void map(long start) throws IOException {
+        long size = Math.min(windowBytes, fileSize - start);
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+        windowStart = start;
+        position = 0;
+    }
+
+    private void remap(long start) {
+        try {
+            map(start);
+        } catch (IOException e) {
+            throw new IllegalStateException("对账文件读取失败", e);
+        }
+    }
+}
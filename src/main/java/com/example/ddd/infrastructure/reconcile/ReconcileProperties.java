@@ -0,0 +1,46 @@
+package com.example.ddd.infrastructure.reconcile;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 支付对账配置属性
+ *
+ * @author DDD Demo
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "payment.reconcile")
+public class ReconcileProperties {
+
+    /**
+     * 渠道对账文件下载目录
+     */
+    private String directory = "settlement";
+
+    /**
+     * 对账文件名格式，%s 替换为 yyyyMMdd 格式的对账日期
+     */
+    private String fileNamePattern = "settlement-%s.csv";
+
+    /**
+     * 每批读取的本地支付记录数
+     */
+    private int chunkSize = 1000;
+
+    /**
+     * 差异明细攒满多少条批量写入
+     */
+    private int reportBatchSize = 500;
+
+    /**
+     * 对账文件每次映射到内存的字节数，需大于最长的一行
+     */
+    private int mapWindowBytes = 64 * 1024 * 1024;
+
+    /**
+     * 对账任务主节点租约（毫秒），各节点同时触发时只有持有租约的节点执行
+     */
+    private long leaderLeaseMs = 30 * 60 * 1000L;
+}
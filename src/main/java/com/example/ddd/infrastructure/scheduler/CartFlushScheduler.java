@@ -0,0 +1,38 @@
+package com.example.ddd.infrastructure.scheduler;
+
+import com.example.ddd.infrastructure.persistence.repository.WriteBehindCartItemRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 购物车回写定时任务
+ * 购物车存放在 Redis 时，定期把有修改的购物车合并回写数据库
+ *
+ * @author DDD Demo
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "cart.store.mode", havingValue = "redis")
+public class CartFlushScheduler {
+
+    private final WriteBehindCartItemRepository cartItemRepository;
+
+    /**
+     * 回写有修改的购物车
+     */
+    @Scheduled(fixedDelayString = "${cart.store.flush-interval-ms:1000}")
+    public void flushDirtyCarts() {
+        try {
+            int count = cartItemRepository.flushDirty();
+            if (count > 0) {
+                log.debug("购物车回写完成，共 {} 个", count);
+            }
+        } catch (Exception e) {
+            log.error("购物车回写任务执行失败", e);
+        }
+    }
+}
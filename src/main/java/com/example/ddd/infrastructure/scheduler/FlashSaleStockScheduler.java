@@ -0,0 +1,73 @@
+package com.example.ddd.infrastructure.scheduler;
+
+import com.example.ddd.application.service.FlashSaleApplicationService;
+import com.example.ddd.infrastructure.lock.RedisLeaderElection;
+import com.example.ddd.infrastructure.stock.FlashSaleProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * 秒杀库存回写与对账定时任务
+ * 两个任务使用同一个 Redis 租约，只在选出的主节点上执行，避免其他节点的回写与对账交错；
+ * 同一节点内两者由 {@link com.example.ddd.domain.service.StockReservationDomainService} 互斥
+ *
+ * @author DDD Demo
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FlashSaleStockScheduler {
+
+    private static final String LEADER_NAME = "flash-sale-stock";
+
+    private final FlashSaleApplicationService flashSaleApplicationService;
+    private final RedisLeaderElection leaderElection;
+    private final FlashSaleProperties properties;
+
+    /**
+     * 定期把 Redis 中的预扣量批量回写数据库
+     */
+    @Scheduled(fixedDelayString = "${stock.flash-sale.write-back-interval-ms:1000}")
+    public void flushPendingStock() {
+        if (!isLeader()) {
+            return;
+        }
+        try {
+            int count = flashSaleApplicationService.flushPendingStock();
+            if (count > 0) {
+                log.debug("秒杀库存回写完成，共 {} 个SKU", count);
+            }
+        } catch (Exception e) {
+            log.error("秒杀库存回写任务执行失败", e);
+        }
+    }
+
+    /**
+     * 定期对账 Redis 可售库存与数据库库存
+     */
+    @Scheduled(cron = "${stock.flash-sale.reconcile-cron:0 */5 * * * ?}")
+    public void reconcileStock() {
+        if (!isLeader()) {
+            return;
+        }
+        try {
+            Map<Long, Integer> mismatches = flashSaleApplicationService.reconcileStock();
+            if (mismatches.isEmpty()) {
+                log.debug("秒杀库存对账一致");
+            } else {
+                log.warn("秒杀库存对账发现 {} 个SKU不一致", mismatches.size());
+            }
+        } catch (Exception e) {
+            log.error("秒杀库存对账任务执行失败", e);
+        }
+    }
+
+    private boolean isLeader() {
+        return leaderElection.tryLead(LEADER_NAME, Duration.ofMillis(properties.getLeaderLeaseMs()));
+    }
+}
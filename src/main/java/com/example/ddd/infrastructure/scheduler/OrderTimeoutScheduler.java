@@ -1,23 +1,25 @@
 package com.example.ddd.infrastructure.scheduler;
 
+import com.example.ddd.application.service.OrderApplicationService;
 import com.example.ddd.domain.model.entity.Order;
-import com.example.ddd.domain.model.entity.OrderItem;
-import com.example.ddd.domain.model.valueobject.OrderEvent;
-import com.example.ddd.domain.repository.OrderItemRepository;
 import com.example.ddd.domain.repository.OrderRepository;
-import com.example.ddd.domain.repository.ProductSkuRepository;
+import com.example.ddd.domain.repository.OrderTimeoutQueue;
+import com.example.ddd.infrastructure.lock.RedisLeaderElection;
+import com.example.ddd.infrastructure.queue.OrderTimeoutProperties;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 
 /**
  * 订单超时自动取消定时任务
- * 每分钟检查一次超时未支付的订单并自动取消
+ * 下单时订单按支付截止时间进入延时队列，本任务每秒取出到期订单分批取消，每个订单独立事务；
+ * 另有低频补偿扫描，把漏入队的超时订单（如入队失败、消费中途宕机）重新放回队列。
+ * 两个任务都只在通过 Redis 租约选出的主节点上执行，超时取消每处理一批续期一次租约
  *
  * @author DDD Demo
  */
@@ -26,79 +28,88 @@ import java.util.List;
 @RequiredArgsConstructor
 public class OrderTimeoutScheduler {
 
-    private final OrderRepository orderRepository;
-    private final OrderItemRepository orderItemRepository;
-    private final ProductSkuRepository productSkuRepository;
+    private static final String LEADER_NAME = "order-timeout";
 
-    /**
-     * 订单超时时间（分钟）
-     */
-    private static final int ORDER_TIMEOUT_MINUTES = 30;
+    private final OrderApplicationService orderApplicationService;
+    private final OrderRepository orderRepository;
+    private final OrderTimeoutQueue orderTimeoutQueue;
+    private final RedisLeaderElection leaderElection;
+    private final OrderTimeoutProperties properties;
 
     /**
-     * 每分钟执行一次，检查超时订单
+     * 消费延时队列中到期的订单
      */
-    @Scheduled(fixedRate = 60000)
+    @Scheduled(fixedDelayString = "${order.timeout.poll-interval-ms:1000}")
     public void cancelTimeoutOrders() {
+        if (!isLeader()) {
+            return;
+        }
         try {
-            // 计算超时时间点
-            LocalDateTime timeoutThreshold = LocalDateTime.now().minusMinutes(ORDER_TIMEOUT_MINUTES);
-
-            // 查询超时未支付的订单
-            List<Order> timeoutOrders = orderRepository.findTimeoutPendingOrders(timeoutThreshold);
-
-            if (timeoutOrders.isEmpty()) {
-                log.debug("没有超时未支付的订单");
-                return;
-            }
-
-            log.info("发现 {} 个超时未支付订单，开始自动取消", timeoutOrders.size());
-
             int successCount = 0;
+            int skipCount = 0;
             int failCount = 0;
 
-            for (Order order : timeoutOrders) {
-                try {
-                    cancelOrder(order);
-                    successCount++;
-                    log.info("订单 {} 已自动取消", order.getOrderNo());
-                } catch (Exception e) {
-                    failCount++;
-                    log.error("订单 {} 自动取消失败: {}", order.getOrderNo(), e.getMessage());
+            for (int batch = 0; batch < properties.getMaxBatchesPerPoll(); batch++) {
+                // 每批之前续期租约，一轮处理多批时耗时可能超过租约，失去主节点身份后立即停止，避免与新主节点重复处理
+                if (batch > 0 && !isLeader()) {
+                    log.warn("订单超时取消任务失去主节点租约，停止本轮处理");
+                    break;
+                }
+                List<Long> orderIds = orderTimeoutQueue.pollDue(LocalDateTime.now(), properties.getBatchSize());
+                for (Long orderId : orderIds) {
+                    try {
+                        if (orderApplicationService.cancelTimeoutOrder(orderId)) {
+                            successCount++;
+                            log.info("订单 {} 已超时自动取消", orderId);
+                        } else {
+                            skipCount++;
+                        }
+                    } catch (Exception e) {
+                        failCount++;
+                        log.error("订单 {} 自动取消失败，{} 秒后重试: {}", orderId, properties.getRetryDelaySeconds(), e.getMessage());
+                        orderTimeoutQueue.add(orderId, LocalDateTime.now().plusSeconds(properties.getRetryDelaySeconds()));
+                    }
+                }
+                if (orderIds.size() < properties.getBatchSize()) {
+                    break;
                 }
             }
 
-            log.info("订单超时取消任务完成，成功: {}，失败: {}", successCount, failCount);
-
+            if (successCount + skipCount + failCount > 0) {
+                log.info("订单超时取消任务完成，成功: {}，跳过: {}，失败: {}", successCount, skipCount, failCount);
+            }
         } catch (Exception e) {
             log.error("订单超时取消任务执行异常", e);
         }
     }
 
     /**
-     * 取消单个订单（系统自动取消，无需验证用户权限）
-     *
-     * @param order 订单对象
+     * 补偿扫描：每5分钟把已超时但仍待支付的订单重新放入延时队列
      */
-    @Transactional(rollbackFor = Exception.class)
-    public void cancelOrder(Order order) {
-        // 使用事件驱动的状态转换
-        try {
-            order.transitionStatus(OrderEvent.CANCEL);
-        } catch (IllegalStateException e) {
-            throw new IllegalArgumentException("订单状态不允许取消: " + e.getMessage());
+    @Scheduled(fixedDelay = 300000, initialDelay = 60000)
+    public void backfillTimeoutOrders() {
+        if (!isLeader()) {
+            return;
         }
+        try {
+            LocalDateTime timeoutThreshold = LocalDateTime.now().minusMinutes(Order.PAY_TIMEOUT_MINUTES);
+            List<Order> timeoutOrders = orderRepository.findTimeoutPendingOrders(timeoutThreshold, properties.getBackfillLimit());
+            if (timeoutOrders.isEmpty()) {
+                log.debug("没有遗漏的超时未支付订单");
+                return;
+            }
 
-        // 恢复库存
-        List<OrderItem> items = orderItemRepository.findByOrderId(order.getId());
-        for (OrderItem item : items) {
-            productSkuRepository.increaseStock(item.getSkuId(), item.getQuantity());
+            LocalDateTime now = LocalDateTime.now();
+            for (Order order : timeoutOrders) {
+                orderTimeoutQueue.add(order.getId(), now);
+            }
+            log.warn("补偿扫描发现 {} 个超时未支付订单，已重新入队", timeoutOrders.size());
+        } catch (Exception e) {
+            log.error("订单超时补偿扫描执行异常", e);
         }
+    }
 
-        // 设置取消时间
-        order.setCancelTime(LocalDateTime.now());
-
-        // 保存订单
-        orderRepository.update(order);
+    private boolean isLeader() {
+        return leaderElection.tryLead(LEADER_NAME, Duration.ofMillis(properties.getLeaderLeaseMs()));
     }
 }
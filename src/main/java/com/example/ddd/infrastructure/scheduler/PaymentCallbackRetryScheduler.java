@@ -0,0 +1,48 @@
+package com.example.ddd.infrastructure.scheduler;
+
+import com.example.ddd.application.service.PaymentApplicationService;
+import com.example.ddd.infrastructure.lock.RedisLeaderElection;
+import com.example.ddd.infrastructure.queue.PaymentCallbackProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 支付回调重试定时任务
+ * 定期把到期的待处理回调重新放入处理队列；只在通过 Redis 租约选出的主节点上执行，
+ * 重新入队的回调都经过同一个节点的按支付单号分配
+ *
+ * @author DDD Demo
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PaymentCallbackRetryScheduler {
+
+    private static final String LEADER_NAME = "payment-callback-retry";
+
+    private final PaymentApplicationService paymentApplicationService;
+    private final RedisLeaderElection leaderElection;
+    private final PaymentCallbackProperties properties;
+
+    /**
+     * 重新入队到期的待处理回调
+     */
+    @Scheduled(fixedDelayString = "${payment.callback.retry-interval-ms:5000}")
+    public void requeueDueCallbacks() {
+        if (!leaderElection.tryLead(LEADER_NAME, Duration.ofMillis(properties.getRetryLeaderLeaseMs()))) {
+            return;
+        }
+        try {
+            int count = paymentApplicationService.requeueDueCallbacks();
+            if (count > 0) {
+                log.info("支付回调重新入队 {} 条", count);
+            }
+        } catch (Exception e) {
+            log.error("支付回调重试任务执行失败", e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.ddd.infrastructure.scheduler;
+
+import com.example.ddd.application.service.PaymentReconcileApplicationService;
+import com.example.ddd.infrastructure.lock.RedisLeaderElection;
+import com.example.ddd.infrastructure.reconcile.ReconcileProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * 支付对账定时任务
+ * 每天对前一天的渠道对账文件进行对账，只在通过 Redis 租约选出的主节点上执行
+ *
+ * @author DDD Demo
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PaymentReconcileScheduler {
+
+    private static final String LEADER_NAME = "payment-reconcile";
+
+    private final PaymentReconcileApplicationService paymentReconcileApplicationService;
+    private final RedisLeaderElection leaderElection;
+    private final ReconcileProperties properties;
+
+    /**
+     * 对账前一天的支付记录
+     */
+    @Scheduled(cron = "${payment.reconcile.cron:0 30 2 * * ?}")
+    public void reconcileYesterday() {
+        if (!leaderElection.tryLead(LEADER_NAME, Duration.ofMillis(properties.getLeaderLeaseMs()))) {
+            return;
+        }
+        LocalDate settleDate = LocalDate.now().minusDays(1);
+        try {
+            if (!paymentReconcileApplicationService.isSettlementFileReady(settleDate)) {
+                log.warn("对账文件未下载，跳过对账: {}", settleDate);
+                return;
+            }
+            paymentReconcileApplicationService.reconcile(settleDate);
+        } catch (Exception e) {
+            log.error("支付对账任务执行失败: {}", settleDate, e);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.ddd.infrastructure.scheduler;
+
+import com.example.ddd.application.service.ProductApplicationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 商品SKU汇总修复定时任务
+ * 每天03:30运行，按SKU实时聚合结果修复商品表中的最低价格和总库存
+ *
+ * @author DDD Demo
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSummaryRebuildScheduler {
+
+    private final ProductApplicationService productApplicationService;
+
+    /**
+     * 每天凌晨03:30执行，修复商品SKU汇总偏差
+     * cron表达式: 秒 分 时 日 月 周
+     */
+    @Scheduled(cron = "0 30 3 * * ?")
+    public void rebuildSkuSummaries() {
+        log.info("开始执行商品SKU汇总修复任务...");
+        try {
+            int count = productApplicationService.rebuildSkuSummaries();
+            log.info("商品SKU汇总修复任务完成，共修复 {} 个商品", count);
+        } catch (Exception e) {
+            log.error("商品SKU汇总修复任务执行失败", e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.ddd.infrastructure.scheduler;
+
+import com.example.ddd.application.service.ReviewApplicationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 商品评价统计重建定时任务
+ * 按评价明细重新汇总每个商品的统计，修正删除评价、手工改数等未经累加路径产生的偏差
+ *
+ * @author DDD Demo
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReviewStatsRebuildScheduler {
+
+    private final ReviewApplicationService reviewApplicationService;
+
+    /**
+     * 重建商品评价统计
+     */
+    @Scheduled(cron = "${review.stats.rebuild-cron:0 0 4 * * SUN}")
+    public void rebuildReviewStats() {
+        try {
+            int count = reviewApplicationService.rebuildReviewStats();
+            log.info("商品评价统计重建完成，共 {} 个商品", count);
+        } catch (Exception e) {
+            log.error("商品评价统计重建任务执行失败", e);
+        }
+    }
+}
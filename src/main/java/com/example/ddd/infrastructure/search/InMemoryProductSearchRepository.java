@@ -0,0 +1,153 @@
+package com.example.ddd.infrastructure.search;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.example.ddd.domain.model.entity.Product;
+import com.example.ddd.domain.model.valueobject.ProductStatus;
+import com.example.ddd.domain.repository.ProductSearchRepository;
+import com.example.ddd.infrastructure.persistence.mapper.ProductMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基于内存倒排索引的商品搜索仓储
+ * 六边形架构的适配器（Adapter）
+ * <p>
+ * 启动完成后从数据库全量构建索引；本节点的商品写操作提交后增量刷新；
+ * 其他节点的修改通过定时按 update_time 增量同步
+ *
+ * @author DDD Demo
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class InMemoryProductSearchRepository implements ProductSearchRepository {
+
+    /**
+     * 全量重建每批读取的商品数量
+     */
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    /**
+     * 商品名称中词元的权重
+     */
+    private static final int NAME_WEIGHT = 3;
+
+    /**
+     * 商品描述中词元的权重
+     */
+    private static final int DESC_WEIGHT = 1;
+
+    /**
+     * 增量同步回看时间（秒），覆盖事务提交与 update_time 之间的时间差
+     */
+    private static final long SYNC_OVERLAP_SECONDS = 5;
+
+    private final ProductMapper productMapper;
+
+    private final InvertedIndex index = new InvertedIndex();
+
+    private volatile LocalDateTime lastSyncTime = LocalDateTime.now();
+
+    @Override
+    public List<Long> search(String keyword) {
+        return index.search(ProductTokenizer.tokenizeForQuery(keyword));
+    }
+
+    @Override
+    public void refresh(Long productId) {
+        if (productId == null) {
+            return;
+        }
+        Product product = productMapper.selectById(productId);
+        if (product == null || product.getStatus() != ProductStatus.ON_SALE) {
+            index.remove(productId);
+        } else {
+            index.put(productId, weigh(product));
+        }
+    }
+
+    @Override
+    public int rebuild() {
+        LocalDateTime startTime = LocalDateTime.now();
+        Map<Long, Map<String, Integer>> documents = new HashMap<>();
+        long lastId = 0L;
+        while (true) {
+            List<Product> batch = productMapper.selectList(
+                    new LambdaQueryWrapper<Product>()
+                            .select(Product::getId, Product::getProductName, Product::getProductDesc)
+                            .eq(Product::getStatus, ProductStatus.ON_SALE)
+                            .gt(Product::getId, lastId)
+                            .orderByAsc(Product::getId)
+                            .last("LIMIT " + REBUILD_BATCH_SIZE)
+            );
+            for (Product product : batch) {
+                documents.put(product.getId(), weigh(product));
+            }
+            if (batch.size() < REBUILD_BATCH_SIZE) {
+                break;
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+        }
+        index.replaceAll(documents);
+        lastSyncTime = startTime;
+        return documents.size();
+    }
+
+    /**
+     * 应用启动完成后构建索引
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        try {
+            long start = System.currentTimeMillis();
+            int count = rebuild();
+            log.info("商品搜索索引构建完成: productCount={}, cost={}ms", count, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("商品搜索索引构建失败", e);
+        }
+    }
+
+    /**
+     * 同步其他节点修改过的商品
+     */
+    @Scheduled(fixedDelayString = "${search.product.sync-interval-ms:30000}")
+    public void syncChanges() {
+        LocalDateTime startTime = LocalDateTime.now();
+        try {
+            List<Product> changed = productMapper.selectList(
+                    new LambdaQueryWrapper<Product>()
+                            .select(Product::getId)
+                            .ge(Product::getUpdateTime, lastSyncTime.minusSeconds(SYNC_OVERLAP_SECONDS))
+            );
+            for (Product product : changed) {
+                refresh(product.getId());
+            }
+            lastSyncTime = startTime;
+            if (!changed.isEmpty()) {
+                log.debug("商品搜索索引增量同步: changedCount={}, indexSize={}", changed.size(), index.size());
+            }
+        } catch (Exception e) {
+            log.error("商品搜索索引增量同步失败", e);
+        }
+    }
+
+    private Map<String, Integer> weigh(Product product) {
+        Map<String, Integer> weights = new HashMap<>();
+        for (String token : ProductTokenizer.tokenizeForIndex(product.getProductName())) {
+            weights.merge(token, NAME_WEIGHT, Integer::sum);
+        }
+        for (String token : ProductTokenizer.tokenizeForIndex(product.getProductDesc())) {
+            weights.merge(token, DESC_WEIGHT, Integer::sum);
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.ddd.infrastructure.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 内存倒排索引
+ * 词元 -> (文档ID -> 权重)，查询时要求文档包含全部查询词元，按权重之和排序
+ * <p>
+ * 读写锁保护：查询并发执行，增量更新与全量替换互斥
+ *
+ * @author DDD Demo
+ */
+class InvertedIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private Map<Long, Set<String>> documentTokens = new HashMap<>();
+
+    /**
+     * 写入或覆盖一个文档
+     *
+     * @param documentId   文档ID
+     * @param tokenWeights 词元权重
+     */
+    void put(Long documentId, Map<String, Integer> tokenWeights) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(documentId);
+            addInternal(postings, documentTokens, documentId, tokenWeights);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 删除一个文档
+     *
+     * @param documentId 文档ID
+     */
+    void remove(Long documentId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(documentId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 用一组文档整体替换索引，新索引在锁外构建
+     *
+     * @param documents 文档ID -> 词元权重
+     */
+    void replaceAll(Map<Long, Map<String, Integer>> documents) {
+        Map<String, Map<Long, Integer>> newPostings = new HashMap<>();
+        Map<Long, Set<String>> newDocumentTokens = new HashMap<>(documents.size() * 2);
+        documents.forEach((id, weights) -> addInternal(newPostings, newDocumentTokens, id, weights));
+
+        lock.writeLock().lock();
+        try {
+            postings = newPostings;
+            documentTokens = newDocumentTokens;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 查询同时包含全部词元的文档
+     *
+     * @param queryTokens 查询词元
+     * @return 文档ID，按权重之和降序、相同时按ID降序
+     */
+    List<Long> search(Collection<String> queryTokens) {
+        if (queryTokens == null || queryTokens.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<Map<Long, Integer>> lists = new ArrayList<>(queryTokens.size());
+            for (String token : queryTokens) {
+                Map<Long, Integer> posting = postings.get(token);
+                if (posting == null) {
+                    return List.of();
+                }
+                lists.add(posting);
+            }
+            // 从最短的倒排表开始求交集
+            lists.sort(Comparator.comparingInt(Map::size));
+
+            Map<Long, Integer> scores = new HashMap<>(lists.get(0));
+            for (int i = 1; i < lists.size() && !scores.isEmpty(); i++) {
+                Map<Long, Integer> posting = lists.get(i);
+                scores.entrySet().removeIf(e -> !posting.containsKey(e.getKey()));
+                scores.replaceAll((id, score) -> score + posting.get(id));
+            }
+
+            List<Long> result = new ArrayList<>(scores.keySet());
+            result.sort(Comparator.<Long>comparingInt(scores::get).reversed()
+                    .thenComparing(Comparator.reverseOrder()));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 索引中的文档数
+     */
+    int size() {
+        lock.readLock().lock();
+        try {
+            return documentTokens.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeInternal(Long documentId) {
+        Set<String> tokens = documentTokens.remove(documentId);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            Map<Long, Integer> posting = postings.get(token);
+            if (posting != null) {
+                posting.remove(documentId);
+                if (posting.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+    }
+
+    private static void addInternal(Map<String, Map<Long, Integer>> postings,
+                                    Map<Long, Set<String>> documentTokens,
+                                    Long documentId,
+                                    Map<String, Integer> tokenWeights) {
+        if (tokenWeights.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<String, Integer> entry : tokenWeights.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), k -> new HashMap<>()).put(documentId, entry.getValue());
+        }
+        documentTokens.put(documentId, Set.copyOf(tokenWeights.keySet()));
+    }
+}
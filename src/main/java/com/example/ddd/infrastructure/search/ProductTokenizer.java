@@ -0,0 +1,98 @@
+package com.example.ddd.infrastructure.search;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 商品文本分词器
+ * 中日韩文字按二元组（bigram）切分，其他字母数字按连续片段切分并转小写；
+ * 建索引时额外保留中日韩单字，以支持单字查询
+ *
+ * @author DDD Demo
+ */
+final class ProductTokenizer {
+
+    private ProductTokenizer() {
+    }
+
+    /**
+     * 建索引分词，保留重复词元（用于词频）
+     *
+     * @param text 文本
+     * @return 词元列表
+     */
+    static List<String> tokenizeForIndex(String text) {
+        List<String> tokens = new ArrayList<>();
+        split(text, true, tokens);
+        return tokens;
+    }
+
+    /**
+     * 查询分词，去重
+     * 中日韩片段长度不小于2时只使用二元组，单字片段使用单字
+     *
+     * @param keyword 关键词
+     * @return 词元集合
+     */
+    static Set<String> tokenizeForQuery(String keyword) {
+        List<String> tokens = new ArrayList<>();
+        split(keyword, false, tokens);
+        return new LinkedHashSet<>(tokens);
+    }
+
+    private static void split(String text, boolean withUnigrams, List<String> out) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        StringBuilder word = new StringBuilder();
+        List<String> cjkRun = new ArrayList<>();
+        int i = 0;
+        while (i < text.length()) {
+            int cp = text.codePointAt(i);
+            i += Character.charCount(cp);
+            if (isCjk(cp)) {
+                flushWord(word, out);
+                cjkRun.add(new String(Character.toChars(cp)));
+            } else if (Character.isLetterOrDigit(cp)) {
+                flushCjk(cjkRun, withUnigrams, out);
+                word.appendCodePoint(cp);
+            } else {
+                flushWord(word, out);
+                flushCjk(cjkRun, withUnigrams, out);
+            }
+        }
+        flushWord(word, out);
+        flushCjk(cjkRun, withUnigrams, out);
+    }
+
+    private static void flushWord(StringBuilder word, List<String> out) {
+        if (word.length() > 0) {
+            out.add(word.toString().toLowerCase(Locale.ROOT));
+            word.setLength(0);
+        }
+    }
+
+    private static void flushCjk(List<String> run, boolean withUnigrams, List<String> out) {
+        if (run.isEmpty()) {
+            return;
+        }
+        if (run.size() == 1 || withUnigrams) {
+            out.addAll(run);
+        }
+        for (int i = 0; i + 1 < run.size(); i++) {
+            out.add(run.get(i) + run.get(i + 1));
+        }
+        run.clear();
+    }
+
+    private static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+}
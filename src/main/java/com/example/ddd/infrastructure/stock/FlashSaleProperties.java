@@ -0,0 +1,38 @@
+package com.example.ddd.infrastructure.stock;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 秒杀库存配置属性
+ *
+ * @author DDD Demo
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "stock.flash-sale")
+public class FlashSaleProperties {
+
+    /**
+     * 预扣库存回写数据库的间隔（毫秒）
+     */
+    private long writeBackIntervalMs = 1000;
+
+    /**
+     * 对账任务 cron 表达式
+     */
+    private String reconcileCron = "0 */5 * * * ?";
+
+    /**
+     * 对账发现差异时是否以数据库为准校正 Redis 可售库存
+     * 默认只告警：回写过程中进程崩溃丢失的待回写量也会表现为差异，此时以数据库为准会导致超卖
+     */
+    private boolean autoCorrect = false;
+
+    /**
+     * 回写与对账任务的主节点租约（毫秒），应大于回写间隔；
+     * 两个任务使用同一租约，只在同一个节点上执行
+     */
+    private long leaderLeaseMs = 10000;
+}
@@ -0,0 +1,159 @@
+package com.example.ddd.infrastructure.stock;
+
+import com.example.ddd.domain.model.valueobject.StockReservation;
+import com.example.ddd.domain.repository.FlashSaleStockRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 基于 Redis 的秒杀库存仓储
+ * 可售库存和待回写量分别存放在两个 Hash 中（field 为 SKU ID），
+ * 所有读改写都在 Lua 脚本中原子完成；key 使用相同的 hash tag，保证集群下落在同一个 slot
+ * 六边形架构的适配器（Adapter）
+ *
+ * @author DDD Demo
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class RedisFlashSaleStockRepository implements FlashSaleStockRepository {
+
+    private static final String STOCK_KEY = "{flash_sale}:stock";
+    private static final String PENDING_KEY = "{flash_sale}:pending";
+    private static final List<String> KEYS = List.of(STOCK_KEY, PENDING_KEY);
+
+    /**
+     * 预扣：未开启返回 -1，库存不足返回 0，成功返回 1
+     */
+    private static final RedisScript<Long> RESERVE_SCRIPT = new DefaultRedisScript<>("""
+            local stock = redis.call('HGET', KEYS[1], ARGV[1])
+            if not stock then return -1 end
+            local qty = tonumber(ARGV[2])
+            if tonumber(stock) < qty then return 0 end
+            redis.call('HINCRBY', KEYS[1], ARGV[1], -qty)
+            redis.call('HINCRBY', KEYS[2], ARGV[1], qty)
+            return 1
+            """, Long.class);
+
+    /**
+     * 归还：未开启返回 0，成功返回 1
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('HEXISTS', KEYS[1], ARGV[1]) == 0 then return 0 end
+            local qty = tonumber(ARGV[2])
+            redis.call('HINCRBY', KEYS[1], ARGV[1], qty)
+            redis.call('HINCRBY', KEYS[2], ARGV[1], -qty)
+            return 1
+            """, Long.class);
+
+    /**
+     * 关闭：存在待回写量时返回 0
+     */
+    private static final RedisScript<Long> UNLOAD_SCRIPT = new DefaultRedisScript<>("""
+            local pending = tonumber(redis.call('HGET', KEYS[2], ARGV[1]) or '0')
+            if pending ~= 0 then return 0 end
+            redis.call('HDEL', KEYS[1], ARGV[1])
+            redis.call('HDEL', KEYS[2], ARGV[1])
+            return 1
+            """, Long.class);
+
+    /**
+     * 取出并清零待回写量
+     */
+    private static final RedisScript<Long> TAKE_PENDING_SCRIPT = new DefaultRedisScript<>("""
+            local pending = redis.call('HGET', KEYS[2], ARGV[1])
+            if not pending then return 0 end
+            redis.call('HDEL', KEYS[2], ARGV[1])
+            return tonumber(pending)
+            """, Long.class);
+
+    /**
+     * 对账：返回 可售库存 - (数据库库存 - 待回写量)，未开启返回 nil；校正时期望值不低于 0
+     */
+    private static final RedisScript<Long> RECONCILE_SCRIPT = new DefaultRedisScript<>("""
+            local stock = redis.call('HGET', KEYS[1], ARGV[1])
+            if not stock then return nil end
+            local pending = tonumber(redis.call('HGET', KEYS[2], ARGV[1]) or '0')
+            local expected = tonumber(ARGV[2]) - pending
+            local diff = tonumber(stock) - expected
+            if diff ~= 0 and ARGV[3] == '1' then
+                redis.call('HSET', KEYS[1], ARGV[1], math.max(expected, 0))
+            end
+            return diff
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Override
+    public StockReservation reserve(Long skuId, int quantity) {
+        Long result = redisTemplate.execute(RESERVE_SCRIPT, KEYS, skuId.toString(), String.valueOf(quantity));
+        if (result == null || result < 0) {
+            return StockReservation.NOT_FLASH_SALE;
+        }
+        return result == 1 ? StockReservation.RESERVED : StockReservation.INSUFFICIENT;
+    }
+
+    @Override
+    public boolean release(Long skuId, int quantity) {
+        Long result = redisTemplate.execute(RELEASE_SCRIPT, KEYS, skuId.toString(), String.valueOf(quantity));
+        return result != null && result == 1;
+    }
+
+    @Override
+    public boolean isFlashSale(Long skuId) {
+        return Boolean.TRUE.equals(redisTemplate.opsForHash().hasKey(STOCK_KEY, skuId.toString()));
+    }
+
+    @Override
+    public boolean load(Long skuId, int stock) {
+        return Boolean.TRUE.equals(redisTemplate.opsForHash().putIfAbsent(STOCK_KEY, skuId.toString(), String.valueOf(stock)));
+    }
+
+    @Override
+    public boolean unload(Long skuId) {
+        Long result = redisTemplate.execute(UNLOAD_SCRIPT, KEYS, skuId.toString());
+        return result != null && result == 1;
+    }
+
+    @Override
+    public Set<Long> findSkuIds() {
+        Set<Object> fields = redisTemplate.opsForHash().keys(STOCK_KEY);
+        Set<Long> skuIds = new HashSet<>(fields.size() * 2);
+        for (Object field : fields) {
+            skuIds.add(Long.valueOf(field.toString()));
+        }
+        return skuIds;
+    }
+
+    @Override
+    public int takePending(Long skuId) {
+        Long pending = redisTemplate.execute(TAKE_PENDING_SCRIPT, KEYS, skuId.toString());
+        return pending != null ? pending.intValue() : 0;
+    }
+
+    @Override
+    public void restorePending(Long skuId, int delta) {
+        redisTemplate.opsForHash().increment(PENDING_KEY, skuId.toString(), delta);
+    }
+
+    @Override
+    public Integer getStock(Long skuId) {
+        Object stock = redisTemplate.opsForHash().get(STOCK_KEY, skuId.toString());
+        return stock != null ? Integer.valueOf(stock.toString()) : null;
+    }
+
+    @Override
+    public Integer reconcile(Long skuId, int dbStock, boolean correct) {
+        Long diff = redisTemplate.execute(RECONCILE_SCRIPT, KEYS,
+                skuId.toString(), String.valueOf(dbStock), correct ? "1" : "0");
+        return diff != null ? diff.intValue() : null;
+    }
+}
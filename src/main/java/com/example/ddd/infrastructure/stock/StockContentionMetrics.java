@@ -0,0 +1,39 @@
+package com.example.ddd.infrastructure.stock;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 库存扣减争用指标
+ * 按 SKU 打标签，只有发生冲突或库存不足的 SKU 才会产生时间序列，热点 SKU 一目了然
+ *
+ * @author DDD Demo
+ */
+@Component
+@RequiredArgsConstructor
+public class StockContentionMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * CAS 版本冲突（每次冲突计一次，即重试次数）
+     */
+    public void conflict(Long skuId) {
+        meterRegistry.counter("stock.decrement.conflicts", "skuId", skuId.toString()).increment();
+    }
+
+    /**
+     * CAS 重试耗尽，退化为条件原子扣减
+     */
+    public void fallback(Long skuId) {
+        meterRegistry.counter("stock.decrement.fallbacks", "skuId", skuId.toString()).increment();
+    }
+
+    /**
+     * 库存确实不足
+     */
+    public void insufficient(Long skuId) {
+        meterRegistry.counter("stock.decrement.insufficient", "skuId", skuId.toString()).increment();
+    }
+}
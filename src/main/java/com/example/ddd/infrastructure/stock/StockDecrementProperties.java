@@ -0,0 +1,27 @@
+package com.example.ddd.infrastructure.stock;
+
+import com.example.ddd.domain.model.valueobject.StockDecrementStrategy;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 库存扣减配置属性
+ *
+ * @author DDD Demo
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "stock.decrement")
+public class StockDecrementProperties {
+
+    /**
+     * 扣减策略
+     */
+    private StockDecrementStrategy strategy = StockDecrementStrategy.GUARDED;
+
+    /**
+     * CAS 策略冲突后的最大重试次数
+     */
+    private int maxRetries = 3;
+}
@@ -3,9 +3,11 @@ package com.example.ddd.interfaces.rest.controller;
 import com.example.ddd.application.service.AuthorizationService;
 import com.example.ddd.application.service.CategoryApplicationService;
 import com.example.ddd.domain.model.entity.Category;
+import com.example.ddd.domain.model.valueobject.CategoryTree;
 import com.example.ddd.interfaces.rest.vo.Response;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -75,11 +77,15 @@ public class CategoryController {
 
     /**
      * 获取分类树（公开）
+     * 响应携带 ETag，请求头 If-None-Match 与当前版本一致时直接返回 304
      */
     @GetMapping("/tree")
-    public Response<List<Category>> getTree() {
-        List<Category> tree = categoryApplicationService.getCategoryTree();
-        return Response.success(tree);
+    public Response<List<Category>> getTree(WebRequest webRequest) {
+        CategoryTree tree = categoryApplicationService.getCategoryTree();
+        if (webRequest.checkNotModified("\"" + tree.getVersion() + "\"")) {
+            return null;
+        }
+        return Response.success(tree.getRoots());
     }
 
     /**
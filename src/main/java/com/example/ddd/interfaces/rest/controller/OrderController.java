@@ -6,10 +6,20 @@ import com.example.ddd.application.service.OrderApplicationService;
 import com.example.ddd.domain.model.entity.Order;
 import com.example.ddd.infrastructure.security.SecurityUtil;
 import com.example.ddd.interfaces.rest.dto.OrderCreateRequest;
+import com.example.ddd.interfaces.rest.export.OrderExportWriter;
+import com.example.ddd.interfaces.rest.vo.CursorPage;
 import com.example.ddd.interfaces.rest.vo.OrderDetailVO;
 import com.example.ddd.interfaces.rest.vo.Response;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
 
 /**
  * 订单控制器
@@ -23,14 +33,17 @@ public class OrderController {
 
     private final OrderApplicationService orderApplicationService;
     private final AuthorizationService authorizationService;
+    private final ObjectMapper objectMapper;
 
     /**
      * 创建订单
+     * 客户端重试时携带相同的 Idempotency-Key 请求头，只会创建一个订单
      */
     @PostMapping
-    public Response<Order> create(@RequestBody OrderCreateRequest request) {
+    public Response<Order> create(@RequestBody OrderCreateRequest request,
+                                  @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         Long userId = SecurityUtil.getCurrentUserId();
-        Order order = orderApplicationService.createOrderFromRequest(userId, request);
+        Order order = orderApplicationService.createOrderFromRequest(userId, request, idempotencyKey);
         return Response.success(order);
     }
 
@@ -81,9 +94,9 @@ public class OrderController {
         }
         // 检查是否是买家或商家
         if (!orderDetail.getUserId().equals(currentUserId)) {
-            // 如果不是买家，检查是否是商家
+            // 如果不是买家，检查是否是商家（直接用详情中的店铺ID，不再重复查询订单）
             try {
-                authorizationService.checkOrderMerchantAccess(id);
+                authorizationService.checkShopOwnership(orderDetail.getShopId());
             } catch (Exception e) {
                 return Response.fail(403, "无权访问该订单");
             }
@@ -129,4 +142,58 @@ public class OrderController {
         IPage<Order> page = orderApplicationService.pageOrdersByShopId(current, size, shopId, status);
         return Response.success(page);
     }
+
+    /**
+     * 导出店铺订单（商家操作）
+     * 流式写出 CSV 或 NDJSON，按创建时间倒序，边查边写，不在内存中累积全部订单
+     */
+    @GetMapping("/shop/{shopId}/export")
+    public ResponseEntity<StreamingResponseBody> exportShopOrders(
+            @PathVariable Long shopId,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) Integer status,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime startTime,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime endTime) {
+        // 验证店铺归属（必须在开始写出之前完成）
+        authorizationService.checkShopOwnership(shopId);
+        OrderExportWriter.Format exportFormat = OrderExportWriter.Format.of(format);
+
+        StreamingResponseBody body = outputStream -> {
+            OrderExportWriter writer = new OrderExportWriter(exportFormat, outputStream, objectMapper);
+            writer.writeHeader();
+            orderApplicationService.exportOrdersByShopId(shopId, status, startTime, endTime, writer::writeChunk);
+        };
+        String filename = "orders-" + shopId + "." + exportFormat.getExtension();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .body(body);
+    }
+
+    /**
+     * 游标分页获取用户订单列表
+     * 不返回总数，使用返回的 nextCursor 请求下一页
+     */
+    @GetMapping("/my/scroll")
+    public Response<CursorPage<Order>> scrollMyOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size) {
+        Long userId = SecurityUtil.getCurrentUserId();
+        CursorPage<Order> page = orderApplicationService.scrollOrdersByUserId(cursor, size, userId);
+        return Response.success(page);
+    }
+
+    /**
+     * 游标分页获取店铺订单列表（商家查看）
+     */
+    @GetMapping("/shop/{shopId}/scroll")
+    public Response<CursorPage<Order>> scrollShopOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @PathVariable Long shopId) {
+        // 验证店铺归属
+        authorizationService.checkShopOwnership(shopId);
+        CursorPage<Order> page = orderApplicationService.scrollOrdersByShopId(cursor, size, shopId);
+        return Response.success(page);
+    }
 }
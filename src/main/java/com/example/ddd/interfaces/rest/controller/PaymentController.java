@@ -3,8 +3,11 @@ package com.example.ddd.interfaces.rest.controller;
 import com.example.ddd.application.service.AuthorizationService;
 import com.example.ddd.application.service.PaymentApplicationService;
 import com.example.ddd.domain.model.entity.Payment;
+import com.example.ddd.domain.model.valueobject.PaymentEvent;
+import com.example.ddd.interfaces.rest.dto.PaymentCallbackRequest;
 import com.example.ddd.interfaces.rest.dto.PaymentCreateRequest;
 import com.example.ddd.interfaces.rest.vo.Response;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
@@ -39,7 +42,17 @@ public class PaymentController {
     public Response<Void> mockSuccess(@PathVariable String paymentNo) {
         // 模拟支付成功，生产环境应该通过支付回调或内部调用
         String transactionId = "MOCK_" + System.currentTimeMillis();
-        paymentApplicationService.handlePaymentSuccess(paymentNo, transactionId);
+        paymentApplicationService.receiveCallback(paymentNo, PaymentEvent.PAY_SUCCESS, transactionId);
+        return Response.success();
+    }
+
+    /**
+     * 支付网关回调（支付、退款结果通知）
+     * 落库后立即应答，重复通知直接应答成功，处理结果异步更新到支付记录
+     */
+    @PostMapping("/callback")
+    public Response<Void> callback(@Valid @RequestBody PaymentCallbackRequest request) {
+        paymentApplicationService.receiveCallback(request.getPaymentNo(), request.getEvent(), request.getTransactionId());
         return Response.success();
     }
 
@@ -2,6 +2,8 @@ package com.example.ddd.interfaces.rest.controller;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.example.ddd.application.service.AuthorizationService;
+import com.example.ddd.application.service.FlashSaleApplicationService;
+import com.example.ddd.application.service.ProductDetailApplicationService;
 import com.example.ddd.application.service.ProductApplicationService;
 import com.example.ddd.domain.model.entity.Product;
 import com.example.ddd.domain.model.entity.ProductImage;
@@ -9,6 +11,8 @@ import com.example.ddd.domain.model.entity.ProductSku;
 import com.example.ddd.infrastructure.security.SecurityUtil;
 import com.example.ddd.interfaces.rest.dto.ProductCreateRequest;
 import com.example.ddd.interfaces.rest.dto.ProductUpdateRequest;
+import com.example.ddd.interfaces.rest.vo.CursorPage;
+import com.example.ddd.interfaces.rest.vo.ProductDetailVO;
 import com.example.ddd.interfaces.rest.vo.Response;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -30,7 +34,9 @@ import java.util.stream.Collectors;
 public class ProductController {
 
     private final ProductApplicationService productApplicationService;
+    private final ProductDetailApplicationService productDetailApplicationService;
     private final AuthorizationService authorizationService;
+    private final FlashSaleApplicationService flashSaleApplicationService;
 
     /**
      * 获取商品列表（公开）
@@ -49,13 +55,6 @@ public class ProductController {
             // 获取所有商品（分页查询第一页）
             products = productApplicationService.pageProducts(1L, 1000L, null, null, status).getRecords();
         }
-        // 调试日志
-        if (products != null && !products.isEmpty()) {
-            for (Product p : products) {
-                log.info("ProductController.list: productId={}, minPrice={}, totalStock={}",
-                    p.getId(), p.getMinPrice(), p.getTotalStock());
-            }
-        }
         return Response.success(products);
     }
 
@@ -103,6 +102,29 @@ public class ProductController {
         return Response.success(product);
     }
 
+    /**
+     * 开启SKU秒杀（商家操作）
+     * 以当前库存作为秒杀可售库存，下单时在 Redis 中预扣
+     */
+    @PutMapping("/{id}/skus/{skuId}/flash-sale")
+    public Response<Boolean> enableFlashSale(@PathVariable Long id, @PathVariable Long skuId) {
+        // 验证商品归属
+        authorizationService.checkProductOwnership(id);
+        boolean enabled = flashSaleApplicationService.enableFlashSale(id, skuId);
+        return Response.success(enabled);
+    }
+
+    /**
+     * 关闭SKU秒杀（商家操作）
+     */
+    @DeleteMapping("/{id}/skus/{skuId}/flash-sale")
+    public Response<Void> disableFlashSale(@PathVariable Long id, @PathVariable Long skuId) {
+        // 验证商品归属
+        authorizationService.checkProductOwnership(id);
+        flashSaleApplicationService.disableFlashSale(id, skuId);
+        return Response.success();
+    }
+
     /**
      * 删除商品（商家操作）
      */
@@ -123,6 +145,16 @@ public class ProductController {
         return Response.success(product);
     }
 
+    /**
+     * 获取商品聚合详情（公开）
+     * 商品、SKU、图片、评价统计并行加载，慢的部分降级为空，见 degradedParts
+     */
+    @GetMapping("/{id}/detail")
+    public Response<ProductDetailVO> getDetail(@PathVariable Long id) {
+        ProductDetailVO detail = productDetailApplicationService.getProductDetail(id);
+        return Response.success(detail);
+    }
+
     /**
      * 获取商品SKU列表（公开）
      */
@@ -160,6 +192,19 @@ public class ProductController {
         return Response.success(products);
     }
 
+    /**
+     * 游标分页查询商品（公开）
+     * 不返回总数，使用返回的 nextCursor 请求下一页
+     */
+    @GetMapping("/scroll")
+    public Response<CursorPage<Product>> scroll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) Long shopId) {
+        CursorPage<Product> page = productApplicationService.scrollProducts(cursor, size, shopId);
+        return Response.success(page);
+    }
+
     /**
      * 分页查询商品（公开）
      */
@@ -0,0 +1,33 @@
+package com.example.ddd.interfaces.rest.dto;
+
+import com.example.ddd.domain.model.valueobject.PaymentEvent;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * 支付网关回调请求
+ *
+ * @author DDD Demo
+ */
+@Data
+public class PaymentCallbackRequest {
+
+    /**
+     * 支付单号
+     */
+    @NotBlank(message = "支付单号不能为空")
+    private String paymentNo;
+
+    /**
+     * 回调事件（PAY_SUCCESS、PAY_FAILED、REFUND_SUCCESS、REFUND_FAILED）
+     */
+    @NotNull(message = "回调事件不能为空")
+    private PaymentEvent event;
+
+    /**
+     * 第三方交易流水号，网关重试时保持不变
+     */
+    @NotBlank(message = "交易流水号不能为空")
+    private String transactionId;
+}
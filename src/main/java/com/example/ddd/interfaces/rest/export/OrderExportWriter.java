@@ -0,0 +1,190 @@
+package com.example.ddd.interfaces.rest.export;
+
+import com.example.ddd.domain.model.entity.Order;
+import com.example.ddd.domain.model.entity.OrderItem;
+import com.example.ddd.domain.model.valueobject.OrderView;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * 订单导出写出器
+ * 逐批把订单视图写到响应流，每批写完立即刷出，不在内存中累积。
+ * CSV 每个订单明细一行（订单字段重复），NDJSON 每个订单一行（含明细数组）；
+ * 订单按创建时间、ID 倒序写出（最新的订单在前）。
+ * CSV 中用户填写的文本以 = + - @ 或制表符、回车开头时加单引号前缀，避免 Excel 当作公式执行
+ *
+ * @author DDD Demo
+ */
+public class OrderExportWriter {
+
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String CSV_HEADER = "订单号,状态,创建时间,支付时间,收货人,联系电话,收货地址,订单金额,实付金额,"
+            + "SKU ID,规格名称,单价,数量,小计";
+
+    /**
+     * 电子表格会当作公式解析的起始字符
+     */
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    /**
+     * 导出格式
+     */
+    public enum Format {
+
+        CSV("text/csv", "csv"),
+
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * 根据参数获取导出格式，忽略大小写
+         */
+        public static Format of(String value) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("不支持的导出格式: " + value);
+        }
+    }
+
+    private final Format format;
+    private final OutputStream outputStream;
+    private final BufferedWriter writer;
+    private final ObjectMapper objectMapper;
+
+    public OrderExportWriter(Format format, OutputStream outputStream, ObjectMapper objectMapper) {
+        this.format = format;
+        this.outputStream = outputStream;
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 写出文件头（CSV 带 BOM，Excel 打开中文不乱码）
+     */
+    public void writeHeader() {
+        if (format != Format.CSV) {
+            return;
+        }
+        try {
+            writer.write('\uFEFF');
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 写出一批订单并刷出
+     *
+     * @param views 订单视图
+     */
+    public void writeChunk(List<OrderView> views) {
+        try {
+            for (OrderView view : views) {
+                if (format == Format.CSV) {
+                    writeCsv(view);
+                } else {
+                    writeNdjson(view);
+                }
+            }
+            writer.flush();
+            outputStream.flush();
+        } catch (IOException e) {
+            // 客户端断开时写出失败，中止导出
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeCsv(OrderView view) throws IOException {
+        Order order = view.getOrder();
+        String orderColumns = String.join(",",
+                csv(order.getOrderNo()),
+                csv(order.getStatus() != null ? order.getStatus().getDescription() : null),
+                csv(formatTime(order.getCreateTime())),
+                csv(formatTime(order.getPayTime())),
+                csvText(order.getReceiverName()),
+                csvText(order.getReceiverPhone()),
+                csvText(order.getReceiverAddress()),
+                csv(order.getTotalAmount()),
+                csv(order.getPayAmount()));
+        if (view.getItems() == null || view.getItems().isEmpty()) {
+            writer.write(orderColumns);
+            writer.write(",,,,,");
+            writer.write('\n');
+            return;
+        }
+        for (OrderItem item : view.getItems()) {
+            writer.write(orderColumns);
+            writer.write(',');
+            writer.write(String.join(",",
+                    csv(item.getSkuId()),
+                    csvText(item.getSkuName()),
+                    csv(item.getPrice()),
+                    csv(item.getQuantity()),
+                    csv(item.getTotalAmount())));
+            writer.write('\n');
+        }
+    }
+
+    private void writeNdjson(OrderView view) throws IOException {
+        writer.write(objectMapper.writeValueAsString(view));
+        writer.write('\n');
+    }
+
+    private static String formatTime(LocalDateTime time) {
+        return time != null ? time.format(TIME_FORMATTER) : null;
+    }
+
+    /**
+     * 用户填写的文本字段：以公式起始字符开头时加单引号前缀，再按 CSV 转义
+     */
+    private static String csvText(String text) {
+        if (text != null && !text.isEmpty() && FORMULA_PREFIXES.indexOf(text.charAt(0)) >= 0) {
+            return csv("'" + text);
+        }
+        return csv(text);
+    }
+
+    /**
+     * CSV 字段转义：包含逗号、引号或换行时用引号包裹，内部引号成对转义
+     */
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
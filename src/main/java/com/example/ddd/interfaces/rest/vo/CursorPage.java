@@ -0,0 +1,78 @@
+package com.example.ddd.interfaces.rest.vo;
+
+import com.example.ddd.domain.model.valueobject.KeysetCursor;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 游标分页结果VO
+ * 不返回总数；hasMore 为 true 时用 nextCursor 请求下一页
+ *
+ * @param <T> 记录类型
+ * @author DDD Demo
+ */
+@Data
+public class CursorPage<T> {
+
+    /**
+     * 每页最大条数，与偏移分页的上限一致
+     */
+    public static final int MAX_SIZE = 1000;
+
+    /**
+     * 当前页记录
+     */
+    private List<T> records;
+
+    /**
+     * 每页条数
+     */
+    private Integer size;
+
+    /**
+     * 是否还有下一页
+     */
+    private Boolean hasMore;
+
+    /**
+     * 下一页游标，没有下一页时为 null
+     */
+    private String nextCursor;
+
+    /**
+     * 规范化每页条数，限制在 [1, MAX_SIZE]
+     *
+     * @param size 请求的每页条数
+     * @return 每页条数
+     */
+    public static int normalizeSize(Integer size) {
+        if (size == null || size < 1) {
+            return 1;
+        }
+        return Math.min(size, MAX_SIZE);
+    }
+
+    /**
+     * 由多查询一条的结果构建分页
+     *
+     * @param rows     查询结果（最多 size + 1 条）
+     * @param size     每页条数
+     * @param cursorOf 从记录提取游标
+     * @return 游标分页结果
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, KeysetCursor> cursorOf) {
+        CursorPage<T> page = new CursorPage<>();
+        boolean hasMore = rows.size() > size;
+        List<T> records = hasMore ? new ArrayList<>(rows.subList(0, size)) : rows;
+        page.setRecords(records);
+        page.setSize(size);
+        page.setHasMore(hasMore);
+        if (hasMore) {
+            page.setNextCursor(cursorOf.apply(records.get(records.size() - 1)).encode());
+        }
+        return page;
+    }
+}
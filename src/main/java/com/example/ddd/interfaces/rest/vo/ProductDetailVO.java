@@ -0,0 +1,51 @@
+package com.example.ddd.interfaces.rest.vo;
+
+import com.example.ddd.domain.model.entity.Product;
+import com.example.ddd.domain.model.entity.ProductSku;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 商品聚合详情VO
+ * 商品、SKU、图片和评价统计并行加载，超时或失败的部分为空并记录在 degradedParts 中
+ *
+ * @author DDD Demo
+ */
+@Data
+public class ProductDetailVO {
+
+    /**
+     * 商品基本信息
+     */
+    private Product product;
+
+    /**
+     * SKU列表
+     */
+    private List<ProductSku> skus;
+
+    /**
+     * 图片URL列表
+     */
+    private List<String> imageUrls;
+
+    /**
+     * 评价统计
+     */
+    private Map<String, Object> reviewStats;
+
+    /**
+     * 降级的部分（超时、失败或被线程池拒绝）
+     */
+    private List<String> degradedParts = new ArrayList<>();
+
+    /**
+     * 是否为部分响应
+     */
+    public boolean isPartial() {
+        return !degradedParts.isEmpty();
+    }
+}
@@ -0,0 +1,9 @@
+-- =====================================================
+-- 订单修订号
+-- V1.0.10__order_revision.sql
+-- 订单每次更新时在 SQL 中执行 revision = revision + 1，
+-- 订单读模型（Redis）以它作为版本，只接受更大的版本：
+-- update_time 只精确到秒，同一秒内的两次更新版本相同，较旧的快照可能覆盖较新的快照
+-- =====================================================
+
+ALTER TABLE `t_order` ADD COLUMN `revision` BIGINT NOT NULL DEFAULT 0 COMMENT '修订号，每次更新加1' AFTER `cancel_time`;
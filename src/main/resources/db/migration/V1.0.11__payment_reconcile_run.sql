@@ -0,0 +1,31 @@
+-- =====================================================
+-- 支付对账批次
+-- V1.0.11__payment_reconcile_run.sql
+-- 每次对账先登记一个执行中的批次，差异明细带批次ID写入；
+-- 全部写完后批次置为成功，再清除该日期更早批次的明细，失败则只清除本批次写入的明细。
+-- 某日期的有效对账结果为该日期 ID 最大的成功批次对应的明细：
+--   SELECT id FROM t_payment_reconcile_run WHERE settle_date = ? AND status = 'SUCCEEDED' ORDER BY id DESC LIMIT 1
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS `t_payment_reconcile_run` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+    `settle_date` DATE NOT NULL COMMENT '对账日期',
+    `status` VARCHAR(16) NOT NULL COMMENT '批次状态 RUNNING/SUCCEEDED/FAILED',
+    `line_count` BIGINT DEFAULT NULL COMMENT '对账文件行数',
+    `payment_count` BIGINT DEFAULT NULL COMMENT '本地支付笔数',
+    `mismatch_count` BIGINT DEFAULT NULL COMMENT '差异笔数',
+    `finish_time` DATETIME DEFAULT NULL COMMENT '结束时间',
+    `last_error` VARCHAR(500) DEFAULT NULL COMMENT '失败原因',
+    `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `update_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    `create_by` VARCHAR(50) DEFAULT NULL COMMENT '创建人',
+    `update_by` VARCHAR(50) DEFAULT NULL COMMENT '更新人',
+    `deleted` TINYINT NOT NULL DEFAULT 0 COMMENT '逻辑删除 0-未删除 1-已删除',
+    PRIMARY KEY (`id`),
+    KEY `idx_settle_date_status` (`settle_date`, `status`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付对账批次表';
+
+-- 差异明细所属批次（历史明细归入批次 0）
+ALTER TABLE `t_payment_reconcile_mismatch`
+    ADD COLUMN `run_id` BIGINT NOT NULL DEFAULT 0 COMMENT '对账批次ID' AFTER `id`,
+    ADD INDEX `idx_settle_date_run_id` (`settle_date`, `run_id`);
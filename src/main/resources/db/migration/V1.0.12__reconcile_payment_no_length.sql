@@ -0,0 +1,7 @@
+-- =====================================================
+-- 对账差异支付单号长度
+-- V1.0.12__reconcile_payment_no_length.sql
+-- 与 t_payment.payment_no 保持一致（VARCHAR(50)），对账文件读取时超长单号直接报错
+-- =====================================================
+
+ALTER TABLE `t_payment_reconcile_mismatch` MODIFY COLUMN `payment_no` VARCHAR(50) NOT NULL COMMENT '支付单号';
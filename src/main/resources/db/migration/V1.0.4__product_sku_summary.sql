@@ -0,0 +1,20 @@
+-- =====================================================
+-- 商品SKU汇总字段
+-- V1.0.4__product_sku_summary.sql
+-- 最低价格、总库存持久化到商品表，列表查询不再聚合 t_product_sku
+-- =====================================================
+
+ALTER TABLE `t_product`
+    ADD COLUMN `min_price` DECIMAL(10,2) NOT NULL DEFAULT 0.00 COMMENT '最低价格（SKU汇总）' AFTER `status`,
+    ADD COLUMN `total_stock` INT NOT NULL DEFAULT 0 COMMENT '总库存（SKU汇总）' AFTER `min_price`;
+
+-- 回填已有商品的汇总数据
+UPDATE `t_product` p
+    LEFT JOIN (
+        SELECT `product_id`, MIN(`price`) AS `min_price`, SUM(`stock`) AS `total_stock`
+        FROM `t_product_sku`
+        WHERE `deleted` = 0
+        GROUP BY `product_id`
+    ) s ON s.`product_id` = p.`id`
+SET p.`min_price` = IFNULL(s.`min_price`, 0),
+    p.`total_stock` = IFNULL(s.`total_stock`, 0);
@@ -0,0 +1,13 @@
+-- =====================================================
+-- 游标分页索引
+-- V1.0.5__keyset_pagination_indexes.sql
+-- 按 (create_time, id) 游标分页的列表查询使用，InnoDB 二级索引隐含主键 id
+-- =====================================================
+
+-- 在售商品列表、店铺商品列表
+ALTER TABLE `t_product` ADD INDEX `idx_status_create_time` (`status`, `deleted`, `create_time`);
+ALTER TABLE `t_product` ADD INDEX `idx_shop_create_time` (`shop_id`, `deleted`, `create_time`);
+
+-- 用户订单列表、店铺订单列表
+ALTER TABLE `t_order` ADD INDEX `idx_user_create_time` (`user_id`, `deleted`, `create_time`);
+ALTER TABLE `t_order` ADD INDEX `idx_shop_create_time` (`shop_id`, `deleted`, `create_time`);
@@ -0,0 +1,16 @@
+-- =====================================================
+-- 订单状态筛选索引
+-- V1.0.6__order_status_list_indexes.sql
+-- "我的订单"和商家后台按状态分页（待支付、待发货等标签页）使用：
+--   WHERE user_id = ? AND status = ? AND deleted = 0 ORDER BY create_time DESC LIMIT ?
+--   WHERE shop_id = ? AND status = ? AND deleted = 0 ORDER BY create_time DESC LIMIT ?
+-- 等值列在前、排序列在后，EXPLAIN 预期 type=ref、key 为下列索引、Extra 中没有 Using filesort；
+-- 分页的 COUNT 查询只需扫描索引（Using index）。
+-- 不筛选状态的列表仍走 V1.0.5 的 idx_user_create_time / idx_shop_create_time
+-- =====================================================
+
+-- 用户订单按状态分页
+ALTER TABLE `t_order` ADD INDEX `idx_user_status_create_time` (`user_id`, `status`, `deleted`, `create_time`);
+
+-- 店铺订单按状态分页
+ALTER TABLE `t_order` ADD INDEX `idx_shop_status_create_time` (`shop_id`, `status`, `deleted`, `create_time`);
@@ -0,0 +1,28 @@
+-- =====================================================
+-- 支付回调表
+-- V1.0.7__payment_callback.sql
+-- 支付网关的支付、退款结果通知接收后先写入本表再立即应答，由工作线程异步处理；
+-- 处理失败的回调保持待处理状态，按 next_retry_time 由重试任务重新入队。
+-- 唯一键 (payment_no, event, transaction_id) 兜底去重：Redis 去重标记过期后网关再次重试，
+-- 插入冲突即视为重复回调，不会重复处理。
+-- 重试扫描：WHERE status = 0 AND next_retry_time <= ? ORDER BY next_retry_time LIMIT ?
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS `t_payment_callback` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+    `payment_no` VARCHAR(50) NOT NULL COMMENT '支付单号',
+    `event` VARCHAR(32) NOT NULL COMMENT '回调事件 PAY_SUCCESS/PAY_FAILED/REFUND_SUCCESS/REFUND_FAILED',
+    `transaction_id` VARCHAR(100) NOT NULL COMMENT '第三方交易流水号',
+    `status` TINYINT NOT NULL DEFAULT 0 COMMENT '处理状态 0-待处理 1-已处理 2-处理失败 3-已拒绝',
+    `retry_count` INT NOT NULL DEFAULT 0 COMMENT '已重试次数',
+    `next_retry_time` DATETIME NOT NULL COMMENT '下次处理时间',
+    `last_error` VARCHAR(500) DEFAULT NULL COMMENT '最近一次处理失败原因',
+    `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `update_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    `create_by` VARCHAR(50) DEFAULT NULL COMMENT '创建人',
+    `update_by` VARCHAR(50) DEFAULT NULL COMMENT '更新人',
+    `deleted` TINYINT NOT NULL DEFAULT 0 COMMENT '逻辑删除 0-未删除 1-已删除',
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `uk_payment_event_transaction` (`payment_no`, `event`, `transaction_id`),
+    KEY `idx_status_next_retry_time` (`status`, `next_retry_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付回调表';
@@ -0,0 +1,32 @@
+-- =====================================================
+-- 支付对账
+-- V1.0.8__payment_reconcile.sql
+-- 对账按支付单号升序与渠道对账文件归并比对，本地支付记录分批读取：
+--   首批起点：SELECT MIN(payment_no) FROM t_payment WHERE pay_time >= ? AND pay_time < ?
+--     使用 idx_pay_time_payment_no，EXPLAIN 预期 type=range、Extra 为 Using where; Using index（只扫描索引）
+--   后续批次：WHERE pay_time >= ? AND pay_time < ? AND payment_no > ? ORDER BY payment_no LIMIT ?
+--     沿 uk_payment_no 顺序读取，取满一批即停止，没有 filesort
+-- =====================================================
+
+-- 支付时间 + 支付单号（对账起点查询的覆盖索引）
+ALTER TABLE `t_payment` ADD INDEX `idx_pay_time_payment_no` (`pay_time`, `payment_no`);
+
+-- 对账差异表
+CREATE TABLE IF NOT EXISTS `t_payment_reconcile_mismatch` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+    `settle_date` DATE NOT NULL COMMENT '对账日期',
+    `payment_no` VARCHAR(64) NOT NULL COMMENT '支付单号',
+    `type` VARCHAR(32) NOT NULL COMMENT '差异类型 LOCAL_MISSING/PROVIDER_MISSING/AMOUNT_MISMATCH/STATUS_MISMATCH',
+    `local_amount` DECIMAL(10,2) DEFAULT NULL COMMENT '本地金额',
+    `provider_amount` DECIMAL(10,2) DEFAULT NULL COMMENT '渠道金额',
+    `local_status` TINYINT DEFAULT NULL COMMENT '本地支付状态',
+    `provider_status` TINYINT DEFAULT NULL COMMENT '渠道支付状态',
+    `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `update_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    `create_by` VARCHAR(50) DEFAULT NULL COMMENT '创建人',
+    `update_by` VARCHAR(50) DEFAULT NULL COMMENT '更新人',
+    `deleted` TINYINT NOT NULL DEFAULT 0 COMMENT '逻辑删除 0-未删除 1-已删除',
+    PRIMARY KEY (`id`),
+    KEY `idx_settle_date_type` (`settle_date`, `type`),
+    KEY `idx_payment_no` (`payment_no`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付对账差异表';
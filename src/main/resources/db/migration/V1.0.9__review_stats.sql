@@ -0,0 +1,37 @@
+-- =====================================================
+-- 商品评价统计
+-- V1.0.9__review_stats.sql
+-- 每个商品一行预计算的评价统计（评价数、好评数、1~5 星分布、评分总和），
+-- 新增评价时在同一事务内 INSERT ... ON DUPLICATE KEY UPDATE 累加；
+-- 查询评价统计按 uk_product_id 单行读取，不再对 t_review 执行 COUNT。
+-- 本迁移用现有评价数据补齐统计，之后由定时重建任务修正偏差
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS `t_review_stats` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+    `product_id` BIGINT NOT NULL COMMENT '商品ID',
+    `review_count` BIGINT NOT NULL DEFAULT 0 COMMENT '评价数',
+    `positive_count` BIGINT NOT NULL DEFAULT 0 COMMENT '好评数（4星及以上）',
+    `rating1_count` BIGINT NOT NULL DEFAULT 0 COMMENT '1星评价数',
+    `rating2_count` BIGINT NOT NULL DEFAULT 0 COMMENT '2星评价数',
+    `rating3_count` BIGINT NOT NULL DEFAULT 0 COMMENT '3星评价数',
+    `rating4_count` BIGINT NOT NULL DEFAULT 0 COMMENT '4星评价数',
+    `rating5_count` BIGINT NOT NULL DEFAULT 0 COMMENT '5星评价数',
+    `rating_sum` BIGINT NOT NULL DEFAULT 0 COMMENT '评分总和',
+    `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `update_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    `create_by` VARCHAR(50) DEFAULT NULL COMMENT '创建人',
+    `update_by` VARCHAR(50) DEFAULT NULL COMMENT '更新人',
+    `deleted` TINYINT NOT NULL DEFAULT 0 COMMENT '逻辑删除 0-未删除 1-已删除',
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `uk_product_id` (`product_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='商品评价统计表';
+
+-- 用现有评价补齐统计
+INSERT INTO `t_review_stats` (`product_id`, `review_count`, `positive_count`, `rating1_count`, `rating2_count`,
+                              `rating3_count`, `rating4_count`, `rating5_count`, `rating_sum`, `deleted`)
+SELECT `product_id`, COUNT(*), SUM(`rating` >= 4), SUM(`rating` = 1), SUM(`rating` = 2),
+       SUM(`rating` = 3), SUM(`rating` = 4), SUM(`rating` = 5), SUM(`rating`), 0
+FROM `t_review`
+WHERE `deleted` = 0
+GROUP BY `product_id`;
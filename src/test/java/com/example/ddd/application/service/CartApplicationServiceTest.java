@@ -0,0 +1,118 @@
+package com.example.ddd.application.service;
+
+import com.example.ddd.domain.model.entity.CartItem;
+import com.example.ddd.domain.model.entity.Product;
+import com.example.ddd.domain.model.entity.ProductSku;
+import com.example.ddd.domain.model.valueobject.BizType;
+import com.example.ddd.domain.model.valueobject.Money;
+import com.example.ddd.domain.repository.ProductRepository;
+import com.example.ddd.domain.repository.ProductSkuRepository;
+import com.example.ddd.domain.service.CartDomainService;
+import com.example.ddd.interfaces.rest.dto.FileUploadResponse;
+import com.example.ddd.interfaces.rest.vo.CartItemVO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * CartApplicationService 购物车列表批量组装测试
+ *
+ * @author DDD Demo
+ */
+@DisplayName("购物车列表批量组装测试")
+@ExtendWith(MockitoExtension.class)
+class CartApplicationServiceTest {
+
+    @Mock
+    private CartDomainService cartDomainService;
+
+    @Mock
+    private ProductSkuRepository productSkuRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private FileApplicationService fileApplicationService;
+
+    @InjectMocks
+    private CartApplicationService cartApplicationService;
+
+    @ParameterizedTest(name = "购物车商品数 {0}")
+    @ValueSource(ints = {1, 20, 200})
+    @DisplayName("查询次数与购物车商品数无关：SKU、商品、主图各一次批量查询")
+    void testConstantQueriesRegardlessOfCartSize(int size) {
+        // Given
+        List<CartItem> cartItems = new ArrayList<>();
+        for (long i = 1; i <= size; i++) {
+            CartItem item = new CartItem();
+            item.setId(i);
+            item.setSkuId(i);
+            item.setQuantity(2);
+            item.setPriceSnapshot(Money.of("10.00"));
+            cartItems.add(item);
+        }
+        when(cartDomainService.getCartItems(1L)).thenReturn(cartItems);
+        when(productSkuRepository.findByIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> skuIds = invocation.getArgument(0);
+            return skuIds.stream().map(id -> {
+                ProductSku sku = new ProductSku();
+                sku.setId(id);
+                // 每两个SKU属于同一个商品
+                sku.setProductId((id + 1) / 2);
+                sku.setSkuName("规格" + id);
+                return sku;
+            }).toList();
+        });
+        when(productRepository.findByIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> productIds = invocation.getArgument(0);
+            return productIds.stream().map(id -> {
+                Product product = new Product();
+                product.setId(id);
+                product.setProductName("商品" + id);
+                return product;
+            }).toList();
+        });
+        when(fileApplicationService.getMainImages(eq(BizType.PRODUCT_IMAGE), anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> productIds = invocation.getArgument(1);
+            Map<Long, FileUploadResponse> images = new HashMap<>();
+            for (Long productId : productIds) {
+                FileUploadResponse file = new FileUploadResponse();
+                file.setUrl("/files/" + productId + ".jpg");
+                images.put(productId, file);
+            }
+            return images;
+        });
+
+        // When
+        List<CartItemVO> result = cartApplicationService.getCartItemsWithProductInfo(1L);
+
+        // Then
+        assertEquals(size, result.size());
+        CartItemVO last = result.get(size - 1);
+        long expectedProductId = (size + 1) / 2;
+        assertEquals(expectedProductId, last.getProductId());
+        assertEquals("商品" + expectedProductId, last.getProductName());
+        assertEquals("/files/" + expectedProductId + ".jpg", last.getMainImage());
+        assertEquals("规格" + size, last.getSkuName());
+
+        verify(productSkuRepository, times(1)).findByIds(anyCollection());
+        verify(productRepository, times(1)).findByIds(anyCollection());
+        verify(fileApplicationService, times(1)).getMainImages(eq(BizType.PRODUCT_IMAGE), anyCollection());
+        verifyNoMoreInteractions(productSkuRepository, productRepository, fileApplicationService);
+    }
+}
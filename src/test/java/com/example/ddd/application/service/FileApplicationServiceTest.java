@@ -0,0 +1,95 @@
+package com.example.ddd.application.service;
+
+import com.example.ddd.domain.model.entity.FileInfo;
+import com.example.ddd.domain.repository.FileRepository;
+import com.example.ddd.infrastructure.storage.StorageProperties;
+import com.example.ddd.infrastructure.storage.StorageService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * FileApplicationService 文件URL批量解析测试
+ *
+ * @author DDD Demo
+ */
+@DisplayName("文件URL批量解析测试")
+@ExtendWith(MockitoExtension.class)
+class FileApplicationServiceTest {
+
+    @Mock
+    private FileRepository fileRepository;
+
+    @Mock
+    private StorageService storageService;
+
+    @Mock
+    private StorageProperties storageProperties;
+
+    @InjectMocks
+    private FileApplicationService fileApplicationService;
+
+    @Test
+    @DisplayName("9张图片冷缓存只查询一次，热缓存不再查询")
+    void testColdAndWarmCache() {
+        // Given
+        List<String> fileKeys = new ArrayList<>();
+        for (int i = 1; i <= 9; i++) {
+            fileKeys.add("key" + i);
+        }
+        when(fileRepository.findByFileKeys(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> keys = invocation.getArgument(0);
+            return keys.stream().map(this::fileInfo).toList();
+        });
+
+        // When
+        Map<String, String> cold = fileApplicationService.getUrlsByFileKeys(fileKeys);
+        Map<String, String> warm = fileApplicationService.getUrlsByFileKeys(fileKeys);
+
+        // Then
+        assertEquals(9, cold.size());
+        assertEquals(cold, warm);
+        assertEquals("http://img/key1.jpg", warm.get("key1"));
+        verify(fileRepository, times(1)).findByFileKeys(anyCollection());
+        verify(fileRepository, never()).findByFileKey(any());
+    }
+
+    @Test
+    @DisplayName("只查询缓存未命中的fileKey")
+    void testQueryOnlyMissingKeys() {
+        // Given
+        when(fileRepository.findByFileKeys(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> keys = invocation.getArgument(0);
+            return keys.stream().map(this::fileInfo).toList();
+        });
+        fileApplicationService.getUrlsByFileKeys(List.of("key1"));
+
+        // When
+        fileApplicationService.getUrlsByFileKeys(List.of("key1", "key2"));
+
+        // Then
+        verify(fileRepository).findByFileKeys(Set.of("key1"));
+        verify(fileRepository).findByFileKeys(Set.of("key2"));
+    }
+
+    private FileInfo fileInfo(String fileKey) {
+        FileInfo fileInfo = new FileInfo();
+        fileInfo.setFileKey(fileKey);
+        fileInfo.setAccessUrl("http://img/" + fileKey + ".jpg");
+        return fileInfo;
+    }
+}
@@ -0,0 +1,364 @@
+package com.example.ddd.application.service;
+
+import com.example.ddd.domain.model.entity.Address;
+import com.example.ddd.domain.model.entity.CartItem;
+import com.example.ddd.domain.model.entity.Order;
+import com.example.ddd.domain.model.entity.OrderItem;
+import com.example.ddd.domain.model.entity.ProductSku;
+import com.example.ddd.domain.model.valueobject.KeysetCursor;
+import com.example.ddd.domain.model.valueobject.Money;
+import com.example.ddd.domain.model.valueobject.OrderView;
+import com.example.ddd.domain.repository.*;
+import com.example.ddd.domain.service.OrderDomainService;
+import com.example.ddd.infrastructure.idempotency.OrderIdempotencyProperties;
+import com.example.ddd.interfaces.rest.dto.OrderCreateRequest;
+import com.example.ddd.interfaces.rest.exception.BusinessException;
+import com.example.ddd.interfaces.rest.export.OrderExportWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * OrderApplicationService 幂等下单与流式导出测试
+ *
+ * @author DDD Demo
+ */
+@DisplayName("幂等下单与流式导出测试")
+@ExtendWith(MockitoExtension.class)
+class OrderApplicationServiceTest {
+
+    @Mock
+    private OrderDomainService orderDomainService;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private CartItemRepository cartItemRepository;
+
+    @Mock
+    private AddressRepository addressRepository;
+
+    @Mock
+    private ProductSkuRepository productSkuRepository;
+
+    @Mock
+    private OrderViewRepository orderViewRepository;
+
+    private InMemoryIdempotencyStore idempotencyStore;
+    private OrderApplicationService orderApplicationService;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyStore = new InMemoryIdempotencyStore();
+        OrderIdempotencyProperties properties = new OrderIdempotencyProperties();
+        properties.setPollIntervalMs(5);
+        orderApplicationService = new OrderApplicationService(orderDomainService, orderRepository,
+                orderItemRepository, cartItemRepository, addressRepository, productSkuRepository, orderViewRepository,
+                idempotencyStore, properties);
+    }
+
+    @Test
+    @DisplayName("并发重复提交只下单一次，所有请求返回同一订单")
+    void testConcurrentDuplicatesCreateOnce() throws Exception {
+        // Given
+        stubCheckout();
+        Order created = new Order();
+        created.setId(100L);
+        when(orderDomainService.createOrder(any(), anyList(), anyList())).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            return created;
+        });
+        when(orderViewRepository.findById(100L)).thenReturn(new OrderView(created, List.of()));
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Order>> futures = new ArrayList<>();
+
+        // When
+        try {
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return orderApplicationService.createOrderFromRequest(1L, buildRequest(), "key-1");
+                }));
+            }
+            start.countDown();
+
+            // Then
+            for (Future<Order> future : futures) {
+                assertEquals(100L, future.get().getId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(orderDomainService, times(1)).createOrder(any(), anyList(), anyList());
+        verify(addressRepository, times(1)).findById(anyLong());
+        assertEquals("100|" + OrderApplicationService.fingerprint(buildRequest()),
+                idempotencyStore.getResult("order:1:key-1"));
+    }
+
+    @Test
+    @DisplayName("已完成的幂等键直接返回原订单，不访问数据库")
+    void testCompletedKeyReturnsOrderWithoutDatabase() {
+        // Given
+        idempotencyStore.complete("order:1:key-1", "100|" + OrderApplicationService.fingerprint(buildRequest()),
+                Duration.ofSeconds(60));
+        Order created = new Order();
+        created.setId(100L);
+        when(orderViewRepository.findById(100L)).thenReturn(new OrderView(created, List.of()));
+
+        // When
+        Order order = orderApplicationService.createOrderFromRequest(1L, buildRequest(), "key-1");
+
+        // Then
+        assertEquals(100L, order.getId());
+        verifyNoInteractions(orderDomainService, orderRepository, addressRepository, cartItemRepository);
+    }
+
+    @Test
+    @DisplayName("下单失败时释放幂等键，允许用同一个键重试")
+    void testFailureReleasesKey() {
+        // Given
+        when(addressRepository.findById(1L)).thenReturn(null);
+
+        // When & Then
+        assertThrows(RuntimeException.class,
+                () -> orderApplicationService.createOrderFromRequest(1L, buildRequest(), "key-1"));
+        assertTrue(idempotencyStore.tryBegin("order:1:key-1", Duration.ofSeconds(30)));
+    }
+
+    @Test
+    @DisplayName("同一幂等键用于内容不同的请求时拒绝")
+    void testKeyReusedWithDifferentRequest() {
+        // Given
+        idempotencyStore.complete("order:1:key-1", "100|" + OrderApplicationService.fingerprint(buildRequest()),
+                Duration.ofSeconds(60));
+        OrderCreateRequest other = buildRequest();
+        other.setCartItemIds(List.of(2L));
+
+        // When & Then
+        BusinessException e = assertThrows(BusinessException.class,
+                () -> orderApplicationService.createOrderFromRequest(1L, other, "key-1"));
+        assertEquals(422, e.getCode());
+        verifyNoInteractions(orderDomainService, orderViewRepository);
+    }
+
+    @Test
+    @DisplayName("订单已创建但记录结果失败时不释放幂等键，重试不会重复下单")
+    void testCompleteFailureKeepsKey() {
+        // Given
+        stubCheckout();
+        Order created = new Order();
+        created.setId(100L);
+        when(orderDomainService.createOrder(any(), anyList(), anyList())).thenReturn(created);
+        idempotencyStore.failComplete = true;
+
+        // When
+        Order order = orderApplicationService.createOrderFromRequest(1L, buildRequest(), "key-1");
+
+        // Then
+        assertEquals(100L, order.getId());
+        assertEquals(3, idempotencyStore.completeAttempts);
+        assertFalse(idempotencyStore.tryBegin("order:1:key-1", Duration.ofSeconds(30)));
+    }
+
+    @Test
+    @DisplayName("不同用户使用相同的幂等键互不影响")
+    void testKeyScopedByUser() {
+        // Given
+        idempotencyStore.complete("order:2:key-1", "200", Duration.ofSeconds(60));
+        when(addressRepository.findById(1L)).thenReturn(null);
+
+        // When & Then
+        assertThrows(RuntimeException.class,
+                () -> orderApplicationService.createOrderFromRequest(1L, buildRequest(), "key-1"));
+        verify(addressRepository).findById(1L);
+    }
+
+    @Test
+    @DisplayName("导出一百万订单时逐批读取写出，每批不超过固定条数")
+    void testExportMillionOrdersInChunks() {
+        // Given
+        int total = 1_000_000;
+        LocalDateTime base = LocalDateTime.of(2026, 1, 1, 0, 0);
+        AtomicInteger maxChunk = new AtomicInteger();
+        when(orderRepository.listByShopIdAfter(eq(1L), any(), any(), any(), any(), anyInt()))
+                .thenAnswer(invocation -> {
+                    KeysetCursor cursor = invocation.getArgument(4);
+                    int limit = invocation.getArgument(5);
+                    long start = cursor == null ? total : cursor.getId() - 1;
+                    List<Order> orders = new ArrayList<>(limit);
+                    for (long id = start; id > 0 && orders.size() < limit; id--) {
+                        Order order = new Order();
+                        order.setId(id);
+                        order.setOrderNo("ORD" + id);
+                        order.setReceiverAddress("北京市,朝阳区");
+                        order.setTotalAmount(Money.of("9.90"));
+                        order.setCreateTime(base.plusSeconds(id));
+                        orders.add(order);
+                    }
+                    return orders;
+                });
+        when(orderItemRepository.findByOrderIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> orderIds = invocation.getArgument(0);
+            maxChunk.accumulateAndGet(orderIds.size(), Math::max);
+            List<OrderItem> items = new ArrayList<>(orderIds.size());
+            for (Long orderId : orderIds) {
+                OrderItem item = new OrderItem();
+                item.setOrderId(orderId);
+                item.setSkuId(1L);
+                item.setQuantity(1);
+                item.setPrice(Money.of("9.90"));
+                items.add(item);
+            }
+            return items;
+        });
+        LineCountingOutputStream out = new LineCountingOutputStream();
+        OrderExportWriter writer = new OrderExportWriter(OrderExportWriter.Format.CSV, out, null);
+        writer.writeHeader();
+
+        // When
+        long exported = orderApplicationService.exportOrdersByShopId(1L, null, null, null, writer::writeChunk);
+
+        // Then
+        assertEquals(total, exported);
+        assertEquals(total + 1, out.lines);
+        assertTrue(maxChunk.get() <= 500, "每批订单数应受限");
+        verify(orderRepository, times(total / 500 + 1))
+                .listByShopIdAfter(eq(1L), any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("CSV 导出中以公式字符开头的收货信息加单引号前缀")
+    void testExportCsvEscapesFormulas() {
+        // Given
+        Order order = new Order();
+        order.setOrderNo("ORD1");
+        order.setReceiverName("=HYPERLINK(\"http://evil\")");
+        order.setReceiverPhone("+8613800000000");
+        order.setReceiverAddress("北京市");
+        OrderView view = new OrderView(order, List.of());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        OrderExportWriter writer = new OrderExportWriter(OrderExportWriter.Format.CSV, out, null);
+
+        // When
+        writer.writeChunk(List.of(view));
+
+        // Then
+        String line = out.toString(StandardCharsets.UTF_8);
+        assertTrue(line.startsWith("ORD1,,,,\"'=HYPERLINK(\"\"http://evil\"\")\",'+8613800000000,北京市,"), line);
+    }
+
+    private void stubCheckout() {
+        Address address = new Address();
+        address.setReceiverName("张三");
+        when(addressRepository.findById(1L)).thenReturn(address);
+
+        CartItem cartItem = new CartItem();
+        cartItem.setId(1L);
+        cartItem.setSkuId(1L);
+        cartItem.setQuantity(1);
+        cartItem.setPriceSnapshot(Money.of("10.00"));
+        when(cartItemRepository.findByIds(anyCollection())).thenReturn(List.of(cartItem));
+
+        ProductSku sku = new ProductSku();
+        sku.setId(1L);
+        sku.setProductId(1L);
+        when(productSkuRepository.findByIds(anyCollection())).thenReturn(List.of(sku));
+    }
+
+    private OrderCreateRequest buildRequest() {
+        OrderCreateRequest request = new OrderCreateRequest();
+        request.setAddressId(1L);
+        request.setCartItemIds(List.of(1L));
+        return request;
+    }
+
+    /**
+     * 只统计行数、不保存内容的输出流，导出过程中不在内存中累积数据
+     */
+    private static class LineCountingOutputStream extends OutputStream {
+
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+
+    /**
+     * 内存版幂等键存储，语义与 Redis 实现一致（不处理过期）
+     */
+    private static class InMemoryIdempotencyStore implements IdempotencyStore {
+
+        private static final String PROCESSING = "__processing__";
+
+        private final Map<String, String> values = new ConcurrentHashMap<>();
+        private volatile boolean failComplete;
+        private volatile int completeAttempts;
+
+        @Override
+        public boolean tryBegin(String key, Duration ttl) {
+            return values.putIfAbsent(key, PROCESSING) == null;
+        }
+
+        @Override
+        public String getResult(String key) {
+            String value = values.get(key);
+            return PROCESSING.equals(value) ? null : value;
+        }
+
+        @Override
+        public void complete(String key, String result, Duration ttl) {
+            completeAttempts++;
+            if (failComplete) {
+                throw new IllegalStateException("Redis 不可用");
+            }
+            values.put(key, result);
+        }
+
+        @Override
+        public void release(String key) {
+            values.remove(key, PROCESSING);
+        }
+    }
+}
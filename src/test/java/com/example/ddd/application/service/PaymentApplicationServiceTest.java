@@ -0,0 +1,165 @@
+package com.example.ddd.application.service;
+
+import com.example.ddd.domain.model.entity.PaymentCallback;
+import com.example.ddd.domain.model.valueobject.PaymentCallbackStatus;
+import com.example.ddd.domain.model.valueobject.PaymentEvent;
+import com.example.ddd.domain.repository.IdempotencyStore;
+import com.example.ddd.domain.repository.PaymentCallbackQueue;
+import com.example.ddd.domain.repository.PaymentCallbackRepository;
+import com.example.ddd.domain.repository.PaymentRepository;
+import com.example.ddd.domain.service.PaymentDomainService;
+import com.example.ddd.infrastructure.queue.PaymentCallbackProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * PaymentApplicationService 支付回调接收测试
+ *
+ * @author DDD Demo
+ */
+@DisplayName("支付回调接收测试")
+@ExtendWith(MockitoExtension.class)
+class PaymentApplicationServiceTest {
+
+    private static final String PAYMENT_NO = "PAY1";
+
+    @Mock
+    private PaymentDomainService paymentDomainService;
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private PaymentCallbackRepository paymentCallbackRepository;
+
+    @Mock
+    private PaymentCallbackQueue paymentCallbackQueue;
+
+    private final Map<String, String> dedupKeys = new ConcurrentHashMap<>();
+    private PaymentApplicationService paymentApplicationService;
+
+    @BeforeEach
+    void setUp() {
+        IdempotencyStore idempotencyStore = new IdempotencyStore() {
+            @Override
+            public boolean tryBegin(String key, Duration ttl) {
+                return dedupKeys.putIfAbsent(key, "") == null;
+            }
+
+            @Override
+            public String getResult(String key) {
+                return null;
+            }
+
+            @Override
+            public void complete(String key, String result, Duration ttl) {
+                dedupKeys.put(key, result);
+            }
+
+            @Override
+            public void release(String key) {
+                dedupKeys.remove(key);
+            }
+        };
+        paymentApplicationService = new PaymentApplicationService(paymentDomainService, paymentRepository,
+                paymentCallbackRepository, paymentCallbackQueue, idempotencyStore, new PaymentCallbackProperties());
+    }
+
+    @Test
+    @DisplayName("网关重复通知只落库、入队一次，重复通知不访问数据库")
+    void testDuplicateCallbacksFiltered() {
+        // Given
+        when(paymentCallbackRepository.saveIfAbsent(any(PaymentCallback.class))).thenReturn(true);
+        when(paymentCallbackQueue.offer(any(PaymentCallback.class))).thenReturn(true);
+
+        // When
+        int accepted = 0;
+        for (int i = 0; i < 100; i++) {
+            if (paymentApplicationService.receiveCallback(PAYMENT_NO, PaymentEvent.PAY_SUCCESS, "T1")) {
+                accepted++;
+            }
+        }
+
+        // Then
+        assertEquals(1, accepted);
+        ArgumentCaptor<PaymentCallback> captor = ArgumentCaptor.forClass(PaymentCallback.class);
+        verify(paymentCallbackRepository, times(1)).saveIfAbsent(captor.capture());
+        PaymentCallback saved = captor.getValue();
+        assertEquals(PAYMENT_NO, saved.getPaymentNo());
+        assertEquals(PaymentEvent.PAY_SUCCESS, saved.getEvent());
+        assertEquals(PaymentCallbackStatus.PENDING, saved.getStatus());
+        assertNotNull(saved.getNextRetryTime());
+        verify(paymentCallbackQueue, times(1)).offer(saved);
+        verifyNoInteractions(paymentDomainService);
+    }
+
+    @Test
+    @DisplayName("同一支付单的退款通知与支付通知分别去重")
+    void testRefundCallbackNotTreatedAsDuplicate() {
+        // Given
+        when(paymentCallbackRepository.saveIfAbsent(any(PaymentCallback.class))).thenReturn(true);
+        when(paymentCallbackQueue.offer(any(PaymentCallback.class))).thenReturn(true);
+
+        // When
+        boolean pay = paymentApplicationService.receiveCallback(PAYMENT_NO, PaymentEvent.PAY_SUCCESS, "T1");
+        boolean refund = paymentApplicationService.receiveCallback(PAYMENT_NO, PaymentEvent.REFUND_SUCCESS, "T1");
+
+        // Then
+        assertTrue(pay);
+        assertTrue(refund);
+        verify(paymentCallbackRepository, times(2)).saveIfAbsent(any(PaymentCallback.class));
+    }
+
+    @Test
+    @DisplayName("落库失败时释放去重标记，网关重试可以再次接收")
+    void testSaveFailureReleasesDedupKey() {
+        // Given
+        when(paymentCallbackRepository.saveIfAbsent(any(PaymentCallback.class)))
+                .thenThrow(new RuntimeException("数据库不可用"))
+                .thenReturn(true);
+        when(paymentCallbackQueue.offer(any(PaymentCallback.class))).thenReturn(true);
+
+        // When & Then
+        assertThrows(RuntimeException.class,
+                () -> paymentApplicationService.receiveCallback(PAYMENT_NO, PaymentEvent.PAY_SUCCESS, "T1"));
+        assertTrue(paymentApplicationService.receiveCallback(PAYMENT_NO, PaymentEvent.PAY_SUCCESS, "T1"));
+        verify(paymentCallbackQueue, times(1)).offer(any(PaymentCallback.class));
+    }
+
+    @Test
+    @DisplayName("队列已满时仍然应答成功，回调留在库中等待重试任务")
+    void testQueueFullStillAcknowledged() {
+        // Given
+        when(paymentCallbackRepository.saveIfAbsent(any(PaymentCallback.class))).thenReturn(true);
+        when(paymentCallbackQueue.offer(any(PaymentCallback.class))).thenReturn(false);
+
+        // When
+        boolean accepted = paymentApplicationService.receiveCallback(PAYMENT_NO, PaymentEvent.PAY_FAILED, "T2");
+
+        // Then
+        assertTrue(accepted);
+        assertEquals(1, dedupKeys.size());
+    }
+
+    @Test
+    @DisplayName("申请退款不是网关回调事件")
+    void testRejectNonCallbackEvent() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> paymentApplicationService.receiveCallback(PAYMENT_NO, PaymentEvent.APPLY_REFUND, "T1"));
+        verifyNoInteractions(paymentCallbackRepository, paymentCallbackQueue);
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.ddd.application.service;
+
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.example.ddd.domain.model.entity.Product;
+import com.example.ddd.domain.model.valueobject.BizType;
+import com.example.ddd.domain.model.valueobject.ProductStatus;
+import com.example.ddd.domain.repository.ProductRepository;
+import com.example.ddd.domain.repository.ProductSearchRepository;
+import com.example.ddd.domain.repository.ProductSkuRepository;
+import com.example.ddd.interfaces.rest.dto.FileUploadResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * ProductApplicationService 商品列表填充与搜索分页测试
+ *
+ * @author DDD Demo
+ */
+@DisplayName("商品列表批量填充测试")
+@ExtendWith(MockitoExtension.class)
+class ProductApplicationServiceTest {
+
+    @Mock
+    private ProductSkuRepository productSkuRepository;
+
+    @Mock
+    private FileApplicationService fileApplicationService;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductSearchRepository productSearchRepository;
+
+    @InjectMocks
+    private ProductApplicationService productApplicationService;
+
+    @ParameterizedTest(name = "每页 {0} 个商品")
+    @ValueSource(ints = {10, 50, 200})
+    @DisplayName("填充价格库存和主图不查询SKU，主图查询次数与商品数量无关")
+    void testQueryCountIndependentOfPageSize(int pageSize) {
+        // Given
+        List<Product> products = buildProducts(pageSize);
+        when(fileApplicationService.getMainImages(eq(BizType.PRODUCT_IMAGE), anyCollection())).thenReturn(Map.of());
+
+        // When
+        productApplicationService.fillProductPriceAndStock(products);
+
+        // Then
+        verifyNoInteractions(productSkuRepository);
+        verify(fileApplicationService, times(1)).getMainImages(eq(BizType.PRODUCT_IMAGE), anyCollection());
+        verify(fileApplicationService, never()).getMainImage(any(), any());
+    }
+
+    @Test
+    @DisplayName("使用商品表中持久化的汇总，缺失时使用默认值")
+    void testFillUsesPersistedSummary() {
+        // Given
+        List<Product> products = buildProducts(2);
+        products.get(0).setMinPrice(new BigDecimal("9.90"));
+        products.get(0).setTotalStock(15);
+        when(fileApplicationService.getMainImages(eq(BizType.PRODUCT_IMAGE), anyCollection())).thenReturn(Map.of(
+                2L, FileUploadResponse.builder().fileKey("k2").url("http://img/2.jpg").build()
+        ));
+
+        // When
+        productApplicationService.fillProductPriceAndStock(products);
+
+        // Then
+        assertEquals(0, new BigDecimal("9.90").compareTo(products.get(0).getMinPrice()));
+        assertEquals(15, products.get(0).getTotalStock());
+        assertNull(products.get(0).getMainImage());
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(products.get(1).getMinPrice()));
+        assertEquals(0, products.get(1).getTotalStock());
+        assertEquals("http://img/2.jpg", products.get(1).getMainImage());
+    }
+
+    @Test
+    @DisplayName("空列表不发起查询")
+    void testEmptyListSkipsQueries() {
+        productApplicationService.fillProductPriceAndStock(new ArrayList<>());
+
+        verifyNoInteractions(productSkuRepository, fileApplicationService);
+    }
+
+    @Test
+    @DisplayName("搜索分页的总数和分页取自索引，只加载并过滤当前页的商品")
+    void testPageSearchLoadsOnlyCurrentPage() {
+        // Given: 索引命中 5 个，其中 4 已下架但索引尚未刷新
+        when(productSearchRepository.search("手机")).thenReturn(List.of(5L, 4L, 3L, 2L, 1L));
+        Product offSale = onSale(4L);
+        offSale.setStatus(ProductStatus.OFFLINE);
+        when(productRepository.findByIds(List.of(5L, 4L))).thenReturn(List.of(onSale(5L), offSale));
+        when(fileApplicationService.getMainImages(eq(BizType.PRODUCT_IMAGE), anyCollection())).thenReturn(Map.of());
+
+        // When
+        IPage<Product> page = productApplicationService.pageSearchProducts(1L, 2L, "手机");
+
+        // Then: 不再按全部命中回库校验
+        assertEquals(5, page.getTotal());
+        assertEquals(List.of(5L), page.getRecords().stream().map(Product::getId).toList());
+        verify(productRepository, times(1)).findByIds(anyCollection());
+    }
+
+    private Product onSale(Long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setStatus(ProductStatus.ON_SALE);
+        return product;
+    }
+
+    private List<Product> buildProducts(int count) {
+        List<Product> products = new ArrayList<>();
+        for (long i = 1; i <= count; i++) {
+            Product product = new Product();
+            product.setId(i);
+            product.setProductName("商品" + i);
+            products.add(product);
+        }
+        return products;
+    }
+}
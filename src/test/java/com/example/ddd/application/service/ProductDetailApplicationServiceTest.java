@@ -0,0 +1,151 @@
+package com.example.ddd.application.service;
+
+import com.example.ddd.domain.model.entity.Product;
+import com.example.ddd.infrastructure.config.ProductDetailProperties;
+import com.example.ddd.interfaces.rest.exception.NotFoundException;
+import com.example.ddd.interfaces.rest.vo.ProductDetailVO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * ProductDetailApplicationService 并行加载与降级测试
+ *
+ * @author DDD Demo
+ */
+@DisplayName("商品聚合详情并行加载测试")
+@ExtendWith(MockitoExtension.class)
+class ProductDetailApplicationServiceTest {
+
+    @Mock
+    private ProductApplicationService productApplicationService;
+
+    @Mock
+    private ReviewApplicationService reviewApplicationService;
+
+    private ExecutorService executor;
+    private SimpleMeterRegistry meterRegistry;
+    private ProductDetailApplicationService productDetailApplicationService;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        meterRegistry = new SimpleMeterRegistry();
+        ProductDetailProperties properties = new ProductDetailProperties();
+        properties.setPartTimeoutMs(500);
+        properties.getPartTimeouts().put(ProductDetailApplicationService.PART_REVIEW_STATS, 100L);
+        productDetailApplicationService = new ProductDetailApplicationService(
+                productApplicationService, reviewApplicationService, executor, properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("所有部分正常返回时为完整响应")
+    void testAllPartsLoaded() {
+        // Given
+        when(productApplicationService.getProductById(1L)).thenReturn(buildProduct());
+        when(productApplicationService.getProductSkus(1L)).thenReturn(List.of());
+        when(productApplicationService.getProductImageUrls(1L)).thenReturn(List.of("http://img/1.jpg"));
+        when(reviewApplicationService.getReviewStats(1L)).thenReturn(Map.of("total", 3L));
+
+        // When
+        ProductDetailVO detail = productDetailApplicationService.getProductDetail(1L);
+
+        // Then
+        assertFalse(detail.isPartial());
+        assertEquals(1L, detail.getProduct().getId());
+        assertEquals(List.of("http://img/1.jpg"), detail.getImageUrls());
+        assertEquals(3L, detail.getReviewStats().get("total"));
+        assertNotNull(meterRegistry.find("product.detail.part").tag("part", "reviewStats").timer());
+    }
+
+    @Test
+    @DisplayName("评价统计超时降级为部分响应，不阻塞整体")
+    void testSlowReviewStatsDegrades() {
+        // Given
+        when(productApplicationService.getProductById(1L)).thenReturn(buildProduct());
+        when(productApplicationService.getProductSkus(1L)).thenReturn(List.of());
+        when(productApplicationService.getProductImageUrls(1L)).thenReturn(List.of());
+        when(reviewApplicationService.getReviewStats(1L)).thenAnswer(invocation -> {
+            Thread.sleep(2000);
+            return Map.of();
+        });
+
+        // When
+        long start = System.currentTimeMillis();
+        ProductDetailVO detail = productDetailApplicationService.getProductDetail(1L);
+        long elapsed = System.currentTimeMillis() - start;
+
+        // Then
+        assertTrue(elapsed < 1000, "整体耗时应受单部分超时限制，实际: " + elapsed);
+        assertEquals(List.of("reviewStats"), detail.getDegradedParts());
+        assertNull(detail.getReviewStats());
+        assertNotNull(detail.getProduct());
+        assertEquals(1.0, meterRegistry.counter("product.detail.degraded", "part", "reviewStats", "reason", "timeout").count());
+    }
+
+    @Test
+    @DisplayName("某部分抛出异常时降级，其余部分正常返回")
+    void testFailingPartDegrades() {
+        // Given
+        when(productApplicationService.getProductById(1L)).thenReturn(buildProduct());
+        when(productApplicationService.getProductSkus(1L)).thenThrow(new RuntimeException("db down"));
+        when(productApplicationService.getProductImageUrls(1L)).thenReturn(List.of());
+        when(reviewApplicationService.getReviewStats(1L)).thenReturn(Map.of());
+
+        // When
+        ProductDetailVO detail = productDetailApplicationService.getProductDetail(1L);
+
+        // Then
+        assertEquals(List.of("skus"), detail.getDegradedParts());
+        assertNotNull(detail.getImageUrls());
+    }
+
+    @Test
+    @DisplayName("商品不存在时返回404")
+    void testProductNotFound() {
+        // Given
+        when(productApplicationService.getProductById(1L)).thenReturn(null);
+
+        // When & Then
+        assertThrows(NotFoundException.class, () -> productDetailApplicationService.getProductDetail(1L));
+    }
+
+    @Test
+    @DisplayName("商品加载失败时原样抛出异常，不包装为通用异常")
+    void testProductFailurePropagates() {
+        // Given
+        IllegalStateException failure = new IllegalStateException("db down");
+        when(productApplicationService.getProductById(1L)).thenThrow(failure);
+
+        // When & Then
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> productDetailApplicationService.getProductDetail(1L));
+        assertSame(failure, thrown);
+        assertNotNull(meterRegistry.find("product.detail.part").tag("part", "product").tag("outcome", "error").timer());
+    }
+
+    private Product buildProduct() {
+        Product product = new Product();
+        product.setId(1L);
+        product.setProductName("商品1");
+        return product;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.ddd.application.service;
+
+import com.example.ddd.domain.model.entity.ReviewStats;
+import com.example.ddd.domain.repository.ReviewReplyRepository;
+import com.example.ddd.domain.repository.ReviewRepository;
+import com.example.ddd.domain.repository.ReviewStatsRepository;
+import com.example.ddd.domain.service.ReviewDomainService;
+import com.example.ddd.infrastructure.config.ReviewStatsProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ReviewApplicationService 评价统计测试
+ *
+ * @author DDD Demo
+ */
+@DisplayName("评价统计测试")
+@ExtendWith(MockitoExtension.class)
+class ReviewApplicationServiceTest {
+
+    @Mock
+    private ReviewDomainService reviewDomainService;
+
+    @Mock
+    private ReviewRepository reviewRepository;
+
+    @Mock
+    private ReviewReplyRepository reviewReplyRepository;
+
+    @Mock
+    private ReviewStatsRepository reviewStatsRepository;
+
+    private final ReviewStatsProperties properties = new ReviewStatsProperties();
+    private ReviewApplicationService reviewApplicationService;
+
+    @BeforeEach
+    void setUp() {
+        reviewApplicationService = new ReviewApplicationService(reviewDomainService, reviewRepository,
+                reviewReplyRepository, reviewStatsRepository, properties);
+    }
+
+    @Test
+    @DisplayName("评价统计只读取一次预计算统计，不再 COUNT 评价表")
+    void testGetReviewStatsReadsPrecomputedRow() {
+        // Given
+        ReviewStats stats = ReviewStats.empty(1L);
+        stats.setReviewCount(4L);
+        stats.setPositiveCount(3L);
+        stats.setRating2Count(1L);
+        stats.setRating4Count(1L);
+        stats.setRating5Count(2L);
+        stats.setRatingSum(16L);
+        when(reviewStatsRepository.findByProductId(1L)).thenReturn(stats);
+
+        // When
+        Map<String, Object> result = reviewApplicationService.getReviewStats(1L);
+
+        // Then
+        assertEquals(4L, result.get("total"));
+        assertEquals(3L, result.get("positive"));
+        assertEquals(75.0, result.get("positiveRate"));
+        assertEquals(4.0, result.get("averageRating"));
+        assertEquals(Map.of(1, 0L, 2, 1L, 3, 0L, 4, 1L, 5, 2L), result.get("ratingDistribution"));
+        verify(reviewStatsRepository, times(1)).findByProductId(1L);
+        verifyNoInteractions(reviewRepository, reviewDomainService);
+    }
+
+    @Test
+    @DisplayName("没有评价的商品好评率为 100，平均分为 0")
+    void testGetReviewStatsWithoutReviews() {
+        // Given
+        when(reviewStatsRepository.findByProductId(2L)).thenReturn(ReviewStats.empty(2L));
+
+        // When
+        Map<String, Object> result = reviewApplicationService.getReviewStats(2L);
+
+        // Then
+        assertEquals(0L, result.get("total"));
+        assertEquals(100.0, result.get("positiveRate"));
+        assertEquals(0.0, result.get("averageRating"));
+    }
+
+    @Test
+    @DisplayName("按商品ID分批重建统计，直到取不满一批")
+    void testRebuildReviewStatsInBatches() {
+        // Given
+        properties.setRebuildBatchSize(2);
+        when(reviewRepository.findProductIdsAfter(isNull(), eq(2))).thenReturn(List.of(1L, 2L));
+        when(reviewRepository.findProductIdsAfter(2L, 2)).thenReturn(List.of(3L));
+
+        // When
+        int count = reviewApplicationService.rebuildReviewStats();
+
+        // Then
+        assertEquals(3, count);
+        verify(reviewStatsRepository).rebuild(List.of(1L, 2L));
+        verify(reviewStatsRepository).rebuild(List.of(3L));
+        verify(reviewRepository, times(2)).findProductIdsAfter(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("评价已全部删除的商品统计清零")
+    void testRebuildResetsStatsWithoutReviews() {
+        // Given: 商品 1 仍有评价，商品 5、7 的评价已全部删除但统计仍有数
+        properties.setRebuildBatchSize(2);
+        when(reviewRepository.findProductIdsAfter(isNull(), eq(2))).thenReturn(List.of(1L));
+        when(reviewStatsRepository.findStaleProductIdsAfter(isNull(), eq(2))).thenReturn(List.of(5L, 7L));
+        when(reviewStatsRepository.findStaleProductIdsAfter(7L, 2)).thenReturn(List.of());
+
+        // When
+        int count = reviewApplicationService.rebuildReviewStats();
+
+        // Then
+        assertEquals(3, count);
+        verify(reviewStatsRepository).rebuild(List.of(1L));
+        verify(reviewStatsRepository).reset(List.of(5L, 7L));
+        verify(reviewStatsRepository, times(1)).reset(anyCollection());
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.ddd.domain.model.valueobject;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * KeysetCursor 值对象单元测试
+ *
+ * @author DDD Demo
+ */
+@DisplayName("KeysetCursor 值对象测试")
+class KeysetCursorTest {
+
+    @Test
+    @DisplayName("编码后解码应该得到相同的游标")
+    void testEncodeDecode() {
+        // Given
+        KeysetCursor cursor = KeysetCursor.of(LocalDateTime.of(2024, 5, 1, 12, 30, 15), 1024L);
+
+        // When
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+        // Then
+        assertEquals(cursor, decoded);
+    }
+
+    @Test
+    @DisplayName("空游标表示第一页")
+    void testDecodeBlank() {
+        assertNull(KeysetCursor.decode(null));
+        assertNull(KeysetCursor.decode(""));
+    }
+
+    @Test
+    @DisplayName("无效游标应该抛出异常")
+    void testDecodeInvalid() {
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> KeysetCursor.decode("not-a-cursor")
+        );
+        assertTrue(exception.getMessage().contains("无效的分页游标"));
+    }
+}
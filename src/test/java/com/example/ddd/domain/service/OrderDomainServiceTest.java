@@ -0,0 +1,368 @@
+package com.example.ddd.domain.service;
+
+import com.example.ddd.domain.model.entity.Order;
+import com.example.ddd.domain.model.entity.OrderItem;
+import com.example.ddd.domain.model.entity.OrderStatusLog;
+import com.example.ddd.domain.model.entity.Product;
+import com.example.ddd.domain.model.entity.ProductSku;
+import com.example.ddd.domain.model.valueobject.Money;
+import com.example.ddd.domain.model.valueobject.OrderEvent;
+import com.example.ddd.domain.model.valueobject.OrderStatus;
+import com.example.ddd.domain.model.valueobject.ProductStatus;
+import com.example.ddd.domain.repository.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * OrderDomainService 批量下单与状态转换测试
+ *
+ * @author DDD Demo
+ */
+@DisplayName("订单领域服务测试")
+@ExtendWith(MockitoExtension.class)
+class OrderDomainServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private LogSink<OrderStatusLog> orderStatusLogSink;
+
+    @Mock
+    private CartItemRepository cartItemRepository;
+
+    @Mock
+    private ProductSkuRepository productSkuRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private StockReservationDomainService stockReservationDomainService;
+
+    @Mock
+    private IdGenerator idGenerator;
+
+    @Mock
+    private OrderTimeoutQueue orderTimeoutQueue;
+
+    @InjectMocks
+    private OrderDomainService orderDomainService;
+
+    @ParameterizedTest(name = "{0} 个明细")
+    @ValueSource(ints = {1, 10, 50})
+    @DisplayName("仓储调用次数与明细数量无关")
+    void testRepositoryCallsIndependentOfItemCount(int itemCount) {
+        // Given
+        List<OrderItem> items = buildItems(itemCount);
+        List<Long> cartItemIds = new ArrayList<>();
+        for (long i = 1; i <= itemCount; i++) {
+            cartItemIds.add(i);
+        }
+        stubCatalog(itemCount);
+        when(productSkuRepository.deductStockBatch(anyMap())).thenReturn(true);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            order.setId(100L);
+            return order;
+        });
+
+        // When
+        Order order = orderDomainService.createOrder(new Order(), items, cartItemIds);
+
+        // Then
+        assertEquals(100L, order.getId());
+        verify(productRepository, times(1)).findByIds(anyCollection());
+        verify(productSkuRepository, times(1)).findByIds(anyCollection());
+        verify(productSkuRepository, times(1)).deductStockBatch(anyMap());
+        verify(productSkuRepository, never()).findById(anyLong());
+        verify(orderItemRepository, times(1)).saveBatch(items);
+        verify(orderItemRepository, never()).save(any());
+        verify(cartItemRepository, times(1)).physicalDeleteByIds(cartItemIds);
+        verify(cartItemRepository, never()).physicalDeleteById(anyLong());
+        assertTrue(items.stream().allMatch(item -> item.getOrderId() == 100L));
+    }
+
+    @Test
+    @DisplayName("同一SKU的多个明细合并数量后扣减")
+    void testSameSkuQuantitiesMerged() {
+        // Given
+        List<OrderItem> items = buildItems(2);
+        items.get(1).setSkuId(items.get(0).getSkuId());
+        items.get(1).setProductId(items.get(0).getProductId());
+        stubCatalog(1);
+        when(productSkuRepository.deductStockBatch(anyMap())).thenReturn(true);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        orderDomainService.createOrder(new Order(), items, List.of());
+
+        // Then
+        verify(productSkuRepository).deductStockBatch(Map.of(1L, 4));
+        verifyNoInteractions(cartItemRepository);
+    }
+
+    @Test
+    @DisplayName("批量扣减失败时抛出库存不足，不保存订单")
+    void testInsufficientStock() {
+        // Given
+        List<OrderItem> items = buildItems(3);
+        stubCatalog(3);
+        when(productSkuRepository.deductStockBatch(anyMap())).thenReturn(false);
+
+        // When & Then
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> orderDomainService.createOrder(new Order(), items, List.of()));
+        assertEquals("商品库存不足", e.getMessage());
+        verifyNoInteractions(orderRepository, orderItemRepository);
+    }
+
+    @Test
+    @DisplayName("下单后按支付截止时间加入超时队列")
+    void testCreateOrderSchedulesTimeout() {
+        // Given
+        List<OrderItem> items = buildItems(1);
+        stubCatalog(1);
+        when(productSkuRepository.deductStockBatch(anyMap())).thenReturn(true);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            order.setId(100L);
+            return order;
+        });
+        LocalDateTime before = LocalDateTime.now().plusMinutes(Order.PAY_TIMEOUT_MINUTES);
+
+        // When
+        orderDomainService.createOrder(new Order(), items, List.of());
+
+        // Then
+        ArgumentCaptor<LocalDateTime> deadline = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(orderTimeoutQueue).add(eq(100L), deadline.capture());
+        assertFalse(deadline.getValue().isBefore(before));
+    }
+
+    @Test
+    @DisplayName("超时取消跳过已支付的订单")
+    void testCancelTimeoutOrderSkipsPaidOrder() {
+        // Given
+        when(orderRepository.transitionStatus(eq(1L), eq(OrderEvent.CANCEL), any(LocalDateTime.class))).thenReturn(0);
+
+        // When
+        boolean cancelled = orderDomainService.cancelTimeoutOrder(1L);
+
+        // Then
+        assertFalse(cancelled);
+        verify(orderRepository, never()).findById(anyLong());
+        verify(orderRepository, never()).update(any());
+        verifyNoInteractions(productSkuRepository, orderItemRepository, orderStatusLogSink);
+    }
+
+    @Test
+    @DisplayName("超时取消待支付订单并恢复库存")
+    void testCancelTimeoutOrderRestoresStock() {
+        // Given
+        when(orderRepository.transitionStatus(eq(1L), eq(OrderEvent.CANCEL), any(LocalDateTime.class))).thenReturn(1);
+        when(orderItemRepository.findByOrderId(1L)).thenReturn(buildItems(2));
+
+        // When
+        boolean cancelled = orderDomainService.cancelTimeoutOrder(1L);
+
+        // Then
+        assertTrue(cancelled);
+        verify(productSkuRepository, times(2)).increaseStock(anyLong(), eq(2));
+        verify(orderRepository, never()).update(any());
+    }
+
+    @Test
+    @DisplayName("状态不允许时按当前状态给出错误信息")
+    void testTransitionRejectedWithCurrentStatus() {
+        // Given
+        Order order = new Order();
+        order.setId(1L);
+        order.setStatus(OrderStatus.PENDING);
+        when(orderRepository.transitionStatus(eq(1L), eq(OrderEvent.SHIP), any(LocalDateTime.class))).thenReturn(0);
+        when(orderRepository.findById(1L)).thenReturn(order);
+
+        // When & Then
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> orderDomainService.shipOrder(1L));
+        assertTrue(e.getMessage().startsWith("当前状态（待支付）不允许执行【发货】操作"));
+        verifyNoInteractions(orderStatusLogSink);
+    }
+
+    @Test
+    @DisplayName("并发支付与超时取消同一订单，每轮只有一个成功，库存只在取消成功时恢复")
+    void testConcurrentPayAndCancelOnlyOneWins() throws Exception {
+        // Given
+        AtomicReference<OrderStatus> row = stubRowStatus();
+        lenient().when(orderItemRepository.findByOrderId(1L)).thenReturn(buildItems(1));
+        int rounds = 200;
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        int cancelWins = 0;
+
+        try {
+            for (int round = 0; round < rounds; round++) {
+                row.set(OrderStatus.PENDING);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Boolean>> futures = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    boolean pay = t % 2 == 0;
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        if (!pay) {
+                            return orderDomainService.cancelTimeoutOrder(1L);
+                        }
+                        try {
+                            orderDomainService.payOrder(1L);
+                            return true;
+                        } catch (IllegalArgumentException e) {
+                            return false;
+                        }
+                    }));
+                }
+
+                // When
+                start.countDown();
+                int winners = 0;
+                for (Future<Boolean> future : futures) {
+                    if (future.get()) {
+                        winners++;
+                    }
+                }
+
+                // Then
+                assertEquals(1, winners, "第 " + round + " 轮应只有一个转换成功");
+                if (row.get() == OrderStatus.CANCELLED) {
+                    cancelWins++;
+                } else {
+                    assertEquals(OrderStatus.PAID, row.get());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(productSkuRepository, times(cancelWins)).increaseStock(1L, 2);
+        verify(orderStatusLogSink, times(rounds)).append(any());
+    }
+
+    @Test
+    @DisplayName("并发重复发货只有一次成功")
+    void testConcurrentShipOnlyOnce() throws Exception {
+        // Given
+        AtomicReference<OrderStatus> row = stubRowStatus();
+        row.set(OrderStatus.PAID);
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger successes = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        try {
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        orderDomainService.shipOrder(1L);
+                        successes.incrementAndGet();
+                    } catch (IllegalArgumentException ignored) {
+                        // 状态已被其他线程变更
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        assertEquals(1, successes.get());
+        assertEquals(OrderStatus.SHIPPED, row.get());
+        verify(orderStatusLogSink, times(1)).append(any());
+    }
+
+    /**
+     * 用原子引用模拟数据库中订单行的状态，条件更新按源状态比较并交换；
+     * 与实际语句 UPDATE ... WHERE id = ? AND status IN (源状态) 的对应关系由 OrderRepositoryImplTest 校验
+     */
+    private AtomicReference<OrderStatus> stubRowStatus() {
+        AtomicReference<OrderStatus> row = new AtomicReference<>();
+        when(orderRepository.transitionStatus(eq(1L), any(OrderEvent.class), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> {
+                    OrderEvent event = invocation.getArgument(1);
+                    OrderStatus current = row.get();
+                    boolean updated = OrderStatus.sourceStatesOf(event).contains(current)
+                            && row.compareAndSet(current, OrderStatus.targetOf(event));
+                    return updated ? 1 : 0;
+                });
+        lenient().when(orderRepository.findById(1L)).thenAnswer(invocation -> {
+            Order order = new Order();
+            order.setId(1L);
+            order.setStatus(row.get());
+            return order;
+        });
+        return row;
+    }
+
+    private void stubCatalog(int count) {
+        List<Product> products = new ArrayList<>();
+        List<ProductSku> skus = new ArrayList<>();
+        for (long i = 1; i <= count; i++) {
+            Product product = new Product();
+            product.setId(i);
+            product.setProductName("商品" + i);
+            product.setStatus(ProductStatus.ON_SALE);
+            products.add(product);
+
+            ProductSku sku = new ProductSku();
+            sku.setId(i);
+            sku.setProductId(i);
+            skus.add(sku);
+        }
+        when(productRepository.findByIds(anyCollection())).thenReturn(products);
+        when(productSkuRepository.findByIds(anyCollection())).thenReturn(skus);
+    }
+
+    private List<OrderItem> buildItems(int count) {
+        List<OrderItem> items = new ArrayList<>();
+        for (long i = 1; i <= count; i++) {
+            OrderItem item = new OrderItem();
+            item.setProductId(i);
+            item.setSkuId(i);
+            item.setQuantity(2);
+            item.setPrice(Money.of("10.00"));
+            items.add(item);
+        }
+        return items;
+    }
+}
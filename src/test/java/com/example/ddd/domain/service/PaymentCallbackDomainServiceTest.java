@@ -0,0 +1,128 @@
+package com.example.ddd.domain.service;
+
+import com.example.ddd.domain.model.entity.Payment;
+import com.example.ddd.domain.model.entity.PaymentCallback;
+import com.example.ddd.domain.model.valueobject.PaymentCallbackStatus;
+import com.example.ddd.domain.model.valueobject.PaymentEvent;
+import com.example.ddd.domain.model.valueobject.PaymentStatus;
+import com.example.ddd.domain.repository.PaymentCallbackRepository;
+import com.example.ddd.domain.repository.PaymentRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * PaymentCallbackDomainService 回调处理结果测试
+ *
+ * @author DDD Demo
+ */
+@DisplayName("支付回调处理结果测试")
+@ExtendWith(MockitoExtension.class)
+class PaymentCallbackDomainServiceTest {
+
+    private static final String PAYMENT_NO = "PAY1";
+
+    @Mock
+    private PaymentDomainService paymentDomainService;
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private PaymentCallbackRepository paymentCallbackRepository;
+
+    @InjectMocks
+    private PaymentCallbackDomainService paymentCallbackDomainService;
+
+    @Test
+    @DisplayName("退款回调处理成功后记录为已处理")
+    void testRefundCallbackSucceeded() {
+        // When
+        paymentCallbackDomainService.process(callback(PaymentEvent.REFUND_SUCCESS, "R1"));
+
+        // Then
+        verify(paymentDomainService).handleRefundSuccess(PAYMENT_NO);
+        verify(paymentCallbackRepository).markFinished(1L, PaymentCallbackStatus.SUCCEEDED, null);
+    }
+
+    @Test
+    @DisplayName("重试时回调已经生效（同一流水号已支付成功），记录为已处理而不是拒绝")
+    void testAlreadyAppliedTreatedAsSucceeded() {
+        // Given
+        doThrow(new IllegalArgumentException("支付已变更")).when(paymentDomainService).handlePaymentSuccess(PAYMENT_NO, "T1");
+        when(paymentRepository.findByPaymentNo(PAYMENT_NO)).thenReturn(payment(PaymentStatus.SUCCESS, "T1"));
+
+        // When
+        paymentCallbackDomainService.process(callback(PaymentEvent.PAY_SUCCESS, "T1"));
+
+        // Then
+        verify(paymentCallbackRepository).markFinished(1L, PaymentCallbackStatus.SUCCEEDED, null);
+    }
+
+    @Test
+    @DisplayName("支付状态不允许该回调时记录为已拒绝，不再重试")
+    void testRejectedCallback() {
+        // Given
+        doThrow(new IllegalArgumentException("支付已终态")).when(paymentDomainService).handlePaymentSuccess(PAYMENT_NO, "T2");
+        when(paymentRepository.findByPaymentNo(PAYMENT_NO)).thenReturn(payment(PaymentStatus.FAILED, null));
+
+        // When
+        paymentCallbackDomainService.process(callback(PaymentEvent.PAY_SUCCESS, "T2"));
+
+        // Then
+        verify(paymentCallbackRepository).markFinished(1L, PaymentCallbackStatus.REJECTED, "支付已终态");
+    }
+
+    @Test
+    @DisplayName("数据库异常原样抛出，由调用方安排重试")
+    void testTransientFailurePropagates() {
+        // Given
+        doThrow(new RuntimeException("数据库不可用")).when(paymentDomainService).handlePaymentFailed(PAYMENT_NO);
+
+        // When & Then
+        assertThrows(RuntimeException.class,
+                () -> paymentCallbackDomainService.process(callback(PaymentEvent.PAY_FAILED, "T3")));
+        verify(paymentCallbackRepository, never()).markFinished(anyLong(), any(), any());
+    }
+
+    @Test
+    @DisplayName("同一支付单有更早的回调待处理时不处理，等待更早的回调先生效")
+    void testDeferredBehindEarlierPendingCallback() {
+        // Given
+        when(paymentCallbackRepository.existsEarlierPending(PAYMENT_NO, 1L)).thenReturn(true);
+
+        // When
+        boolean processed = paymentCallbackDomainService.process(callback(PaymentEvent.REFUND_SUCCESS, "R2"));
+
+        // Then
+        assertFalse(processed);
+        verifyNoInteractions(paymentDomainService);
+        verify(paymentCallbackRepository, never()).markFinished(anyLong(), any(), any());
+    }
+
+    private PaymentCallback callback(PaymentEvent event, String transactionId) {
+        PaymentCallback callback = new PaymentCallback();
+        callback.setId(1L);
+        callback.setPaymentNo(PAYMENT_NO);
+        callback.setEvent(event);
+        callback.setTransactionId(transactionId);
+        callback.setStatus(PaymentCallbackStatus.PENDING);
+        callback.setRetryCount(0);
+        return callback;
+    }
+
+    private Payment payment(PaymentStatus status, String transactionId) {
+        Payment payment = new Payment();
+        payment.setPaymentNo(PAYMENT_NO);
+        payment.setStatus(status);
+        payment.setTransactionId(transactionId);
+        return payment;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.ddd.domain.service;
+
+import com.example.ddd.domain.model.entity.Payment;
+import com.example.ddd.domain.model.valueobject.OrderEvent;
+import com.example.ddd.domain.model.valueobject.PaymentEvent;
+import com.example.ddd.domain.model.valueobject.PaymentStatus;
+import com.example.ddd.domain.repository.OrderRepository;
+import com.example.ddd.domain.repository.PaymentRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * PaymentDomainService 条件更新状态转换测试
+ *
+ * @author DDD Demo
+ */
+@DisplayName("支付状态条件更新测试")
+@ExtendWith(MockitoExtension.class)
+class PaymentDomainServiceTest {
+
+    private static final String PAYMENT_NO = "PAY1";
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private IdGenerator idGenerator;
+
+    @InjectMocks
+    private PaymentDomainService paymentDomainService;
+
+    @Test
+    @DisplayName("支付记录不存在时提示不存在")
+    void testPaymentNotFound() {
+        // Given
+        when(paymentRepository.markPaySuccess(eq(PAYMENT_NO), eq("T1"), any(LocalDateTime.class))).thenReturn(0);
+        when(paymentRepository.findByPaymentNo(PAYMENT_NO)).thenReturn(null);
+
+        // When & Then
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> paymentDomainService.handlePaymentSuccess(PAYMENT_NO, "T1"));
+        assertEquals("支付记录不存在", e.getMessage());
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    @DisplayName("并发的支付成功与支付失败回调每轮只有一个生效，订单只在支付成功时更新")
+    void testConcurrentCallbacksOnlyOneWins() throws Exception {
+        // Given
+        AtomicReference<PaymentStatus> row = new AtomicReference<>();
+        when(paymentRepository.markPaySuccess(eq(PAYMENT_NO), anyString(), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> compareAndSet(row, PaymentEvent.PAY_SUCCESS));
+        when(paymentRepository.transitionStatus(PAYMENT_NO, PaymentEvent.PAY_FAILED))
+                .thenAnswer(invocation -> compareAndSet(row, PaymentEvent.PAY_FAILED));
+        when(paymentRepository.findByPaymentNo(PAYMENT_NO)).thenAnswer(invocation -> {
+            Payment payment = new Payment();
+            payment.setPaymentNo(PAYMENT_NO);
+            payment.setOrderId(1L);
+            payment.setStatus(row.get());
+            return payment;
+        });
+        int rounds = 200;
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        int successWins = 0;
+
+        try {
+            for (int round = 0; round < rounds; round++) {
+                row.set(PaymentStatus.PENDING);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Boolean>> futures = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    boolean success = t % 2 == 0;
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        try {
+                            if (success) {
+                                paymentDomainService.handlePaymentSuccess(PAYMENT_NO, "T1");
+                            } else {
+                                paymentDomainService.handlePaymentFailed(PAYMENT_NO);
+                            }
+                            return true;
+                        } catch (IllegalArgumentException e) {
+                            return false;
+                        }
+                    }));
+                }
+
+                // When
+                start.countDown();
+                int winners = 0;
+                for (Future<Boolean> future : futures) {
+                    if (future.get()) {
+                        winners++;
+                    }
+                }
+
+                // Then
+                assertEquals(1, winners, "第 " + round + " 轮应只有一个回调生效");
+                if (row.get() == PaymentStatus.SUCCESS) {
+                    successWins++;
+                } else {
+                    assertEquals(PaymentStatus.FAILED, row.get());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(orderRepository, times(successWins)).transitionStatus(eq(1L), eq(OrderEvent.PAY), any(LocalDateTime.class));
+    }
+
+    /**
+     * 模拟数据库条件更新：当前状态属于事件的源状态时交换为目标状态；
+     * 与实际语句 UPDATE ... WHERE status IN (源状态) AND ... 的对应关系由 PaymentRepositoryImplTest 校验
+     */
+    private int compareAndSet(AtomicReference<PaymentStatus> row, PaymentEvent event) {
+        PaymentStatus current = row.get();
+        boolean updated = PaymentStatus.sourceStatesOf(event).contains(current)
+                && row.compareAndSet(current, PaymentStatus.targetOf(event));
+        return updated ? 1 : 0;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.ddd.domain.service;
+
+import com.example.ddd.domain.model.entity.ProductSku;
+import com.example.ddd.domain.model.valueobject.Quantity;
+import com.example.ddd.domain.model.valueobject.StockReservation;
+import com.example.ddd.domain.repository.FlashSaleStockRepository;
+import com.example.ddd.domain.repository.ProductSkuRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * StockReservationDomainService 秒杀预扣与回写测试
+ *
+ * @author DDD Demo
+ */
+@DisplayName("秒杀库存预扣与回写测试")
+@ExtendWith(MockitoExtension.class)
+class StockReservationDomainServiceTest {
+
+    @Mock
+    private FlashSaleStockRepository flashSaleStockRepository;
+
+    @Mock
+    private ProductSkuRepository productSkuRepository;
+
+    @InjectMocks
+    private StockReservationDomainService stockReservationDomainService;
+
+    @Test
+    @DisplayName("非秒杀SKU返回 false，由调用方走数据库扣减")
+    void testNotFlashSale() {
+        // Given
+        when(flashSaleStockRepository.reserve(1L, 2)).thenReturn(StockReservation.NOT_FLASH_SALE);
+
+        // When & Then
+        assertFalse(stockReservationDomainService.tryReserve(1L, 2));
+    }
+
+    @Test
+    @DisplayName("秒杀库存不足时抛出异常")
+    void testInsufficient() {
+        // Given
+        when(flashSaleStockRepository.reserve(1L, 2)).thenReturn(StockReservation.INSUFFICIENT);
+
+        // When & Then
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> stockReservationDomainService.tryReserve(1L, 2));
+        assertEquals("商品库存不足", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("预扣成功不访问数据库")
+    void testReservedSkipsDatabase() {
+        // Given
+        when(flashSaleStockRepository.reserve(1L, 2)).thenReturn(StockReservation.RESERVED);
+
+        // When & Then
+        assertTrue(stockReservationDomainService.tryReserve(1L, 2));
+        verifyNoInteractions(productSkuRepository);
+    }
+
+    @Test
+    @DisplayName("回写按SKU合并为一次增量更新")
+    void testFlushPendingAppliesDelta() {
+        // Given
+        when(flashSaleStockRepository.findSkuIds()).thenReturn(Set.of(1L, 2L));
+        when(flashSaleStockRepository.takePending(1L)).thenReturn(30);
+        when(flashSaleStockRepository.takePending(2L)).thenReturn(0);
+        when(productSkuRepository.adjustStock(1L, -30)).thenReturn(1);
+
+        // When
+        int flushed = stockReservationDomainService.flushPending();
+
+        // Then
+        assertEquals(1, flushed);
+        verify(productSkuRepository, times(1)).adjustStock(1L, -30);
+        verify(productSkuRepository, never()).adjustStock(eq(2L), anyInt());
+        verify(flashSaleStockRepository, never()).restorePending(anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("回写失败时把待回写量加回去")
+    void testFlushFailureRestoresPending() {
+        // Given
+        when(flashSaleStockRepository.findSkuIds()).thenReturn(Set.of(1L));
+        when(flashSaleStockRepository.takePending(1L)).thenReturn(5);
+        when(productSkuRepository.adjustStock(1L, -5)).thenThrow(new RuntimeException("db down"));
+
+        // When
+        int flushed = stockReservationDomainService.flushPending();
+
+        // Then
+        assertEquals(0, flushed);
+        verify(flashSaleStockRepository).restorePending(1L, 5);
+    }
+
+    @Test
+    @DisplayName("对账按批量查询读取数据库库存，不走按ID缓存")
+    void testReconcileReadsDatabaseStock() {
+        // Given
+        ProductSku sku = new ProductSku();
+        sku.setId(1L);
+        sku.setStock(Quantity.of(100));
+        when(flashSaleStockRepository.findSkuIds()).thenReturn(Set.of(1L));
+        when(productSkuRepository.findByIds(Set.of(1L))).thenReturn(List.of(sku));
+        when(flashSaleStockRepository.reconcile(1L, 100, false)).thenReturn(-5);
+
+        // When
+        Map<Long, Integer> mismatches = stockReservationDomainService.reconcile(false);
+
+        // Then
+        assertEquals(Map.of(1L, -5), mismatches);
+        verify(productSkuRepository, never()).findById(any());
+    }
+}
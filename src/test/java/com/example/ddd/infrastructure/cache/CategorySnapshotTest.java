@@ -0,0 +1,96 @@
+package com.example.ddd.infrastructure.cache;
+
+import com.example.ddd.domain.model.entity.Category;
+import com.example.ddd.domain.model.valueobject.CategoryTree;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CategorySnapshot 单元测试
+ *
+ * @author DDD Demo
+ */
+@DisplayName("分类快照测试")
+class CategorySnapshotTest {
+
+    @Test
+    @DisplayName("子树包含自身和所有子孙分类")
+    void testSubtreeIds() {
+        // Given
+        CategorySnapshot snapshot = CategorySnapshot.build(List.of(
+                category(1L, 0L),
+                category(2L, 1L),
+                category(3L, 2L),
+                category(4L, 1L),
+                category(5L, 0L)
+        ));
+
+        // When & Then
+        assertEquals(Set.of(1L, 2L, 3L, 4L), new HashSet<>(snapshot.getSubtreeIds(1L)));
+        assertEquals(Set.of(2L, 3L), new HashSet<>(snapshot.getSubtreeIds(2L)));
+        assertEquals(List.of(5L), snapshot.getSubtreeIds(5L));
+    }
+
+    @Test
+    @DisplayName("不存在的分类返回空列表")
+    void testUnknownCategory() {
+        CategorySnapshot snapshot = CategorySnapshot.build(List.of(category(1L, 0L)));
+
+        assertTrue(snapshot.getSubtreeIds(99L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("父子关系成环时不会无限递归")
+    void testCycle() {
+        CategorySnapshot snapshot = CategorySnapshot.build(List.of(category(1L, 2L), category(2L, 1L)));
+
+        assertTrue(snapshot.getSubtreeIds(1L).contains(1L));
+        assertTrue(snapshot.getSubtreeIds(2L).contains(2L));
+    }
+
+    @Test
+    @DisplayName("分类树挂载子分类且不可修改")
+    void testTreeChildrenAttached() {
+        // Given
+        List<Category> categories = List.of(category(1L, 0L), category(2L, 1L), category(3L, 2L), category(4L, 0L));
+
+        // When
+        CategoryTree tree = CategorySnapshot.buildTree(categories);
+
+        // Then
+        assertEquals(2, tree.getRoots().size());
+        Category root = tree.getRoots().get(0);
+        assertEquals(1L, root.getId());
+        assertEquals(2L, root.getChildren().get(0).getId());
+        assertEquals(3L, root.getChildren().get(0).getChildren().get(0).getId());
+        assertTrue(tree.getRoots().get(1).getChildren().isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> root.getChildren().add(new Category()));
+        assertNull(categories.get(0).getChildren());
+    }
+
+    @Test
+    @DisplayName("分类内容不变时版本不变，内容变化时版本变化")
+    void testTreeVersion() {
+        String version = CategorySnapshot.buildTree(List.of(category(1L, 0L), category(2L, 1L))).getVersion();
+
+        assertEquals(version, CategorySnapshot.buildTree(List.of(category(1L, 0L), category(2L, 1L))).getVersion());
+
+        Category renamed = category(2L, 1L);
+        renamed.setCategoryName("新名称");
+        assertNotEquals(version, CategorySnapshot.buildTree(List.of(category(1L, 0L), renamed)).getVersion());
+    }
+
+    private Category category(Long id, Long parentId) {
+        Category category = new Category();
+        category.setId(id);
+        category.setParentId(parentId);
+        category.setCategoryName("分类" + id);
+        return category;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.ddd.infrastructure.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LocalCache 单元测试
+ *
+ * @author DDD Demo
+ */
+@DisplayName("本地缓存测试")
+class LocalCacheTest {
+
+    private final AtomicLong now = new AtomicLong(0);
+
+    @Test
+    @DisplayName("超过最大条目数时淘汰最久未访问的条目")
+    void testEvictLeastRecentlyUsed() {
+        // Given
+        LocalCache<Long, String> cache = new LocalCache<>(2, 1000, now::get);
+        cache.put(1L, "a");
+        cache.put(2L, "b");
+        cache.get(1L);
+
+        // When
+        cache.put(3L, "c");
+
+        // Then
+        assertEquals(2, cache.size());
+        assertEquals("a", cache.get(1L));
+        assertNull(cache.get(2L));
+        assertEquals("c", cache.get(3L));
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    @DisplayName("写入超过TTL后失效，读取不延长有效期")
+    void testExpireAfterWrite() {
+        // Given
+        LocalCache<Long, String> cache = new LocalCache<>(10, 1000, now::get);
+        cache.put(1L, "a");
+
+        // When
+        now.set(999);
+        String beforeExpire = cache.get(1L);
+        now.set(1000);
+        String afterExpire = cache.get(1L);
+
+        // Then
+        assertEquals("a", beforeExpire);
+        assertNull(afterExpire);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("统计命中率")
+    void testHitRatio() {
+        // Given
+        LocalCache<Long, String> cache = new LocalCache<>(10, 1000, now::get);
+        assertEquals(0D, cache.getHitRatio());
+        cache.put(1L, "a");
+
+        // When
+        cache.get(1L);
+        cache.get(1L);
+        cache.get(1L);
+        cache.get(2L);
+
+        // Then
+        assertEquals(3, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.75D, cache.getHitRatio(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("删除后读取不到")
+    void testInvalidate() {
+        LocalCache<Long, String> cache = new LocalCache<>(10, 1000, now::get);
+        cache.put(1L, "a");
+
+        cache.invalidate(1L);
+
+        assertNull(cache.get(1L));
+    }
+}
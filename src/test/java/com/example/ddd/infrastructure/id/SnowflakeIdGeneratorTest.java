@@ -0,0 +1,118 @@
+package com.example.ddd.infrastructure.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SnowflakeIdGenerator 唯一性与单调性测试
+ *
+ * @author DDD Demo
+ */
+@DisplayName("雪花ID生成器测试")
+class SnowflakeIdGeneratorTest {
+
+    @Test
+    @DisplayName("多线程并发生成的ID无重复，且每个线程内单调递增")
+    void testNoCollisionAcrossThreads() throws Exception {
+        // Given
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+        int threads = 8;
+        int perThread = 250_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // When
+        Future<?>[] futures = new Future<?>[threads];
+        long[][] results = new long[threads][];
+        for (int t = 0; t < threads; t++) {
+            int index = t;
+            futures[t] = executor.submit(() -> {
+                long[] ids = new long[perThread];
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    ids[i] = generator.nextId();
+                }
+                results[index] = ids;
+                return null;
+            });
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        long[] all = new long[threads * perThread];
+        for (int t = 0; t < threads; t++) {
+            for (int i = 1; i < perThread; i++) {
+                assertTrue(results[t][i] > results[t][i - 1], "线程内ID应单调递增");
+            }
+            System.arraycopy(results[t], 0, all, t * perThread, perThread);
+        }
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            assertNotEquals(all[i - 1], all[i], "ID重复: " + all[i]);
+        }
+    }
+
+    @Test
+    @DisplayName("同一毫秒序列号用尽时借用下一毫秒，不阻塞")
+    void testSequenceOverflowBorrowsNextMillisecond() {
+        // Given
+        long fixedTime = SnowflakeIdGenerator.EPOCH + 1000;
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, () -> fixedTime);
+
+        // When
+        long previous = 0;
+        for (int i = 0; i < 4096 * 3; i++) {
+            long id = generator.nextId();
+            // Then
+            assertTrue(id > previous);
+            previous = id;
+        }
+        assertEquals(3, (previous >>> SnowflakeIdGenerator.SEQUENCE_BITS) & SnowflakeIdGenerator.MAX_WORKER_ID);
+    }
+
+    @Test
+    @DisplayName("时钟回拨时仍保持单调递增")
+    void testClockRollback() {
+        // Given
+        AtomicLong clock = new AtomicLong(SnowflakeIdGenerator.EPOCH + 10_000);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(5, clock::get);
+        long before = generator.nextId();
+
+        // When
+        clock.addAndGet(-5_000);
+        long after = generator.nextId();
+
+        // Then
+        assertTrue(after > before);
+    }
+
+    @Test
+    @DisplayName("不同 workerId 生成的ID不同")
+    void testDifferentWorkers() {
+        long fixedTime = SnowflakeIdGenerator.EPOCH + 1000;
+        SnowflakeIdGenerator first = new SnowflakeIdGenerator(1, () -> fixedTime);
+        SnowflakeIdGenerator second = new SnowflakeIdGenerator(2, () -> fixedTime);
+
+        assertNotEquals(first.nextId(), second.nextId());
+    }
+
+    @Test
+    @DisplayName("workerId 超出范围时拒绝创建")
+    void testInvalidWorkerId() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(1024));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1));
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.ddd.infrastructure.id;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * WorkerIdAssigner 租约失效处理测试
+ *
+ * @author DDD Demo
+ */
+@DisplayName("workerId 租约测试")
+@ExtendWith(MockitoExtension.class)
+class WorkerIdAssignerTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private final IdGeneratorProperties properties = new IdGeneratorProperties();
+    private WorkerIdAssigner assigner;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.increment(anyString())).thenReturn(5L);
+        assigner = new WorkerIdAssigner(redisTemplate, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        assigner.release();
+    }
+
+    @Test
+    @DisplayName("租约超过有效期未续期时拒绝生成ID")
+    void testExpiredLeaseFailsFast() {
+        // Given
+        properties.setLeaseSeconds(0);
+        when(valueOperations.setIfAbsent(eq("id_generator:worker:5"), anyString(), anyLong(), any())).thenReturn(true);
+        LeasedIdGenerator generator = new LeasedIdGenerator(assigner);
+
+        // When & Then
+        assertThrows(IllegalStateException.class, generator::nextId);
+    }
+
+    @Test
+    @DisplayName("编号被其他节点占用后重新分配，新ID使用新的 workerId")
+    void testLostLeaseSwitchesWorkerId() {
+        // Given
+        when(valueOperations.setIfAbsent(eq("id_generator:worker:5"), anyString(), anyLong(), any()))
+                .thenReturn(true, false);
+        when(valueOperations.setIfAbsent(eq("id_generator:worker:6"), anyString(), anyLong(), any())).thenReturn(true);
+        lenient().when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any())).thenReturn(0L);
+        LeasedIdGenerator generator = new LeasedIdGenerator(assigner);
+        assertEquals(5, workerIdOf(generator.nextId()));
+
+        // When
+        assigner.renew();
+
+        // Then
+        assertEquals(6, assigner.currentWorkerId());
+        assertEquals(6, workerIdOf(generator.nextId()));
+    }
+
+    private static long workerIdOf(long id) {
+        return (id >>> SnowflakeIdGenerator.SEQUENCE_BITS) & SnowflakeIdGenerator.MAX_WORKER_ID;
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.ddd.infrastructure.log;
+
+import com.example.ddd.domain.model.entity.OrderStatusLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BatchingLogSink 攒批、背压与同步模式测试
+ *
+ * @author DDD Demo
+ */
+@DisplayName("异步批量日志写入测试")
+class BatchingLogSinkTest {
+
+    private final List<List<OrderStatusLog>> batches = new CopyOnWriteArrayList<>();
+    private final List<String> writerThreads = new CopyOnWriteArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private LogSinkProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new LogSinkProperties();
+    }
+
+    @Test
+    @DisplayName("攒满批量条数立即写入，停止时写完剩余日志")
+    void testFlushBySize() throws Exception {
+        // Given
+        properties.setBatchSize(10);
+        properties.setFlushIntervalMs(5000);
+        BatchingLogSink<OrderStatusLog> sink = newSink(false, this::record);
+        sink.start();
+
+        // When
+        for (int i = 0; i < 25; i++) {
+            sink.append(new OrderStatusLog());
+        }
+
+        // Then
+        awaitUntil(() -> batches.size() >= 2, 2000);
+        assertEquals(10, batches.get(0).size());
+        assertEquals(10, batches.get(1).size());
+
+        sink.shutdown();
+        assertEquals(3, batches.size());
+        assertEquals(5, batches.get(2).size());
+    }
+
+    @Test
+    @DisplayName("未攒满时到达刷新间隔也会写入，创建时间取追加时刻")
+    void testFlushByTime() throws Exception {
+        // Given
+        properties.setBatchSize(100);
+        properties.setFlushIntervalMs(100);
+        BatchingLogSink<OrderStatusLog> sink = newSink(false, this::record);
+        sink.start();
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            sink.append(new OrderStatusLog());
+        }
+
+        // Then
+        awaitUntil(() -> batches.size() == 1, 1000);
+        assertEquals(3, batches.get(0).size());
+        assertNotNull(batches.get(0).get(0).getCreateTime());
+        sink.shutdown();
+    }
+
+    @Test
+    @DisplayName("缓冲区满时记录背压，等待超时后由调用方同步写入")
+    void testOverflowWritesOnCallerThread() throws Exception {
+        // Given
+        properties.setCapacity(2);
+        properties.setBatchSize(1);
+        properties.setOfferTimeoutMs(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BatchingLogSink<OrderStatusLog> sink = newSink(false, batch -> {
+            if (Thread.currentThread().getName().startsWith("log-sink-")) {
+                awaitQuietly(release);
+            }
+            record(batch);
+        });
+        sink.start();
+        sink.append(new OrderStatusLog());
+        awaitUntil(() -> meterRegistry.get("log.sink.buffer.size").gauge().value() == 0, 1000);
+        sink.append(new OrderStatusLog());
+        sink.append(new OrderStatusLog());
+
+        // When
+        sink.append(new OrderStatusLog());
+
+        // Then
+        assertEquals(1.0, meterRegistry.counter("log.sink.backpressure", "sink", "test").count());
+        assertEquals(1.0, meterRegistry.counter("log.sink.overflow", "sink", "test").count());
+        assertEquals(List.of(Thread.currentThread().getName()), writerThreads);
+
+        release.countDown();
+        sink.shutdown();
+        assertEquals(4, batches.stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    @DisplayName("同步模式在调用线程直接写入")
+    void testSyncMode() {
+        // Given
+        BatchingLogSink<OrderStatusLog> sink = newSink(true, this::record);
+        sink.start();
+
+        // When
+        sink.append(new OrderStatusLog());
+
+        // Then
+        assertEquals(1, batches.size());
+        assertEquals(List.of(Thread.currentThread().getName()), writerThreads);
+        sink.shutdown();
+    }
+
+    @Test
+    @DisplayName("批量写入短暂失败时退避重试，日志不丢")
+    void testTransientFailureRetried() {
+        // Given: 前两次写入失败
+        properties.setRetryDelayMs(1);
+        AtomicInteger attempts = new AtomicInteger();
+        BatchingLogSink<OrderStatusLog> sink = newSink(false, batch -> {
+            if (attempts.incrementAndGet() <= 2) {
+                throw new IllegalStateException("数据库连接中断");
+            }
+            record(batch);
+        });
+        sink.start();
+        sink.append(new OrderStatusLog());
+
+        // When
+        sink.shutdown();
+
+        // Then
+        assertEquals(3, attempts.get());
+        assertEquals(1, batches.size());
+        assertEquals(0.0, meterRegistry.counter("log.sink.failed", "sink", "test").count());
+    }
+
+    @Test
+    @DisplayName("重试后仍失败时逐条写入，只丢弃写不进去的那一条")
+    void testBadRowDroppedAlone() {
+        // Given: 含有坏数据的多行插入总是失败
+        properties.setBatchSize(10);
+        properties.setFlushIntervalMs(5000);
+        properties.setRetryDelayMs(1);
+        OrderStatusLog bad = new OrderStatusLog();
+        bad.setRemark("坏数据");
+        BatchingLogSink<OrderStatusLog> sink = newSink(false, batch -> {
+            if (batch.stream().anyMatch(entry -> "坏数据".equals(entry.getRemark()))) {
+                throw new IllegalArgumentException("数据过长");
+            }
+            record(batch);
+        });
+        sink.start();
+        sink.append(new OrderStatusLog());
+        sink.append(bad);
+        sink.append(new OrderStatusLog());
+
+        // When
+        sink.shutdown();
+
+        // Then
+        assertEquals(2, batches.stream().mapToInt(List::size).sum());
+        assertEquals(1.0, meterRegistry.counter("log.sink.failed", "sink", "test").count());
+    }
+
+    private BatchingLogSink<OrderStatusLog> newSink(boolean sync,
+                                                    Consumer<List<OrderStatusLog>> writer) {
+        return new BatchingLogSink<>("test", writer, properties, sync, meterRegistry);
+    }
+
+    private void record(List<OrderStatusLog> batch) {
+        writerThreads.add(Thread.currentThread().getName());
+        batches.add(new ArrayList<>(batch));
+    }
+
+    private static void awaitUntil(BooleanSupplier condition, long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "等待超时");
+            Thread.sleep(10);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.ddd.infrastructure.persistence.repository;
+
+import com.example.ddd.domain.model.entity.Category;
+import com.example.ddd.infrastructure.cache.TwoLevelCacheManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * CachingCategoryRepository 单元测试
+ *
+ * @author DDD Demo
+ */
+@DisplayName("分类快照仓储测试")
+class CachingCategoryRepositoryTest {
+
+    private CategoryRepositoryImpl delegate;
+    private CachingCategoryRepository repository;
+    private Consumer<Long> invalidationListener;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        delegate = mock(CategoryRepositoryImpl.class);
+        TwoLevelCacheManager cacheManager = mock(TwoLevelCacheManager.class);
+        repository = new CachingCategoryRepository(delegate, cacheManager);
+        ArgumentCaptor<Consumer<Long>> listener = ArgumentCaptor.forClass(Consumer.class);
+        verify(cacheManager).addInvalidationListener(eq(CachingCategoryRepository.CACHE_NAME), listener.capture());
+        invalidationListener = listener.getValue();
+    }
+
+    @Test
+    @DisplayName("快照构建后复用，不重复查询")
+    void testSnapshotReused() {
+        // Given
+        when(delegate.findAll()).thenReturn(List.of(category(1L, 0L), category(2L, 1L)));
+
+        // When
+        repository.findSubtreeIds(1L);
+        List<Long> ids = repository.findSubtreeIds(2L);
+
+        // Then
+        assertEquals(List.of(2L), ids);
+        verify(delegate, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("构建期间收到失效通知时，构建结果不发布，下次读取重新构建")
+    void testInvalidationDuringBuildNotPublished() {
+        // Given: 第一次读取分类时其他节点修改了分类
+        when(delegate.findAll())
+                .thenAnswer(invocation -> {
+                    invalidationListener.accept(0L);
+                    return List.of(category(1L, 0L));
+                })
+                .thenReturn(List.of(category(1L, 0L), category(2L, 1L)));
+
+        // When
+        List<Long> first = repository.findSubtreeIds(1L);
+        List<Long> second = repository.findSubtreeIds(1L);
+
+        // Then
+        assertEquals(List.of(1L), first);
+        assertEquals(2, second.size());
+        verify(delegate, times(2)).findAll();
+    }
+
+    private Category category(Long id, Long parentId) {
+        Category category = new Category();
+        category.setId(id);
+        category.setParentId(parentId);
+        category.setCategoryName("分类" + id);
+        return category;
+    }
+}
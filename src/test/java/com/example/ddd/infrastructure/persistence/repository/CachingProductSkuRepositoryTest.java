@@ -0,0 +1,94 @@
+package com.example.ddd.infrastructure.persistence.repository;
+
+import com.example.ddd.domain.model.entity.Product;
+import com.example.ddd.domain.model.entity.ProductSku;
+import com.example.ddd.infrastructure.cache.TwoLevelCache;
+import com.example.ddd.infrastructure.cache.TwoLevelCacheManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * CachingProductSkuRepository 单元测试
+ *
+ * @author DDD Demo
+ */
+@DisplayName("SKU缓存仓储测试")
+class CachingProductSkuRepositoryTest {
+
+    private ProductSkuRepositoryImpl delegate;
+    private TwoLevelCache<ProductSku> skuCache;
+    private TwoLevelCache<Product> productCache;
+    private CachingProductSkuRepository repository;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        delegate = mock(ProductSkuRepositoryImpl.class);
+        skuCache = mock(TwoLevelCache.class);
+        productCache = mock(TwoLevelCache.class);
+        TwoLevelCacheManager cacheManager = mock(TwoLevelCacheManager.class);
+        when(cacheManager.getCache(CachingProductSkuRepository.CACHE_NAME, ProductSku.class)).thenReturn(skuCache);
+        when(cacheManager.getCache(CachingProductRepository.CACHE_NAME, Product.class)).thenReturn(productCache);
+        repository = new CachingProductSkuRepository(delegate, cacheManager);
+    }
+
+    @Test
+    @DisplayName("批量扣减复用已读取的SKU所属商品，不再回源查询")
+    void testDeductStockBatchReusesKnownProducts() {
+        // Given: 下单前已经批量读取过SKU
+        when(delegate.findByIds(anyCollection())).thenReturn(List.of(sku(1L, 10L), sku(2L, 20L)));
+        when(delegate.deductStockBatch(anyMap())).thenReturn(true);
+        repository.findByIds(List.of(1L, 2L));
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        quantities.put(1L, 1);
+        quantities.put(2L, 2);
+
+        // When
+        boolean deducted = repository.deductStockBatch(quantities);
+
+        // Then
+        assertTrue(deducted);
+        verify(delegate, times(1)).findByIds(anyCollection());
+        verify(skuCache).evictAfterCommit(1L);
+        verify(skuCache).evictAfterCommit(2L);
+        verify(productCache).evictAfterCommit(10L);
+        verify(productCache).evictAfterCommit(20L);
+    }
+
+    @Test
+    @DisplayName("批量扣减只为未读取过的SKU回源查询所属商品")
+    void testDeductStockBatchLoadsOnlyUnknownSkus() {
+        // Given: 只读取过SKU 1
+        when(delegate.findByIds(List.of(1L))).thenReturn(List.of(sku(1L, 10L)));
+        when(delegate.findByIds(List.of(2L))).thenReturn(List.of(sku(2L, 20L)));
+        when(delegate.deductStockBatch(anyMap())).thenReturn(true);
+        repository.findByIds(List.of(1L));
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        quantities.put(1L, 1);
+        quantities.put(2L, 2);
+
+        // When
+        repository.deductStockBatch(quantities);
+
+        // Then
+        verify(delegate).findByIds(List.of(2L));
+        verify(productCache).evictAfterCommit(10L);
+        verify(productCache).evictAfterCommit(20L);
+    }
+
+    private ProductSku sku(Long id, Long productId) {
+        ProductSku sku = new ProductSku();
+        sku.setId(id);
+        sku.setProductId(productId);
+        return sku;
+    }
+}
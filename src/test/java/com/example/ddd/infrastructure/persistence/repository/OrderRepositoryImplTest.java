@@ -0,0 +1,142 @@
+package com.example.ddd.infrastructure.persistence.repository;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.AbstractWrapper;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.example.ddd.domain.model.entity.Order;
+import com.example.ddd.domain.model.valueobject.OrderEvent;
+import com.example.ddd.domain.model.valueobject.OrderStatus;
+import com.example.ddd.infrastructure.persistence.mapper.OrderMapper;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+/**
+ * OrderRepositoryImpl 订单分页查询条件测试
+ * 校验生成的条件与 V1.0.6 索引列顺序一致：等值列 (user_id|shop_id, status) 在前，按 create_time 倒序，
+ * 这样 MySQL 可以沿索引顺序读取，不需要全表扫描和 filesort；
+ * 以及状态转换的条件更新语句（领域服务并发测试模拟的正是这条语句的比较并交换语义）
+ *
+ * @author DDD Demo
+ */
+@DisplayName("订单状态筛选分页测试")
+@ExtendWith(MockitoExtension.class)
+class OrderRepositoryImplTest {
+
+    @Mock
+    private OrderMapper orderMapper;
+
+    @InjectMocks
+    private OrderRepositoryImpl orderRepository;
+
+    @BeforeAll
+    static void initTableInfo() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), Order.class);
+    }
+
+    @Test
+    @DisplayName("用户订单按状态筛选时条件为 user_id、status 等值并按创建时间倒序")
+    void testPageByUserIdWithStatus() {
+        // When
+        orderRepository.pageByUserId(new Page<>(1, 10), 1L, OrderStatus.PAID);
+
+        // Then
+        String sql = capturedSqlSegment();
+        assertEquals("(user_id = ? AND status = ?) ORDER BY create_time DESC", sql);
+    }
+
+    @Test
+    @DisplayName("店铺订单按状态筛选时条件为 shop_id、status 等值并按创建时间倒序")
+    void testPageByShopIdWithStatus() {
+        // When
+        orderRepository.pageByShopId(new Page<>(1, 10), 1L, OrderStatus.PENDING);
+
+        // Then
+        String sql = capturedSqlSegment();
+        assertEquals("(shop_id = ? AND status = ?) ORDER BY create_time DESC", sql);
+    }
+
+    @Test
+    @DisplayName("不传状态时不追加状态条件")
+    void testPageByUserIdWithoutStatus() {
+        // When
+        orderRepository.pageByUserId(new Page<>(1, 10), 1L, null);
+
+        // Then
+        String sql = capturedSqlSegment();
+        assertEquals("(user_id = ?) ORDER BY create_time DESC", sql);
+    }
+
+    @Test
+    @DisplayName("更新订单时在 SQL 中递增修订号，作为读模型版本")
+    @SuppressWarnings("unchecked")
+    void testUpdateIncrementsRevision() {
+        // Given
+        Order order = new Order();
+        order.setId(1L);
+        order.setRemark("尽快发货");
+
+        // When
+        orderRepository.update(order);
+
+        // Then
+        ArgumentCaptor<Wrapper<Order>> captor = ArgumentCaptor.forClass(Wrapper.class);
+        verify(orderMapper).update(eq(order), captor.capture());
+        assertEquals("revision = revision + 1", captor.getValue().getSqlSet());
+    }
+
+    @Test
+    @DisplayName("状态转换为条件更新：按 ID 和事件的源状态集合匹配，SET 目标状态、事件时间并递增修订号")
+    @SuppressWarnings("unchecked")
+    void testTransitionStatusGuardsSourceStates() {
+        // Given
+        LocalDateTime time = LocalDateTime.of(2026, 1, 1, 12, 0);
+        Set<OrderStatus> sources = OrderStatus.sourceStatesOf(OrderEvent.CANCEL);
+
+        // When
+        orderRepository.transitionStatus(1L, OrderEvent.CANCEL, time);
+
+        // Then: UPDATE t_order SET status = ?, cancel_time = ?, revision = revision + 1 WHERE id = ? AND status IN (...)
+        ArgumentCaptor<Order> changes = ArgumentCaptor.forClass(Order.class);
+        ArgumentCaptor<Wrapper<Order>> captor = ArgumentCaptor.forClass(Wrapper.class);
+        verify(orderMapper).update(changes.capture(), captor.capture());
+        assertEquals(OrderStatus.CANCELLED, changes.getValue().getStatus());
+        assertEquals(time, changes.getValue().getCancelTime());
+        assertNull(changes.getValue().getPayTime());
+
+        AbstractWrapper<Order, ?, ?> wrapper = (AbstractWrapper<Order, ?, ?>) captor.getValue();
+        String sql = wrapper.getSqlSegment().replaceAll("#\\{[^}]+}", "?").trim();
+        assertEquals("(id = ? AND status IN (" + String.join(",", Collections.nCopies(sources.size(), "?")) + "))", sql);
+        Collection<Object> params = wrapper.getParamNameValuePairs().values();
+        assertTrue(params.contains(1L));
+        assertTrue(params.containsAll(sources));
+        assertEquals(sources.size() + 1, params.size());
+        assertEquals("revision = revision + 1", wrapper.getSqlSet());
+    }
+
+    @SuppressWarnings("unchecked")
+    private String capturedSqlSegment() {
+        ArgumentCaptor<Wrapper<Order>> captor = ArgumentCaptor.forClass(Wrapper.class);
+        verify(orderMapper).selectPage(any(), captor.capture());
+        // 参数占位符替换为 ?，便于比较条件结构
+        return captor.getValue().getSqlSegment().replaceAll("#\\{[^}]+}", "?").trim();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.ddd.infrastructure.persistence.repository;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.AbstractWrapper;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.example.ddd.domain.model.entity.Payment;
+import com.example.ddd.domain.model.valueobject.PaymentEvent;
+import com.example.ddd.domain.model.valueobject.PaymentStatus;
+import com.example.ddd.infrastructure.persistence.mapper.PaymentMapper;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+
+/**
+ * PaymentRepositoryImpl 状态转换条件更新测试
+ * 校验生成的语句为 UPDATE ... WHERE status IN (源状态) AND ...，领域服务并发测试模拟的正是这条语句的比较并交换语义
+ *
+ * @author DDD Demo
+ */
+@DisplayName("支付状态转换条件更新测试")
+@ExtendWith(MockitoExtension.class)
+class PaymentRepositoryImplTest {
+
+    @Mock
+    private PaymentMapper paymentMapper;
+
+    @InjectMocks
+    private PaymentRepositoryImpl paymentRepository;
+
+    @BeforeAll
+    static void initTableInfo() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), Payment.class);
+    }
+
+    @Test
+    @DisplayName("按支付单号转换状态时条件为源状态集合和支付单号，SET 目标状态")
+    void testTransitionStatusGuardsSourceStates() {
+        // When
+        paymentRepository.transitionStatus("PAY1", PaymentEvent.PAY_FAILED);
+
+        // Then
+        AbstractWrapper<Payment, ?, ?> wrapper = capturedUpdate(PaymentStatus.targetOf(PaymentEvent.PAY_FAILED));
+        Set<PaymentStatus> sources = PaymentStatus.sourceStatesOf(PaymentEvent.PAY_FAILED);
+        assertEquals("(status IN (" + placeholders(sources.size()) + ") AND payment_no = ?)", sql(wrapper));
+        Collection<Object> params = wrapper.getParamNameValuePairs().values();
+        assertTrue(params.contains("PAY1"));
+        assertTrue(params.containsAll(sources));
+        assertEquals(sources.size() + 1, params.size());
+    }
+
+    @Test
+    @DisplayName("按订单转换状态时条件为源状态集合和订单ID")
+    void testTransitionStatusByOrderIdGuardsSourceStates() {
+        // When
+        paymentRepository.transitionStatusByOrderId(1L, PaymentEvent.REFUND_SUCCESS);
+
+        // Then
+        AbstractWrapper<Payment, ?, ?> wrapper = capturedUpdate(PaymentStatus.targetOf(PaymentEvent.REFUND_SUCCESS));
+        Set<PaymentStatus> sources = PaymentStatus.sourceStatesOf(PaymentEvent.REFUND_SUCCESS);
+        assertEquals("(status IN (" + placeholders(sources.size()) + ") AND order_id = ?)", sql(wrapper));
+        assertTrue(wrapper.getParamNameValuePairs().values().containsAll(sources));
+    }
+
+    @SuppressWarnings("unchecked")
+    private AbstractWrapper<Payment, ?, ?> capturedUpdate(PaymentStatus target) {
+        ArgumentCaptor<Payment> changes = ArgumentCaptor.forClass(Payment.class);
+        ArgumentCaptor<Wrapper<Payment>> captor = ArgumentCaptor.forClass(Wrapper.class);
+        verify(paymentMapper).update(changes.capture(), captor.capture());
+        assertEquals(target, changes.getValue().getStatus());
+        return (AbstractWrapper<Payment, ?, ?>) captor.getValue();
+    }
+
+    private static String sql(AbstractWrapper<Payment, ?, ?> wrapper) {
+        // 参数占位符替换为 ?，便于比较条件结构
+        return wrapper.getSqlSegment().replaceAll("#\\{[^}]+}", "?").trim();
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.ddd.infrastructure.persistence.repository;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.example.ddd.domain.model.entity.ProductSku;
+import com.example.ddd.domain.model.valueobject.StockDecrementStrategy;
+import com.example.ddd.infrastructure.persistence.mapper.ProductMapper;
+import com.example.ddd.infrastructure.persistence.mapper.ProductSkuMapper;
+import com.example.ddd.infrastructure.stock.StockContentionMetrics;
+import com.example.ddd.infrastructure.stock.StockDecrementProperties;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ProductSkuRepositoryImpl CAS 扣减测试
+ *
+ * @author DDD Demo
+ */
+@DisplayName("SKU CAS 扣减测试")
+@ExtendWith(MockitoExtension.class)
+class ProductSkuRepositoryImplTest {
+
+    @Mock
+    private ProductSkuMapper productSkuMapper;
+
+    @Mock
+    private ProductMapper productMapper;
+
+    @Mock
+    private StockContentionMetrics stockContentionMetrics;
+
+    private ProductSkuRepositoryImpl productSkuRepository;
+
+    @BeforeAll
+    static void initTableInfo() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), ProductSku.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        StockDecrementProperties properties = new StockDecrementProperties();
+        properties.setStrategy(StockDecrementStrategy.CAS);
+        productSkuRepository = new ProductSkuRepositoryImpl(productSkuMapper, productMapper, properties,
+                stockContentionMetrics);
+    }
+
+    @Test
+    @DisplayName("CAS 冲突后用加锁读取最新库存再重试")
+    @SuppressWarnings("unchecked")
+    void testRetryUsesLockingRead() {
+        // Given: 快照读到 10，期间被并发扣减为 8
+        when(productSkuMapper.selectById(1L)).thenReturn(sku(10));
+        when(productSkuMapper.selectOne(any())).thenReturn(sku(8));
+        when(productSkuMapper.update(isNull(), any())).thenReturn(0, 1);
+
+        // When
+        boolean deducted = productSkuRepository.deductStock(1L, 2);
+
+        // Then
+        assertTrue(deducted);
+        ArgumentCaptor<Wrapper<ProductSku>> captor = ArgumentCaptor.forClass(Wrapper.class);
+        verify(productSkuMapper).selectOne(captor.capture());
+        String sql = captor.getValue().getSqlSegment().replaceAll("#\\{[^}]+}", "?");
+        assertEquals("(id = ?) FOR UPDATE", sql);
+        verify(productSkuMapper, times(1)).selectById(1L);
+        verify(stockContentionMetrics).conflict(1L);
+        verify(stockContentionMetrics, never()).fallback(anyLong());
+        verify(productMapper).addTotalStockBySkuId(1L, -2);
+    }
+
+    private ProductSku sku(int stock) {
+        ProductSku sku = new ProductSku();
+        sku.setId(1L);
+        sku.setStockValue(stock);
+        return sku;
+    }
+}
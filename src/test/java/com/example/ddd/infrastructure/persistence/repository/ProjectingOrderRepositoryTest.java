@@ -0,0 +1,105 @@
+package com.example.ddd.infrastructure.persistence.repository;
+
+import com.example.ddd.domain.model.valueobject.OrderEvent;
+import com.example.ddd.domain.repository.OrderViewRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * ProjectingOrderRepository 读模型投影时机测试
+ *
+ * @author DDD Demo
+ */
+@DisplayName("订单读模型投影测试")
+@ExtendWith(MockitoExtension.class)
+class ProjectingOrderRepositoryTest {
+
+    @Mock
+    private OrderRepositoryImpl delegate;
+
+    @Mock
+    private OrderViewRepository orderViewRepository;
+
+    @InjectMocks
+    private ProjectingOrderRepository projectingOrderRepository;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("事务提交后刷新一次，同一事务内多次写入不重复刷新")
+    void testRefreshOnceAfterCommit() {
+        // Given
+        when(delegate.transitionStatus(eq(1L), any(), any())).thenReturn(1);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        projectingOrderRepository.transitionStatus(1L, OrderEvent.PAY, LocalDateTime.now());
+        projectingOrderRepository.transitionStatus(1L, OrderEvent.SHIP, LocalDateTime.now());
+        verifyNoInteractions(orderViewRepository);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        // Then
+        verify(orderViewRepository, times(1)).refresh(eq(1L), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("事务回滚时不刷新读模型")
+    void testNoRefreshOnRollback() {
+        // Given
+        when(delegate.transitionStatus(eq(1L), any(), any())).thenReturn(1);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        projectingOrderRepository.transitionStatus(1L, OrderEvent.PAY, LocalDateTime.now());
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Then
+        verifyNoInteractions(orderViewRepository);
+    }
+
+    @Test
+    @DisplayName("条件更新未命中时不刷新读模型")
+    void testNoRefreshWhenNotUpdated() {
+        // Given
+        when(delegate.transitionStatus(eq(1L), any(), any())).thenReturn(0);
+
+        // When
+        projectingOrderRepository.transitionStatus(1L, OrderEvent.PAY, LocalDateTime.now());
+
+        // Then
+        verifyNoInteractions(orderViewRepository);
+    }
+
+    /**
+     * 模拟事务结束时的回调顺序
+     */
+    private void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        for (TransactionSynchronization synchronization : synchronizations) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(status);
+        }
+    }
+}
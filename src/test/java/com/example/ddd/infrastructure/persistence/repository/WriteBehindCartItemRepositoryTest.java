@@ -0,0 +1,131 @@
+package com.example.ddd.infrastructure.persistence.repository;
+
+import com.example.ddd.domain.model.entity.CartItem;
+import com.example.ddd.domain.model.valueobject.Money;
+import com.example.ddd.domain.service.IdGenerator;
+import com.example.ddd.infrastructure.config.CartStoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * WriteBehindCartItemRepository 合并回写测试
+ *
+ * @author DDD Demo
+ */
+@DisplayName("购物车合并回写测试")
+@ExtendWith(MockitoExtension.class)
+class WriteBehindCartItemRepositoryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Mock
+    private CartItemRepositoryImpl delegate;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    @Mock
+    private SetOperations<String, String> setOperations;
+
+    @Mock
+    private IdGenerator idGenerator;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private WriteBehindCartItemRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        repository = new WriteBehindCartItemRepository(delegate, redisTemplate, idGenerator, objectMapper,
+                new CartStoreProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("以 Redis 为准回写：删除已移除的明细，只写入新增和变化的明细")
+    void testFlushAppliesDiff() throws Exception {
+        // Given
+        when(setOperations.pop(eq("cart:dirty"), anyLong())).thenReturn(List.of("1"));
+        when(delegate.findByCartId(1L)).thenReturn(List.of(
+                item(11L, 101L, 1), item(12L, 102L, 1), item(13L, 103L, 2)));
+        Map<Object, Object> fields = new LinkedHashMap<>();
+        fields.put("loaded", "1");
+        fields.put("101", entry(11L, 3));
+        fields.put("103", entry(13L, 2));
+        fields.put("104", entry(14L, 1));
+        when(hashOperations.entries("cart:items:1")).thenReturn(fields);
+
+        // When
+        int flushed = repository.flushDirty();
+
+        // Then
+        assertEquals(1, flushed);
+        verify(delegate).physicalDeleteByIds(List.of(12L));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<CartItem>> captor = ArgumentCaptor.forClass(List.class);
+        verify(delegate).upsertBatch(captor.capture());
+        List<CartItem> upserted = captor.getValue();
+        assertEquals(2, upserted.size());
+        CartItem changed = upserted.stream().filter(i -> i.getId() == 11L).findFirst().orElseThrow();
+        assertEquals(3, changed.getQuantity());
+        assertEquals(1L, changed.getCartId());
+        assertEquals(101L, changed.getSkuId());
+        assertTrue(upserted.stream().anyMatch(i -> i.getId() == 14L));
+    }
+
+    @Test
+    @DisplayName("回写失败时购物车放回待回写集合")
+    void testFlushFailureRequeues() throws Exception {
+        // Given
+        when(setOperations.pop(eq("cart:dirty"), anyLong())).thenReturn(List.of("1"));
+        when(delegate.findByCartId(1L)).thenReturn(List.of());
+        when(hashOperations.entries("cart:items:1")).thenReturn(Map.of("101", entry(11L, 1)));
+        doThrow(new RuntimeException("数据库不可用")).when(delegate).upsertBatch(anyList());
+
+        // When
+        int flushed = repository.flushDirty();
+
+        // Then
+        assertEquals(0, flushed);
+        verify(setOperations).add("cart:dirty", "1");
+    }
+
+    private CartItem item(Long id, Long skuId, int quantity) {
+        CartItem item = new CartItem();
+        item.setId(id);
+        item.setCartId(1L);
+        item.setSkuId(skuId);
+        item.setQuantity(quantity);
+        item.setPriceSnapshot(Money.of("10.00"));
+        return item;
+    }
+
+    private String entry(Long id, int quantity) throws Exception {
+        return objectMapper.writeValueAsString(new WriteBehindCartItemRepository.CartEntry(
+                id, quantity, new BigDecimal("10.00"), NOW, NOW));
+    }
+}
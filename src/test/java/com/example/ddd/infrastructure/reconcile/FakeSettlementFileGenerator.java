@@ -0,0 +1,125 @@
+package com.example.ddd.infrastructure.reconcile;
+
+import com.example.ddd.domain.model.entity.Payment;
+import com.example.ddd.domain.model.valueobject.Money;
+import com.example.ddd.domain.model.valueobject.PaymentStatus;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 模拟渠道对账文件生成器
+ * 本地有 count 笔支付成功记录，对账文件按固定规则制造差异，每 1000 笔中：
+ * 第 3 笔金额多 1 分，第 5 笔渠道状态为已退款，第 7 笔渠道无记录，第 9 笔之后多一条本地没有的记录
+ *
+ * @author DDD Demo
+ */
+class FakeSettlementFileGenerator {
+
+    private static final long BASE = 10_000_000_000L;
+
+    private final int count;
+
+    FakeSettlementFileGenerator(int count) {
+        this.count = count;
+    }
+
+    static boolean amountDiffers(int i) {
+        return i % 1000 == 3;
+    }
+
+    static boolean statusDiffers(int i) {
+        return i % 1000 == 5;
+    }
+
+    static boolean providerMissing(int i) {
+        return i % 1000 == 7;
+    }
+
+    static boolean localMissingAfter(int i) {
+        return i % 1000 == 9;
+    }
+
+    /**
+     * 每种差异的数量
+     */
+    long expectedPerType() {
+        return count / 1000;
+    }
+
+    /**
+     * 对账文件行数（不含表头）
+     */
+    long expectedLines() {
+        // 渠道缺少的记录与渠道多出的记录数量相同
+        return count;
+    }
+
+    static String paymentNo(int i) {
+        return "PAY" + (BASE + i);
+    }
+
+    static long amountCent(int i) {
+        return 100 + i % 10000;
+    }
+
+    /**
+     * 按支付单号生成本地支付记录，模拟 PaymentRepository.listPaidBetween
+     */
+    List<Payment> paymentsAfter(String afterPaymentNo, int limit) {
+        int from = afterPaymentNo == null ? 0 : (int) (Long.parseLong(afterPaymentNo.substring(3)) - BASE + 1);
+        int to = Math.min(count, from + limit);
+        List<Payment> payments = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            Payment payment = new Payment();
+            payment.setPaymentNo(paymentNo(i));
+            payment.setAmount(Money.ofCent(amountCent(i)));
+            payment.setStatus(PaymentStatus.SUCCESS);
+            payments.add(payment);
+        }
+        return payments;
+    }
+
+    /**
+     * 写出对账文件
+     */
+    void write(Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            writer.write("payment_no,transaction_id,amount,status\n");
+            for (int i = 0; i < count; i++) {
+                if (!providerMissing(i)) {
+                    long cent = amountCent(i) + (amountDiffers(i) ? 1 : 0);
+                    PaymentStatus status = statusDiffers(i) ? PaymentStatus.REFUNDED : PaymentStatus.SUCCESS;
+                    writeLine(writer, paymentNo(i), cent, status);
+                }
+                if (localMissingAfter(i)) {
+                    // 字典序位于 paymentNo(i) 与 paymentNo(i + 1) 之间
+                    writeLine(writer, paymentNo(i) + "X", amountCent(i), PaymentStatus.SUCCESS);
+                }
+            }
+        }
+    }
+
+    private static void writeLine(BufferedWriter writer, String paymentNo, long cent, PaymentStatus status)
+            throws IOException {
+        writer.write(paymentNo);
+        writer.write(",T");
+        writer.write(paymentNo);
+        writer.write(',');
+        writer.write(Long.toString(cent / 100));
+        writer.write('.');
+        long fraction = cent % 100;
+        if (fraction < 10) {
+            writer.write('0');
+        }
+        writer.write(Long.toString(fraction));
+        writer.write(',');
+        writer.write(status.name());
+        writer.write('\n');
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.ddd.infrastructure.reconcile;
+
+import com.example.ddd.domain.model.entity.Payment;
+import com.example.ddd.domain.model.entity.PaymentReconcileMismatch;
+import com.example.ddd.domain.model.entity.PaymentReconcileRun;
+import com.example.ddd.domain.model.valueobject.Money;
+import com.example.ddd.domain.model.valueobject.PaymentStatus;
+import com.example.ddd.domain.model.valueobject.ReconcileMismatchType;
+import com.example.ddd.domain.model.valueobject.ReconcileResult;
+import com.example.ddd.domain.model.valueobject.ReconcileRunStatus;
+import com.example.ddd.domain.repository.PaymentReconcileMismatchRepository;
+import com.example.ddd.domain.repository.PaymentReconcileRunRepository;
+import com.example.ddd.domain.repository.PaymentRepository;
+import com.example.ddd.domain.service.PaymentReconcileDomainService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 对账文件读取与归并对账测试
+ *
+ * @author DDD Demo
+ */
+@DisplayName("对账文件读取与归并对账测试")
+class MappedSettlementRecordReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("跳过表头和空行，兼容 CRLF、跨映射窗口的行和末行无换行")
+    void testParseAcrossWindows() throws Exception {
+        // Given
+        Path file = tempDir.resolve("settlement.csv");
+        Files.writeString(file, "payment_no,transaction_id,amount,status\r\n"
+                + "PAY1,T1,12,SUCCESS\r\n"
+                + "\r\n"
+                + "PAY2,T2,12.5,REFUNDED\n"
+                + "PAY3,T3,0.05,SUCCESS", StandardCharsets.US_ASCII);
+
+        // When: 窗口只有 48 字节，每行都需要重新映射
+        try (MappedSettlementRecordReader reader = new MappedSettlementRecordReader(file, 48)) {
+            // Then
+            assertTrue(reader.next());
+            assertEquals("PAY1", reader.paymentNo());
+            assertEquals(1200, reader.amountCent());
+            assertEquals(PaymentStatus.SUCCESS, reader.status());
+            assertEquals(0, reader.comparePaymentNo("PAY1"));
+            assertTrue(reader.comparePaymentNo("PAY10") < 0);
+
+            assertTrue(reader.next());
+            assertEquals(1250, reader.amountCent());
+            assertEquals(PaymentStatus.REFUNDED, reader.status());
+            assertEquals(4, reader.lineNumber());
+
+            assertTrue(reader.next());
+            assertEquals("PAY3", reader.paymentNo());
+            assertEquals(5, reader.amountCent());
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    @DisplayName("对账文件未按支付单号升序排列时报错")
+    void testUnsortedFileRejected() throws Exception {
+        // Given
+        Path file = tempDir.resolve("unsorted.csv");
+        Files.writeString(file, "PAY2,T2,1.00,SUCCESS\nPAY1,T1,1.00,SUCCESS\n", StandardCharsets.US_ASCII);
+
+        // When & Then
+        try (MappedSettlementRecordReader reader = new MappedSettlementRecordReader(file, 1024)) {
+            assertTrue(reader.next());
+            IllegalStateException e = assertThrows(IllegalStateException.class, reader::next);
+            assertTrue(e.getMessage().contains("第 2 行"));
+        }
+    }
+
+    @Test
+    @DisplayName("支付单号超过 t_payment.payment_no 长度时报错")
+    void testPaymentNoTooLong() throws Exception {
+        // Given
+        Path file = tempDir.resolve("long.csv");
+        Files.writeString(file, "P".repeat(50) + ",T1,1.00,SUCCESS\n" + "Q".repeat(51) + ",T2,1.00,SUCCESS\n",
+                StandardCharsets.US_ASCII);
+
+        // When & Then
+        try (MappedSettlementRecordReader reader = new MappedSettlementRecordReader(file, 1024)) {
+            assertTrue(reader.next());
+            IllegalStateException e = assertThrows(IllegalStateException.class, reader::next);
+            assertTrue(e.getMessage().contains("第 2 行"));
+        }
+    }
+
+    @Test
+    @DisplayName("50 万行对账文件与本地支付记录归并，差异按类型准确识别")
+    void testReconcileLargeFile() throws Exception {
+        // Given
+        int count = 500_000;
+        FakeSettlementFileGenerator generator = new FakeSettlementFileGenerator(count);
+        Path file = tempDir.resolve("settlement-large.csv");
+        generator.write(file);
+
+        PaymentRepository paymentRepository = mock(PaymentRepository.class);
+        when(paymentRepository.listPaidBetween(any(), any(), any(), anyInt()))
+                .thenAnswer(invocation -> generator.paymentsAfter(invocation.getArgument(2), invocation.getArgument(3)));
+        PaymentReconcileMismatchRepository mismatchRepository = mock(PaymentReconcileMismatchRepository.class);
+        Map<ReconcileMismatchType, Long> counts = new EnumMap<>(ReconcileMismatchType.class);
+        doAnswer(invocation -> {
+            List<PaymentReconcileMismatch> batch = invocation.getArgument(0);
+            batch.forEach(m -> counts.merge(m.getType(), 1L, Long::sum));
+            return null;
+        }).when(mismatchRepository).saveBatch(anyList());
+        PaymentReconcileRunRepository runRepository = mock(PaymentReconcileRunRepository.class);
+        PaymentReconcileRun[] run = new PaymentReconcileRun[1];
+        when(runRepository.save(any())).thenAnswer(invocation -> {
+            run[0] = invocation.getArgument(0);
+            run[0].setId(7L);
+            return run[0];
+        });
+        PaymentReconcileDomainService service = new PaymentReconcileDomainService(
+                paymentRepository, mismatchRepository, runRepository);
+
+        // When
+        ReconcileResult result;
+        try (MappedSettlementRecordReader reader = new MappedSettlementRecordReader(file, 1 << 20)) {
+            result = service.reconcile(LocalDate.of(2026, 1, 1), reader, 1000, 500);
+        }
+
+        // Then
+        long perType = generator.expectedPerType();
+        assertEquals(generator.expectedLines(), result.getLines());
+        assertEquals(count, result.getPayments());
+        assertEquals(perType * 4, result.getMismatches());
+        for (ReconcileMismatchType type : ReconcileMismatchType.values()) {
+            assertEquals(perType, counts.getOrDefault(type, 0L), type.name());
+        }
+        assertEquals(ReconcileRunStatus.SUCCEEDED, run[0].getStatus());
+        assertEquals(perType * 4, run[0].getMismatchCount());
+        verify(mismatchRepository).deleteBySettleDateBeforeRun(LocalDate.of(2026, 1, 1), 7L);
+        verify(mismatchRepository, never()).deleteByRun(any(), any());
+        verify(paymentRepository, times(count / 1000 + 1)).listPaidBetween(any(), any(), any(), anyInt());
+        assertTrue(result.getLinesPerSecond() > 0);
+    }
+
+    static Stream<Arguments> mergeCases() {
+        return Stream.of(
+                Arguments.of("双方都为空", "", "", ""),
+                Arguments.of("对账文件为空", "", "PAY1:100:SUCCESS,PAY2:100:SUCCESS",
+                        "PAY1:PROVIDER_MISSING,PAY2:PROVIDER_MISSING"),
+                Arguments.of("本地为空", "PAY1:100:SUCCESS,PAY2:100:SUCCESS", "",
+                        "PAY1:LOCAL_MISSING,PAY2:LOCAL_MISSING"),
+                Arguments.of("末尾只有本地记录", "PAY1:100:SUCCESS",
+                        "PAY1:100:SUCCESS,PAY2:100:SUCCESS,PAY3:100:SUCCESS",
+                        "PAY2:PROVIDER_MISSING,PAY3:PROVIDER_MISSING"),
+                Arguments.of("末尾只有渠道记录", "PAY1:100:SUCCESS,PAY2:100:SUCCESS,PAY3:100:SUCCESS",
+                        "PAY1:100:SUCCESS", "PAY2:LOCAL_MISSING,PAY3:LOCAL_MISSING"),
+                Arguments.of("双方交错", "PAY1:100:SUCCESS,PAY3:100:SUCCESS",
+                        "PAY2:100:SUCCESS,PAY3:100:SUCCESS", "PAY1:LOCAL_MISSING,PAY2:PROVIDER_MISSING"),
+                Arguments.of("金额和状态都不一致", "PAY1:101:REFUNDED", "PAY1:100:SUCCESS",
+                        "PAY1:AMOUNT_MISMATCH,PAY1:STATUS_MISMATCH"));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("mergeCases")
+    @DisplayName("归并边界：差异按支付单号顺序准确识别")
+    void testMergeCases(String name, String fileRecords, String localRecords, String expected) throws Exception {
+        // Given: 记录格式为 支付单号:金额（分）:状态，本地每批 2 笔以覆盖跨批次
+        Path file = tempDir.resolve("settlement-case.csv");
+        StringBuilder content = new StringBuilder("payment_no,transaction_id,amount,status\n");
+        for (String record : split(fileRecords)) {
+            String[] fields = record.split(":");
+            content.append(fields[0]).append(",T,")
+                    .append(BigDecimal.valueOf(Long.parseLong(fields[1]), 2).toPlainString())
+                    .append(',').append(fields[2]).append('\n');
+        }
+        Files.writeString(file, content, StandardCharsets.US_ASCII);
+
+        List<Payment> locals = new ArrayList<>();
+        for (String record : split(localRecords)) {
+            String[] fields = record.split(":");
+            Payment payment = new Payment();
+            payment.setPaymentNo(fields[0]);
+            payment.setAmount(Money.ofCent(Long.parseLong(fields[1])));
+            payment.setStatus(PaymentStatus.valueOf(fields[2]));
+            locals.add(payment);
+        }
+        PaymentRepository paymentRepository = mock(PaymentRepository.class);
+        when(paymentRepository.listPaidBetween(any(), any(), any(), anyInt())).thenAnswer(invocation -> {
+            String after = invocation.getArgument(2);
+            int limit = invocation.getArgument(3);
+            return locals.stream()
+                    .filter(p -> after == null || p.getPaymentNo().compareTo(after) > 0)
+                    .limit(limit)
+                    .toList();
+        });
+        PaymentReconcileMismatchRepository mismatchRepository = mock(PaymentReconcileMismatchRepository.class);
+        List<String> mismatches = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<PaymentReconcileMismatch> batch = invocation.getArgument(0);
+            batch.forEach(m -> mismatches.add(m.getPaymentNo() + ":" + m.getType()));
+            return null;
+        }).when(mismatchRepository).saveBatch(anyList());
+        PaymentReconcileRunRepository runRepository = mock(PaymentReconcileRunRepository.class);
+        PaymentReconcileDomainService service = new PaymentReconcileDomainService(
+                paymentRepository, mismatchRepository, runRepository);
+
+        // When
+        ReconcileResult result;
+        try (MappedSettlementRecordReader reader = new MappedSettlementRecordReader(file, 1024)) {
+            result = service.reconcile(LocalDate.of(2026, 1, 1), reader, 2, 2);
+        }
+
+        // Then
+        assertEquals(split(expected), mismatches);
+        assertEquals(split(fileRecords).size(), result.getLines());
+        assertEquals(locals.size(), result.getPayments());
+    }
+
+    private static List<String> split(String records) {
+        return records.isEmpty() ? List.of() : List.of(records.split(","));
+    }
+}
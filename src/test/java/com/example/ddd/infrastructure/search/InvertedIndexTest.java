@@ -0,0 +1,77 @@
+package com.example.ddd.infrastructure.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 商品倒排索引与分词测试
+ *
+ * @author DDD Demo
+ */
+@DisplayName("商品倒排索引测试")
+class InvertedIndexTest {
+
+    @Test
+    @DisplayName("中文按二元组切分，英文数字按片段切分并转小写")
+    void testTokenizeForQuery() {
+        Set<String> tokens = ProductTokenizer.tokenizeForQuery("华为Mate60 手机壳");
+
+        assertEquals(Set.of("华为", "mate60", "手机", "机壳"), tokens);
+    }
+
+    @Test
+    @DisplayName("单个汉字查询使用单字")
+    void testSingleCharacterQuery() {
+        assertEquals(Set.of("鞋"), ProductTokenizer.tokenizeForQuery("鞋"));
+    }
+
+    @Test
+    @DisplayName("必须包含全部查询词元，名称命中排在描述命中之前")
+    void testSearchRanking() {
+        // Given
+        InvertedIndex index = new InvertedIndex();
+        index.put(1L, weigh("纯棉T恤", "夏季新款"));
+        index.put(2L, weigh("运动短裤", "纯棉面料"));
+        index.put(3L, weigh("真丝衬衫", "夏季新款"));
+
+        // When
+        List<Long> result = index.search(ProductTokenizer.tokenizeForQuery("纯棉"));
+
+        // Then
+        assertEquals(List.of(1L, 2L), result);
+        assertTrue(index.search(ProductTokenizer.tokenizeForQuery("纯棉衬衫")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("更新和删除文档后索引同步变化")
+    void testPutAndRemove() {
+        // Given
+        InvertedIndex index = new InvertedIndex();
+        index.put(1L, weigh("纯棉T恤", null));
+
+        // When
+        index.put(1L, weigh("真丝衬衫", null));
+
+        // Then
+        assertTrue(index.search(ProductTokenizer.tokenizeForQuery("纯棉")).isEmpty());
+        assertEquals(List.of(1L), index.search(ProductTokenizer.tokenizeForQuery("衬衫")));
+
+        index.remove(1L);
+        assertTrue(index.search(ProductTokenizer.tokenizeForQuery("衬衫")).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    private Map<String, Integer> weigh(String name, String desc) {
+        Map<String, Integer> weights = new HashMap<>();
+        ProductTokenizer.tokenizeForIndex(name).forEach(t -> weights.merge(t, 3, Integer::sum));
+        ProductTokenizer.tokenizeForIndex(desc).forEach(t -> weights.merge(t, 1, Integer::sum));
+        return weights;
+    }
+}